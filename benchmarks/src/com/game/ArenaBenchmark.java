@@ -0,0 +1,67 @@
+package com.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures collision checks per second in an {@link Arena} as the density of snakes grows. Every run fills
+ * an arena of the same size with more snakes, all moving every millisecond on a virtual clock, so every step
+ * checks every head; the density is reported as the share of the arena's cells covered by a segment.
+ *
+ * <p>Usage: {@code java com.game.ArenaBenchmark [steps per run]}</p>
+ */
+public class ArenaBenchmark {
+
+    private static final int[] SNAKE_COUNTS = {5_000, 10_000, 25_000, 50_000, 100_000};
+    //5000 pixels, 1000 segment steps per side
+    private static final int ARENA_SIZE = 5_000;
+    private static final int SNAKE_LENGTH = 5;
+
+    public static void main(String[] args) {
+        long steps = args.length > 0 ? Long.parseLong(args[0]) : 2_000;
+        System.out.printf("%10s %9s %16s %14s %12s%n", "snakes", "density", "checks/sec", "collisions %", "us/step");
+        for(int count : SNAKE_COUNTS){
+            run(count, steps / 2);
+            run(count, steps);
+        }
+    }
+
+    /**
+     * Runs the given number of snakes for the given number of steps and prints one result line,
+     * after the snakes have grown to their full length.
+     */
+    private static void run(int count, long steps) {
+        SimulationClock clock = SimulationClock.virtual(SimulationEngine.DEFAULT_STEP_MILLIS);
+        Arena arena = new Arena(new ConcreteSnakeFactory(), ARENA_SIZE, ARENA_SIZE, new SimulationEngine(clock));
+        Random random = new Random(count);
+        int positions = (ARENA_SIZE - arena.getLoopSize()) / Snake.SEGMENT_SIZE + 1;
+        List<SnakeSpec> specs = new ArrayList<>(count);
+        for(int i = 0; i < count; i++){
+            specs.add(new SnakeSpec(SNAKE_LENGTH, i % 2 == 0 ? "Clockwise" : "Anticlockwise", 1,
+                    random.nextInt(positions) * Snake.SEGMENT_SIZE, random.nextInt(positions) * Snake.SEGMENT_SIZE));
+        }
+        arena.addSnakes(specs);
+        long stepNanos = TimeUnit.MILLISECONDS.toNanos(SimulationEngine.DEFAULT_STEP_MILLIS);
+        //Snakes grow a segment every two seconds of simulation time
+        long warmup = TimeUnit.SECONDS.toMillis(2L * (SNAKE_LENGTH - 1));
+        long tick = 0;
+        for(; tick < warmup; tick++){
+            arena.step(tick * stepNanos);
+        }
+
+        long checks = arena.getCheckCount();
+        long collisions = arena.getCollisionCount();
+        long start = System.nanoTime();
+        for(long end = tick + steps; tick < end; tick++){
+            arena.step(tick * stepNanos);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        checks = arena.getCheckCount() - checks;
+        collisions = arena.getCollisionCount() - collisions;
+        double cells = (double) (ARENA_SIZE / Snake.SEGMENT_SIZE) * (ARENA_SIZE / Snake.SEGMENT_SIZE);
+        System.out.printf("%10d %8.2f%% %16.0f %13.2f%% %12.1f%n", count, 100.0 * count * SNAKE_LENGTH / cells,
+                checks / seconds, 100.0 * collisions / checks, seconds * 1e6 / steps);
+    }
+}
@@ -0,0 +1,35 @@
+package com.game;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmark suite with the GC profiler, so every result also reports the allocation rate
+ * ({@code gc.alloc.rate.norm} is the number of bytes allocated per operation).
+ * Results are written to {@code jmh-result.json} so runs from different releases can be compared.
+ *
+ * <p>Without arguments every benchmark runs. Any standard JMH command line option may be passed,
+ * for example a benchmark name pattern or {@code -p length=10}.</p>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(new CommandLineOptions(args));
+        if(args.length == 0){
+            builder.include("com\\.game\\..*Benchmark");
+        }
+        Options options = builder
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,58 @@
+package com.game;
+
+/**
+ * Helpers shared by the benchmarks to build snakes in a given state.
+ */
+final class BenchmarkSnakes {
+
+    private static final int SQUARE_SIZE = 50;
+    private static final int SPACING = 10;
+    //Growth interval of a snake, see Snake#grow()
+    private static final long GROWTH_INTERVAL_MILLIS = 2000;
+
+    private BenchmarkSnakes() {
+    }
+
+    /**
+     * Creates a snake and grows its body to the given number of segments.
+     * Growth is time based, so the snake is bound to a virtual clock advanced by a growth interval before each
+     * grow() call; afterwards it is left on that clock, which no longer moves, so it keeps its length.
+     *
+     * @param length The number of segments.
+     * @param direction The direction of the snake.
+     * @param x The x-coordinate of its square.
+     * @param y The y-coordinate of its square.
+     * @return The grown snake.
+     */
+    static Snake grown(int length, String direction, int x, int y) {
+        Snake snake = new ConcreteSnakeFactory().createSnake(length, direction, x, y, 1L);
+        SimulationClock clock = SimulationClock.virtual(GROWTH_INTERVAL_MILLIS);
+        snake.setClock(clock);
+        while(snake.getSegmentCount() < length){
+            clock.advanceTo(clock.toSimulationNanos(0));
+            snake.grow();
+        }
+        return snake;
+    }
+
+    /**
+     * Returns the x-coordinate of the square at the given index of a board with the given number of columns.
+     */
+    static int squareX(int index, int columns) {
+        return (index % columns) * (SQUARE_SIZE + SPACING) + SPACING;
+    }
+
+    /**
+     * Returns the y-coordinate of the square at the given index of a board with the given number of columns.
+     */
+    static int squareY(int index, int columns) {
+        return (index / columns) * (SQUARE_SIZE + SPACING) + SPACING;
+    }
+
+    /**
+     * Returns the size of a square in pixels.
+     */
+    static int squareSize() {
+        return SQUARE_SIZE;
+    }
+}
@@ -0,0 +1,67 @@
+package com.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares seeding a world with {@link World#addSnakes(List)} against creating the same snakes one at a time
+ * with {@link World#findAvailablePosition()} and {@link World#addSnake(int, String, int, int, long)}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkSnakeCreationBenchmark {
+
+    @Param({"10000", "100000"})
+    public int count;
+
+    private List<SnakeSpec> specs;
+    private World world;
+
+    @Setup(Level.Trial)
+    public void createSpecs() {
+        specs = new ArrayList<>(count);
+        for(int i = 0; i < count; i++){
+            specs.add(new SnakeSpec(5, i % 2 == 0 ? "Clockwise" : "Anticlockwise", 100));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createWorld() {
+        world = new World(new ConcreteSnakeFactory());
+        int side = (int) Math.ceil(Math.sqrt(count));
+        world.setBoardSize(side, side);
+    }
+
+    @Benchmark
+    public World batch() {
+        world.addSnakes(specs);
+        return world;
+    }
+
+    @Benchmark
+    public World oneByOne() {
+        for(SnakeSpec spec : specs){
+            int[] position = world.findAvailablePosition();
+            world.addSnake(spec.getLength(), spec.getDirection(), position[0], position[1], spec.getSpeed());
+        }
+        return world;
+    }
+}
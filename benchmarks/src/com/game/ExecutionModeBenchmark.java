@@ -0,0 +1,173 @@
+package com.game;
+
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link ExecutionMode}s with real-time scheduling at 1k, 10k and 100k snakes.
+ * For each mode it reports the jitter of the snakes' moves (how far the wall time between two moves of a snake
+ * is from its period), the heap retained per snake by the snake, its task and
+ * the running scheduler, and the number of context switches of the process during the measured run.
+ * The jitter is measured around every task rather than taken from the {@link SimulationMetrics}, whose drift
+ * is the lateness of the step for the fixed-step loop and the timing wheel, not of the move within the step.
+ * Modes not supported by the running JVM, such as virtual threads before Java 21, are skipped, so run it on
+ * Java 21 or later to compare all of them. Every mode first runs once untimed, so that class loading and
+ * compilation are neither measured as jitter nor counted as heap of the first measured run.
+ *
+ * <p>Usage: {@code java com.game.ExecutionModeBenchmark [seconds per run]}</p>
+ */
+public class ExecutionModeBenchmark {
+
+    private static final int[] SNAKE_COUNTS = {1_000, 10_000, 100_000};
+    private static final int SQUARE_SIZE = 50;
+    private static final int SPACING = 10;
+    private static final int SNAKE_LENGTH = 5;
+    private static final long SPEED = 50;
+
+    /**
+     * A snake task recording how far the wall time since its previous run is from its period.
+     * A task never runs concurrently with itself, so the time of the previous run is a plain field.
+     */
+    private static final class TimedTask implements Runnable {
+        private final Runnable task;
+        private final long periodNanos;
+        private final LatencyHistogram jitter;
+        //0 until the first run
+        private long previousNanos;
+
+        private TimedTask(Runnable task, long periodNanos, LatencyHistogram jitter) {
+            this.task = task;
+            this.periodNanos = periodNanos;
+            this.jitter = jitter;
+        }
+
+        @Override
+        public void run() {
+            long now = System.nanoTime();
+            if(previousNanos != 0){
+                jitter.record(Math.abs(now - previousNanos - periodNanos));
+            }
+            previousNanos = now;
+            task.run();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 5;
+        for(ExecutionMode mode : ExecutionMode.values()){
+            if(mode.isSupported()){
+                run(mode, SNAKE_COUNTS[0], TimeUnit.SECONDS.toNanos(1), false);
+            }
+        }
+        System.out.printf("%-26s %8s %12s %12s %12s %14s %14s%n",
+                "mode", "snakes", "jitter p50", "jitter p99", "jitter max", "bytes/snake", "ctx switches");
+        for(int count : SNAKE_COUNTS){
+            for(ExecutionMode mode : ExecutionMode.values()){
+                if(!mode.isSupported()){
+                    System.out.printf("%-26s %8d %s%n", mode, count, "not supported by this JVM");
+                    continue;
+                }
+                run(mode, count, TimeUnit.SECONDS.toNanos(seconds), true);
+            }
+        }
+    }
+
+    /**
+     * Runs the given number of snakes in the given mode for the given wall time, and prints one result line
+     * if asked to.
+     */
+    private static void run(ExecutionMode mode, int count, long durationNanos, boolean print) throws InterruptedException {
+        long heapBefore = collectedHeap();
+        TaskScheduler scheduler = mode.createScheduler();
+        LatencyHistogram jitter = new LatencyHistogram();
+        long periodNanos = TimeUnit.MILLISECONDS.toNanos(SPEED);
+        SnakeFactory factory = new ConcreteSnakeFactory();
+        int cols = (int) Math.ceil(Math.sqrt(count));
+        for(int i = 0; i < count; i++){
+            int x = (i % cols) * (SQUARE_SIZE + SPACING) + SPACING;
+            int y = (i / cols) * (SQUARE_SIZE + SPACING) + SPACING;
+            Snake snake = factory.createSnake(SNAKE_LENGTH, i % 2 == 0 ? "Clockwise" : "Anticlockwise", x, y, SPEED);
+            snake.setClock(scheduler.getClock());
+            Rectangle2D square = new Rectangle2D.Double(x, y, SQUARE_SIZE, SQUARE_SIZE);
+            scheduler.register(new TimedTask(new SnakeTask(snake, snake, square), periodNanos, jitter), SPEED);
+        }
+
+        scheduler.start();
+        //Let every task start before measuring
+        TimeUnit.MILLISECONDS.sleep(SPEED * 4);
+        long heapPerSnake = Math.max(0, collectedHeap() - heapBefore) / count;
+        jitter.reset();
+        long switchesBefore = contextSwitches();
+        TimeUnit.NANOSECONDS.sleep(durationNanos);
+        long switches = switchesBefore < 0 ? -1 : contextSwitches() - switchesBefore;
+        scheduler.stop();
+        //Let the threads of the scheduler exit, so the next run does not count their heap
+        TimeUnit.MILLISECONDS.sleep(SPEED * 4);
+        if(!print){
+            return;
+        }
+
+        System.out.printf("%-26s %8d %10.1fus %10.1fus %10.1fus %14d %14s%n", mode, count,
+                jitter.getPercentile(0.50) / 1e3, jitter.getPercentile(0.99) / 1e3,
+                jitter.getMax() / 1e3, heapPerSnake, switches < 0 ? "n/a" : Long.toString(switches));
+    }
+
+    /**
+     * Returns the used heap after collecting garbage until it stops shrinking, as a single
+     * {@link System#gc()} may leave the garbage of the previous run behind.
+     */
+    private static long collectedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for(int i = 0; i < 5; i++){
+            System.gc();
+            long now = memory.getHeapMemoryUsage().getUsed();
+            if(now >= used){
+                return now;
+            }
+            used = now;
+        }
+        return used;
+    }
+
+    /**
+     * Sums the voluntary and involuntary context switches of every thread of the process,
+     * as reported by /proc on Linux.
+     *
+     * @return The number of context switches, or -1 if /proc is not available.
+     */
+    private static long contextSwitches() {
+        Path tasks = Paths.get("/proc/self/task");
+        if(!Files.isDirectory(tasks)){
+            return -1;
+        }
+        long total = 0;
+        try(DirectoryStream<Path> threads = Files.newDirectoryStream(tasks)){
+            for(Path thread : threads){
+                List<String> lines;
+                try{
+                    lines = Files.readAllLines(thread.resolve("status"));
+                } catch (IOException ex){
+                    //The thread exited while listing
+                    continue;
+                }
+                for(String line : lines){
+                    if(line.startsWith("voluntary_ctxt_switches:") || line.startsWith("nonvoluntary_ctxt_switches:")){
+                        total += Long.parseLong(line.substring(line.indexOf(':') + 1).trim());
+                    }
+                }
+            }
+        } catch (IOException ex){
+            return -1;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,42 @@
+package com.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures filling an empty board square by square through {@link World#findAvailablePosition()},
+ * the headless code path behind {@code GamePanel.findAvailablePosition}.
+ * The score is the time to fill a board of {@code count} squares, so it shows whether filling stays linear.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FindAvailablePositionBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int count;
+
+    @Benchmark
+    public World fillBoard() {
+        World world = new World(new ConcreteSnakeFactory());
+        int side = (int) Math.ceil(Math.sqrt(count));
+        world.setBoardSize(side, side);
+        for(int i = 0; i < count; i++){
+            world.findAvailablePosition();
+        }
+        return world;
+    }
+}
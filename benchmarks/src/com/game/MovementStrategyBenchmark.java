@@ -0,0 +1,119 @@
+package com.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.geom.Rectangle2D;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the integer segment-step movement strategies with the previous double-based implementation,
+ * which compared pixel positions computed from the square's {@link Rectangle2D} accessors on every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MovementStrategyBenchmark {
+
+    @Param({"Clockwise", "Anticlockwise"})
+    public String direction;
+
+    private Snake snake;
+    private MovementStrategy strategy;
+    private DoubleMovement doubleMovement;
+    private Rectangle2D square;
+
+    @Setup
+    public void setUp() {
+        square = new Rectangle2D.Double(10, 10, 50, 50);
+        strategy = "Clockwise".equals(direction) ? ClockwiseMovementStrategy.INSTANCE : AnticlockwiseMovementStrategy.INSTANCE;
+        snake = new Snake(5, strategy, 10, 10, 1);
+        doubleMovement = new DoubleMovement("Clockwise".equals(direction), 10, 10, 5);
+    }
+
+    @Benchmark
+    public int integerSteps() {
+        strategy.updateDirection(snake, square);
+        return snake.getHeadX() + snake.getHeadY();
+    }
+
+    @Benchmark
+    public double doublePixels() {
+        doubleMovement.updateDirection(square);
+        return doubleMovement.x + doubleMovement.y;
+    }
+
+    /**
+     * The double-based movement model the strategies used before switching to integer segment steps,
+     * kept here as the baseline of the comparison.
+     */
+    private static final class DoubleMovement {
+        private final boolean clockwise;
+        private final double segmentSize;
+        private double x;
+        private double y;
+        private double xDirection;
+        private double yDirection;
+
+        private DoubleMovement(boolean clockwise, double x, double y, double segmentSize) {
+            this.clockwise = clockwise;
+            this.x = x;
+            this.y = y;
+            this.segmentSize = segmentSize;
+        }
+
+        private void updateDirection(Rectangle2D square) {
+            double newX = x + xDirection;
+            double newY = y + yDirection;
+            double squareX = square.getX();
+            double squareY = square.getY();
+            double squareSize = square.getWidth();
+            double right = squareX + squareSize - segmentSize;
+            double bottom = squareY + squareSize - segmentSize;
+
+            if(clockwise){
+                if(newX == right && newY == squareY){
+                    xDirection = 0;
+                    yDirection = segmentSize;
+                } else if(newX == right && newY == bottom){
+                    xDirection = -segmentSize;
+                    yDirection = 0;
+                } else if(newX == squareX && newY == bottom){
+                    xDirection = 0;
+                    yDirection = -segmentSize;
+                } else if(newX == squareX && newY == squareY){
+                    xDirection = segmentSize;
+                    yDirection = 0;
+                }
+            } else {
+                if(newX == squareX && newY == squareY){
+                    xDirection = 0;
+                    yDirection = segmentSize;
+                } else if(newX == squareX && newY == bottom){
+                    xDirection = segmentSize;
+                    yDirection = 0;
+                } else if(newX == right && newY == bottom){
+                    xDirection = 0;
+                    yDirection = -segmentSize;
+                } else if(newX == right && newY == squareY){
+                    xDirection = -segmentSize;
+                    yDirection = 0;
+                }
+            }
+            x = newX;
+            y = newY;
+        }
+    }
+}
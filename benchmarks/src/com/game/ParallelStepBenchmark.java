@@ -0,0 +1,71 @@
+package com.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the parallel step of the {@link SimulationEngine} scales from one thread to every core.
+ * Each run drives a world with a virtual clock, one step per iteration, and reports the speedup over
+ * the single-threaded step for the same population.
+ *
+ * <p>Usage: {@code java com.game.ParallelStepBenchmark [seconds per run]}</p>
+ */
+public class ParallelStepBenchmark {
+
+    private static final int[] SNAKE_COUNTS = {10_000, 100_000, 400_000};
+
+    public static void main(String[] args) {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 2;
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%10s %8s %14s %18s %9s%n", "snakes", "threads", "ticks/sec", "snake moves/sec", "speedup");
+        for(int count : SNAKE_COUNTS){
+            double baseline = 0;
+            for(int threads = 1; threads <= cores; threads = nextThreadCount(threads, cores)){
+                run(count, threads, TimeUnit.SECONDS.toNanos(seconds) / 2);
+                double ticksPerSecond = run(count, threads, TimeUnit.SECONDS.toNanos(seconds));
+                if(threads == 1){
+                    baseline = ticksPerSecond;
+                }
+                System.out.printf("%10d %8d %14.1f %18.0f %8.2fx%n",
+                        count, threads, ticksPerSecond, ticksPerSecond * count, ticksPerSecond / baseline);
+            }
+        }
+    }
+
+    /**
+     * Doubles the thread count, finishing with exactly the number of cores.
+     */
+    private static int nextThreadCount(int threads, int cores) {
+        return threads < cores && threads * 2 > cores ? cores : threads * 2;
+    }
+
+    /**
+     * Runs the given number of snakes on the given number of threads for roughly the given wall time.
+     *
+     * @return The number of engine steps performed per second.
+     */
+    private static double run(int count, int threads, long durationNanos) {
+        SimulationClock clock = SimulationClock.virtual(SimulationEngine.DEFAULT_STEP_MILLIS);
+        World world = new World(new ConcreteSnakeFactory(), World.DEFAULT_SQUARE_SIZE, World.DEFAULT_SPACING,
+                new SimulationEngine(SimulationEngine.DEFAULT_STEP_MILLIS, clock, threads));
+        int side = (int) Math.ceil(Math.sqrt(count));
+        world.setBoardSize(side, side);
+        List<SnakeSpec> specs = new ArrayList<>(count);
+        for(int i = 0; i < count; i++){
+            //Uneven lengths, so some chunks take longer than others
+            specs.add(new SnakeSpec(1 + i % 50, i % 2 == 0 ? "Clockwise" : "Anticlockwise", 1));
+        }
+        world.addSnakes(specs);
+
+        long steps = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do{
+            world.step(clock.toSimulationNanos(0));
+            steps++;
+            elapsed = System.nanoTime() - start;
+        } while(elapsed < durationNanos);
+        return steps * 1e9 / elapsed;
+    }
+}
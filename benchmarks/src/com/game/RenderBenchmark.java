@@ -0,0 +1,95 @@
+package com.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures painting a frame of {@code count} snakes of {@code length} segments, once with one fill call per
+ * segment through {@link Snake#render(Graphics2D)} and once through {@link SegmentBatch}, which blits a cached
+ * rounded segment or merges plain segments depending on the zoom.
+ * The frame is an image large enough to hold the whole board at the given zoom.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RenderBenchmark {
+
+    @Param({"10"})
+    public int length;
+
+    @Param({"1000", "10000"})
+    public int count;
+
+    @Param({"1", "0.25", "0.1"})
+    public double zoom;
+
+    private Snake[] snakes;
+    private BufferedImage frame;
+    //Scaled to the zoom for per-segment rendering
+    private Graphics2D g;
+    //Unscaled, SegmentBatch converts segments to device pixels itself
+    private Graphics2D device;
+    private SegmentBatch batch;
+
+    @Setup
+    public void setUp() {
+        snakes = new Snake[count];
+        int columns = (int) Math.ceil(Math.sqrt(count));
+        for(int i = 0; i < count; i++){
+            snakes[i] = BenchmarkSnakes.grown(length, "Clockwise",
+                    BenchmarkSnakes.squareX(i, columns), BenchmarkSnakes.squareY(i, columns));
+        }
+        int side = (int) Math.ceil(BenchmarkSnakes.squareY(columns, 1) * zoom);
+        frame = new BufferedImage(side, side, BufferedImage.TYPE_INT_ARGB);
+        g = frame.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        g.scale(zoom, zoom);
+        g.setColor(Color.RED);
+        device = frame.createGraphics();
+        device.setColor(Color.RED);
+        batch = new SegmentBatch();
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+        device.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage perSegment() {
+        for(Snake snake : snakes){
+            snake.render(g);
+        }
+        return frame;
+    }
+
+    @Benchmark
+    public BufferedImage batched() {
+        batch.begin(device, zoom);
+        for(Snake snake : snakes){
+            snake.render(batch);
+        }
+        batch.end();
+        return frame;
+    }
+}
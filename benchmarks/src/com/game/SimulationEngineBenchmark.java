@@ -0,0 +1,64 @@
+package com.game;
+
+import java.awt.geom.Rectangle2D;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the throughput of the single {@link SimulationEngine} loop scales with the number of snakes.
+ * The engine is driven with a simulated clock advancing one step per iteration, so the figures
+ * reflect the cost of advancing the snakes and not the time spent waiting for the next step.
+ *
+ * <p>Usage: {@code java com.game.SimulationEngineBenchmark [seconds per run]}</p>
+ */
+public class SimulationEngineBenchmark {
+
+    private static final int[] SNAKE_COUNTS = {10, 100, 1_000, 10_000, 100_000};
+    private static final int SQUARE_SIZE = 50;
+    private static final int SPACING = 10;
+    private static final int SNAKE_LENGTH = 5;
+    private static final long SPEED = 1;
+
+    public static void main(String[] args) {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 2;
+        System.out.printf("%10s %14s %18s%n", "snakes", "ticks/sec", "snake moves/sec");
+        for(int count : SNAKE_COUNTS){
+            run(count, TimeUnit.SECONDS.toNanos(seconds) / 2);
+            double ticksPerSecond = run(count, TimeUnit.SECONDS.toNanos(seconds));
+            System.out.printf("%10d %14.1f %18.0f%n", count, ticksPerSecond, ticksPerSecond * count);
+        }
+    }
+
+    /**
+     * Runs the engine with the given number of snakes for roughly the given wall time.
+     *
+     * @param count The number of snakes to register.
+     * @param durationNanos The wall time to run for.
+     * @return The number of engine steps performed per second.
+     */
+    private static double run(int count, long durationNanos) {
+        SimulationEngine engine = new SimulationEngine();
+        SnakeFactory factory = new ConcreteSnakeFactory();
+        int cols = (int) Math.ceil(Math.sqrt(count));
+        for(int i = 0; i < count; i++){
+            int x = (i % cols) * (SQUARE_SIZE + SPACING) + SPACING;
+            int y = (i / cols) * (SQUARE_SIZE + SPACING) + SPACING;
+            Snake snake = factory.createSnake(SNAKE_LENGTH, i % 2 == 0 ? "Clockwise" : "Anticlockwise", x, y, SPEED);
+            snake.setClock(engine.getClock());
+            Rectangle2D square = new Rectangle2D.Double(x, y, SQUARE_SIZE, SQUARE_SIZE);
+            engine.register(new SnakeTask(snake, snake, square), SPEED);
+        }
+
+        long stepNanos = TimeUnit.MILLISECONDS.toNanos(SPEED);
+        long simulated = 0;
+        long steps = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do{
+            engine.step(simulated);
+            simulated += stepNanos;
+            steps++;
+            elapsed = System.nanoTime() - start;
+        } while(elapsed < durationNanos);
+        return steps * 1e9 / elapsed;
+    }
+}
@@ -0,0 +1,67 @@
+package com.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.geom.Rectangle2D;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Snake#move(Rectangle2D)} and {@link Snake#grow()} over a population of snakes.
+ * One invocation advances every snake once, so the score is the cost of one tick of the population.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SnakeBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int length;
+
+    @Param({"1", "1000", "100000"})
+    public int count;
+
+    private Snake[] snakes;
+    private Rectangle2D[] squares;
+
+    @Setup
+    public void setUp() {
+        snakes = new Snake[count];
+        squares = new Rectangle2D[count];
+        int columns = (int) Math.ceil(Math.sqrt(count));
+        for(int i = 0; i < count; i++){
+            int x = BenchmarkSnakes.squareX(i, columns);
+            int y = BenchmarkSnakes.squareY(i, columns);
+            snakes[i] = BenchmarkSnakes.grown(length, i % 2 == 0 ? "Clockwise" : "Anticlockwise", x, y);
+            squares[i] = new Rectangle2D.Double(x, y, BenchmarkSnakes.squareSize(), BenchmarkSnakes.squareSize());
+        }
+    }
+
+    @Benchmark
+    public Snake[] move() {
+        for(int i = 0; i < snakes.length; i++){
+            snakes[i].move(squares[i]);
+        }
+        return snakes;
+    }
+
+    @Benchmark
+    public Snake[] grow() {
+        for(Snake snake : snakes){
+            snake.grow();
+        }
+        return snakes;
+    }
+}
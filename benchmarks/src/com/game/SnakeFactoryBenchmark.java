@@ -0,0 +1,42 @@
+package com.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ConcreteSnakeFactory#createSnake(int, String, int, int, long)} for different snake lengths,
+ * which determine the size of the segment buffer allocated per snake.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SnakeFactoryBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int length;
+
+    private final SnakeFactory factory = new ConcreteSnakeFactory();
+
+    @Benchmark
+    public Snake createClockwise() {
+        return factory.createSnake(length, "Clockwise", 10, 10, 100L);
+    }
+
+    @Benchmark
+    public Snake createAnticlockwise() {
+        return factory.createSnake(length, "Anticlockwise", 10, 10, 100L);
+    }
+}
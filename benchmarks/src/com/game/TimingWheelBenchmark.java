@@ -0,0 +1,125 @@
+package com.game;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link TimingWheelScheduler} with the executor and the fixed-step loop at 100k tasks with mixed
+ * speeds, so the cost measured is the scheduling itself rather than moving snakes:
+ * <ul>
+ *     <li>schedule and cancel: the cost of adding then cancelling one more task while 100k are scheduled, on the
+ *     wheel and on a {@link ScheduledThreadPoolExecutor} removing cancelled futures from its delay queue;</li>
+ *     <li>advance: the wall time to run one simulated minute, one step per millisecond, on the wheel and on the
+ *     fixed-step loop of {@link SimulationEngine}, which looks at every task on every step.</li>
+ * </ul>
+ *
+ * <p>Usage: {@code java com.game.TimingWheelBenchmark [tasks]}</p>
+ */
+public class TimingWheelBenchmark {
+
+    //Snake speeds in milliseconds, from a fast snake moving every step to a slow one moving once a second
+    private static final long[] SPEEDS = {1, 5, 10, 20, 50, 100, 250, 500, 1000};
+    private static final int SCHEDULE_OPERATIONS = 1_000_000;
+    private static final long SIMULATED_MILLIS = 60_000;
+
+    private static long executions;
+
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        System.out.printf("%-30s %8s %16s%n", "benchmark", "tasks", "result");
+        for(int round = 0; round < 2; round++){
+            boolean report = round == 1;
+            double wheelOperation = wheelScheduleCancel(count);
+            double executorOperation = executorScheduleCancel(count);
+            double wheelAdvance = advance(count, true);
+            double engineAdvance = advance(count, false);
+            if(report){
+                System.out.printf("%-30s %8d %13.1f ns%n", "schedule+cancel wheel", count, wheelOperation);
+                System.out.printf("%-30s %8d %13.1f ns%n", "schedule+cancel executor", count, executorOperation);
+                System.out.printf("%-30s %8d %13.1f ms%n", "advance 1 min wheel", count, wheelAdvance);
+                System.out.printf("%-30s %8d %13.1f ms%n", "advance 1 min fixed-step loop", count, engineAdvance);
+            }
+        }
+    }
+
+    /**
+     * Schedules and cancels one task at a time on a wheel holding the given number of tasks.
+     *
+     * @return The average time of a schedule and cancel, in nanoseconds, including applying them to the wheel.
+     */
+    private static double wheelScheduleCancel(int count) {
+        TimingWheelScheduler wheel = new TimingWheelScheduler(SimulationClock.virtual(SimulationEngine.DEFAULT_STEP_MILLIS));
+        Runnable task = TimingWheelBenchmark::execute;
+        for(int i = 0; i < count; i++){
+            wheel.register(task, SPEEDS[i % SPEEDS.length]);
+        }
+        wheel.step(0);
+        long start = System.nanoTime();
+        for(int i = 0; i < SCHEDULE_OPERATIONS; i++){
+            wheel.register(task, SPEEDS[i % SPEEDS.length]).cancel();
+            //A step at the same time runs no tick, it only applies the registration and the cancellation
+            wheel.step(0);
+        }
+        return (double) (System.nanoTime() - start) / SCHEDULE_OPERATIONS;
+    }
+
+    /**
+     * Schedules and cancels one fixed-rate future at a time on an executor holding the given number of futures.
+     * Every future is first due after its period, so none runs during the measurement.
+     *
+     * @return The average time of a schedule and cancel, in nanoseconds.
+     */
+    private static double executorScheduleCancel(int count) throws InterruptedException {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        try{
+            Runnable task = TimingWheelBenchmark::execute;
+            for(int i = 0; i < count; i++){
+                long delay = TimeUnit.HOURS.toMillis(1) + SPEEDS[i % SPEEDS.length];
+                executor.scheduleAtFixedRate(task, delay, delay, TimeUnit.MILLISECONDS);
+            }
+            long start = System.nanoTime();
+            for(int i = 0; i < SCHEDULE_OPERATIONS; i++){
+                long delay = TimeUnit.HOURS.toMillis(1) + SPEEDS[i % SPEEDS.length];
+                ScheduledFuture<?> future = executor.scheduleAtFixedRate(task, delay, delay, TimeUnit.MILLISECONDS);
+                future.cancel(false);
+            }
+            return (double) (System.nanoTime() - start) / SCHEDULE_OPERATIONS;
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Runs the given number of tasks with mixed speeds for one simulated minute, stepping every millisecond.
+     *
+     * @param wheel Whether to use the timing wheel rather than the fixed-step loop.
+     * @return The wall time taken, in milliseconds.
+     */
+    private static double advance(int count, boolean wheel) {
+        SimulationClock clock = SimulationClock.virtual(SimulationEngine.DEFAULT_STEP_MILLIS);
+        TimingWheelScheduler timingWheel = wheel ? new TimingWheelScheduler(clock) : null;
+        SimulationEngine engine = wheel ? null : new SimulationEngine(clock);
+        TaskScheduler scheduler = wheel ? timingWheel : engine;
+        Runnable task = TimingWheelBenchmark::execute;
+        for(int i = 0; i < count; i++){
+            scheduler.register(task, SPEEDS[i % SPEEDS.length]);
+        }
+        long start = System.nanoTime();
+        for(long ms = 0; ms < SIMULATED_MILLIS; ms++){
+            long now = TimeUnit.MILLISECONDS.toNanos(ms);
+            if(wheel){
+                timingWheel.step(now);
+            } else {
+                engine.step(now);
+            }
+        }
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    private static void execute() {
+        executions++;
+    }
+}
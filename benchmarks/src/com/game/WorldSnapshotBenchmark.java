@@ -0,0 +1,156 @@
+package com.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures saving and loading a world of {@code count} snakes of {@code length} segments, once with the
+ * memory-mapped binary format of {@link WorldSnapshot} and once with Java serialization of the same state.
+ * Loading with Java serialization only reads the objects back; it does not rebuild a world.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorldSnapshotBenchmark {
+
+    @Param({"100"})
+    public int length;
+
+    @Param({"1000", "10000"})
+    public int count;
+
+    private World world;
+    private Path snapshotFile;
+    private Path serializedFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        world = new World(new ConcreteSnakeFactory());
+        int columns = (int) Math.ceil(Math.sqrt(count));
+        world.setBoardSize(columns, columns);
+        List<SnakeSpec> specs = new ArrayList<>();
+        for(int i = 0; i < count; i++){
+            specs.add(new SnakeSpec(length, i % 2 == 0 ? "Clockwise" : "Anticlockwise", 10));
+        }
+        world.addSnakes(specs);
+        int[] xs = new int[length];
+        int[] ys = new int[length];
+        for(int i = 0; i < length; i++){
+            xs[i] = i % BenchmarkSnakes.squareSize();
+            ys[i] = i / BenchmarkSnakes.squareSize() % BenchmarkSnakes.squareSize();
+        }
+        for(Snake snake : world.getSnakes()){
+            snake.restore(xs[length - 1], ys[length - 1], 1, 0, length, 0, 0, xs, ys, 0, length);
+        }
+        snapshotFile = Files.createTempFile("world", ".snk");
+        serializedFile = Files.createTempFile("world", ".ser");
+        WorldSnapshot.save(world, snapshotFile);
+        serialize();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        world.stop();
+        Files.deleteIfExists(snapshotFile);
+        Files.deleteIfExists(serializedFile);
+    }
+
+    @Benchmark
+    public Path saveSnapshot() throws IOException {
+        WorldSnapshot.save(world, snapshotFile);
+        return snapshotFile;
+    }
+
+    @Benchmark
+    public List<Snake> loadSnapshot() throws IOException {
+        World restored = new World(new ConcreteSnakeFactory());
+        try{
+            return WorldSnapshot.load(snapshotFile, restored);
+        } finally {
+            restored.stop();
+        }
+    }
+
+    @Benchmark
+    public Path saveSerialized() throws IOException {
+        serialize();
+        return serializedFile;
+    }
+
+    @Benchmark
+    public Object loadSerialized() throws IOException, ClassNotFoundException {
+        try(ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(serializedFile)))){
+            return in.readObject();
+        }
+    }
+
+    /**
+     * Writes the state of every snake with Java serialization.
+     */
+    private void serialize() throws IOException {
+        List<SerializedSnake> state = new ArrayList<>(count);
+        for(Snake snake : world.getSnakes()){
+            state.add(new SerializedSnake(snake));
+        }
+        try(ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(serializedFile)))){
+            out.writeObject(state);
+        }
+    }
+
+    /**
+     * The state of a snake as the equivalent of a snapshot record, for Java serialization.
+     */
+    private static final class SerializedSnake implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final int headX;
+        private final int headY;
+        private final int directionX;
+        private final int directionY;
+        private final long moveCount;
+        private final int growthCounter;
+        private final double speed;
+        private final String strategy;
+        private final int[] xs;
+        private final int[] ys;
+
+        SerializedSnake(Snake snake) {
+            headX = snake.getHeadX();
+            headY = snake.getHeadY();
+            directionX = snake.getDirectionX();
+            directionY = snake.getDirectionY();
+            moveCount = snake.getMoveCount();
+            growthCounter = snake.getGrowthCounter();
+            speed = snake.getSpeed();
+            strategy = snake.getMovementStrategy().getClass().getSimpleName();
+            xs = new int[snake.getSegmentCount()];
+            ys = new int[snake.getSegmentCount()];
+            snake.copySegments(xs, ys, 0);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.game;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Renders a {@link BoardView} on its own thread at a capped frame rate, independently of the simulation.
+ * Simulation steps only flag that a new frame is needed; at most {@code maxFps} times per second the render
+ * thread draws the current state of the world into an off-screen buffer and asks Swing to copy it to the screen,
+ * so snakes can move at any rate without flooding the event dispatch thread with repaints.
+ *
+ * <p>Frames are drawn into a back buffer, accelerated with a {@link VolatileImage} when the view is displayable,
+ * then swapped with the front buffer that {@link BoardView#paintComponent(Graphics)} copies. Frame slots in which
+ * nothing changed are skipped.</p>
+ */
+public class ActiveRenderer {
+
+    private final BoardView view;
+    private final int maxFps;
+    private final long framePeriodNanos;
+    //Set when the world or the view changed since the last frame
+    private final AtomicBoolean frameRequested = new AtomicBoolean(true);
+    //Guards the front buffer and the region it shows
+    private final Object frameLock = new Object();
+    private Image front;
+    private Rectangle frontBounds;
+    private double frontZoom;
+    //Only touched by the thread rendering frames
+    private Image back;
+    private volatile SimulationMetrics metrics;
+    private volatile boolean running;
+    private Thread renderThread;
+
+    /**
+     * Constructs an ActiveRenderer for the given view.
+     *
+     * @param view The view to render.
+     * @param maxFps The maximum number of frames rendered per second.
+     * @throws IllegalArgumentException If the frame rate is not positive.
+     */
+    public ActiveRenderer(BoardView view, int maxFps) {
+        if(maxFps <= 0){
+            throw new IllegalArgumentException("Frame rate must be a positive integer");
+        }
+        this.view = view;
+        this.maxFps = maxFps;
+        this.framePeriodNanos = TimeUnit.SECONDS.toNanos(1) / maxFps;
+    }
+
+    public int getMaxFps() {
+        return maxFps;
+    }
+
+    /**
+     * Sets the metrics counting rendered and skipped frames.
+     *
+     * @param metrics The metrics, or null to stop counting.
+     */
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Flags that the next frame slot must render a frame. This method may be called from any thread
+     * and as often as needed; requests made between two frames are merged.
+     */
+    public void requestFrame() {
+        frameRequested.set(true);
+    }
+
+    /**
+     * Renders a frame of the visible part of the view if one was requested, then asks Swing to show it.
+     * Called by the render thread once per frame slot; it is package-private so tests can render frames
+     * without waiting.
+     *
+     * @return true if a frame was rendered, false if the slot was skipped.
+     */
+    boolean renderFrame() {
+        Rectangle visible = view.getViewport();
+        boolean rendered = visible != null && !visible.isEmpty() && frameRequested.getAndSet(false);
+        if(rendered){
+            double zoom = view.getZoom();
+            GraphicsConfiguration configuration = view.getGraphicsConfiguration();
+            do{
+                back = validateBuffer(back, configuration, visible.width, visible.height);
+                Graphics2D g = (Graphics2D) back.getGraphics();
+                try{
+                    g.translate(-visible.x, -visible.y);
+                    view.renderBoard(g, visible, visible, zoom);
+                } finally {
+                    g.dispose();
+                }
+            } while(back instanceof VolatileImage && ((VolatileImage) back).contentsLost());
+            synchronized (frameLock){
+                Image shown = front;
+                front = back;
+                frontBounds = visible;
+                frontZoom = zoom;
+                back = shown;
+            }
+            view.repaint(visible);
+        }
+        SimulationMetrics recorder = metrics;
+        if(recorder != null){
+            recorder.recordFrame(rendered);
+        }
+        return rendered;
+    }
+
+    /**
+     * Returns a buffer of the given size that can be drawn on, reusing the given one when it still fits.
+     * Without a graphics configuration, for example before the view is shown, a plain image is used.
+     */
+    private static Image validateBuffer(Image buffer, GraphicsConfiguration configuration, int width, int height) {
+        if(configuration == null){
+            if(buffer instanceof BufferedImage && buffer.getWidth(null) == width && buffer.getHeight(null) == height){
+                return buffer;
+            }
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        if(buffer instanceof VolatileImage && buffer.getWidth(null) == width && buffer.getHeight(null) == height
+                && ((VolatileImage) buffer).validate(configuration) != VolatileImage.IMAGE_INCOMPATIBLE){
+            return buffer;
+        }
+        if(buffer != null){
+            buffer.flush();
+        }
+        return configuration.createCompatibleVolatileImage(width, height);
+    }
+
+    /**
+     * Copies the last rendered frame, if it shows the given region at the given zoom.
+     * Called by {@link BoardView#paintComponent(Graphics)} on the event dispatch thread.
+     *
+     * @param g The graphics context of the view.
+     * @param visible The visible region of the view.
+     * @param zoom The current zoom of the view.
+     * @return true if the frame was drawn, false if the view must paint itself because no frame matches.
+     */
+    boolean drawFrame(Graphics g, Rectangle visible, double zoom) {
+        synchronized (frameLock){
+            boolean current = front != null && visible.equals(frontBounds) && zoom == frontZoom
+                    && !(front instanceof VolatileImage && ((VolatileImage) front).contentsLost());
+            if(!current){
+                requestFrame();
+                return false;
+            }
+            g.drawImage(front, frontBounds.x, frontBounds.y, null);
+            return true;
+        }
+    }
+
+    /**
+     * Starts the render thread if it is not already running.
+     */
+    public synchronized void start() {
+        if(running){
+            return;
+        }
+        running = true;
+        requestFrame();
+        renderThread = new Thread(this::runLoop, "board-renderer");
+        renderThread.setDaemon(true);
+        renderThread.start();
+    }
+
+    /**
+     * Stops the render thread. The last frame is kept and shown again if the renderer is restarted.
+     */
+    public synchronized void stop() {
+        running = false;
+        if(renderThread != null){
+            renderThread.interrupt();
+            renderThread = null;
+        }
+    }
+
+    /**
+     * Returns whether the render thread is running.
+     *
+     * @return true if the renderer is running, false otherwise.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Frame loop: renders a frame if one was requested, then parks until the next frame slot.
+     * If rendering falls more than one frame behind, the loop resynchronizes instead of rendering in bursts.
+     */
+    private void runLoop() {
+        long nextFrame = System.nanoTime();
+        while(running && !Thread.currentThread().isInterrupted()){
+            renderFrame();
+            nextFrame += framePeriodNanos;
+            long remaining = nextFrame - System.nanoTime();
+            if(remaining > 0){
+                LockSupport.parkNanos(this, remaining);
+            } else if(remaining < -framePeriodNanos){
+                nextFrame = System.nanoTime();
+            }
+        }
+    }
+}
@@ -4,11 +4,23 @@ import java.awt.geom.Rectangle2D;
 
 public class AnticlockwiseMovementStrategy implements MovementStrategy{
 
-    private double xDirection = 0;
-    private double yDirection = 0;
+    //Anticlockwise lap: down the left side, along the bottom, up the right side, along the top
+    private static final PerimeterPath PATH = new PerimeterPath(
+            new int[]{0, 0, 1, 1}, new int[]{0, 1, 1, 0},
+            new int[]{0, 1, 0, -1}, new int[]{1, 0, -1, 0});
+
+    /**
+     * The shared instance. The strategy is stateless, the direction of travel is kept by each {@link Snake},
+     * so one instance serves every snake on every thread.
+     */
+    public static final AnticlockwiseMovementStrategy INSTANCE = new AnticlockwiseMovementStrategy();
+
+    private AnticlockwiseMovementStrategy() {
+    }
 
     /**
      * Updates the direction of the snake based on the anticlockwise movement strategy.
+     * Positions are compared in integer segment steps inside the square, so corners are matched exactly.
      *
      * @param snake The snake object whose direction needs to be updated.
      * @param square The rectangular area in which the snake is moving.
@@ -16,28 +28,43 @@ public class AnticlockwiseMovementStrategy implements MovementStrategy{
     @Override
     public void updateDirection(Snake snake, Rectangle2D square) {
         //Movement logic for Anticlockwise direction
-        double newX = snake.getNewSnakeX() + xDirection;
-        double newY = snake.getNewSnakeY() + yDirection;
-        double snakeWidth = snake.getSegmentSize();
-        double snakeHeight = snake.getSegmentSize();
-        double squareX = square.getX();
-        double squareY = square.getY();
-        double squareSize = square.getWidth();
-
-        if(newX == squareX && newY == squareY){
+        int xDirection = snake.getDirectionX();
+        int yDirection = snake.getDirectionY();
+        int x = snake.getHeadX() + xDirection;
+        int y = snake.getHeadY() + yDirection;
+        int last = snake.getLastStep(square);
+
+        if(x == 0 && y == 0){
             xDirection = 0;
-            yDirection = snakeHeight;
-        } else if(newX == squareX && newY == squareY + squareSize - snakeHeight){
-            xDirection = snakeWidth;
+            yDirection = 1;
+        } else if(x == 0 && y == last){
+            xDirection = 1;
             yDirection = 0;
-        } else if (newX == squareX + squareSize - snakeWidth && newY == squareY + squareSize - snakeHeight){
+        } else if (x == last && y == last){
             xDirection = 0;
-            yDirection = -snakeHeight;
-        } else if(newX == squareX + squareSize - snakeWidth && newY == squareY){
-            xDirection = -snakeWidth;
+            yDirection = -1;
+        } else if(x == last && y == 0){
+            xDirection = -1;
             yDirection = 0;
         }
-        snake.setNewSnakeX(newX);
-        snake.setNewSnakeY(newY);
+        snake.setDirection(xDirection, yDirection);
+        snake.setHead(x, y);
+    }
+
+    @Override
+    public void seek(Snake snake, Rectangle2D square, long moves) {
+        int last = snake.getLastStep(square);
+        snake.setDirection(PATH.directionX(last, moves), PATH.directionY(last, moves));
+        snake.setHead(PATH.x(last, moves), PATH.y(last, moves));
+    }
+
+    @Override
+    public int getStepX(int lastStep, long moves) {
+        return PATH.x(lastStep, moves);
+    }
+
+    @Override
+    public int getStepY(int lastStep, long moves) {
+        return PATH.y(lastStep, moves);
     }
 }
@@ -1,9 +1,64 @@
 package com.game;
 
 import javax.swing.*;
+import java.io.IOException;
+import java.nio.file.Path;
 
 public class App {
+
+    /**
+     * Starts the game window, or with {@code --headless <snakes> <ticks> [threads]} runs the simulation
+     * without a user interface and prints throughput and latency statistics.
+     * With {@code --journal <file>} the board of the window is recorded to the given file, and
+     * {@code --replay <file> [step]} rebuilds a recorded board without a user interface, up to the given step.
+     *
+     * @param args The command line arguments.
+     */
     public static void main(String args[]){
+        if(args.length > 0 && "--headless".equals(args[0])){
+            if(args.length != 3 && args.length != 4){
+                System.err.println("Usage: App --headless <snakes> <ticks> [threads]");
+                System.exit(1);
+            }
+            int threads = args.length == 4 ? Integer.parseInt(args[3]) : 1;
+            new HeadlessRunner(Integer.parseInt(args[1]), Long.parseLong(args[2]), threads).run(System.out);
+            return;
+        }
+        if(args.length > 0 && "--replay".equals(args[0])){
+            if(args.length != 2 && args.length != 3){
+                System.err.println("Usage: App --replay <journal> [step]");
+                System.exit(1);
+            }
+            replay(Path.of(args[1]), args.length == 3 ? Long.parseLong(args[2]) : Long.MAX_VALUE);
+            return;
+        }
+        if(args.length > 0 && "--journal".equals(args[0])){
+            if(args.length != 2){
+                System.err.println("Usage: App --journal <journal>");
+                System.exit(1);
+            }
+            SwingUtilities.invokeLater(() -> new MainFrame(Path.of(args[1])));
+            return;
+        }
         SwingUtilities.invokeLater(MainFrame::new);
     }
+
+    /**
+     * Replays a journal up to the given step and prints the state of the board there.
+     */
+    private static void replay(Path file, long lastStep) {
+        try(JournalReplay replay = JournalReplay.open(file, new ConcreteSnakeFactory())){
+            long start = System.nanoTime();
+            long steps = replay.replayTo(lastStep);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            World world = replay.getWorld();
+            System.out.printf("Replayed %d steps up to %.3f s of simulation time in %.3f s%n",
+                    steps, replay.getTickNanos() / 1e9, seconds);
+            System.out.printf("Snakes: %d, segments: %d, squares: %d%n",
+                    world.getSnakeCount(), world.getSegmentCount(), world.getSquareGrid().getOccupiedCount());
+        } catch (IOException ex){
+            System.err.println("Cannot replay " + file + ": " + ex.getMessage());
+            System.exit(1);
+        }
+    }
 }
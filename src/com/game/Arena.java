@@ -0,0 +1,342 @@
+package com.game;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A shared region in which snakes run into each other. Unlike the squares of a {@link World}, which never overlap,
+ * every snake here follows the perimeter of its own loop placed anywhere in the region, and loops overlap freely,
+ * so a head can run into the body of another snake.
+ *
+ * <p>Collisions are detected at the end of every scheduler step in which a snake moved: the cell of each head that
+ * moved is looked up in a {@link SpatialHash} of all the segments, so a check costs the same whatever the number
+ * of snakes. The hash is updated incrementally by each move, which adds the new head and removes the old tail,
+ * and by each growth, which adds the new tail. Collisions are counted and reported to a listener; they do not
+ * change the snakes.</p>
+ *
+ * <p>The hash is only touched by the thread running the steps, so the arena needs a scheduler running all its
+ * tasks on one thread: the single-threaded {@link SimulationEngine} or a {@link TimingWheelScheduler}.
+ * Snakes are added and listed from a single controlling thread, like in a {@link World}.</p>
+ */
+public class Arena {
+
+    public static final int DEFAULT_LOOP_SIZE = World.DEFAULT_SQUARE_SIZE;
+
+    /**
+     * Notified on the scheduler's thread when the head of a snake is in the same cell as a segment of another.
+     */
+    public interface CollisionListener {
+
+        /**
+         * Called for every head that ran into another snake during the last step.
+         *
+         * @param snake The index, in {@link Arena#getSnakes()}, of the snake whose head collided.
+         * @param other The index of a snake with a segment in the same cell.
+         */
+        void collided(int snake, int other);
+    }
+
+    /**
+     * A snake of the arena with the cell of its loop's top-left corner, which its segment steps are relative to.
+     */
+    private static final class Member {
+        private final Snake snake;
+        private final int index;
+        private final int originX;
+        private final int originY;
+        //Only touched by the stepping thread
+        private boolean tracked;
+        private long checkedStep = -1;
+
+        private Member(Snake snake, int index, int originX, int originY) {
+            this.snake = snake;
+            this.index = index;
+            this.originX = originX;
+            this.originY = originY;
+        }
+    }
+
+    private final SnakeFactory snakeFactory;
+    private final int width;
+    private final int height;
+    private final int loopSize;
+    private final TaskScheduler scheduler;
+    private final List<Snake> snakes;
+    //State of the stepping thread: the segments, the snakes that moved during the current step, and the step
+    private final SpatialHash segments;
+    private final List<Member> moved;
+    private long step;
+    private volatile long checkCount;
+    private volatile long collisionCount;
+    private volatile CollisionListener collisionListener;
+    private volatile Runnable stepListener;
+
+    /**
+     * Constructs an Arena with loops of {@value #DEFAULT_LOOP_SIZE} pixels.
+     *
+     * @param snakeFactory The factory for creating snakes.
+     * @param width The width of the region in pixels.
+     * @param height The height of the region in pixels.
+     * @param scheduler The scheduler that advances the snakes, running all its tasks on one thread.
+     * @throws IllegalArgumentException If the factory is null, the region cannot hold a loop,
+     *                                  or the scheduler is null or runs tasks on several threads.
+     */
+    public Arena(SnakeFactory snakeFactory, int width, int height, TaskScheduler scheduler) {
+        this(snakeFactory, width, height, DEFAULT_LOOP_SIZE, scheduler);
+    }
+
+    /**
+     * Constructs an Arena with the specified layout and scheduler.
+     *
+     * @param snakeFactory The factory for creating snakes.
+     * @param width The width of the region in pixels.
+     * @param height The height of the region in pixels.
+     * @param loopSize The width and height of the loop each snake follows, in pixels.
+     * @param scheduler The scheduler that advances the snakes, running all its tasks on one thread.
+     * @throws IllegalArgumentException If the factory is null, the loop is not a multiple of the segment size
+     *                                  or does not fit in the region, or the scheduler is null
+     *                                  or runs tasks on several threads.
+     */
+    public Arena(SnakeFactory snakeFactory, int width, int height, int loopSize, TaskScheduler scheduler) {
+        if(snakeFactory == null){
+            throw new IllegalArgumentException("SnakeFactory is not initialized");
+        }
+        if(loopSize < 2 * Snake.SEGMENT_SIZE || loopSize % Snake.SEGMENT_SIZE != 0){
+            throw new IllegalArgumentException("Loop size must be a multiple of " + Snake.SEGMENT_SIZE
+                    + " pixels fitting at least two segments");
+        }
+        if(width < loopSize || height < loopSize){
+            throw new IllegalArgumentException("The region must be large enough for a loop");
+        }
+        if(!(scheduler instanceof TimingWheelScheduler) && !(scheduler instanceof SimulationEngine
+                && ((SimulationEngine) scheduler).getParallelism() == 1)){
+            throw new IllegalArgumentException("The arena needs a single-threaded fixed-step loop or a timing wheel");
+        }
+        this.snakeFactory = snakeFactory;
+        this.width = width;
+        this.height = height;
+        this.loopSize = loopSize;
+        this.scheduler = scheduler;
+        this.snakes = new ArrayList<>();
+        this.segments = new SpatialHash(1024);
+        this.moved = new ArrayList<>();
+        scheduler.setStepListener(this::endStep);
+    }
+
+    /**
+     * Creates a snake whose loop has its top-left corner at the given position and registers it with the scheduler.
+     *
+     * @param length The length of the snake.
+     * @param direction The direction in which the snake moves ("Clockwise" or "Anticlockwise").
+     * @param x The X coordinate of the loop in pixels, a multiple of the segment size.
+     * @param y The Y coordinate of the loop in pixels, a multiple of the segment size.
+     * @param speed The interval between two moves, in milliseconds.
+     * @return The new snake.
+     * @throws IllegalArgumentException If the loop is not inside the region or not on the segment lattice,
+     *                                  or the direction is invalid.
+     */
+    public Snake addSnake(int length, String direction, int x, int y, long speed) {
+        return addSnakes(List.of(new SnakeSpec(length, direction, speed, x, y))).get(0);
+    }
+
+    /**
+     * Creates a batch of snakes at the positions of their specs, see {@link #addSnake}, and registers them with the
+     * scheduler together, so they all start moving at the same time.
+     *
+     * @param specs The snakes to create, each at the top-left corner of its loop.
+     * @return The new snakes, in the order of the specs.
+     * @throws IllegalArgumentException If a loop is not inside the region or not on the segment lattice,
+     *                                  or a direction is invalid. No snake is created then.
+     */
+    public List<Snake> addSnakes(List<SnakeSpec> specs) {
+        for(SnakeSpec spec : specs){
+            int x = spec.getX();
+            int y = spec.getY();
+            if(x < 0 || y < 0 || x > width - loopSize || y > height - loopSize){
+                throw new IllegalArgumentException("Loop at " + x + "," + y + " is outside the arena");
+            }
+            if(x % Snake.SEGMENT_SIZE != 0 || y % Snake.SEGMENT_SIZE != 0){
+                throw new IllegalArgumentException("Loop at " + x + "," + y + " is not on the segment lattice");
+            }
+        }
+        List<Snake> created = snakeFactory.createSnakes(specs);
+        List<Runnable> tasks = new ArrayList<>(created.size());
+        long[] periods = new long[created.size()];
+        for(int i = 0; i < created.size(); i++){
+            Snake snake = created.get(i);
+            SnakeSpec spec = specs.get(i);
+            snake.setClock(scheduler.getClock());
+            Member member = new Member(snake, snakes.size(),
+                    spec.getX() / Snake.SEGMENT_SIZE, spec.getY() / Snake.SEGMENT_SIZE);
+            snakes.add(snake);
+            tasks.add(newTask(member, new Rectangle2D.Double(spec.getX(), spec.getY(), loopSize, loopSize)));
+            periods[i] = (long) snake.getSpeed();
+        }
+        scheduler.registerAll(tasks, periods);
+        return created;
+    }
+
+    /**
+     * Creates the scheduled task of a snake, keeping the spatial hash in step with its body.
+     * A snake's segments enter the hash with its first move, on the stepping thread.
+     */
+    private Runnable newTask(Member member, Rectangle2D square) {
+        Snake snake = member.snake;
+        SnakeTask task = new SnakeTask(snake, snake, square);
+        return () -> {
+            if(!member.tracked){
+                for(int i = 0, n = snake.getSegmentCount(); i < n; i++){
+                    segments.add(member.originX + snake.getSegmentX(i), member.originY + snake.getSegmentY(i), member.index);
+                }
+                member.tracked = true;
+            }
+            int count = snake.getSegmentCount();
+            int tailX = snake.getSegmentX(count - 1);
+            int tailY = snake.getSegmentY(count - 1);
+            long moves = snake.getMoveCount();
+            task.run();
+            if(snake.getMoveCount() != moves){
+                segments.remove(member.originX + tailX, member.originY + tailY, member.index);
+                segments.add(member.originX + snake.getSegmentX(0), member.originY + snake.getSegmentY(0), member.index);
+            }
+            //Growth appends copies of the tail
+            for(int i = count, n = snake.getSegmentCount(); i < n; i++){
+                segments.add(member.originX + snake.getSegmentX(i), member.originY + snake.getSegmentY(i), member.index);
+            }
+            if(member.checkedStep != step){
+                member.checkedStep = step;
+                moved.add(member);
+            }
+        };
+    }
+
+    /**
+     * Checks the heads that moved during the step against the other snakes, once every snake moved,
+     * so the result does not depend on the order in which the snakes of a step run.
+     */
+    private void endStep() {
+        CollisionListener listener = collisionListener;
+        long collisions = 0;
+        for(int i = 0, n = moved.size(); i < n; i++){
+            Member member = moved.get(i);
+            Snake snake = member.snake;
+            int other = segments.findOther(member.originX + snake.getSegmentX(0),
+                    member.originY + snake.getSegmentY(0), member.index);
+            if(other >= 0){
+                collisions++;
+                if(listener != null){
+                    listener.collided(member.index, other);
+                }
+            }
+        }
+        checkCount += moved.size();
+        collisionCount += collisions;
+        moved.clear();
+        step++;
+        Runnable next = stepListener;
+        if(next != null){
+            next.run();
+        }
+    }
+
+    /**
+     * Sets a listener notified, on the scheduler's thread, of every collision.
+     *
+     * @param collisionListener The listener, or null to remove it.
+     */
+    public void setCollisionListener(CollisionListener collisionListener) {
+        this.collisionListener = collisionListener;
+    }
+
+    /**
+     * Sets a listener notified after every scheduler step in which at least one snake moved,
+     * once the collisions of the step were checked.
+     *
+     * @param stepListener The listener, or null to remove it.
+     */
+    public void setStepListener(Runnable stepListener) {
+        this.stepListener = stepListener;
+    }
+
+    /**
+     * Returns the number of heads checked for collisions so far, one per snake that moved in a step.
+     *
+     * @return The number of checks.
+     */
+    public long getCheckCount() {
+        return checkCount;
+    }
+
+    /**
+     * Returns the number of heads found in the same cell as another snake so far.
+     *
+     * @return The number of collisions.
+     */
+    public long getCollisionCount() {
+        return collisionCount;
+    }
+
+    /**
+     * Returns the number of segments in the spatial hash. Must be called from the stepping thread,
+     * or while the scheduler is stopped.
+     *
+     * @return The number of segments tracked.
+     */
+    int getTrackedSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Returns a read-only view of the snakes, in creation order.
+     *
+     * @return The snakes of the arena.
+     */
+    public List<Snake> getSnakes() {
+        return Collections.unmodifiableList(snakes);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getLoopSize() {
+        return loopSize;
+    }
+
+    public TaskScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Advances the arena to the given time without waiting and checks the collisions of the step.
+     *
+     * @param nowNanos The current time in nanoseconds.
+     * @return The number of snake moves performed.
+     */
+    public int step(long nowNanos) {
+        if(scheduler instanceof TimingWheelScheduler){
+            return ((TimingWheelScheduler) scheduler).step(nowNanos);
+        }
+        return ((SimulationEngine) scheduler).step(nowNanos);
+    }
+
+    /**
+     * Starts advancing the snakes in real time on the scheduler's thread.
+     */
+    public void start() {
+        scheduler.start();
+    }
+
+    /**
+     * Stops the scheduler's thread.
+     */
+    public void stop() {
+        scheduler.stop();
+    }
+}
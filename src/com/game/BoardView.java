@@ -0,0 +1,351 @@
+package com.game;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Scrollable and zoomable view of the whole board of a {@link World}, meant to be shown in a {@link JScrollPane}.
+ * The board can be far larger than the window: painting only visits the squares and snakes intersecting the
+ * clip, found through the world's {@link SquareGrid}, so paint cost depends on the visible area and not on
+ * the size of the board. Moves of snakes outside the visible area do not trigger repaints.
+ *
+ * <p>The mouse wheel scrolls; with the control key held down it zooms around the pointer.</p>
+ */
+@SuppressWarnings("serial")
+public class BoardView extends JComponent implements Scrollable {
+
+    public static final double MIN_ZOOM = 0.05;
+    public static final double MAX_ZOOM = 4;
+    //Zoom factor applied per notch of the mouse wheel
+    private static final double ZOOM_STEP = 1.25;
+    //Largest viewport the view asks for when its scroll pane is packed
+    private static final int MAX_VIEWPORT_SIZE = 600;
+
+    private final World world;
+    private final List<Snake> snakes;
+    private final SimulationMetrics metrics;
+    private final RepaintCoalescer repaintCoalescer;
+    //Draws the segments of the visible snakes
+    private final SegmentBatch snakeBatch = new SegmentBatch();
+    private final IntConsumer renderSnake;
+    private volatile double zoom = 1;
+    //Visible part of the view, and of the board in board pixels, null until first painted; read by other threads
+    private volatile Rectangle viewport;
+    private volatile Rectangle2D visibleBoard;
+    //Renders frames on its own thread, null when the view is repainted after every simulation step
+    private volatile ActiveRenderer activeRenderer;
+    //Held while rendering, which happens on the event dispatch thread or on the active renderer's thread
+    private final Object renderLock = new Object();
+    //Occupied squares of the visible part of the board, redrawn when a square is added, or on scroll and zoom.
+    //gridVersion is bumped on the event dispatch thread whenever a square is added.
+    private volatile BufferedImage gridLayer;
+    private volatile int gridVersion;
+    private int gridLayerVersion;
+    private Rectangle gridLayerBounds;
+    private double gridLayerZoom;
+
+    /**
+     * Constructs a BoardView and registers it as the repaint target of the world's moves.
+     *
+     * @param world The world to show.
+     * @param metrics The metrics recording paint times and repaint requests.
+     */
+    public BoardView(World world, SimulationMetrics metrics) {
+        this.world = world;
+        this.snakes = world.getSnakes();
+        this.metrics = metrics;
+        this.repaintCoalescer = new RepaintCoalescer(this);
+        this.repaintCoalescer.setMetrics(metrics);
+        this.renderSnake = index -> snakes.get(index).render(snakeBatch);
+        world.setMoveListener(this::markDirty);
+        world.setStepListener(this::stepCompleted);
+        setOpaque(true);
+        setBackground(UIManager.getColor("Panel.background"));
+        addMouseWheelListener(this::handleMouseWheel);
+    }
+
+    /**
+     * Paints the part of the board inside the clip. With active rendering, the last frame of the
+     * {@link ActiveRenderer} is copied instead, unless it does not match the visible region, for example
+     * right after a scroll.
+     *
+     * @param g The Graphics object used for painting.
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle visible = getVisibleRect();
+        double scale = zoom;
+        viewport = visible;
+        visibleBoard = new Rectangle2D.Double(visible.x / scale, visible.y / scale, visible.width / scale, visible.height / scale);
+        ActiveRenderer renderer = activeRenderer;
+        if(renderer != null && renderer.drawFrame(g, visible, scale)){
+            return;
+        }
+        Rectangle clip = g.getClipBounds();
+        renderBoard((Graphics2D) g, clip != null ? clip : visible, visible, scale);
+    }
+
+    /**
+     * Draws the part of the board inside the clip: the cached grid layer, then the snakes whose square
+     * intersects the clip. Their segments go through a {@link SegmentBatch}, which draws them with
+     * a level of detail that matches the zoom. Called on the event dispatch thread when painting, or on the
+     * render thread of the {@link ActiveRenderer}; only one thread renders at a time.
+     *
+     * @param g2 The graphics context, in the coordinates of this view.
+     * @param clip The region to draw.
+     * @param visible The visible region of this view, covered by the grid layer.
+     * @param scale The zoom to draw at.
+     */
+    void renderBoard(Graphics2D g2, Rectangle clip, Rectangle visible, double scale) {
+        synchronized (renderLock){
+            long start = System.nanoTime();
+            g2.setColor(getBackground());
+            g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+            BufferedImage layer = getGridLayer(visible, scale);
+            g2.drawImage(layer, gridLayerBounds.x, gridLayerBounds.y, null);
+
+            g2.setColor(Color.RED);
+            snakeBatch.begin(g2, scale);
+            world.forEachSnakeIn(clip.x / scale, clip.y / scale, clip.width / scale, clip.height / scale, renderSnake);
+            snakeBatch.end();
+            metrics.recordPaint(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the cached image of the occupied squares in the visible region, rendering it again if it was
+     * invalidated or if the view was scrolled, resized or zoomed since it was drawn.
+     */
+    private BufferedImage getGridLayer(Rectangle visible, double scale) {
+        BufferedImage layer = gridLayer;
+        int version = gridVersion;
+        if(layer == null || version != gridLayerVersion || !visible.equals(gridLayerBounds) || scale != gridLayerZoom){
+            layer = new BufferedImage(Math.max(1, visible.width), Math.max(1, visible.height), BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = layer.createGraphics();
+            try{
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+                g.translate(-visible.x, -visible.y);
+                g.scale(scale, scale);
+                g.setColor(Color.BLUE);
+                world.forEachSquareIn(visible.x / scale, visible.y / scale, visible.width / scale, visible.height / scale, g::fill);
+            } finally {
+                g.dispose();
+            }
+            gridLayerBounds = new Rectangle(visible);
+            gridLayerZoom = scale;
+            gridLayerVersion = version;
+            gridLayer = layer;
+        }
+        return layer;
+    }
+
+    /**
+     * Discards the cached grid layer so that the next paint renders it again.
+     * Must be called on the event dispatch thread when a square is added.
+     */
+    public void invalidateGridLayer() {
+        gridVersion++;
+        gridLayer = null;
+        requestFrame();
+    }
+
+    /**
+     * Asks for the view to be drawn again: a frame of the active renderer, or a Swing repaint.
+     */
+    private void requestFrame() {
+        ActiveRenderer renderer = activeRenderer;
+        if(renderer != null){
+            renderer.requestFrame();
+        } else {
+            repaint();
+        }
+    }
+
+    /**
+     * Called after every simulation step in which a snake moved. Without active rendering, the dirty regions
+     * are repainted; with it, the next frame slot renders a new frame.
+     */
+    private void stepCompleted() {
+        ActiveRenderer renderer = activeRenderer;
+        if(renderer != null){
+            renderer.requestFrame();
+        } else {
+            repaintCoalescer.requestRepaint();
+        }
+    }
+
+    /**
+     * Switches between repainting dirty regions after every simulation step and rendering frames on a render
+     * thread at a capped rate, see {@link ActiveRenderer}. Must be called on the event dispatch thread.
+     *
+     * @param maxFps The maximum number of frames per second, or 0 to repaint after every step.
+     * @throws IllegalArgumentException If the frame rate is negative.
+     */
+    public void setActiveRendering(int maxFps) {
+        if(maxFps < 0){
+            throw new IllegalArgumentException("Frame rate must not be negative");
+        }
+        ActiveRenderer previous = activeRenderer;
+        if(previous != null){
+            previous.stop();
+        }
+        ActiveRenderer renderer = null;
+        if(maxFps > 0){
+            renderer = new ActiveRenderer(this, maxFps);
+            renderer.setMetrics(metrics);
+            if(isDisplayable()){
+                renderer.start();
+            }
+        }
+        activeRenderer = renderer;
+        repaint();
+    }
+
+    /**
+     * Returns the active renderer drawing this view.
+     *
+     * @return The renderer, or null if the view is repainted after every simulation step.
+     */
+    public ActiveRenderer getActiveRenderer() {
+        return activeRenderer;
+    }
+
+    /**
+     * Returns the visible region of this view, as of the last paint.
+     *
+     * @return The visible region, or null if the view was never painted.
+     */
+    Rectangle getViewport() {
+        return viewport;
+    }
+
+    /**
+     * Starts the active renderer, if any, when the view is added to the display.
+     */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        ActiveRenderer renderer = activeRenderer;
+        if(renderer != null){
+            renderer.start();
+        }
+    }
+
+    /**
+     * Stops the active renderer, if any, when the view is removed from the display.
+     */
+    @Override
+    public void removeNotify() {
+        ActiveRenderer renderer = activeRenderer;
+        if(renderer != null){
+            renderer.stop();
+        }
+        super.removeNotify();
+    }
+
+    /**
+     * Marks the square of a snake that moved as dirty, unless it is outside the visible part of the board
+     * or the view is drawn by an active renderer.
+     * Called on the simulation thread.
+     */
+    private void markDirty(Rectangle2D square) {
+        Rectangle2D visible = visibleBoard;
+        if(activeRenderer != null || visible != null && !visible.intersects(square)){
+            return;
+        }
+        double scale = zoom;
+        repaintCoalescer.markDirty(square.getX() * scale, square.getY() * scale,
+                square.getWidth() * scale, square.getHeight() * scale);
+    }
+
+    public double getZoom() {
+        return zoom;
+    }
+
+    /**
+     * Sets the zoom factor, keeping the board point under the anchor at the same place in the viewport.
+     *
+     * @param newZoom The zoom factor, clamped to [{@link #MIN_ZOOM}, {@link #MAX_ZOOM}].
+     * @param anchor The point, in this view's coordinates, that stays fixed.
+     */
+    public void setZoom(double newZoom, Point anchor) {
+        double oldZoom = zoom;
+        double clamped = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, newZoom));
+        if(clamped == oldZoom){
+            return;
+        }
+        zoom = clamped;
+        invalidateGridLayer();
+        revalidate();
+        if(getParent() instanceof JViewport){
+            JViewport viewport = (JViewport) getParent();
+            Point position = viewport.getViewPosition();
+            viewport.setViewSize(getPreferredSize());
+            int x = (int) Math.round(anchor.x / oldZoom * clamped - (anchor.x - position.x));
+            int y = (int) Math.round(anchor.y / oldZoom * clamped - (anchor.y - position.y));
+            viewport.setViewPosition(new Point(Math.max(0, x), Math.max(0, y)));
+        }
+        repaint();
+    }
+
+    /**
+     * Zooms with the control key held down, otherwise passes the event on to the enclosing scroll pane.
+     */
+    private void handleMouseWheel(MouseWheelEvent event) {
+        if(event.isControlDown()){
+            setZoom(zoom * Math.pow(ZOOM_STEP, -event.getPreciseWheelRotation()), event.getPoint());
+            return;
+        }
+        Container scrollPane = SwingUtilities.getAncestorOfClass(JScrollPane.class, this);
+        if(scrollPane != null){
+            scrollPane.dispatchEvent(SwingUtilities.convertMouseEvent(this, event, scrollPane));
+        }
+    }
+
+    /**
+     * Returns the size of the whole board at the current zoom.
+     *
+     * @return The preferred size.
+     */
+    @Override
+    public Dimension getPreferredSize() {
+        SquareGrid grid = world.getSquareGrid();
+        int pitch = grid.getSquareSize() + grid.getSpacing();
+        double width = (world.getColumns() * pitch + grid.getSpacing()) * zoom;
+        double height = (world.getRows() * pitch + grid.getSpacing()) * zoom;
+        return new Dimension((int) Math.ceil(width), (int) Math.ceil(height));
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        Dimension size = getPreferredSize();
+        return new Dimension(Math.min(size.width, MAX_VIEWPORT_SIZE), Math.min(size.height, MAX_VIEWPORT_SIZE));
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        SquareGrid grid = world.getSquareGrid();
+        return Math.max(1, (int) Math.round((grid.getSquareSize() + grid.getSpacing()) * zoom));
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.HORIZONTAL ? visibleRect.width : visibleRect.height;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
@@ -16,9 +16,9 @@ public class ConcreteSnakeFactory implements  SnakeFactory{
     public Snake createSnake(int length, String direction, int x, int y, long speed) {
         MovementStrategy strategy;
         if("Clockwise".equalsIgnoreCase(direction)){
-            strategy = new ClockwiseMovementStrategy();
+            strategy = ClockwiseMovementStrategy.INSTANCE;
         } else if("Anticlockwise".equalsIgnoreCase(direction)){
-            strategy = new AnticlockwiseMovementStrategy();
+            strategy = AnticlockwiseMovementStrategy.INSTANCE;
         } else{
             throw new IllegalArgumentException("Invalid direction" + direction);
         }
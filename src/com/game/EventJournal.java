@@ -0,0 +1,344 @@
+package com.game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only binary log of every event that changes a {@link World}, from which {@link JournalReplay} rebuilds
+ * the exact same board without a user interface. Three kinds of records are written:
+ * <ul>
+ *     <li>a snake was created, with the length, speed and direction it was validated with and its square;</li>
+ *     <li>a step of the {@link SimulationEngine} started at a given simulation time;</li>
+ *     <li>the body of a snake grew by a segment.</li>
+ * </ul>
+ * Times are written as the difference to the previous step and numbers as variable-length integers, and steps
+ * in which no snake moved are left out, so a step usually costs a couple of bytes.
+ *
+ * <p>Records are buffered in memory and written to the file when the buffer is full; the file is forced to disk
+ * at most once per sync interval, so a crash loses at most the records of that interval. A record cut short by
+ * a crash ends the replay. Write errors do not stop the simulation: they are logged, recording stops and the
+ * error is reported by {@link #close()}.</p>
+ *
+ * <p>The journal must be opened before the world starts and before it has snakes. The world and the engine
+ * hold the journal's monitor while they create a snake or start a step, so the records say at which step
+ * every snake started even though snakes are created on another thread than the one running the steps.</p>
+ */
+public final class EventJournal implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(EventJournal.class.getName());
+
+    //"SNKJ"
+    static final int MAGIC = 0x534E4B4A;
+    static final int VERSION = 1;
+    static final byte TICK = 1;
+    static final byte SNAKE_CREATED = 2;
+    static final byte GROWTH = 3;
+
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 100;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    //Largest record without the direction's characters: type, then length, speed, direction size, x and y
+    private static final int MAX_RECORD_BYTES = 1 + 5 * 10;
+
+    private final World world;
+    private final FileChannel channel;
+    private final long syncIntervalNanos;
+    private ByteBuffer buffer;
+    //Simulation time of the last step started and whether it is already written
+    private long tickNanos;
+    private boolean tickWritten = true;
+    //Simulation time of the last step written, the origin of the next one
+    private long lastTickNanos;
+    private long tickCount;
+    private boolean dirty;
+    private long lastSyncNanos;
+    private boolean closed;
+    private IOException failure;
+
+    private EventJournal(World world, FileChannel channel, long syncIntervalMillis) {
+        this.world = world;
+        this.channel = channel;
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+        this.buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        this.lastSyncNanos = System.nanoTime();
+    }
+
+    /**
+     * Creates a journal in the given file, replacing its content, and starts recording the given world,
+     * forcing records to disk every {@value #DEFAULT_SYNC_INTERVAL_MILLIS} milliseconds.
+     *
+     * @param file The file to write.
+     * @param world The world to record.
+     * @return The journal.
+     * @throws IOException If the file cannot be written.
+     * @throws IllegalStateException If the world is running or already has snakes.
+     * @throws UnsupportedOperationException If the world is not driven by a {@link SimulationEngine}.
+     */
+    public static EventJournal open(Path file, World world) throws IOException {
+        return open(file, world, DEFAULT_SYNC_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Creates a journal in the given file, replacing its content, and starts recording the given world.
+     *
+     * @param file The file to write.
+     * @param world The world to record.
+     * @param syncIntervalMillis The longest time records stay in memory or in the page cache before they are
+     *                           forced to disk, in milliseconds; 0 forces them after every step that wrote any.
+     * @return The journal.
+     * @throws IOException If the file cannot be written.
+     * @throws IllegalArgumentException If the sync interval is negative.
+     * @throws IllegalStateException If the world is running or already has snakes.
+     * @throws UnsupportedOperationException If the world is not driven by a {@link SimulationEngine}.
+     */
+    public static EventJournal open(Path file, World world, long syncIntervalMillis) throws IOException {
+        if(syncIntervalMillis < 0){
+            throw new IllegalArgumentException("Sync interval must not be negative");
+        }
+        world.checkJournalable();
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        EventJournal journal = new EventJournal(world, channel, syncIntervalMillis);
+        try{
+            SquareGrid grid = world.getSquareGrid();
+            journal.lastTickNanos = world.getScheduler().getClock().now();
+            journal.buffer.putInt(MAGIC).putInt(VERSION)
+                    .putInt(grid.getSquareSize()).putInt(grid.getSpacing())
+                    .putInt(world.getRows()).putInt(world.getColumns())
+                    .putLong(journal.lastTickNanos);
+            journal.dirty = true;
+            journal.sync();
+            world.setJournal(journal);
+        } catch (IOException | RuntimeException ex){
+            channel.close();
+            throw ex;
+        }
+        return journal;
+    }
+
+    /**
+     * Records that a snake was created in the square at the given position. Called by the world after creating
+     * the snake, while it holds this journal's monitor from before the snake is registered with the engine.
+     *
+     * @param length The length of the snake.
+     * @param speed The interval between two moves, in milliseconds.
+     * @param direction The direction of the snake.
+     * @param x The X coordinate of the square.
+     * @param y The Y coordinate of the square.
+     */
+    synchronized void recordSnakeCreated(int length, long speed, String direction, int x, int y) {
+        if(closed){
+            return;
+        }
+        byte[] name = direction.getBytes(StandardCharsets.UTF_8);
+        writePendingTick();
+        ensureRoom(MAX_RECORD_BYTES + name.length);
+        buffer.put(SNAKE_CREATED);
+        putVarLong(buffer, length);
+        putVarLong(buffer, speed);
+        putVarLong(buffer, name.length);
+        buffer.put(name);
+        putVarLong(buffer, x);
+        putVarLong(buffer, y);
+    }
+
+    /**
+     * Records that the body of a snake grew by a segment during the current step.
+     *
+     * @param snakeIndex The index of the snake in {@link World#getSnakes()}.
+     */
+    synchronized void recordGrowth(int snakeIndex) {
+        if(closed){
+            return;
+        }
+        writePendingTick();
+        ensureRoom(MAX_RECORD_BYTES);
+        buffer.put(GROWTH);
+        putVarLong(buffer, snakeIndex);
+    }
+
+    /**
+     * Notes that a step starts at the given simulation time. Called by the engine while it holds this journal's
+     * monitor; the step is only written if a snake moves during it or a record follows it.
+     *
+     * @param nowNanos The simulation time of the step.
+     */
+    synchronized void beginTick(long nowNanos) {
+        tickNanos = nowNanos;
+        tickWritten = false;
+    }
+
+    /**
+     * Ends the current step and forces the records to disk if the sync interval elapsed.
+     *
+     * @param moved Whether a snake moved during the step.
+     */
+    synchronized void endTick(boolean moved) {
+        if(closed){
+            return;
+        }
+        if(moved){
+            writePendingTick();
+        }
+        if(dirty && System.nanoTime() - lastSyncNanos >= syncIntervalNanos){
+            try{
+                sync();
+            } catch (IOException ex){
+                fail(ex);
+            }
+        }
+    }
+
+    /**
+     * Writes the current step if it was not written yet.
+     */
+    private void writePendingTick() {
+        if(tickWritten){
+            return;
+        }
+        ensureRoom(MAX_RECORD_BYTES);
+        buffer.put(TICK);
+        putVarLong(buffer, zigZag(tickNanos - lastTickNanos));
+        lastTickNanos = tickNanos;
+        tickWritten = true;
+        tickCount++;
+    }
+
+    /**
+     * Makes room for a record of the given size, writing the buffer to the file if needed.
+     */
+    private void ensureRoom(int bytes) {
+        dirty = true;
+        if(buffer.remaining() >= bytes){
+            return;
+        }
+        try{
+            writeBuffer();
+        } catch (IOException ex){
+            fail(ex);
+        }
+        if(buffer.capacity() < bytes){
+            buffer = ByteBuffer.allocate(bytes);
+        }
+    }
+
+    /**
+     * Writes the buffered records to the file.
+     */
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        try{
+            while(buffer.hasRemaining()){
+                channel.write(buffer);
+            }
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Stops recording after a write error, which {@link #close()} reports.
+     */
+    private void fail(IOException ex) {
+        LOGGER.log(Level.SEVERE, "Error writing the event journal, recording stopped", ex);
+        failure = ex;
+        closed = true;
+    }
+
+    /**
+     * Writes the buffered records to the file and forces them to disk.
+     *
+     * @throws IOException If the records cannot be written.
+     */
+    public synchronized void sync() throws IOException {
+        if(closed){
+            return;
+        }
+        writeBuffer();
+        channel.force(false);
+        dirty = false;
+        lastSyncNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns the number of steps written so far.
+     *
+     * @return The number of steps.
+     */
+    public synchronized long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Stops recording the world, writes the buffered records and closes the file.
+     *
+     * @throws IOException If the records cannot be written, or if recording stopped earlier after a write error.
+     */
+    @Override
+    public void close() throws IOException {
+        world.setJournal(null);
+        synchronized (this){
+            try{
+                if(!closed){
+                    sync();
+                }
+            } finally {
+                closed = true;
+                channel.close();
+            }
+            if(failure != null){
+                throw new IOException("Recording stopped after a write error", failure);
+            }
+        }
+    }
+
+    /**
+     * Writes a non-negative number in 7-bit groups, least significant first.
+     */
+    static void putVarLong(ByteBuffer buffer, long value) {
+        while((value & ~0x7FL) != 0){
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads a number written by {@link #putVarLong(ByteBuffer, long)}.
+     *
+     * @throws IOException If the number is longer than ten bytes.
+     */
+    static long getVarLong(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for(int shift = 0; shift < Long.SIZE; shift += 7){
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if(b >= 0){
+                return value;
+            }
+        }
+        throw new IOException("Malformed number in the journal");
+    }
+
+    /**
+     * Maps signed numbers to non-negative ones so small negative numbers stay short.
+     */
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Reverses {@link #zigZag(long)}.
+     */
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,114 @@
+package com.game;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The ways snake tasks can be mapped to threads.
+ */
+public enum ExecutionMode {
+
+    /**
+     * All snakes advanced by the single fixed-step loop of a {@link SimulationEngine}.
+     */
+    FIXED_STEP_LOOP,
+
+    /**
+     * The single fixed-step loop, with each step split across all available cores on a fork/join pool.
+     */
+    PARALLEL_FIXED_STEP_LOOP,
+
+    /**
+     * One fixed-rate future per snake on a shared pool of platform threads.
+     */
+    SCHEDULED_THREAD_POOL,
+
+    /**
+     * All snakes advanced by a single loop that only visits the snakes due at each tick,
+     * bucketed by their next due tick in a {@link TimingWheelScheduler}.
+     */
+    TIMING_WHEEL,
+
+    /**
+     * One virtual thread per snake, sleeping out its own period. Requires a Java 21 or later runtime.
+     */
+    VIRTUAL_THREAD_PER_SNAKE;
+
+    //Size of the platform thread pool, as used by the game before the fixed-step loop
+    private static final int POOL_SIZE = 10;
+
+    /**
+     * Creates a new real-time scheduler running tasks in this mode.
+     *
+     * @return A new, stopped scheduler.
+     * @throws UnsupportedOperationException If the mode is not supported by the running JVM.
+     */
+    public TaskScheduler createScheduler() {
+        return createScheduler(SimulationClock.realTime());
+    }
+
+    /**
+     * Creates a new scheduler running tasks in this mode, driven by the given clock.
+     * Only the fixed-step loop and the timing wheel accept virtual clocks and run movement faster than real time.
+     *
+     * @param clock The simulation clock.
+     * @return A new, stopped scheduler.
+     * @throws IllegalArgumentException If the mode cannot be driven by the clock.
+     * @throws UnsupportedOperationException If the mode is not supported by the running JVM.
+     */
+    public TaskScheduler createScheduler(SimulationClock clock) {
+        switch (this) {
+            case SCHEDULED_THREAD_POOL:
+                return new ScheduledExecutorTaskScheduler(POOL_SIZE, clock);
+            case TIMING_WHEEL:
+                return new TimingWheelScheduler(clock);
+            case VIRTUAL_THREAD_PER_SNAKE:
+                return new ThreadPerTaskScheduler(virtualThreadFactory(), clock);
+            case PARALLEL_FIXED_STEP_LOOP:
+                return new SimulationEngine(SimulationEngine.DEFAULT_STEP_MILLIS, clock,
+                        Runtime.getRuntime().availableProcessors());
+            default:
+                return new SimulationEngine(clock);
+        }
+    }
+
+    /**
+     * Returns whether this mode can run on the current JVM.
+     *
+     * @return true if the mode is supported.
+     */
+    public boolean isSupported() {
+        if(this != VIRTUAL_THREAD_PER_SNAKE){
+            return true;
+        }
+        try{
+            virtualThreadFactory();
+            return true;
+        } catch (UnsupportedOperationException ex){
+            return false;
+        }
+    }
+
+    /**
+     * Returns {@code Thread.ofVirtual().factory()}. The project targets Java 17, so the Java 21 API
+     * is looked up at runtime rather than linked at compile time.
+     *
+     * @return A factory creating virtual threads.
+     * @throws UnsupportedOperationException If the runtime has no virtual threads.
+     */
+    static ThreadFactory virtualThreadFactory() {
+        try{
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodHandle ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(builderClass));
+            MethodHandle factory = lookup.findVirtual(builderClass, "factory", MethodType.methodType(ThreadFactory.class));
+            return (ThreadFactory) factory.invoke(ofVirtual.invoke());
+        } catch (ReflectiveOperationException ex){
+            throw new UnsupportedOperationException("Virtual threads require a Java 21 or later runtime", ex);
+        } catch (Throwable ex){
+            throw new UnsupportedOperationException("Could not create a virtual thread factory", ex);
+        }
+    }
+}
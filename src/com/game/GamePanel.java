@@ -3,41 +3,49 @@ package com.game;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.awt.geom.Rectangle2D;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BiConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * GamePanel represents the main game interface where users can create and interact with snakes.
- * It handles the graphical representation of the game, user inputs, and scheduling tasks for snakes.
+ * It is a view on top of a {@link World}: it shows the board through a scrollable, zoomable {@link BoardView}
+ * and handles user inputs, while the world owns the squares, the snakes and their simulation.
  */
 public class GamePanel extends JPanel {
 
     private static final int SQUARE_SIZE = 50;
     private static final int SPACING = 10;
-    private static final long DEFAULT_SPEED = 100;
+    public static final int DEFAULT_BOARD_ROWS = 1000;
+    public static final int DEFAULT_BOARD_COLUMNS = 1000;
+    //Invalid lines of a scenario logged and listed in the report dialog, the others are only counted
+    private static final int MAX_SCENARIO_ERRORS_SHOWN = 20;
     private static final Logger LOGGER = Logger.getLogger(GamePanel.class.getName());
 
     private JComboBox<String> directionComboBox;
     private JButton createSnakeButton;
+    private JButton saveButton;
+    private JButton loadButton;
+    private JButton scenarioButton;
+    //Lines read and snakes created while a scenario loads in the background, hidden otherwise
+    private JProgressBar scenarioProgress;
     private JTextField lengthField;
     private JTextField speedField;
 
 
+    private World world;
+    //Read-only view of the world's snakes
     private List<Renderable> snakes;
-    private Map<Point, Rectangle2D> squareMap;
-    private ScheduledExecutorService scheduler;
-    //private Map<Snake, ScheduledFuture<?>> snakeTasks;
-    private List<ScheduledFuture<?>> snakeTasks;
-    private SnakeFactory snakeFactory;
+    private SimulationMetrics metrics;
+    private BoardView boardView;
+    //Records the board for replay, null when it is not journaled
+    private EventJournal journal;
 
 
     /**
@@ -46,12 +54,21 @@ public class GamePanel extends JPanel {
      * @param builder The builder instance containing configuration for the GamePanel.
      */
     protected GamePanel(Builder builder){
-        this.snakeFactory = builder.snakeFactory;
-        this.snakes = new ArrayList<>();
-        this.squareMap = new HashMap<>();
-        //this.snakeTasks = new HashMap<>();
-        this.snakeTasks = new ArrayList<>();
-        scheduler = Executors.newScheduledThreadPool(10);
+        this.world = new World(builder.snakeFactory, SQUARE_SIZE, SPACING, builder.executionMode.createScheduler(builder.clock));
+        this.world.setBoardSize(builder.boardRows, builder.boardColumns);
+        this.snakes = Collections.unmodifiableList(world.getSnakes());
+        this.metrics = new SimulationMetrics();
+        this.metrics.setGauges(world::getSnakeCount, world::getSegmentCount);
+        this.world.getScheduler().setMetrics(metrics);
+        this.boardView = new BoardView(world, metrics);
+        this.boardView.setActiveRendering(builder.maxFps);
+        if(builder.journalFile != null){
+            try{
+                this.journal = EventJournal.open(builder.journalFile, world);
+            } catch (IOException ex){
+                throw new UncheckedIOException("Cannot create the event journal", ex);
+            }
+        }
 
 
         this.setLayout(new BorderLayout());
@@ -69,46 +86,29 @@ public class GamePanel extends JPanel {
         controlPanel.add(new JLabel("Speed (ms):"));
         controlPanel.add(speedField);
         controlPanel.add(createSnakeButton);
+        saveButton = new JButton("Save");
+        loadButton = new JButton("Load");
+        controlPanel.add(saveButton);
+        controlPanel.add(loadButton);
+        scenarioButton = new JButton("Scenario");
+        controlPanel.add(scenarioButton);
+        scenarioProgress = new JProgressBar();
+        scenarioProgress.setIndeterminate(true);
+        scenarioProgress.setStringPainted(true);
+        scenarioProgress.setVisible(false);
+        controlPanel.add(scenarioProgress);
+        add(new JScrollPane(boardView), BorderLayout.CENTER);
         add(controlPanel, BorderLayout.SOUTH);
 
         createSnakeButton.addActionListener(this::handleCreateSnakeButtonClick);
-    }
-
-    /**
-     * Paints the component by rendering the grid and snakes.
-     *
-     * @param g The Graphics object used for painting.
-     */
-    public void paintComponent(Graphics g){
-        super.paintComponent(g);
-        Graphics2D g2 = (Graphics2D) g;
-
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
-
-        g2.setColor(Color.BLUE);
-        for(int row = 0; row < getNumRows(); row++){
-            for(int col = 0; col < getNumCols(); col++){
-                int x = col * (SQUARE_SIZE + SPACING) + SPACING;
-                int y = row * (SQUARE_SIZE + SPACING) + SPACING;
-                Rectangle2D sqr = squareMap.get(new Point(x, y));
-                if(sqr != null){
-                    g2.fill(new Rectangle2D.Double(x, y, SQUARE_SIZE, SQUARE_SIZE));
-                } else{
-                    break;
-                }
-            }
-        }
-
-        for(Renderable renderable : snakes){
-            g2.setColor(Color.RED);
-            renderable.render(g2);
-        }
-
+        saveButton.addActionListener(this::handleSaveButtonClick);
+        loadButton.addActionListener(this::handleLoadButtonClick);
+        scenarioButton.addActionListener(this::handleScenarioButtonClick);
     }
 
     /**
      * Handles the click event for creating a new snake.
-     * Validates inputs, creates a new snake, and schedules its task.
+     * Validates inputs and adds a new snake to the world.
      *
      * @param actionEvent The ActionEvent triggered by the button click.
      */
@@ -132,27 +132,8 @@ public class GamePanel extends JPanel {
             int x = position[0];
             int y = position[1];
 
-            if(snakeFactory == null){
-                throw new IllegalArgumentException("SnakeFactory is not initialized");
-            }
-            Snake newSnake = snakeFactory.createSnake(result.getLength(),result.getDirection(),x, y, result.getSpeed());
-            snakes.add(newSnake);
-
-            // Schedule the snake's task
-            ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(() ->{
-                try{
-                    Rectangle2D square = squareMap.get(new Point((int) newSnake.getSnakeStartX(), (int) newSnake.getSnakeStartY()));
-                    if(square != null){
-                        SnakeTask task = new SnakeTask(newSnake, newSnake, square);
-                        task.run();
-                        SwingUtilities.invokeLater(GamePanel.this::repaint);
-                    }
-                } catch (Exception ex){
-                    LOGGER.log(Level.SEVERE, "Error updating snake position", ex);
-                }
-            }, 0, (long)newSnake.getSpeed(), TimeUnit.MILLISECONDS);
-            //snakeTasks.put(newSnake, future);
-            snakeTasks.add(future);
+            world.addSnake(result.getLength(), result.getDirection(), x, y, result.getSpeed());
+            world.start();
         } catch (Exception ex){
             LOGGER.log(Level.SEVERE, "Unexpected error occurred", ex);
             JOptionPane.showMessageDialog(GamePanel.this,"An unexpected error occurred. Please try again.","Error", JOptionPane.ERROR_MESSAGE);
@@ -160,94 +141,243 @@ public class GamePanel extends JPanel {
     }
 
     /**
-     * Validates user inputs from the text fields and combo box.
+     * Handles the click event for saving the board to a file chosen by the user.
      *
-     * @return A ValidationResult object containing validation results.
+     * @param actionEvent The ActionEvent triggered by the button click.
      */
-    private ValidationResult validateInputs(){
-        StringBuilder errors = new StringBuilder();
-        int length = 0;
-        long speed = 0;
-        String direction = (String) directionComboBox.getSelectedItem();
-
-        //validate length
-        String lengthText = lengthField.getText().trim();
-        try{
-            length = validateLength(lengthText);
-        } catch(IllegalArgumentException ex){
-            errors.append(ex.getMessage()).append("\n");
-            LOGGER.warning("Length validation failed: "+ex.getMessage());
+    private void handleSaveButtonClick(ActionEvent actionEvent) {
+        JFileChooser chooser = new JFileChooser();
+        if(chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION){
+            return;
         }
-
-        //validate speed
-        String speedText = speedField.getText().trim();
         try{
-            speed = validateSpeed(speedText);
-        } catch (IllegalArgumentException ex){
-            errors.append(ex.getMessage()).append("\n");
-            LOGGER.warning("Speed validation failed: "+ex.getMessage());
+            save(chooser.getSelectedFile().toPath());
+        } catch (IOException | IllegalArgumentException ex){
+            LOGGER.log(Level.WARNING, "Could not save the board", ex);
+            JOptionPane.showMessageDialog(GamePanel.this, "Could not save the board: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
+    }
 
-        //validate direction
+    /**
+     * Handles the click event for loading a board saved in a file chosen by the user.
+     *
+     * @param actionEvent The ActionEvent triggered by the button click.
+     */
+    private void handleLoadButtonClick(ActionEvent actionEvent) {
+        if(world.getSquareGrid().getOccupiedCount() > 0){
+            JOptionPane.showMessageDialog(GamePanel.this, "A board can only be loaded into an empty game", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        if(chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION){
+            return;
+        }
         try{
-            validateDirection(direction);
-        } catch (IllegalArgumentException ex){
-            errors.append(ex.getMessage()).append("\n");
-            LOGGER.warning("Direction validation failed: "+ex.getMessage());
+            load(chooser.getSelectedFile().toPath());
+        } catch (IOException | IllegalStateException ex){
+            LOGGER.log(Level.WARNING, "Could not load the board", ex);
+            JOptionPane.showMessageDialog(GamePanel.this, "Could not load the board: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
-
-        boolean isValid = errors.length() == 0;
-        return new ValidationResult(isValid, isValid ? null : errors.toString(), length, speed, direction);
     }
 
     /**
-     * Validates the length input.
+     * Handles the click event for creating the snakes of a scenario file chosen by the user in the background,
+     * then reports how many were created and the first invalid lines.
      *
-     * @param lengthText The length input text.
-     * @return The validated length as an integer.
-     * @throws IllegalArgumentException If the length is invalid.
+     * @param actionEvent The ActionEvent triggered by the button click.
      */
-    private int validateLength(String lengthText) {
-        try{
-            int length = Integer.parseInt(lengthText);
-            if(length <= 0){
-                throw new IllegalArgumentException("Length must be a positive integer");
+    private void handleScenarioButtonClick(ActionEvent actionEvent) {
+        JFileChooser chooser = new JFileChooser();
+        if(chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION){
+            return;
+        }
+        //Only touched by the loading thread until the load ends
+        StringBuilder errors = new StringBuilder();
+        int[] shown = new int[1];
+        loadScenarioInBackground(chooser.getSelectedFile().toPath(), (lineNumber, message) -> {
+            if(shown[0] < MAX_SCENARIO_ERRORS_SHOWN){
+                shown[0]++;
+                LOGGER.warning("Invalid scenario line " + lineNumber + ": " + message);
+                errors.append("Line ").append(lineNumber).append(": ").append(message.replace('\n', ' ')).append("\n");
             }
-            return length;
-        } catch (NumberFormatException e){
-            throw new IllegalArgumentException("Invalid length. Please enter a positive integer");
+        }, (report, error) -> reportScenario(report, error, errors));
+    }
+
+    /**
+     * Shows what a scenario added to the board, with the first invalid lines, or why it could not be read.
+     */
+    private void reportScenario(ScenarioLoader.Report report, IOException error, CharSequence errors) {
+        if(error != null){
+            LOGGER.log(Level.WARNING, "Could not load the scenario", error);
+            JOptionPane.showMessageDialog(GamePanel.this, "Could not load the scenario: " + error.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if(report.getInvalid() > MAX_SCENARIO_ERRORS_SHOWN){
+            LOGGER.warning((report.getInvalid() - MAX_SCENARIO_ERRORS_SHOWN) + " more invalid scenario lines were not logged");
         }
+        StringBuilder summary = new StringBuilder()
+                .append(report.getCreated()).append(" snakes created from ").append(report.getLines()).append(" lines");
+        if(report.getUnplaced() > 0){
+            summary.append(", ").append(report.getUnplaced()).append(" left out because the board is full");
+        }
+        if(report.getInvalid() > 0){
+            summary.append(", ").append(report.getInvalid()).append(" invalid lines:\n").append(errors);
+        }
+        JOptionPane.showMessageDialog(GamePanel.this, summary.toString(), "Scenario",
+                report.getInvalid() > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
     }
 
     /**
-     * Validates the speed input.
+     * Saves the board and its snakes to a file, see {@link WorldSnapshot}.
+     * This method must be called on the event dispatch thread.
      *
-     * @param speedText The speed input text.
-     * @return The validated speed as a long.
-     * @throws IllegalArgumentException If the speed is invalid.
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
      */
-    private long validateSpeed(String speedText) {
-        try{
-            long speed = speedText.isEmpty() ? DEFAULT_SPEED : Long.parseLong(speedText);
-            if(speed<= 0){
-                throw new IllegalArgumentException("Speed must be a positive integer");
+    public void save(Path file) throws IOException {
+        WorldSnapshot.save(world, file);
+    }
+
+    /**
+     * Restores a board saved by {@link #save(Path)} and starts the simulation.
+     * This method must be called on the event dispatch thread, while the board is still empty.
+     *
+     * @param file The file to read.
+     * @return The number of snakes restored.
+     * @throws IOException If the file cannot be read or is not a valid snapshot.
+     * @throws IllegalStateException If the board already has squares.
+     */
+    public int load(Path file) throws IOException {
+        int restored = WorldSnapshot.load(file, world).size();
+        boardView.invalidateGridLayer();
+        boardView.revalidate();
+        world.start();
+        return restored;
+    }
+
+    /**
+     * Creates the snakes of a scenario file in the free squares of the board, see {@link ScenarioLoader},
+     * and starts the simulation. This method must be called on the event dispatch thread.
+     *
+     * @param file The scenario file.
+     * @param errorListener The listener notified of every invalid line, or null.
+     * @return What the scenario added to the board.
+     * @throws IOException If the file cannot be read.
+     */
+    public ScenarioLoader.Report loadScenario(Path file, ScenarioLoader.ErrorListener errorListener) throws IOException {
+        ScenarioLoader loader = new ScenarioLoader(world);
+        loader.setErrorListener(errorListener);
+        loader.setProgressListener((lines, created) -> LOGGER.fine("Scenario: " + lines + " lines read, " + created + " snakes created"));
+        ScenarioLoader.Report report = loader.load(file);
+        scenarioLoaded(report);
+        return report;
+    }
+
+    /**
+     * Creates the snakes of a scenario file like {@link #loadScenario(Path, ScenarioLoader.ErrorListener)}, but on a
+     * background thread, so the interface stays responsive for files of any size. While the file loads, that
+     * thread controls the board: the buttons changing it are disabled, and a progress bar shows the lines read and
+     * the snakes created. This method must be called on the event dispatch thread.
+     *
+     * @param file The scenario file.
+     * @param errorListener The listener notified of every invalid line on the loading thread, or null.
+     * @param onDone Called on the event dispatch thread once the load ended and the simulation started, with the
+     *               report, or with the error if the file could not be read.
+     * @return The worker loading the file, already started.
+     */
+    public SwingWorker<ScenarioLoader.Report, long[]> loadScenarioInBackground(Path file,
+            ScenarioLoader.ErrorListener errorListener, BiConsumer<ScenarioLoader.Report, IOException> onDone) {
+        setBoardControlsEnabled(false);
+        scenarioProgress.setString("Loading scenario");
+        scenarioProgress.setVisible(true);
+        revalidate();
+        SwingWorker<ScenarioLoader.Report, long[]> worker = new SwingWorker<>() {
+            @Override
+            protected ScenarioLoader.Report doInBackground() throws IOException {
+                ScenarioLoader loader = new ScenarioLoader(world);
+                loader.setErrorListener(errorListener);
+                loader.setProgressListener((lines, created) -> publish(new long[]{lines, created}));
+                return loader.load(file);
+            }
+
+            @Override
+            protected void process(List<long[]> progress) {
+                long[] last = progress.get(progress.size() - 1);
+                scenarioProgress.setString(last[0] + " lines read, " + last[1] + " snakes created");
+            }
+
+            @Override
+            protected void done() {
+                scenarioProgress.setVisible(false);
+                setBoardControlsEnabled(true);
+                revalidate();
+                ScenarioLoader.Report report = null;
+                IOException error = null;
+                try{
+                    report = get();
+                    scenarioLoaded(report);
+                } catch (ExecutionException ex){
+                    if(!(ex.getCause() instanceof IOException)){
+                        throw new IllegalStateException("Unexpected error loading the scenario", ex.getCause());
+                    }
+                    error = (IOException) ex.getCause();
+                } catch (InterruptedException ex){
+                    //done() runs once the load ended, so get() does not wait
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                onDone.accept(report, error);
             }
-            return speed;
-        } catch (NumberFormatException e){
-            throw new IllegalArgumentException("Invalid speed. Please enter a positive integer");
+        };
+        worker.execute();
+        return worker;
+    }
+
+    /**
+     * Shows the squares of the snakes created by a scenario and starts them.
+     */
+    private void scenarioLoaded(ScenarioLoader.Report report) {
+        if(report.getCreated() > 0){
+            boardView.invalidateGridLayer();
+            world.start();
         }
     }
 
     /**
-     * Validates the direction input.
+     * Enables or disables the buttons changing the board, which are disabled while a scenario loads.
+     */
+    private void setBoardControlsEnabled(boolean enabled) {
+        createSnakeButton.setEnabled(enabled);
+        saveButton.setEnabled(enabled);
+        loadButton.setEnabled(enabled);
+        scenarioButton.setEnabled(enabled);
+    }
+
+    /**
+     * Creates a batch of snakes in the free squares of the board and starts the simulation.
+     * This method must be called on the event dispatch thread.
      *
-     * @param direction The direction input.
-     * @throws IllegalArgumentException If the direction is invalid.
+     * @param specs The snakes to create.
+     * @return The number of snakes created, less than the number of specs if the board is full.
+     * @throws IllegalArgumentException If a direction is invalid.
      */
-    private void validateDirection(String direction) {
-        if(!"Clockwise".equalsIgnoreCase(direction) && !"Anticlockwise".equalsIgnoreCase(direction)){
-            throw new IllegalArgumentException("Invalid direction. Please select 'Clockwise' or 'Anticlockwise'");
+    public int createSnakes(List<SnakeSpec> specs){
+        int created = world.addSnakes(specs).size();
+        if(created > 0){
+            boardView.invalidateGridLayer();
+            world.start();
         }
+        return created;
+    }
+
+    /**
+     * Validates user inputs from the text fields and combo box, see {@link SnakeValidator}.
+     *
+     * @return A ValidationResult object containing validation results.
+     */
+    private ValidationResult validateInputs(){
+        return SnakeValidator.validate(lengthField.getText().trim(), speedField.getText().trim(),
+                (String) directionComboBox.getSelectedItem());
     }
 
     /**
@@ -257,19 +387,11 @@ public class GamePanel extends JPanel {
      */
     private int[] findAvailablePosition() {
         try{
-            for(int row = 0; row < getNumRows(); row++){
-                for(int col = 0; col < getNumCols(); col++){
-                    int x = col * (SQUARE_SIZE + SPACING) + SPACING;
-                    int y = row * (SQUARE_SIZE + SPACING) + SPACING;
-                    Point p = new Point(x, y);
-                    if(squareMap.get(p) == null){
-                        Rectangle2D square = new Rectangle2D.Double(x, y, SQUARE_SIZE, SQUARE_SIZE);
-                        squareMap.put(p, square);
-                        return new int[]{x,y};
-                    }
-
-                }
+            int[] position = world.findAvailablePosition();
+            if(position.length > 0){
+                boardView.invalidateGridLayer();
             }
+            return position;
         } catch(Exception ex){
             LOGGER.log(Level.SEVERE,"Error finding available psoition", ex);
         }
@@ -277,41 +399,40 @@ public class GamePanel extends JPanel {
     }
 
     /**
-     * Calculates the number of rows in the panel based on its height.
-     *
-     * @return The number of rows.
+     * Registers the simulation metrics MBean when the panel is added to the display.
      */
-    private int getNumRows(){
-        return (getHeight() -SPACING) / (SQUARE_SIZE + SPACING);
-    }
-
-    /**
-     * Calculates the number of columns in the panel based on its width.
-     *
-     * @return The number of columns.
-     */
-    private int getNumCols(){
-        return (getWidth() -SPACING) / (SQUARE_SIZE + SPACING);
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        metrics.register();
     }
 
-
     /**
-     * Cancels all scheduled tasks when the panel is removed from the display.
+     * Stops the simulation, unregisters the metrics MBean and closes the journal when the panel is removed
+     * from the display.
      */
     @Override
     public void removeNotify() {
         super.removeNotify();
-        cancelAllTasks();
+        world.stop();
+        metrics.unregister();
+        closeJournal();
     }
 
     /**
-     * Cancels all scheduled tasks associated with the snakes.
+     * Stops recording the board and writes the last records of the journal, if the board is journaled.
+     * Errors are logged, the journal keeps every record written before them.
      */
-    private void cancelAllTasks() {
-        for (ScheduledFuture<?> task : snakeTasks) {
-            task.cancel(true);
+    public void closeJournal() {
+        if(journal == null){
+            return;
         }
-        snakeTasks.clear();
+        try{
+            journal.close();
+        } catch (IOException ex){
+            LOGGER.log(Level.SEVERE, "Error closing the event journal", ex);
+        }
+        journal = null;
     }
 
     /**
@@ -329,6 +450,12 @@ public class GamePanel extends JPanel {
      */
     public static class Builder{
         public SnakeFactory snakeFactory;
+        public ExecutionMode executionMode = ExecutionMode.FIXED_STEP_LOOP;
+        public SimulationClock clock = SimulationClock.realTime();
+        public int boardRows = DEFAULT_BOARD_ROWS;
+        public int boardColumns = DEFAULT_BOARD_COLUMNS;
+        public int maxFps;
+        public Path journalFile;
 
         /**
          * Sets the SnakeFactory for the Builder.
@@ -341,16 +468,95 @@ public class GamePanel extends JPanel {
             return this;
         }
 
+        /**
+         * Sets how the snakes are mapped to threads. Defaults to {@link ExecutionMode#FIXED_STEP_LOOP}.
+         *
+         * @param executionMode The execution mode.
+         * @return The current Builder instance.
+         */
+        public Builder withExecutionMode(ExecutionMode executionMode){
+            this.executionMode = executionMode;
+            return this;
+        }
+
+        /**
+         * Sets the clock of the simulation, for example an accelerated clock to run faster than real time.
+         * Defaults to a real-time clock.
+         *
+         * @param clock The simulation clock.
+         * @return The current Builder instance.
+         */
+        public Builder withClock(SimulationClock clock){
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Sets the size of the logical board in squares, independent of the size of the window.
+         * Defaults to {@link #DEFAULT_BOARD_ROWS} by {@link #DEFAULT_BOARD_COLUMNS}.
+         *
+         * @param rows The number of rows.
+         * @param columns The number of columns.
+         * @return The current Builder instance.
+         */
+        public Builder withBoardSize(int rows, int columns){
+            this.boardRows = rows;
+            this.boardColumns = columns;
+            return this;
+        }
+
+        /**
+         * Draws the board on a render thread at no more than the given frame rate, whatever the speed of the
+         * snakes, see {@link ActiveRenderer}. By default the board is repainted after every simulation step.
+         *
+         * @param maxFps The maximum number of frames per second, or 0 to repaint after every step.
+         * @return The current Builder instance.
+         */
+        public Builder withActiveRendering(int maxFps){
+            this.maxFps = maxFps;
+            return this;
+        }
+
+        /**
+         * Records every snake created, every step and every growth of the board to the given file, so the board
+         * can be rebuilt later with {@link JournalReplay}. The file is replaced. By default nothing is recorded.
+         * Only the {@link ExecutionMode#FIXED_STEP_LOOP} can be journaled.
+         *
+         * @param journalFile The journal file.
+         * @return The current Builder instance.
+         */
+        public Builder withJournal(Path journalFile){
+            this.journalFile = journalFile;
+            return this;
+        }
+
         /**
          * Builds a GamePanel instance.
          *
          * @return A new GamePanel instance.
-         * @throws IllegalStateException If the SnakeFactory is not set.
+         * @throws IllegalStateException If the SnakeFactory, the ExecutionMode or the SimulationClock is not set,
+         *                               if the board size is not positive or the frame rate is negative.
+         * @throws IllegalArgumentException If the ExecutionMode cannot be driven by the SimulationClock.
+         * @throws UnsupportedOperationException If the ExecutionMode is not supported by the running JVM,
+         *                                       or a journal is requested for another mode than the fixed-step loop.
+         * @throws UncheckedIOException If the journal cannot be created.
          */
         public GamePanel build(){
             if(snakeFactory == null){
                 throw new IllegalStateException("SnakeFactory must be set");
             }
+            if(executionMode == null){
+                throw new IllegalStateException("ExecutionMode must be set");
+            }
+            if(clock == null){
+                throw new IllegalStateException("SimulationClock must be set");
+            }
+            if(boardRows <= 0 || boardColumns <= 0){
+                throw new IllegalStateException("Board size must be positive");
+            }
+            if(maxFps < 0){
+                throw new IllegalStateException("Frame rate must not be negative");
+            }
             return new GamePanel(this);
         }
     }
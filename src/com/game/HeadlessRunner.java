@@ -0,0 +1,112 @@
+package com.game;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a {@link World} without any user interface, as fast as the CPU allows, and reports throughput
+ * and step latency. Time is simulated: the world runs on a {@link SimulationClock#virtual(long) virtual clock}
+ * and every tick advances it by one step of {@link SimulationEngine#DEFAULT_STEP_MILLIS}, so the run is not
+ * limited by wall-clock scheduling and snakes grow at the simulated pace.
+ */
+public class HeadlessRunner {
+
+    private static final int SNAKE_LENGTH = 5;
+    private static final long SPEED = 1;
+
+    private final int snakeCount;
+    private final long ticks;
+    private final int parallelism;
+
+    /**
+     * Constructs a HeadlessRunner advancing the snakes on a single thread.
+     *
+     * @param snakeCount The number of snakes to create.
+     * @param ticks The number of engine steps to run.
+     * @throws IllegalArgumentException If either value is not positive.
+     */
+    public HeadlessRunner(int snakeCount, long ticks) {
+        this(snakeCount, ticks, 1);
+    }
+
+    /**
+     * Constructs a HeadlessRunner advancing the snakes of each step on the given number of threads.
+     *
+     * @param snakeCount The number of snakes to create.
+     * @param ticks The number of engine steps to run.
+     * @param parallelism The number of threads of the parallel step.
+     * @throws IllegalArgumentException If any value is not positive.
+     */
+    public HeadlessRunner(int snakeCount, long ticks, int parallelism) {
+        if(snakeCount <= 0 || ticks <= 0 || parallelism <= 0){
+            throw new IllegalArgumentException("Snake count, ticks and parallelism must be positive integers");
+        }
+        this.snakeCount = snakeCount;
+        this.ticks = ticks;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Creates the snakes on a square board just large enough to hold them, alternating directions.
+     *
+     * @return The populated world.
+     */
+    World createWorld() {
+        World world = new World(new ConcreteSnakeFactory(), World.DEFAULT_SQUARE_SIZE, World.DEFAULT_SPACING,
+                new SimulationEngine(SimulationEngine.DEFAULT_STEP_MILLIS,
+                        SimulationClock.virtual(SimulationEngine.DEFAULT_STEP_MILLIS), parallelism));
+        int side = (int) Math.ceil(Math.sqrt(snakeCount));
+        world.setBoardSize(side, side);
+        List<SnakeSpec> specs = new ArrayList<>(snakeCount);
+        for(int i = 0; i < snakeCount; i++){
+            specs.add(new SnakeSpec(SNAKE_LENGTH, i % 2 == 0 ? "Clockwise" : "Anticlockwise", SPEED));
+        }
+        world.addSnakes(specs);
+        return world;
+    }
+
+    /**
+     * Runs the simulation and prints the statistics to the given stream.
+     *
+     * @param out The stream to print the report to.
+     */
+    public void run(PrintStream out) {
+        World world = createWorld();
+        long stepNanos = TimeUnit.MILLISECONDS.toNanos(SimulationEngine.DEFAULT_STEP_MILLIS);
+        long[] latencies = new long[(int) Math.min(ticks, Integer.MAX_VALUE)];
+        long moves = 0;
+
+        long start = System.nanoTime();
+        try{
+            for(long tick = 0; tick < ticks; tick++){
+                long stepStart = System.nanoTime();
+                moves += world.step(tick * stepNanos);
+                if(tick < latencies.length){
+                    latencies[(int) tick] = System.nanoTime() - stepStart;
+                }
+            }
+        } finally {
+            //Shuts down the threads of the parallel step
+            world.stop();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        double seconds = elapsed / 1e9;
+        out.printf("Snakes: %d, ticks: %d, threads: %d, elapsed: %.3f s%n", snakeCount, ticks, parallelism, seconds);
+        out.printf("Throughput: %.1f ticks/s, %.0f snake moves/s%n", ticks / seconds, moves / seconds);
+        out.printf("Tick latency (us): p50=%.1f p99=%.1f max=%.1f%n",
+                percentile(latencies, 0.50) / 1e3, percentile(latencies, 0.99) / 1e3, latencies[latencies.length - 1] / 1e3);
+    }
+
+    /**
+     * Returns the value at the given quantile of a sorted array.
+     */
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
@@ -0,0 +1,312 @@
+package com.game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Rebuilds the board recorded by an {@link EventJournal}, without a user interface and as fast as the CPU allows.
+ * The replayed world runs on its own {@link SimulationEngine}, which is stepped at the simulation times of the
+ * recorded steps, and snakes are created in their recorded squares between the same steps as in the original
+ * world, so every snake moves and grows exactly as it did.
+ *
+ * <p>The replay can stop after any step, so the board can be inspected there, and then go on. Every growth
+ * recorded during a step is compared with the growths of the replayed step; a difference means the replay
+ * no longer matches the recorded board and is reported as an {@link IllegalStateException}.</p>
+ *
+ * <p>The journal is read sequentially through a small buffer, so journals of any size can be replayed.
+ * This class is not thread-safe.</p>
+ */
+public final class JournalReplay implements Closeable {
+
+    private static final int HEADER_BYTES = 6 * Integer.BYTES + Long.BYTES;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    //Largest record without the direction's characters, see EventJournal
+    private static final int MAX_RECORD_BYTES = 1 + 5 * 10;
+    //Longer directions can only come from a corrupted record
+    private static final int MAX_DIRECTION_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+    private final World world;
+    private ByteBuffer buffer;
+    //Offset in the file of the first byte in the buffer
+    private long bufferOffset;
+    private boolean endOfFile;
+    private boolean finished;
+    private long tick;
+    private long tickNanos;
+    //Snakes that grew during the last replayed step, and those the journal says grew during it
+    private int[] grown = new int[16];
+    private int grownCount;
+    private int[] recorded = new int[16];
+    private int recordedCount;
+
+    private JournalReplay(FileChannel channel, World world, ByteBuffer buffer, long origin) {
+        this.channel = channel;
+        this.world = world;
+        this.buffer = buffer;
+        this.tickNanos = origin;
+    }
+
+    /**
+     * Opens a journal and creates the empty world it starts from. Snakes are created by the given factory,
+     * which must build the same snakes as the factory of the recorded world.
+     *
+     * @param file The journal to replay.
+     * @param snakeFactory The factory for creating snakes.
+     * @return The replay, positioned before the first record.
+     * @throws IOException If the file cannot be read, is not a journal or has an unsupported version.
+     */
+    public static JournalReplay open(Path file, SnakeFactory snakeFactory) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try{
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+            while(buffer.position() < HEADER_BYTES && channel.read(buffer) >= 0){
+                //Keep reading until the header is complete or the file ends
+            }
+            buffer.flip();
+            if(buffer.remaining() < HEADER_BYTES || buffer.getInt() != EventJournal.MAGIC){
+                throw new IOException("Not an event journal");
+            }
+            int version = buffer.getInt();
+            if(version != EventJournal.VERSION){
+                throw new IOException("Unsupported journal version " + version);
+            }
+            int squareSize = buffer.getInt();
+            int spacing = buffer.getInt();
+            int rows = buffer.getInt();
+            int columns = buffer.getInt();
+            long origin = buffer.getLong();
+            if(squareSize <= 0 || spacing < 0 || rows < 0 || columns < 0){
+                throw new IOException("Invalid board layout in the journal");
+            }
+            World world = new World(snakeFactory, squareSize, spacing,
+                    new SimulationEngine(SimulationClock.virtual(SimulationEngine.DEFAULT_STEP_MILLIS)));
+            world.setBoardSize(rows, columns);
+            world.getScheduler().getClock().advanceTo(origin);
+            JournalReplay replay = new JournalReplay(channel, world, buffer, origin);
+            world.setGrowthListener(replay::snakeGrew);
+            return replay;
+        } catch (IOException | RuntimeException ex){
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Replays the journal up to the end of the given step, counted from 1, or to the end of the journal if it
+     * has fewer steps. The world is then as it was just before the next recorded step started, including the
+     * snakes created in between.
+     *
+     * @param lastTick The number of the last step to replay.
+     * @return The number of steps replayed so far.
+     * @throws IOException If the journal cannot be read or a record is corrupted.
+     * @throws IllegalStateException If the replayed board no longer matches the recorded one.
+     */
+    public long replayTo(long lastTick) throws IOException {
+        while(!finished){
+            fill(MAX_RECORD_BYTES);
+            if(!buffer.hasRemaining()){
+                finishTick(false);
+                finished = true;
+                break;
+            }
+            int start = buffer.position();
+            try{
+                byte type = buffer.get();
+                switch(type){
+                    case EventJournal.TICK:
+                        if(tick >= lastTick){
+                            buffer.position(start);
+                            finishTick(true);
+                            return tick;
+                        }
+                        long nanos = tickNanos + EventJournal.unZigZag(EventJournal.getVarLong(buffer));
+                        finishTick(true);
+                        tick++;
+                        tickNanos = nanos;
+                        world.step(nanos);
+                        break;
+                    case EventJournal.SNAKE_CREATED:
+                        createSnake(bufferOffset + start);
+                        break;
+                    case EventJournal.GROWTH:
+                        int snakeIndex = (int) EventJournal.getVarLong(buffer);
+                        recorded = add(recorded, recordedCount++, snakeIndex);
+                        break;
+                    default:
+                        throw new IOException("Unknown record type " + type + " at offset " + (bufferOffset + start));
+                }
+            } catch (BufferUnderflowException ex){
+                //The last record was cut short when the journal was written
+                finishTick(false);
+                finished = true;
+            }
+        }
+        return tick;
+    }
+
+    /**
+     * Replays the whole journal.
+     *
+     * @return The number of steps replayed.
+     * @throws IOException If the journal cannot be read or a record is corrupted.
+     * @throws IllegalStateException If the replayed board no longer matches the recorded one.
+     */
+    public long replayAll() throws IOException {
+        return replayTo(Long.MAX_VALUE);
+    }
+
+    /**
+     * Reads a snake creation and creates the snake in its recorded square.
+     */
+    private void createSnake(long offset) throws IOException {
+        int length = (int) EventJournal.getVarLong(buffer);
+        long speed = EventJournal.getVarLong(buffer);
+        int nameLength = (int) EventJournal.getVarLong(buffer);
+        if(nameLength < 0 || nameLength > MAX_DIRECTION_BYTES){
+            throw new IOException("Corrupted snake record at offset " + offset);
+        }
+        fill(nameLength + 2 * 10);
+        byte[] name = new byte[nameLength];
+        buffer.get(name);
+        int x = (int) EventJournal.getVarLong(buffer);
+        int y = (int) EventJournal.getVarLong(buffer);
+        if(!world.reserveSquareAt(x, y)){
+            throw new IOException("Snake record at offset " + offset + " uses an invalid or occupied square " + x + "," + y);
+        }
+        try{
+            world.addSnake(length, new String(name, StandardCharsets.UTF_8), x, y, speed);
+        } catch (IllegalArgumentException ex){
+            throw new IOException("Invalid snake record at offset " + offset, ex);
+        }
+    }
+
+    /**
+     * Makes at least the given number of bytes available in the buffer, unless the file ends first.
+     */
+    private void fill(int bytes) throws IOException {
+        if(buffer.remaining() >= bytes || endOfFile){
+            return;
+        }
+        if(buffer.capacity() < bytes){
+            ByteBuffer larger = ByteBuffer.allocate(bytes);
+            larger.put(buffer);
+            buffer = larger;
+        } else {
+            buffer.compact();
+        }
+        bufferOffset = channel.position() - buffer.position();
+        while(buffer.hasRemaining()){
+            if(channel.read(buffer) < 0){
+                endOfFile = true;
+                break;
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Called on the replay thread when a snake grew during the current step.
+     */
+    private void snakeGrew(int snakeIndex) {
+        grown = add(grown, grownCount++, snakeIndex);
+    }
+
+    /**
+     * Checks that the snakes that grew during the last step are the ones the journal recorded, in any order.
+     * The journal may end before all the growths of its last step were written.
+     *
+     * @param complete Whether every record of the step was read, false for the last step of the journal.
+     */
+    private void finishTick(boolean complete) {
+        Arrays.sort(grown, 0, grownCount);
+        Arrays.sort(recorded, 0, recordedCount);
+        boolean matching = complete ? Arrays.equals(grown, 0, grownCount, recorded, 0, recordedCount)
+                : contains(grown, grownCount, recorded, recordedCount);
+        if(!matching){
+            throw new IllegalStateException("Replay diverged from the journal at step " + tick + ": "
+                    + grownCount + " snakes grew, " + recordedCount + " recorded");
+        }
+        grownCount = 0;
+        recordedCount = 0;
+    }
+
+    /**
+     * Returns whether every value of a sorted array occurs in another sorted array, at least as many times.
+     */
+    private static boolean contains(int[] values, int count, int[] subset, int subsetCount) {
+        int i = 0;
+        for(int j = 0; j < subsetCount; j++){
+            while(i < count && values[i] < subset[j]){
+                i++;
+            }
+            if(i == count || values[i] != subset[j]){
+                return false;
+            }
+            i++;
+        }
+        return true;
+    }
+
+    /**
+     * Stores a value at the given index, growing the array if needed.
+     */
+    private static int[] add(int[] values, int index, int value) {
+        int[] target = index < values.length ? values : Arrays.copyOf(values, values.length * 2);
+        target[index] = value;
+        return target;
+    }
+
+    /**
+     * Returns the replayed world. It is stepped by the replay only and never started.
+     *
+     * @return The world.
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Returns the number of steps replayed so far.
+     *
+     * @return The number of steps.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Returns the simulation time of the last step replayed, or the time the recording started at.
+     *
+     * @return The simulation time in nanoseconds.
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Returns whether the whole journal has been replayed.
+     *
+     * @return true if the end of the journal was reached, false otherwise.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Closes the journal file.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
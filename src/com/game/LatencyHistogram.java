@@ -0,0 +1,122 @@
+package com.game;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds with log-linear buckets.
+ * Each power of two is split into four buckets, so reported percentiles are within 25% of the recorded value.
+ * The count of every bucket is a {@link LongAdder} and the maximum a {@link LongAccumulator}, which both spread
+ * over per-thread cells once several threads record at the same time, so the workers of a parallel step
+ * recording into the same bucket do not contend on one cache line. Reading sums the cells.
+ */
+public class LatencyHistogram {
+
+    //Values below this are counted exactly, one bucket per value
+    private static final int LINEAR_LIMIT = 8;
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - 3) * SUB_BUCKETS;
+
+    private final LongAdder[] counts = new LongAdder[BUCKET_COUNT];
+    //Only written when a value exceeds the maximum already seen
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Constructs an empty histogram.
+     */
+    public LatencyHistogram() {
+        for(int i = 0; i < BUCKET_COUNT; i++){
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a duration. Negative values are recorded as zero.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucketOf(value)].increment();
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return The number of values.
+     */
+    public long getCount() {
+        long total = 0;
+        for(int i = 0; i < BUCKET_COUNT; i++){
+            total += counts[i].sum();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return The maximum in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns an upper bound of the value at the given quantile.
+     *
+     * @param quantile The quantile, between 0 and 1.
+     * @return The value in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double quantile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for(int i = 0; i < BUCKET_COUNT; i++){
+            snapshot[i] = counts[i].sum();
+            total += snapshot[i];
+        }
+        if(total == 0){
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for(int i = 0; i < BUCKET_COUNT; i++){
+            seen += snapshot[i];
+            if(seen >= rank){
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Clears every recorded value.
+     */
+    public void reset() {
+        for(int i = 0; i < BUCKET_COUNT; i++){
+            counts[i].reset();
+        }
+        max.reset();
+    }
+
+    private static int bucketOf(long value) {
+        if(value < LINEAR_LIMIT){
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - 3) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if(bucket < LINEAR_LIMIT){
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 3;
+        int subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (subBucket + 1) * width - 1;
+    }
+}
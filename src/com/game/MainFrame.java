@@ -2,6 +2,9 @@ package com.game;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.nio.file.Path;
 
 /**
  * The MainFrame class represents the main window of the application.
@@ -10,18 +13,39 @@ import java.awt.*;
  */
 public class MainFrame extends JFrame {
 
+    private static final int MAX_FPS = 60;
+
     /**
      * Constructs a new MainFrame instance.
      * This constructor sets up the layout, size, and default behavior
      * of the JFrame, and initializes the GamePanel with a SnakeFactory.
+     * The board is drawn at no more than {@value #MAX_FPS} frames per second, whatever the speed of the snakes.
      */
     public MainFrame(){
+        this(null);
+    }
+
+    /**
+     * Constructs a new MainFrame instance whose board is recorded to the given journal, see {@link EventJournal}.
+     * The journal is closed when the window is closed.
+     *
+     * @param journalFile The journal file, or null to record nothing.
+     */
+    public MainFrame(Path journalFile){
         setLayout(new BorderLayout());
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setVisible(true);
         setSize(400,400);
         SnakeFactory factory = new ConcreteSnakeFactory();
-        GamePanel gamePanel = GamePanel.createWithFactory(factory);
+        GamePanel gamePanel = new GamePanel.Builder().withSnakeFactory(factory).withActiveRendering(MAX_FPS)
+                .withJournal(journalFile).build();
         add(gamePanel, BorderLayout.CENTER);
+        //The JVM exits right after the window closes, without removing the panel
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                gamePanel.closeJournal();
+            }
+        });
     }
 }
@@ -18,4 +18,41 @@ public interface MovementStrategy {
       *               can move.
       */
      void updateDirection(Snake snake, Rectangle2D square);
+
+     /**
+      * Moves the given snake's head directly to where it is after the given number of moves from its start,
+      * and sets the direction of the next move accordingly, without simulating the intermediate moves.
+      *
+      * @param snake The snake to reposition.
+      * @param square The rectangular area in which the snake is moving.
+      * @param moves The number of moves made since the snake started.
+      * @throws UnsupportedOperationException If the strategy has no closed form.
+      */
+     default void seek(Snake snake, Rectangle2D square, long moves) {
+          throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support seeking");
+     }
+
+     /**
+      * Returns the X step of the head after the given number of moves from the start.
+      *
+      * @param lastStep The index of the last step along a side of the square.
+      * @param moves The number of moves made since the snake started.
+      * @return The X step of the head.
+      * @throws UnsupportedOperationException If the strategy has no closed form.
+      */
+     default int getStepX(int lastStep, long moves) {
+          throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support seeking");
+     }
+
+     /**
+      * Returns the Y step of the head after the given number of moves from the start.
+      *
+      * @param lastStep The index of the last step along a side of the square.
+      * @param moves The number of moves made since the snake started.
+      * @return The Y step of the head.
+      * @throws UnsupportedOperationException If the strategy has no closed form.
+      */
+     default int getStepY(int lastStep, long moves) {
+          throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support seeking");
+     }
 }
@@ -0,0 +1,89 @@
+package com.game;
+
+/**
+ * Closed-form description of a lap around the perimeter of a square, in segment steps.
+ * A lap is made of four edges, each starting at a corner and running {@code lastStep} steps in one direction,
+ * so the head position and direction after any number of moves can be computed without simulating them.
+ *
+ * <p>A snake's first move only picks its initial direction and leaves it at its start corner;
+ * every later move advances one step along the perimeter.</p>
+ */
+final class PerimeterPath {
+
+    //Corner each edge starts from, as multiples of the last step index
+    private final int[] cornerX;
+    private final int[] cornerY;
+    //Direction of travel along each edge
+    private final int[] directionX;
+    private final int[] directionY;
+
+    PerimeterPath(int[] cornerX, int[] cornerY, int[] directionX, int[] directionY) {
+        this.cornerX = cornerX;
+        this.cornerY = cornerY;
+        this.directionX = directionX;
+        this.directionY = directionY;
+    }
+
+    /**
+     * Returns the X step of the head after the given number of moves.
+     *
+     * @param lastStep The index of the last step along a side of the square.
+     * @param moves The number of moves made since the snake started.
+     * @return The X step of the head.
+     */
+    int x(int lastStep, long moves) {
+        long index = index(lastStep, moves);
+        int edge = (int) (index / lastStep);
+        return cornerX[edge] * lastStep + directionX[edge] * (int) (index % lastStep);
+    }
+
+    /**
+     * Returns the Y step of the head after the given number of moves.
+     *
+     * @param lastStep The index of the last step along a side of the square.
+     * @param moves The number of moves made since the snake started.
+     * @return The Y step of the head.
+     */
+    int y(int lastStep, long moves) {
+        long index = index(lastStep, moves);
+        int edge = (int) (index / lastStep);
+        return cornerY[edge] * lastStep + directionY[edge] * (int) (index % lastStep);
+    }
+
+    /**
+     * Returns the X direction the next move will take after the given number of moves.
+     * Before the first move the snake has no direction yet.
+     *
+     * @param lastStep The index of the last step along a side of the square.
+     * @param moves The number of moves made since the snake started.
+     * @return The X direction, -1, 0 or 1.
+     */
+    int directionX(int lastStep, long moves) {
+        return moves == 0 ? 0 : directionX[(int) (index(lastStep, moves) / lastStep)];
+    }
+
+    /**
+     * Returns the Y direction the next move will take after the given number of moves.
+     * Before the first move the snake has no direction yet.
+     *
+     * @param lastStep The index of the last step along a side of the square.
+     * @param moves The number of moves made since the snake started.
+     * @return The Y direction, -1, 0 or 1.
+     */
+    int directionY(int lastStep, long moves) {
+        return moves == 0 ? 0 : directionY[(int) (index(lastStep, moves) / lastStep)];
+    }
+
+    /**
+     * Returns the position along the perimeter, from 0 at the start corner, after the given number of moves.
+     */
+    private static long index(int lastStep, long moves) {
+        if(lastStep < 1){
+            throw new IllegalArgumentException("Square must fit at least two segments per side");
+        }
+        if(moves < 0){
+            throw new IllegalArgumentException("Number of moves must not be negative");
+        }
+        return moves <= 1 ? 0 : (moves - 1) % (4L * lastStep);
+    }
+}
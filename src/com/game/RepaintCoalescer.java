@@ -0,0 +1,146 @@
+package com.game;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Collects the regions of a component that changed during a frame and repaints them with a single
+ * clipped {@link Component#repaint(int, int, int, int)} call.
+ * At most one flush is queued on the event dispatch thread at any time, so the EDT queue stays
+ * bounded no matter how many regions are marked dirty between two frames.
+ *
+ * <p>Regions are merged into the bounding box without a lock, so the workers of a parallel step moving snakes do
+ * not serialize on it: a bound is only written when a region extends it, which is rare once the box covers the
+ * moving snakes. A flush swaps in an empty box and repaints the previous one.</p>
+ */
+public class RepaintCoalescer {
+
+    private final Component target;
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+    private final Runnable flushTask = this::flush;
+    private volatile SimulationMetrics metrics;
+    //Bounding box of the regions marked dirty since the last flush
+    private final AtomicReference<DirtyBox> dirty = new AtomicReference<>(new DirtyBox());
+
+    /**
+     * A bounding box growing as regions are added, empty while minX > maxX.
+     */
+    private static final class DirtyBox {
+        private final AtomicInteger minX = new AtomicInteger(Integer.MAX_VALUE);
+        private final AtomicInteger minY = new AtomicInteger(Integer.MAX_VALUE);
+        private final AtomicInteger maxX = new AtomicInteger(Integer.MIN_VALUE);
+        private final AtomicInteger maxY = new AtomicInteger(Integer.MIN_VALUE);
+
+        private void add(int x0, int y0, int x1, int y1) {
+            lower(minX, x0);
+            lower(minY, y0);
+            raise(maxX, x1);
+            raise(maxY, y1);
+        }
+
+        private boolean isEmpty() {
+            return minX.get() > maxX.get() || minY.get() > maxY.get();
+        }
+
+        private static void lower(AtomicInteger bound, int value) {
+            int current;
+            while(value < (current = bound.get()) && !bound.compareAndSet(current, value)){
+                //Retry against the bound another thread just lowered
+            }
+        }
+
+        private static void raise(AtomicInteger bound, int value) {
+            int current;
+            while(value > (current = bound.get()) && !bound.compareAndSet(current, value)){
+                //Retry against the bound another thread just raised
+            }
+        }
+    }
+
+    /**
+     * Constructs a RepaintCoalescer for the given component.
+     *
+     * @param target The component to repaint.
+     */
+    public RepaintCoalescer(Component target) {
+        this.target = target;
+    }
+
+    /**
+     * Sets the metrics counting dirty regions and coalesced repaint requests.
+     *
+     * @param metrics The metrics, or null to stop counting.
+     */
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Adds a region to the area repainted by the next flush. This method may be called from any thread.
+     *
+     * @param region The region that changed, in the component's coordinates.
+     */
+    public void markDirty(Rectangle2D region) {
+        markDirty(region.getX(), region.getY(), region.getWidth(), region.getHeight());
+    }
+
+    /**
+     * Adds a region to the area repainted by the next flush. This method may be called from any thread.
+     *
+     * @param x The X coordinate of the region, in the component's coordinates.
+     * @param y The Y coordinate of the region, in the component's coordinates.
+     * @param width The width of the region.
+     * @param height The height of the region.
+     */
+    public void markDirty(double x, double y, double width, double height) {
+        int x0 = (int) Math.floor(x);
+        int y0 = (int) Math.floor(y);
+        int x1 = (int) Math.ceil(x + width);
+        int y1 = (int) Math.ceil(y + height);
+        DirtyBox box = dirty.get();
+        box.add(x0, y0, x1, y1);
+        DirtyBox current = dirty.get();
+        if(current != box){
+            //A flush swapped the box meanwhile and may have read it before this region was added
+            current.add(x0, y0, x1, y1);
+        }
+        SimulationMetrics recorder = metrics;
+        if(recorder != null){
+            recorder.recordDirtyRegion();
+        }
+    }
+
+    /**
+     * Requests a repaint of the dirty regions at the end of the current frame.
+     * Only one flush is queued on the event dispatch thread until it has run.
+     */
+    public void requestRepaint() {
+        boolean issued = flushPending.compareAndSet(false, true);
+        if(issued){
+            SwingUtilities.invokeLater(flushTask);
+        }
+        SimulationMetrics recorder = metrics;
+        if(recorder != null){
+            recorder.recordRepaintRequest(issued);
+        }
+    }
+
+    /**
+     * Repaints the bounding box of every region marked dirty since the last flush.
+     */
+    private void flush() {
+        flushPending.set(false);
+        if(dirty.get().isEmpty()){
+            return;
+        }
+        //The box only grows until it is swapped, so it is still not empty
+        DirtyBox box = dirty.getAndSet(new DirtyBox());
+        int x = box.minX.get();
+        int y = box.minY.get();
+        target.repaint(x, y, box.maxX.get() - x, box.maxY.get() - y);
+    }
+}
@@ -0,0 +1,297 @@
+package com.game;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Creates the snakes of a scenario file in a {@link World}. The file has one snake per line, written as
+ * {@code length,direction,speed}, for example {@code 5,Clockwise,100}; the speed may be left empty for
+ * {@value SnakeValidator#DEFAULT_SPEED} ms. Blank lines and lines starting with {@code #} are skipped.
+ *
+ * <p>The file is streamed in batches of lines, so files of any size are loaded in constant memory. The lines of
+ * a batch are validated by the {@link SnakeValidator} on a {@link ForkJoinPool}, then the valid snakes of the
+ * batch are created together with {@link World#addSnakes(List)}, in the order of the file. Every invalid line is
+ * reported with its line number, and progress is reported after every batch. Once the board is full, the rest
+ * of the file is still validated, but no more snake is created.</p>
+ *
+ * <p>A loader must be used from the thread controlling the world.</p>
+ */
+public final class ScenarioLoader {
+
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+    //Lines validated by one fork/join task
+    private static final int VALIDATION_CHUNK = 256;
+
+    /**
+     * Notified of every line that does not describe a valid snake.
+     */
+    public interface ErrorListener {
+
+        /**
+         * Called for every invalid line, in the order of the file.
+         *
+         * @param lineNumber The number of the line, starting at 1.
+         * @param message Why the line is invalid, one error per line.
+         */
+        void invalidLine(long lineNumber, String message);
+    }
+
+    /**
+     * Notified after every batch of lines.
+     */
+    public interface ProgressListener {
+
+        /**
+         * Called once the snakes of a batch are created.
+         *
+         * @param lines The number of lines read so far.
+         * @param created The number of snakes created so far.
+         */
+        void loaded(long lines, long created);
+    }
+
+    /**
+     * What a scenario file added to the world.
+     */
+    public static final class Report {
+        private final long lines;
+        private final long created;
+        private final long invalid;
+        private final long unplaced;
+
+        private Report(long lines, long created, long invalid, long unplaced) {
+            this.lines = lines;
+            this.created = created;
+            this.invalid = invalid;
+            this.unplaced = unplaced;
+        }
+
+        /**
+         * Returns the number of lines read, including blank lines and comments.
+         *
+         * @return The number of lines.
+         */
+        public long getLines() {
+            return lines;
+        }
+
+        /**
+         * Returns the number of snakes created.
+         *
+         * @return The number of snakes.
+         */
+        public long getCreated() {
+            return created;
+        }
+
+        /**
+         * Returns the number of lines that did not describe a valid snake.
+         *
+         * @return The number of invalid lines.
+         */
+        public long getInvalid() {
+            return invalid;
+        }
+
+        /**
+         * Returns the number of valid snakes that were not created because the board was full.
+         *
+         * @return The number of snakes left out.
+         */
+        public long getUnplaced() {
+            return unplaced;
+        }
+    }
+
+    private final World world;
+    private final int batchSize;
+    //Pool validating the lines of a batch, null when they are validated on the calling thread
+    private final ForkJoinPool pool;
+    private volatile ErrorListener errorListener;
+    private volatile ProgressListener progressListener;
+
+    /**
+     * Constructs a ScenarioLoader validating batches of {@value #DEFAULT_BATCH_SIZE} lines on the common pool.
+     *
+     * @param world The world to create the snakes in.
+     */
+    public ScenarioLoader(World world) {
+        this(world, DEFAULT_BATCH_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a ScenarioLoader with the given batch size and pool.
+     *
+     * @param world The world to create the snakes in.
+     * @param batchSize The number of lines read, validated and created at once.
+     * @param pool The pool validating the lines of a batch, or null to validate them on the calling thread.
+     * @throws IllegalArgumentException If the world is null or the batch size is not positive.
+     */
+    public ScenarioLoader(World world, int batchSize, ForkJoinPool pool) {
+        if(world == null){
+            throw new IllegalArgumentException("World is not initialized");
+        }
+        if(batchSize <= 0){
+            throw new IllegalArgumentException("Batch size must be a positive integer");
+        }
+        this.world = world;
+        this.batchSize = batchSize;
+        this.pool = pool;
+    }
+
+    /**
+     * Sets the listener notified of every invalid line.
+     *
+     * @param errorListener The listener, or null to only count invalid lines.
+     */
+    public void setErrorListener(ErrorListener errorListener) {
+        this.errorListener = errorListener;
+    }
+
+    /**
+     * Sets the listener notified after every batch of lines.
+     *
+     * @param progressListener The listener, or null to remove it.
+     */
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Creates the snakes of a scenario file, see {@link #load(BufferedReader)}.
+     *
+     * @param file The scenario file, in UTF-8.
+     * @return What the file added to the world.
+     * @throws IOException If the file cannot be read.
+     */
+    public Report load(Path file) throws IOException {
+        try(BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)){
+            return load(reader);
+        }
+    }
+
+    /**
+     * Creates the snakes of a scenario read to its end, batch after batch, in the free squares of the world.
+     *
+     * @param reader The scenario.
+     * @return What the scenario added to the world.
+     * @throws IOException If the scenario cannot be read.
+     */
+    public Report load(BufferedReader reader) throws IOException {
+        String[] lines = new String[batchSize];
+        ValidationResult[] results = new ValidationResult[batchSize];
+        List<SnakeSpec> specs = new ArrayList<>(batchSize);
+        long lineCount = 0;
+        long created = 0;
+        long invalid = 0;
+        long unplaced = 0;
+        int count;
+        do{
+            count = 0;
+            String line;
+            while(count < batchSize && (line = reader.readLine()) != null){
+                lines[count++] = line;
+            }
+            validate(lines, results, count);
+
+            ErrorListener errors = errorListener;
+            specs.clear();
+            for(int i = 0; i < count; i++){
+                ValidationResult result = results[i];
+                if(result == null){
+                    continue;
+                }
+                if(result.isValid()){
+                    specs.add(new SnakeSpec(result.getLength(), result.getDirection(), result.getSpeed()));
+                } else {
+                    invalid++;
+                    if(errors != null){
+                        errors.invalidLine(lineCount + i + 1, result.getErrorMessage().trim());
+                    }
+                }
+            }
+            lineCount += count;
+            if(!specs.isEmpty()){
+                int placed = world.addSnakes(specs).size();
+                created += placed;
+                unplaced += specs.size() - placed;
+            }
+            ProgressListener progress = progressListener;
+            if(progress != null && count > 0){
+                progress.loaded(lineCount, created);
+            }
+        } while(count == batchSize);
+        return new Report(lineCount, created, invalid, unplaced);
+    }
+
+    /**
+     * Validates the first lines of a batch, in parallel if there is a pool and more than one chunk of lines.
+     */
+    private void validate(String[] lines, ValidationResult[] results, int count) {
+        if(pool == null || count <= VALIDATION_CHUNK){
+            validateRange(lines, results, 0, count);
+        } else {
+            pool.invoke(new ValidationChunk(lines, results, 0, count));
+        }
+    }
+
+    private static void validateRange(String[] lines, ValidationResult[] results, int from, int to) {
+        for(int i = from; i < to; i++){
+            results[i] = parse(lines[i]);
+            lines[i] = null;
+        }
+    }
+
+    /**
+     * Validates one line of a scenario.
+     *
+     * @param line The line.
+     * @return The result, or null if the line is blank or a comment.
+     */
+    static ValidationResult parse(String line) {
+        String trimmed = line.trim();
+        if(trimmed.isEmpty() || trimmed.startsWith("#")){
+            return null;
+        }
+        String[] fields = trimmed.split(",", -1);
+        if(fields.length != 3){
+            return new ValidationResult(false, "Expected length,direction,speed", 0, 0, null);
+        }
+        return SnakeValidator.validate(fields[0].trim(), fields[2].trim(), fields[1].trim());
+    }
+
+    /**
+     * A range of lines validated by one fork/join task, split in halves until it is small enough.
+     */
+    @SuppressWarnings("serial")
+    private static final class ValidationChunk extends RecursiveAction {
+        private final String[] lines;
+        private final ValidationResult[] results;
+        private final int from;
+        private final int to;
+
+        private ValidationChunk(String[] lines, ValidationResult[] results, int from, int to) {
+            this.lines = lines;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= VALIDATION_CHUNK){
+                validateRange(lines, results, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ValidationChunk(lines, results, from, middle), new ValidationChunk(lines, results, middle, to));
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Schedules every task as its own fixed-rate future on a shared pool of platform threads,
+ * which is how the game ran snakes before the single-loop {@link SimulationEngine}.
+ * Kept as an execution mode and as the baseline for benchmarks.
+ */
+public class ScheduledExecutorTaskScheduler implements TaskScheduler {
+
+    private static final Logger LOGGER = Logger.getLogger(ScheduledExecutorTaskScheduler.class.getName());
+
+    private final int poolSize;
+    private final SimulationClock clock;
+    private final List<Entry> entries;
+    private ScheduledExecutorService scheduler;
+    private volatile Runnable stepListener;
+    private volatile SimulationMetrics metrics;
+
+    /**
+     * A registered task with its period, its index in the entries and its future while the scheduler is running.
+     * The period, the due time and the generation are guarded by the entry's monitor; the generation changes
+     * every time the future is replaced, so a run of a replaced future does nothing.
+     */
+    private final class Entry implements Handle {
+        private final Runnable task;
+        //Held while the task runs, so the runs of a replaced future and of its replacement never overlap
+        private final Object runLock = new Object();
+        private long periodNanos;
+        private long nextDueNanos;
+        private int generation;
+        private ScheduledFuture<?> future;
+        //-1 once the entry is cancelled
+        private int index;
+
+        private Entry(Runnable task, long periodNanos) {
+            this.task = task;
+            this.periodNanos = periodNanos;
+        }
+
+        private void run(int expectedGeneration) {
+            synchronized (runLock) {
+                long now = System.nanoTime();
+                long dueNanos;
+                long period;
+                synchronized (this) {
+                    if(generation != expectedGeneration){
+                        return;
+                    }
+                    dueNanos = nextDueNanos;
+                    period = periodNanos;
+                    nextDueNanos += periodNanos;
+                }
+                clock.advanceTo(clock.toSimulationNanos(now));
+                SimulationMetrics recorder = metrics;
+                if(recorder != null){
+                    recorder.recordDrift(period, now - dueNanos);
+                }
+                try{
+                    task.run();
+                } catch (Exception ex){
+                    LOGGER.log(Level.SEVERE, "Error running simulation task", ex);
+                }
+                Runnable listener = stepListener;
+                if(listener != null){
+                    listener.run();
+                }
+            }
+        }
+
+        /**
+         * Cancels the future, which the executor removes from its delay queue, and removes the entry
+         * by moving the last entry into its place.
+         */
+        @Override
+        public void cancel() {
+            synchronized (ScheduledExecutorTaskScheduler.this) {
+                if(index < 0){
+                    return;
+                }
+                synchronized (this) {
+                    generation++;
+                }
+                if(future != null){
+                    future.cancel(false);
+                    future = null;
+                }
+                Entry last = entries.remove(entries.size() - 1);
+                if(last != this){
+                    last.index = index;
+                    entries.set(index, last);
+                }
+                index = -1;
+            }
+        }
+
+        /**
+         * Replaces the future by one at the new period, first due one new period after the last due time.
+         */
+        @Override
+        public void setPeriod(long periodMillis) {
+            if(periodMillis <= 0){
+                throw new IllegalArgumentException("Period must be a positive number of milliseconds");
+            }
+            long newPeriodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+            synchronized (ScheduledExecutorTaskScheduler.this) {
+                if(index < 0){
+                    return;
+                }
+                synchronized (this) {
+                    long lastDueNanos = nextDueNanos - periodNanos;
+                    periodNanos = newPeriodNanos;
+                    if(future == null){
+                        return;
+                    }
+                    future.cancel(false);
+                    long now = System.nanoTime();
+                    nextDueNanos = Math.max(lastDueNanos + periodNanos, now);
+                    int current = ++generation;
+                    future = scheduler.scheduleAtFixedRate(() -> run(current), nextDueNanos - now, periodNanos,
+                            TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+    }
+
+    /**
+     * Constructs a real-time ScheduledExecutorTaskScheduler.
+     *
+     * @param poolSize The number of platform threads shared by all tasks.
+     */
+    public ScheduledExecutorTaskScheduler(int poolSize) {
+        this(poolSize, SimulationClock.realTime());
+    }
+
+    /**
+     * Constructs a ScheduledExecutorTaskScheduler that advances the given clock before every task run.
+     * Tasks are paced by wall time, so an accelerated clock speeds up growth but not movement.
+     *
+     * @param poolSize The number of platform threads shared by all tasks.
+     * @param clock The clock shared by the tasks; it must be paced by wall time.
+     * @throws IllegalArgumentException If the clock is null or virtual.
+     */
+    public ScheduledExecutorTaskScheduler(int poolSize, SimulationClock clock) {
+        if(clock == null || !clock.isPaced()){
+            throw new IllegalArgumentException("ScheduledExecutorTaskScheduler needs a clock paced by wall time");
+        }
+        this.poolSize = poolSize;
+        this.clock = clock;
+        this.entries = new ArrayList<>();
+    }
+
+    @Override
+    public synchronized Handle register(Runnable task, long periodMillis) {
+        if(periodMillis <= 0){
+            throw new IllegalArgumentException("Period must be a positive number of milliseconds");
+        }
+        return add(task, periodMillis);
+    }
+
+    @Override
+    public synchronized List<Handle> registerAll(List<? extends Runnable> tasks, long[] periodsMillis) {
+        if(tasks.size() != periodsMillis.length){
+            throw new IllegalArgumentException("Every task needs exactly one period");
+        }
+        for(long periodMillis : periodsMillis){
+            if(periodMillis <= 0){
+                throw new IllegalArgumentException("Period must be a positive number of milliseconds");
+            }
+        }
+        List<Handle> handles = new ArrayList<>(tasks.size());
+        for(int i = 0; i < periodsMillis.length; i++){
+            handles.add(add(tasks.get(i), periodsMillis[i]));
+        }
+        return handles;
+    }
+
+    private Entry add(Runnable task, long periodMillis) {
+        Entry entry = new Entry(task, TimeUnit.MILLISECONDS.toNanos(periodMillis));
+        entry.index = entries.size();
+        entries.add(entry);
+        if(scheduler != null){
+            schedule(entry);
+        }
+        return entry;
+    }
+
+    @Override
+    public void setStepListener(Runnable stepListener) {
+        this.stepListener = stepListener;
+    }
+
+    @Override
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public SimulationClock getClock() {
+        return clock;
+    }
+
+    @Override
+    public synchronized int getTaskCount() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized void start() {
+        if(scheduler != null){
+            return;
+        }
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(poolSize);
+        //Cancelled snakes leave the delay queue at once instead of when they would have been due
+        executor.setRemoveOnCancelPolicy(true);
+        scheduler = executor;
+        for(Entry entry : entries){
+            schedule(entry);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if(scheduler == null){
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        for(Entry entry : entries){
+            synchronized (entry) {
+                entry.generation++;
+            }
+            entry.future = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void schedule(Entry entry) {
+        synchronized (entry) {
+            entry.nextDueNanos = System.nanoTime();
+            int current = ++entry.generation;
+            entry.future = scheduler.scheduleAtFixedRate(() -> entry.run(current), 0, entry.periodNanos,
+                    TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.game;
+
+import java.awt.*;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws the segments of many snakes during one paint with as few and as cheap Java2D calls as possible.
+ * Segments are converted to whole device pixels, and their shape depends on their size on screen,
+ * their level of detail:
+ * <ul>
+ *     <li>{@link Detail#ROUNDED}: each segment is a copy of a rounded square rendered once into a small image,
+ *     which is much cheaper than filling the rounded shape every time;</li>
+ *     <li>{@link Detail#SQUARE} and {@link Detail#PIXEL}: segments are plain squares, at least one pixel wide,
+ *     and consecutive segments on the same row or column are merged into a single {@code fillRect}.</li>
+ * </ul>
+ *
+ * <p>A single large {@link java.awt.geom.Path2D} holding every segment was tried first: the software
+ * rasterizer handles one path with hundreds of thousands of sub-paths far slower than many small fills.</p>
+ *
+ * <p>This class is not thread-safe; it is meant to be used from the painting thread.</p>
+ */
+public final class SegmentBatch {
+
+    /**
+     * How a segment is drawn at a given zoom.
+     */
+    public enum Detail {
+        /** Squares with rounded corners. */
+        ROUNDED,
+        /** Plain squares. */
+        SQUARE,
+        /** Single device pixels. */
+        PIXEL
+    }
+
+    //Smallest segment size on screen, in device pixels, for which corners are drawn rounded
+    static final double ROUNDED_MIN_PIXELS = 4;
+    //Smallest segment size on screen, in device pixels, for which segments are drawn as squares
+    static final double SQUARE_MIN_PIXELS = 1.5;
+
+    private Graphics2D g;
+    private double zoom = 1;
+    //Size and corner diameter of the last segment added, in board pixels, and its level of detail
+    private double size = -1;
+    private double curve = -1;
+    private Detail detail;
+    //Rounded segment image, kept across paints while the shape, zoom and colour stay the same
+    private BufferedImage sprite;
+    private double spriteSize;
+    private double spriteCurve;
+    private double spriteZoom;
+    private Color spriteColor;
+    //Rectangle of merged segments not drawn yet, in device pixels, empty when runWidth is 0
+    private int runX;
+    private int runY;
+    private int runWidth;
+    private int runHeight;
+    private int segmentCount;
+    private int drawCount;
+
+    /**
+     * Returns the level of detail used for segments of the given size at the given zoom.
+     *
+     * @param segmentSize The size of a segment in board pixels.
+     * @param zoom The number of device pixels per board pixel.
+     * @return The level of detail.
+     */
+    public static Detail detailFor(double segmentSize, double zoom) {
+        double pixels = segmentSize * zoom;
+        if(pixels >= ROUNDED_MIN_PIXELS){
+            return Detail.ROUNDED;
+        }
+        return pixels >= SQUARE_MIN_PIXELS ? Detail.SQUARE : Detail.PIXEL;
+    }
+
+    /**
+     * Starts a batch drawn on the given graphics context with its current colour.
+     *
+     * @param g The graphics context, in device pixels of the board at the given zoom.
+     * @param zoom The number of device pixels per board pixel.
+     */
+    public void begin(Graphics2D g, double zoom) {
+        this.g = g;
+        this.zoom = zoom;
+        size = -1;
+        detail = null;
+        runWidth = 0;
+        segmentCount = 0;
+        drawCount = 0;
+    }
+
+    /**
+     * Adds a segment to the batch.
+     *
+     * @param x The X coordinate of the segment in board pixels.
+     * @param y The Y coordinate of the segment in board pixels.
+     * @param size The width and height of the segment in board pixels.
+     * @param curve The diameter of the rounded corners in board pixels, used at the {@link Detail#ROUNDED} level.
+     */
+    public void add(double x, double y, double size, double curve) {
+        if(size != this.size || curve != this.curve){
+            flushRun();
+            this.size = size;
+            this.curve = curve;
+            detail = detailFor(size, zoom);
+        }
+        int left = (int) Math.floor(x * zoom);
+        int top = (int) Math.floor(y * zoom);
+        if(detail == Detail.ROUNDED){
+            g.drawImage(getSprite(), left, top, null);
+            drawCount++;
+        } else {
+            int width = Math.max(1, (int) Math.floor((x + size) * zoom) - left);
+            int height = Math.max(1, (int) Math.floor((y + size) * zoom) - top);
+            addToRun(left, top, width, height);
+        }
+        segmentCount++;
+    }
+
+    /**
+     * Draws the segments still pending and ends the batch.
+     */
+    public void end() {
+        flushRun();
+        g = null;
+    }
+
+    /**
+     * Merges a square into the pending run if it continues it on the same row or column,
+     * otherwise draws the run and starts a new one.
+     */
+    private void addToRun(int left, int top, int width, int height) {
+        if(runWidth > 0){
+            boolean sameRow = top == runY && height == runHeight && left >= runX - width && left <= runX + runWidth;
+            boolean sameColumn = left == runX && width == runWidth && top >= runY - height && top <= runY + runHeight;
+            if(sameRow || sameColumn){
+                int right = Math.max(runX + runWidth, left + width);
+                int bottom = Math.max(runY + runHeight, top + height);
+                runX = Math.min(runX, left);
+                runY = Math.min(runY, top);
+                runWidth = right - runX;
+                runHeight = bottom - runY;
+                return;
+            }
+            flushRun();
+        }
+        runX = left;
+        runY = top;
+        runWidth = width;
+        runHeight = height;
+    }
+
+    /**
+     * Draws the pending run, if any.
+     */
+    private void flushRun() {
+        if(runWidth > 0){
+            g.fillRect(runX, runY, runWidth, runHeight);
+            drawCount++;
+            runWidth = 0;
+        }
+    }
+
+    /**
+     * Returns the image of a rounded segment at the current size, zoom and colour, rendering it if needed.
+     */
+    private BufferedImage getSprite() {
+        Color color = g.getColor();
+        if(sprite == null || spriteSize != size || spriteCurve != curve || spriteZoom != zoom || !color.equals(spriteColor)){
+            int side = Math.max(1, (int) Math.ceil(size * zoom));
+            sprite = new BufferedImage(side, side, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D sg = sprite.createGraphics();
+            try{
+                sg.setColor(color);
+                sg.fill(new RoundRectangle2D.Double(0, 0, size * zoom, size * zoom, curve * zoom, curve * zoom));
+            } finally {
+                sg.dispose();
+            }
+            spriteSize = size;
+            spriteCurve = curve;
+            spriteZoom = zoom;
+            spriteColor = color;
+        }
+        return sprite;
+    }
+
+    /**
+     * Returns the number of segments added since {@link #begin(Graphics2D, double)}.
+     *
+     * @return The number of segments.
+     */
+    public int getSegmentCount() {
+        return segmentCount;
+    }
+
+    /**
+     * Returns the number of drawing calls issued since {@link #begin(Graphics2D, double)}.
+     *
+     * @return The number of {@code fillRect} and {@code drawImage} calls.
+     */
+    public int getDrawCount() {
+        return drawCount;
+    }
+
+    /**
+     * Returns the level of detail of the last segment added.
+     *
+     * @return The level of detail, or null if no segment was added since {@link #begin(Graphics2D, double)}.
+     */
+    public Detail getDetail() {
+        return detail;
+    }
+}
@@ -0,0 +1,140 @@
+package com.game;
+
+/**
+ * A ring buffer of segment coordinates, in segment steps, stored in primitive arrays.
+ * Index 0 is the head of the snake and index {@code size() - 1} its tail.
+ * Moving the snake overwrites slots in place, so the buffer only allocates when it has to grow.
+ * This class is not thread-safe; {@link Snake} guards it with its own lock.
+ */
+final class SegmentRingBuffer {
+
+    private int[] xs;
+    private int[] ys;
+    private int head;
+    private int size;
+
+    /**
+     * Constructs an empty buffer able to hold {@code capacity} segments before growing.
+     *
+     * @param capacity The initial capacity, at least 1.
+     */
+    SegmentRingBuffer(int capacity) {
+        int initial = Math.max(1, capacity);
+        this.xs = new int[initial];
+        this.ys = new int[initial];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return xs.length;
+    }
+
+    int getX(int index) {
+        return xs[slot(index)];
+    }
+
+    int getY(int index) {
+        return ys[slot(index)];
+    }
+
+    /**
+     * Adds a segment in front of the current head, growing the buffer if it is full.
+     *
+     * @param x The X coordinate of the new head.
+     * @param y The Y coordinate of the new head.
+     */
+    void addFirst(int x, int y) {
+        ensureCapacity(size + 1);
+        head = head == 0 ? xs.length - 1 : head - 1;
+        xs[head] = x;
+        ys[head] = y;
+        size++;
+    }
+
+    /**
+     * Adds a segment behind the current tail, growing the buffer if it is full.
+     *
+     * @param x The X coordinate of the new tail.
+     * @param y The Y coordinate of the new tail.
+     */
+    void addLast(int x, int y) {
+        ensureCapacity(size + 1);
+        int slot = slot(size);
+        xs[slot] = x;
+        ys[slot] = y;
+        size++;
+    }
+
+    /**
+     * Removes the tail segment. Does nothing if the buffer is empty.
+     */
+    void removeLast() {
+        if(size > 0){
+            size--;
+        }
+    }
+
+    /**
+     * Removes every segment, keeping the backing arrays.
+     */
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Copies the segments, head first, to the start of the given arrays.
+     *
+     * @param targetXs Receives the X coordinates; at least {@link #size()} long.
+     * @param targetYs Receives the Y coordinates; at least {@link #size()} long.
+     */
+    void copyTo(int[] targetXs, int[] targetYs) {
+        copyTo(targetXs, targetYs, 0);
+    }
+
+    /**
+     * Copies the segments, head first, to the given arrays starting at the given offset.
+     *
+     * @param targetXs Receives the X coordinates; at least {@code offset + size()} long.
+     * @param targetYs Receives the Y coordinates; at least {@code offset + size()} long.
+     * @param offset The index of the first slot written.
+     */
+    void copyTo(int[] targetXs, int[] targetYs, int offset) {
+        int first = Math.min(size, xs.length - head);
+        System.arraycopy(xs, head, targetXs, offset, first);
+        System.arraycopy(ys, head, targetYs, offset, first);
+        System.arraycopy(xs, 0, targetXs, offset + first, size - first);
+        System.arraycopy(ys, 0, targetYs, offset + first, size - first);
+    }
+
+    /**
+     * Maps a logical index (0 = head) to a slot in the backing arrays.
+     */
+    private int slot(int index) {
+        int slot = head + index;
+        return slot >= xs.length ? slot - xs.length : slot;
+    }
+
+    /**
+     * Grows the backing arrays, unrolling the ring so that the head is at slot 0.
+     */
+    private void ensureCapacity(int required) {
+        if(required <= xs.length){
+            return;
+        }
+        int newCapacity = Math.max(required, xs.length * 2);
+        int[] newXs = new int[newCapacity];
+        int[] newYs = new int[newCapacity];
+        for(int i = 0; i < size; i++){
+            int slot = slot(i);
+            newXs[i] = xs[slot];
+            newYs[i] = ys[slot];
+        }
+        xs = newXs;
+        ys = newYs;
+        head = 0;
+    }
+}
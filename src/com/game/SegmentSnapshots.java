@@ -0,0 +1,106 @@
+package com.game;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Triple buffer of body snapshots, handing the latest body of a snake from the simulation thread to the
+ * renderer without either side waiting for the other.
+ * The writer fills its private back snapshot and swaps it with the shared middle one; the reader swaps its
+ * private front snapshot with the middle one when a newer body was published. Neither side ever sees a
+ * snapshot the other is writing, and the buffers are reused, so publishing does not allocate in steady state.
+ *
+ * <p>There must be at most one writer and one reader at a time; {@link Snake} guards each side with its
+ * own lock.</p>
+ */
+final class SegmentSnapshots {
+
+    //Bit set in the middle index when it holds a snapshot the reader has not taken yet
+    private static final int FRESH = 4;
+    private static final int INDEX_MASK = 3;
+
+    private final Snapshot[] snapshots;
+    private final AtomicInteger middle;
+    private int back;
+    private int front;
+    //Size of the last published body, only accessed by the writer
+    private int publishedSize;
+
+    /**
+     * An unrolled copy of a body, head first, in segment steps.
+     */
+    static final class Snapshot {
+        private int[] xs;
+        private int[] ys;
+        private int size;
+
+        private Snapshot(int capacity) {
+            this.xs = new int[capacity];
+            this.ys = new int[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int getX(int index) {
+            return xs[index];
+        }
+
+        int getY(int index) {
+            return ys[index];
+        }
+    }
+
+    /**
+     * Constructs the buffers, each able to hold {@code capacity} segments before growing.
+     *
+     * @param capacity The initial capacity of each snapshot.
+     */
+    SegmentSnapshots(int capacity) {
+        int initial = Math.max(1, capacity);
+        this.snapshots = new Snapshot[]{new Snapshot(initial), new Snapshot(initial), new Snapshot(initial)};
+        this.back = 0;
+        this.middle = new AtomicInteger(1);
+        this.front = 2;
+    }
+
+    /**
+     * Publishes a copy of the given body. Called by the writer only.
+     *
+     * @param segments The current body of the snake.
+     */
+    void publish(SegmentRingBuffer segments) {
+        Snapshot snapshot = snapshots[back];
+        int size = segments.size();
+        if(snapshot.xs.length < size){
+            snapshot.xs = new int[segments.capacity()];
+            snapshot.ys = new int[segments.capacity()];
+        }
+        segments.copyTo(snapshot.xs, snapshot.ys);
+        snapshot.size = size;
+        publishedSize = size;
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Returns the number of segments of the last published body. Called by the writer only.
+     *
+     * @return The published size.
+     */
+    int getPublishedSize() {
+        return publishedSize;
+    }
+
+    /**
+     * Returns the latest published body. Called by the reader only; the snapshot stays valid,
+     * and unchanged, until the reader calls this method again.
+     *
+     * @return The latest snapshot, empty if nothing was published yet.
+     */
+    Snapshot latest() {
+        if((middle.get() & FRESH) != 0){
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return snapshots[front];
+    }
+}
@@ -0,0 +1,142 @@
+package com.game;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The time line of a simulation, shared by its scheduler and all of its snakes.
+ * The scheduler samples the clock once per step and advances it with {@link #advanceTo(long)};
+ * snakes then read the sampled time with {@link #now()}, a plain volatile read, instead of querying the
+ * system clock on every move. Simulation time never goes backwards.
+ *
+ * <p>Three kinds of clocks are provided: {@link #realTime()}, {@link #accelerated(double)} which runs
+ * a fixed factor faster than real time, and {@link #virtual(long)} which advances by a fixed amount per step
+ * regardless of wall time, so the simulation runs as fast as the CPU allows.</p>
+ */
+public abstract class SimulationClock {
+
+    //Time used by snakes that are not bound to a scheduler's clock
+    private static final SimulationClock SYSTEM = new SimulationClock() {
+        @Override
+        public long now() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void advanceTo(long simulationNanos) {
+            //Always up to date
+        }
+
+        @Override
+        public long toSimulationNanos(long wallNanos) {
+            return wallNanos;
+        }
+    };
+
+    private final AtomicLong now = new AtomicLong();
+
+    /**
+     * Returns a clock running at the pace of wall time.
+     *
+     * @return A new real-time clock starting at zero.
+     */
+    public static SimulationClock realTime() {
+        return accelerated(1);
+    }
+
+    /**
+     * Returns a clock running {@code rate} times faster than wall time.
+     *
+     * @param rate The number of simulated nanoseconds per wall nanosecond.
+     * @return A new accelerated clock starting at zero.
+     * @throws IllegalArgumentException If the rate is not positive.
+     */
+    public static SimulationClock accelerated(double rate) {
+        if(!(rate > 0)){
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        long origin = System.nanoTime();
+        return new SimulationClock() {
+            @Override
+            public long toSimulationNanos(long wallNanos) {
+                return rate == 1 ? wallNanos - origin : (long) ((wallNanos - origin) * rate);
+            }
+        };
+    }
+
+    /**
+     * Returns a clock that ignores wall time and advances by {@code stepMillis} on every step.
+     * Schedulers driven by it run steps back to back without waiting.
+     *
+     * @param stepMillis The simulated time per step, in milliseconds.
+     * @return A new virtual clock starting at zero.
+     * @throws IllegalArgumentException If the step is not positive.
+     */
+    public static SimulationClock virtual(long stepMillis) {
+        if(stepMillis <= 0){
+            throw new IllegalArgumentException("Step must be a positive number of milliseconds");
+        }
+        long stepNanos = TimeUnit.MILLISECONDS.toNanos(stepMillis);
+        return new SimulationClock() {
+            @Override
+            public long toSimulationNanos(long wallNanos) {
+                return now() + stepNanos;
+            }
+
+            @Override
+            public boolean isPaced() {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the clock of snakes that do not belong to a scheduler. It reads {@link System#nanoTime()}
+     * on every call and cannot be advanced.
+     *
+     * @return The system clock.
+     */
+    static SimulationClock system() {
+        return SYSTEM;
+    }
+
+    /**
+     * Returns the simulation time sampled at the current step.
+     *
+     * @return The simulation time in nanoseconds.
+     */
+    public long now() {
+        return now.get();
+    }
+
+    /**
+     * Advances the clock to the given simulation time. Earlier times are ignored, so the clock is monotonic
+     * even if several threads advance it.
+     *
+     * @param simulationNanos The simulation time in nanoseconds.
+     */
+    public void advanceTo(long simulationNanos) {
+        long current = now.get();
+        while(simulationNanos - current > 0 && !now.compareAndSet(current, simulationNanos)){
+            current = now.get();
+        }
+    }
+
+    /**
+     * Converts a wall time, as returned by {@link System#nanoTime()}, to the simulation time of the next step.
+     *
+     * @param wallNanos The wall time in nanoseconds.
+     * @return The simulation time in nanoseconds.
+     */
+    public abstract long toSimulationNanos(long wallNanos);
+
+    /**
+     * Returns whether steps are paced by wall time. Schedulers wait between two steps of a paced clock
+     * and run steps back to back otherwise.
+     *
+     * @return true for real-time and accelerated clocks, false for virtual clocks.
+     */
+    public boolean isPaced() {
+        return true;
+    }
+}
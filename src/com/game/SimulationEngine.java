@@ -0,0 +1,506 @@
+package com.game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Advances every registered snake task from a single fixed-step loop.
+ * Each task keeps its own period, so snakes created with different speeds still move at their own rate,
+ * but only one thread wakes up per step instead of one scheduled future per snake.
+ *
+ * <p>With a parallelism above one, each step splits the tasks into chunks on a {@link ForkJoinPool}.
+ * Every snake task only touches its own snake and square, so the outcome of a step does not depend on
+ * how the chunks are scheduled; idle workers steal chunks from busy ones when snake lengths are uneven.</p>
+ */
+public class SimulationEngine implements TaskScheduler {
+
+    private static final Logger LOGGER = Logger.getLogger(SimulationEngine.class.getName());
+
+    //Resolution of the simulation loop in milliseconds
+    public static final long DEFAULT_STEP_MILLIS = 1;
+
+    //Tasks per fork/join chunk; smaller ranges are run by the worker that holds them
+    private static final int PARALLEL_CHUNK = 1024;
+
+    private final long stepNanos;
+    private final SimulationClock clock;
+    private final int parallelism;
+    //Pool of the parallel step, created by the first step that needs it and shut down by stop(); guarded by this
+    private ForkJoinPool pool;
+    //Registered batches not yet started; a batch is queued as one element, so a step starts all of it or none
+    private final Queue<List<Entry>> pending;
+    private final List<Entry> entries;
+    //Cancelled entries not yet removed from the entries
+    private final Queue<Entry> cancelled;
+    //Entries whose period changed since the last step
+    private final Queue<Entry> rescheduled;
+    private volatile Runnable stepListener;
+    private volatile SimulationMetrics metrics;
+    private volatile EventJournal journal;
+    private volatile boolean running;
+    private Thread loopThread;
+
+    /**
+     * A registered task together with its period, the time it is next due and its index in the entries.
+     */
+    private final class Entry implements Handle {
+        private final Runnable task;
+        private long periodNanos;
+        //Period set by setPeriod, applied by the next step
+        private volatile long requestedPeriodNanos;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private long nextDueNanos;
+        //-1 until the entry is started and once it is removed
+        private int index = -1;
+
+        private Entry(Runnable task, long periodNanos, long nextDueNanos) {
+            this.task = task;
+            this.periodNanos = periodNanos;
+            this.nextDueNanos = nextDueNanos;
+        }
+
+        /**
+         * Marks the entry as cancelled; the next step removes it from the entries.
+         */
+        @Override
+        public void cancel() {
+            if(cancelled.compareAndSet(false, true)){
+                SimulationEngine.this.cancelled.add(this);
+            }
+        }
+
+        /**
+         * Records the new period; the next step applies it.
+         */
+        @Override
+        public void setPeriod(long periodMillis) {
+            if(periodMillis <= 0){
+                throw new IllegalArgumentException("Period must be a positive number of milliseconds");
+            }
+            requestedPeriodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+            rescheduled.add(this);
+        }
+    }
+
+    /**
+     * Constructs a real-time SimulationEngine with the default step resolution.
+     */
+    public SimulationEngine() {
+        this(DEFAULT_STEP_MILLIS, SimulationClock.realTime());
+    }
+
+    /**
+     * Constructs a SimulationEngine with the default step resolution, driven by the given clock.
+     *
+     * @param clock The clock mapping wall time to simulation time.
+     */
+    public SimulationEngine(SimulationClock clock) {
+        this(DEFAULT_STEP_MILLIS, clock);
+    }
+
+    /**
+     * Constructs a real-time SimulationEngine with the specified step resolution.
+     *
+     * @param stepMillis The interval between two steps of the loop, in milliseconds.
+     * @throws IllegalArgumentException If the step is not positive.
+     */
+    public SimulationEngine(long stepMillis) {
+        this(stepMillis, SimulationClock.realTime());
+    }
+
+    /**
+     * Constructs a SimulationEngine with the specified step resolution, driven by the given clock.
+     *
+     * @param stepMillis The wall time between two steps of the loop, in milliseconds, for paced clocks.
+     * @param clock The clock mapping wall time to simulation time.
+     * @throws IllegalArgumentException If the step is not positive or the clock is null.
+     */
+    public SimulationEngine(long stepMillis, SimulationClock clock) {
+        this(stepMillis, clock, 1);
+    }
+
+    /**
+     * Constructs a SimulationEngine whose steps run on the given number of threads.
+     *
+     * @param stepMillis The wall time between two steps of the loop, in milliseconds, for paced clocks.
+     * @param clock The clock mapping wall time to simulation time.
+     * @param parallelism The number of threads advancing the tasks of a step; 1 runs them on the loop thread.
+     * @throws IllegalArgumentException If the step or the parallelism is not positive or the clock is null.
+     */
+    public SimulationEngine(long stepMillis, SimulationClock clock, int parallelism) {
+        if(stepMillis <= 0){
+            throw new IllegalArgumentException("Step must be a positive number of milliseconds");
+        }
+        if(clock == null){
+            throw new IllegalArgumentException("SimulationClock is not initialized");
+        }
+        if(parallelism <= 0){
+            throw new IllegalArgumentException("Parallelism must be a positive integer");
+        }
+        this.stepNanos = TimeUnit.MILLISECONDS.toNanos(stepMillis);
+        this.clock = clock;
+        this.parallelism = parallelism;
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.entries = new ArrayList<>();
+        this.cancelled = new ConcurrentLinkedQueue<>();
+        this.rescheduled = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Registers a task that runs every {@code periodMillis} milliseconds, starting with the next step.
+     * This method may be called from any thread.
+     *
+     * @param task The task to run, typically a {@link SnakeTask}.
+     * @param periodMillis The period of the task in milliseconds.
+     * @return The handle unregistering the task.
+     * @throws IllegalArgumentException If the period is not positive.
+     */
+    @Override
+    public Handle register(Runnable task, long periodMillis) {
+        if(periodMillis <= 0){
+            throw new IllegalArgumentException("Period must be a positive number of milliseconds");
+        }
+        Entry entry = new Entry(task, TimeUnit.MILLISECONDS.toNanos(periodMillis), Long.MIN_VALUE);
+        pending.add(List.of(entry));
+        return entry;
+    }
+
+    /**
+     * Registers a batch of tasks that all start with the same step.
+     *
+     * @param tasks The tasks to run.
+     * @param periodsMillis The period of each task in milliseconds, index-aligned with the tasks.
+     * @return The handles unregistering the tasks, index-aligned with the tasks.
+     * @throws IllegalArgumentException If the arrays differ in length or a period is not positive.
+     */
+    @Override
+    public List<Handle> registerAll(List<? extends Runnable> tasks, long[] periodsMillis) {
+        if(tasks.size() != periodsMillis.length){
+            throw new IllegalArgumentException("Every task needs exactly one period");
+        }
+        for(long periodMillis : periodsMillis){
+            if(periodMillis <= 0){
+                throw new IllegalArgumentException("Period must be a positive number of milliseconds");
+            }
+        }
+        List<Entry> batch = new ArrayList<>(tasks.size());
+        for(int i = 0; i < periodsMillis.length; i++){
+            batch.add(new Entry(tasks.get(i), TimeUnit.MILLISECONDS.toNanos(periodsMillis[i]), Long.MIN_VALUE));
+        }
+        pending.add(batch);
+        return Collections.unmodifiableList(batch);
+    }
+
+    /**
+     * Sets a listener that is notified after every step in which at least one task ran.
+     *
+     * @param stepListener The listener, or null to remove it.
+     */
+    @Override
+    public void setStepListener(Runnable stepListener) {
+        this.stepListener = stepListener;
+    }
+
+    /**
+     * Sets the metrics recording step durations and how late tasks run compared to their due time.
+     *
+     * @param metrics The metrics, or null to stop recording.
+     */
+    @Override
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sets the journal recording the boundary of every step, see {@link EventJournal}.
+     * A step and the snakes the world creates while holding the journal are recorded in the order in which
+     * the step starts them, so a replay starts every snake at the same step.
+     *
+     * @param journal The journal, or null to stop recording.
+     */
+    public void setJournal(EventJournal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public SimulationClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns the number of threads advancing the tasks of a step.
+     *
+     * @return The parallelism, 1 if steps run on the loop thread only.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns the number of tasks currently driven by the engine, including those waiting for the next step
+     * and excluding those cancelled.
+     *
+     * @return The number of registered tasks.
+     */
+    @Override
+    public int getTaskCount() {
+        synchronized (entries) {
+            int count = entries.size() - cancelled.size();
+            for(List<Entry> batch : pending){
+                count += batch.size();
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Runs one step of the loop: the clock is advanced to {@code nowNanos}, period changes, registrations and
+     * cancellations are applied, then every task whose due time is at or before it runs, as many times as needed
+     * to catch up with its fixed rate.
+     * This method is not thread-safe and is normally only called from the loop thread;
+     * it is public so callers can drive the engine with a simulated time, and should then call {@link #stop()}
+     * once done to shut down the threads of a parallel step.
+     *
+     * @param nowNanos The simulation time of this step in nanoseconds.
+     * @return The number of task executions performed during this step.
+     */
+    public int step(long nowNanos) {
+        SimulationMetrics recorder = metrics;
+        EventJournal events = journal;
+        long start = recorder != null ? System.nanoTime() : 0;
+        int executed = 0;
+        synchronized (entries) {
+            if(events != null){
+                //The world records new snakes while holding the journal: each one is either recorded before
+                //this step and started by it, or recorded after it and started by a later step
+                synchronized (events) {
+                    clock.advanceTo(nowNanos);
+                    events.beginTick(nowNanos);
+                    applyPeriods(nowNanos);
+                    startPending(nowNanos);
+                }
+            } else {
+                clock.advanceTo(nowNanos);
+                applyPeriods(nowNanos);
+                startPending(nowNanos);
+            }
+            removeCancelled();
+            int n = entries.size();
+            if(parallelism > 1 && n > PARALLEL_CHUNK){
+                try{
+                    executed = workers().invoke(new StepChunk(0, n, nowNanos, recorder));
+                } catch (RejectedExecutionException ex){
+                    //The pool was shut down by stop() before this step reached it
+                    executed = runDue(0, n, nowNanos, recorder);
+                }
+            } else {
+                executed = runDue(0, n, nowNanos, recorder);
+            }
+        }
+        if(events != null){
+            events.endTick(executed > 0);
+        }
+        if(recorder != null){
+            recorder.recordTick(System.nanoTime() - start);
+        }
+        Runnable listener = stepListener;
+        if(executed > 0 && listener != null){
+            listener.run();
+        }
+        return executed;
+    }
+
+    /**
+     * Returns the pool of the parallel step, creating it if the engine has none.
+     */
+    private synchronized ForkJoinPool workers() {
+        if(pool == null){
+            pool = new ForkJoinPool(parallelism);
+        }
+        return pool;
+    }
+
+    /**
+     * Applies the period changes. A running entry, which ran at least once, is next due one new period after its
+     * last due time, but not before this step; an entry not started yet keeps starting with this step.
+     */
+    private void applyPeriods(long nowNanos) {
+        Entry changed;
+        while((changed = rescheduled.poll()) != null){
+            long periodNanos = changed.requestedPeriodNanos;
+            if(changed.index >= 0){
+                long lastDue = changed.nextDueNanos - changed.periodNanos;
+                changed.nextDueNanos = Math.max(lastDue + periodNanos, nowNanos);
+            }
+            changed.periodNanos = periodNanos;
+        }
+    }
+
+    /**
+     * Moves the registered batches to the running entries, due at the given time.
+     */
+    private void startPending(long nowNanos) {
+        List<Entry> batch;
+        while((batch = pending.poll()) != null){
+            for(Entry added : batch){
+                if(added.cancelled.get()){
+                    continue;
+                }
+                added.nextDueNanos = nowNanos;
+                added.index = entries.size();
+                entries.add(added);
+            }
+        }
+    }
+
+    /**
+     * Removes the cancelled entries in O(1) each, by moving the last entry into their place.
+     * Entries cancelled before they started are skipped by {@link #startPending} instead.
+     */
+    private void removeCancelled() {
+        Entry removed;
+        while((removed = cancelled.poll()) != null){
+            int index = removed.index;
+            if(index < 0){
+                continue;
+            }
+            Entry last = entries.remove(entries.size() - 1);
+            if(last != removed){
+                last.index = index;
+                entries.set(index, last);
+            }
+            removed.index = -1;
+        }
+    }
+
+    /**
+     * Runs the due tasks among the entries in the given range.
+     *
+     * @return The number of task executions performed.
+     */
+    private int runDue(int from, int to, long nowNanos, SimulationMetrics recorder) {
+        int executed = 0;
+        for(int i = from; i < to; i++){
+            Entry entry = entries.get(i);
+            while(entry.nextDueNanos - nowNanos <= 0 && !entry.cancelled.get()){
+                if(recorder != null){
+                    recorder.recordDrift(entry.periodNanos, nowNanos - entry.nextDueNanos);
+                }
+                try{
+                    entry.task.run();
+                } catch (Exception ex){
+                    LOGGER.log(Level.SEVERE, "Error running simulation task", ex);
+                }
+                entry.nextDueNanos += entry.periodNanos;
+                executed++;
+            }
+        }
+        return executed;
+    }
+
+    /**
+     * A range of entries advanced by one fork/join task, split in halves until it is small enough.
+     * Halves that are not yet started can be stolen by idle workers.
+     */
+    @SuppressWarnings("serial")
+    private final class StepChunk extends RecursiveTask<Integer> {
+        private final int from;
+        private final int to;
+        private final long nowNanos;
+        private final SimulationMetrics recorder;
+
+        private StepChunk(int from, int to, long nowNanos, SimulationMetrics recorder) {
+            this.from = from;
+            this.to = to;
+            this.nowNanos = nowNanos;
+            this.recorder = recorder;
+        }
+
+        @Override
+        protected Integer compute() {
+            if(to - from <= PARALLEL_CHUNK){
+                return runDue(from, to, nowNanos, recorder);
+            }
+            int middle = (from + to) >>> 1;
+            StepChunk left = new StepChunk(from, middle, nowNanos, recorder);
+            left.fork();
+            int right = new StepChunk(middle, to, nowNanos, recorder).compute();
+            return left.join() + right;
+        }
+    }
+
+    /**
+     * Starts the loop thread if it is not already running.
+     */
+    @Override
+    public synchronized void start() {
+        if(running){
+            return;
+        }
+        running = true;
+        loopThread = new Thread(this::runLoop, "simulation-engine");
+        loopThread.setDaemon(true);
+        loopThread.start();
+    }
+
+    /**
+     * Stops the loop thread and shuts down the threads of the parallel step, which the next step creates again.
+     * Registered tasks are kept and resume if the engine is started again.
+     */
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if(loopThread != null){
+            loopThread.interrupt();
+            loopThread = null;
+        }
+        if(pool != null){
+            //Lets a step in progress finish its chunks
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * Returns whether the loop thread is running.
+     *
+     * @return true if the engine is running, false otherwise.
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Fixed-step loop: runs a step at the clock's simulation time, then parks until the next step boundary.
+     * If the loop falls more than one step behind, it resynchronizes instead of bursting to catch up.
+     * With a virtual clock the loop does not wait between steps.
+     */
+    private void runLoop() {
+        long nextStep = System.nanoTime();
+        while(running && !Thread.currentThread().isInterrupted()){
+            step(clock.toSimulationNanos(System.nanoTime()));
+            if(!clock.isPaced()){
+                continue;
+            }
+            nextStep += stepNanos;
+            long remaining = nextStep - System.nanoTime();
+            if(remaining > 0){
+                LockSupport.parkNanos(this, remaining);
+            } else if(remaining < -stepNanos){
+                nextStep = System.nanoTime();
+            }
+        }
+    }
+}
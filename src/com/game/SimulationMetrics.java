@@ -0,0 +1,281 @@
+package com.game;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects runtime metrics of the simulation and exposes them over JMX.
+ * All recording methods are lock-free ({@link LatencyHistogram} and {@link LongAdder}),
+ * so they can be called from the engine thread and the event dispatch thread without contention.
+ */
+public class SimulationMetrics implements SimulationMetricsMBean {
+
+    private static final Logger LOGGER = Logger.getLogger(SimulationMetrics.class.getName());
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    //Upper bounds, in milliseconds, of the snake speed buckets used for scheduling drift
+    private static final long[] SPEED_BUCKETS = {1, 10, 100, 1000, Long.MAX_VALUE};
+
+    private final LatencyHistogram tickDurations = new LatencyHistogram();
+    private final LatencyHistogram paintDurations = new LatencyHistogram();
+    private final LatencyHistogram[] driftBySpeed;
+    private final LongAdder dirtyRegions = new LongAdder();
+    private final LongAdder repaintRequests = new LongAdder();
+    private final LongAdder repaintsIssued = new LongAdder();
+    private final LongAdder framesRendered = new LongAdder();
+    private final LongAdder framesSkipped = new LongAdder();
+    private volatile IntSupplier liveSnakes = () -> 0;
+    private volatile LongSupplier segments = () -> 0;
+    private ObjectName objectName;
+
+    /**
+     * Constructs an empty SimulationMetrics instance.
+     */
+    public SimulationMetrics() {
+        driftBySpeed = new LatencyHistogram[SPEED_BUCKETS.length];
+        for(int i = 0; i < driftBySpeed.length; i++){
+            driftBySpeed[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Records the duration of one simulation step.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void recordTick(long nanos) {
+        tickDurations.record(nanos);
+    }
+
+    /**
+     * Records how late a task ran compared to its due time. It is called for every run of every task, from all
+     * the workers of a parallel step, so it only touches striped counters.
+     *
+     * @param periodNanos The period of the task, used to pick the speed bucket.
+     * @param lateNanos The delay between the due time and the time the task ran.
+     */
+    public void recordDrift(long periodNanos, long lateNanos) {
+        long periodMillis = TimeUnit.NANOSECONDS.toMillis(periodNanos);
+        int bucket = 0;
+        while(periodMillis > SPEED_BUCKETS[bucket]){
+            bucket++;
+        }
+        driftBySpeed[bucket].record(lateNanos);
+    }
+
+    /**
+     * Records the duration of one paint.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void recordPaint(long nanos) {
+        paintDurations.record(nanos);
+    }
+
+    /**
+     * Records that a region was marked dirty for repaint.
+     */
+    public void recordDirtyRegion() {
+        dirtyRegions.increment();
+    }
+
+    /**
+     * Records a repaint request, and whether it resulted in a new repaint being queued.
+     *
+     * @param issued true if a repaint was queued, false if it was merged into a pending one.
+     */
+    public void recordRepaintRequest(boolean issued) {
+        repaintRequests.increment();
+        if(issued){
+            repaintsIssued.increment();
+        }
+    }
+
+    /**
+     * Records a frame slot of the active renderer, and whether a frame was rendered in it.
+     *
+     * @param rendered true if a frame was rendered, false if the slot was skipped because nothing changed.
+     */
+    public void recordFrame(boolean rendered) {
+        if(rendered){
+            framesRendered.increment();
+        } else {
+            framesSkipped.increment();
+        }
+    }
+
+    /**
+     * Sets the gauges reporting the number of live snakes and of their segments.
+     * They are only evaluated when the attributes are read.
+     *
+     * @param liveSnakes Supplies the number of live snakes.
+     * @param segments Supplies the total number of segments.
+     */
+    public void setGauges(IntSupplier liveSnakes, LongSupplier segments) {
+        this.liveSnakes = liveSnakes;
+        this.segments = segments;
+    }
+
+    /**
+     * Registers this instance with the platform MBean server under a unique name.
+     * Failures are logged and do not prevent the game from running.
+     */
+    public synchronized void register() {
+        if(objectName != null){
+            return;
+        }
+        try{
+            ObjectName name = new ObjectName("com.game:type=SimulationMetrics,id=" + INSTANCES.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            objectName = name;
+        } catch (JMException ex){
+            LOGGER.log(Level.WARNING, "Could not register simulation metrics MBean", ex);
+        }
+    }
+
+    /**
+     * Unregisters this instance from the platform MBean server, if it was registered.
+     */
+    public synchronized void unregister() {
+        if(objectName == null){
+            return;
+        }
+        try{
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if(server.isRegistered(objectName)){
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException ex){
+            LOGGER.log(Level.WARNING, "Could not unregister simulation metrics MBean", ex);
+        }
+        objectName = null;
+    }
+
+    /**
+     * Returns the name this instance is registered under.
+     *
+     * @return The object name, or null if not registered.
+     */
+    public synchronized ObjectName getObjectName() {
+        return objectName;
+    }
+
+    @Override
+    public double getTickP50Micros() {
+        return toMicros(tickDurations.getPercentile(0.50));
+    }
+
+    @Override
+    public double getTickP99Micros() {
+        return toMicros(tickDurations.getPercentile(0.99));
+    }
+
+    @Override
+    public double getTickMaxMicros() {
+        return toMicros(tickDurations.getMax());
+    }
+
+    @Override
+    public long getTickCount() {
+        return tickDurations.getCount();
+    }
+
+    @Override
+    public String[] getSchedulingDriftBySpeed() {
+        String[] lines = new String[SPEED_BUCKETS.length];
+        for(int i = 0; i < SPEED_BUCKETS.length; i++){
+            String label = SPEED_BUCKETS[i] == Long.MAX_VALUE ? ">" + SPEED_BUCKETS[i - 1] + "ms" : "<=" + SPEED_BUCKETS[i] + "ms";
+            LatencyHistogram drift = driftBySpeed[i];
+            lines[i] = String.format("%s count=%d p50=%.1fus p99=%.1fus max=%.1fus", label, drift.getCount(),
+                    toMicros(drift.getPercentile(0.50)), toMicros(drift.getPercentile(0.99)), toMicros(drift.getMax()));
+        }
+        return lines;
+    }
+
+    @Override
+    public double getPaintP50Micros() {
+        return toMicros(paintDurations.getPercentile(0.50));
+    }
+
+    @Override
+    public double getPaintP99Micros() {
+        return toMicros(paintDurations.getPercentile(0.99));
+    }
+
+    @Override
+    public double getPaintMaxMicros() {
+        return toMicros(paintDurations.getMax());
+    }
+
+    @Override
+    public long getPaintCount() {
+        return paintDurations.getCount();
+    }
+
+    @Override
+    public int getLiveSnakeCount() {
+        return liveSnakes.getAsInt();
+    }
+
+    @Override
+    public long getSegmentCount() {
+        return segments.getAsLong();
+    }
+
+    @Override
+    public long getDirtyRegionCount() {
+        return dirtyRegions.sum();
+    }
+
+    @Override
+    public long getRepaintRequestCount() {
+        return repaintRequests.sum();
+    }
+
+    @Override
+    public long getRepaintIssuedCount() {
+        return repaintsIssued.sum();
+    }
+
+    @Override
+    public long getRepaintCoalescedCount() {
+        return repaintRequests.sum() - repaintsIssued.sum();
+    }
+
+    @Override
+    public long getFrameCount() {
+        return framesRendered.sum();
+    }
+
+    @Override
+    public long getFrameSkippedCount() {
+        return framesSkipped.sum();
+    }
+
+    @Override
+    public void reset() {
+        tickDurations.reset();
+        paintDurations.reset();
+        for(LatencyHistogram drift : driftBySpeed){
+            drift.reset();
+        }
+        dirtyRegions.reset();
+        repaintRequests.reset();
+        repaintsIssued.reset();
+        framesRendered.reset();
+        framesSkipped.reset();
+    }
+
+    private static double toMicros(long nanos) {
+        return nanos / 1_000.0;
+    }
+}
@@ -0,0 +1,101 @@
+package com.game;
+
+/**
+ * JMX management interface of {@link SimulationMetrics}.
+ * Durations are reported in microseconds.
+ */
+public interface SimulationMetricsMBean {
+
+    /**
+     * @return The median duration of a simulation step.
+     */
+    double getTickP50Micros();
+
+    /**
+     * @return The 99th percentile duration of a simulation step.
+     */
+    double getTickP99Micros();
+
+    /**
+     * @return The longest simulation step.
+     */
+    double getTickMaxMicros();
+
+    /**
+     * @return The number of simulation steps recorded.
+     */
+    long getTickCount();
+
+    /**
+     * Returns how late snake moves ran compared to their due time, one line per speed bucket,
+     * for example {@code "<=10ms count=120 p50=250.0us p99=980.0us max=1200.0us"}.
+     *
+     * @return The scheduling drift per snake speed bucket.
+     */
+    String[] getSchedulingDriftBySpeed();
+
+    /**
+     * @return The median duration of a paint of the game panel.
+     */
+    double getPaintP50Micros();
+
+    /**
+     * @return The 99th percentile duration of a paint of the game panel.
+     */
+    double getPaintP99Micros();
+
+    /**
+     * @return The longest paint of the game panel.
+     */
+    double getPaintMaxMicros();
+
+    /**
+     * @return The number of paints of the game panel recorded.
+     */
+    long getPaintCount();
+
+    /**
+     * @return The number of snakes alive in the world.
+     */
+    int getLiveSnakeCount();
+
+    /**
+     * @return The total number of body segments of all live snakes.
+     */
+    long getSegmentCount();
+
+    /**
+     * @return The number of regions marked dirty for repaint.
+     */
+    long getDirtyRegionCount();
+
+    /**
+     * @return The number of repaint requests made at the end of simulation steps.
+     */
+    long getRepaintRequestCount();
+
+    /**
+     * @return The number of clipped repaints actually issued to Swing.
+     */
+    long getRepaintIssuedCount();
+
+    /**
+     * @return The number of repaint requests merged into an already pending repaint.
+     */
+    long getRepaintCoalescedCount();
+
+    /**
+     * @return The number of frames drawn by the active renderer.
+     */
+    long getFrameCount();
+
+    /**
+     * @return The number of frame slots the active renderer skipped because nothing changed.
+     */
+    long getFrameSkippedCount();
+
+    /**
+     * Clears all histograms and counters.
+     */
+    void reset();
+}
@@ -3,36 +3,67 @@ package com.game;
 import java.awt.*;
 import java.awt.geom.Rectangle2D;
 import java.awt.geom.RoundRectangle2D;
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Represents a snake in the game. The snake consists of a series of segments that can move,
  * grow, and be rendered onto a graphical context.
+ * Positions are kept in integer segment steps relative to the snake's start, which is the top-left
+ * corner of its square; they are only converted to pixels when rendering.
+ * Every change of the body is published as a snapshot that {@link #render(Graphics2D)} and
+ * {@link #render(SegmentBatch)} read without
+ * taking the simulation lock, so painting never delays a move.
  */
 public class Snake implements  Movable,Growable, Renderable{
 
     //Width and height of the snake segments
-    private static final int SEGMENT_SIZE = 5;
+    static final int SEGMENT_SIZE = 5;
     private static final int SNAKE_BODY_CURVE = 2;
 
-    //Time in milliseconds for gradual growth
-    private static final int GROWTH_INTERVAL = 2000;
+    //Simulation time in nanoseconds for gradual growth
+    private static final long GROWTH_INTERVAL = TimeUnit.MILLISECONDS.toNanos(2000);
 
-    //Number of segments to grow per interval
-    private static final int GROWTH_STEP = 1;
+    //Number of growth intervals per new segment; the growth counter stays below it
+    static final int GROWTH_STEP = 1;
+
+    //Values copied by copyState
+    static final int STATE_FIELDS = 7;
+
+    //Slots of the body buffers at creation; they grow with the body, never up front to the full length
+    private static final int INITIAL_BODY_CAPACITY = 8;
 
     private int length;
     private double snakeStartX;
     private double snakeStartY;
-    private double newSnakeX;
-    private double newSnakeY;
+    //Head position in segment steps from the start position
+    private int headX;
+    private int headY;
+    //Direction of the next move in segment steps, -1, 0 or 1, maintained by the movement strategy
+    private byte directionX;
+    private byte directionY;
+    //Square the snake was last moved in, and the index of the last step along its side
+    private Rectangle2D boundSquare;
+    private int lastStep;
+    //Number of moves made since the snake started
+    private long moveCount;
+    //Time line deciding growth, shared with the scheduler driving the snake
+    private SimulationClock clock;
     private long lastGrowthTime;
     private int growthCounter;
-    private double speed;
+    //Number of times the body grew by a segment, only touched by the thread running the snake
+    private long growthCount;
+    //Changed by the controlling thread while the scheduler runs the snake
+    private volatile double speed;
     private MovementStrategy movementStrategy;
-    private Deque<RoundRectangle2D> segments;
+    private SegmentRingBuffer segments;
+    //Bodies published for the renderer after every change of segments
+    private final SegmentSnapshots snapshots;
+    //Shape reused by render() for every segment, only touched while holding the render lock
+    private final RoundRectangle2D.Double segmentShape;
+    //Guards the simulation state; never taken by render()
     private final Object lock = new Object();
+    //Serializes readers of the snapshots; never taken by the simulation
+    private final Object renderLock = new Object();
 
 
     /**
@@ -50,12 +81,19 @@ public class Snake implements  Movable,Growable, Renderable{
         this.snakeStartX = snakeStartX;
         this.snakeStartY = snakeStartY;
         this.speed = speed;
-        this.segments = new ArrayDeque<>();
-        this.lastGrowthTime = System.currentTimeMillis();
+        //One spare slot for the segment grow() adds before trimming back to length; compared first so that
+        //a length of Integer.MAX_VALUE does not overflow
+        int capacity = length < INITIAL_BODY_CAPACITY ? length + 1 : INITIAL_BODY_CAPACITY;
+        this.segments = new SegmentRingBuffer(capacity);
+        this.snapshots = new SegmentSnapshots(capacity);
+        this.segmentShape = new RoundRectangle2D.Double(0, 0, SEGMENT_SIZE, SEGMENT_SIZE, SNAKE_BODY_CURVE, SNAKE_BODY_CURVE);
+        this.clock = SimulationClock.system();
+        this.lastGrowthTime = clock.now();
         this.growthCounter = 0;
-        this.newSnakeX = snakeStartX;
-        this.newSnakeY = snakeStartY;
-        segments.add(new RoundRectangle2D.Double(snakeStartX, snakeStartY, SEGMENT_SIZE, SEGMENT_SIZE,SNAKE_BODY_CURVE,SNAKE_BODY_CURVE));
+        this.headX = 0;
+        this.headY = 0;
+        segments.addLast(headX, headY);
+        snapshots.publish(segments);
 
     }
 
@@ -64,9 +102,7 @@ public class Snake implements  Movable,Growable, Renderable{
      */
     private void removeTrailSegment(){
         synchronized (lock){
-            if(segments.size() > GROWTH_STEP){
-                segments.removeLast();
-            }
+            segments.removeLast();
         }
     }
 
@@ -84,12 +120,12 @@ public class Snake implements  Movable,Growable, Renderable{
     /**
      * Adds a new segment to the front of the snake's body.
      *
-     * @param x The X coordinate of the new segment.
-     * @param y The Y coordinate of the new segment.
+     * @param x The X coordinate of the new segment, in segment steps.
+     * @param y The Y coordinate of the new segment, in segment steps.
      */
-    private void addSegment(double x, double y){
+    private void addSegment(int x, int y){
         synchronized (lock){
-            segments.addFirst(new RoundRectangle2D.Double(x,y,SEGMENT_SIZE,SEGMENT_SIZE,SNAKE_BODY_CURVE,SNAKE_BODY_CURVE));
+            segments.addFirst(x, y);
         }
     }
 
@@ -101,63 +137,410 @@ public class Snake implements  Movable,Growable, Renderable{
         return snakeStartY;
     }
 
+    /**
+     * Returns the X coordinate of the head in pixels.
+     *
+     * @return The X coordinate of the head.
+     */
     public double getNewSnakeX() {
-        return newSnakeX;
+        return snakeStartX + headX * SEGMENT_SIZE;
     }
 
+    /**
+     * Sets the X coordinate of the head in pixels, snapped to the nearest segment step.
+     *
+     * @param newSnakeX The X coordinate of the head.
+     */
     public void setNewSnakeX(double newSnakeX) {
-        this.newSnakeX = newSnakeX;
+        this.headX = (int) Math.round((newSnakeX - snakeStartX) / SEGMENT_SIZE);
     }
 
+    /**
+     * Returns the Y coordinate of the head in pixels.
+     *
+     * @return The Y coordinate of the head.
+     */
     public double getNewSnakeY() {
-        return newSnakeY;
+        return snakeStartY + headY * SEGMENT_SIZE;
     }
 
+    /**
+     * Sets the Y coordinate of the head in pixels, snapped to the nearest segment step.
+     *
+     * @param newSnakeY The Y coordinate of the head.
+     */
     public void setNewSnakeY(double newSnakeY) {
-        this.newSnakeY = newSnakeY;
+        this.headY = (int) Math.round((newSnakeY - snakeStartY) / SEGMENT_SIZE);
+    }
+
+    /**
+     * Returns the X coordinate of the head in segment steps from the start position.
+     *
+     * @return The X step of the head.
+     */
+    public int getHeadX() {
+        return headX;
+    }
+
+    /**
+     * Returns the Y coordinate of the head in segment steps from the start position.
+     *
+     * @return The Y step of the head.
+     */
+    public int getHeadY() {
+        return headY;
+    }
+
+    /**
+     * Sets the head position in segment steps from the start position.
+     *
+     * @param headX The X step of the head.
+     * @param headY The Y step of the head.
+     */
+    public void setHead(int headX, int headY) {
+        this.headX = headX;
+        this.headY = headY;
+    }
+
+    /**
+     * Returns the X direction of the next move in segment steps.
+     *
+     * @return -1, 0 or 1.
+     */
+    public int getDirectionX() {
+        return directionX;
+    }
+
+    /**
+     * Returns the Y direction of the next move in segment steps.
+     *
+     * @return -1, 0 or 1.
+     */
+    public int getDirectionY() {
+        return directionY;
+    }
+
+    /**
+     * Sets the direction of the next move. Called by the movement strategy, which keeps no state of its own.
+     *
+     * @param directionX The X direction in segment steps, -1, 0 or 1.
+     * @param directionY The Y direction in segment steps, -1, 0 or 1.
+     */
+    public void setDirection(int directionX, int directionY) {
+        this.directionX = (byte) directionX;
+        this.directionY = (byte) directionY;
+    }
+
+    /**
+     * Returns the index of the last segment step along a side of the given square,
+     * i.e. the number of segments that fit along the side minus one.
+     * The value is cached for the last square seen, so it is only computed when the square changes.
+     *
+     * @param square The square the snake moves in.
+     * @return The last step index along a side of the square.
+     */
+    public int getLastStep(Rectangle2D square) {
+        if(square != boundSquare){
+            lastStep = (int) (square.getWidth() / SEGMENT_SIZE) - 1;
+            boundSquare = square;
+        }
+        return lastStep;
     }
 
     public double getSpeed() {
         return speed;
     }
 
+    /**
+     * Sets the interval between two moves. The scheduler running the snake must be told separately,
+     * see {@link World#setSnakeSpeed(int, long)}.
+     *
+     * @param speed The interval between two moves, in milliseconds.
+     */
+    void setSpeed(double speed) {
+        this.speed = speed;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public MovementStrategy getMovementStrategy() {
+        return movementStrategy;
+    }
+
     public double getSegmentSize(){
         return SEGMENT_SIZE;
     }
 
+    /**
+     * Binds the snake to the clock of the scheduler that drives it and restarts its growth interval.
+     * Until then, growth follows {@link System#nanoTime()}. Binding the snake to the clock it already
+     * follows changes nothing.
+     *
+     * @param clock The simulation clock.
+     */
+    public void setClock(SimulationClock clock) {
+        if(clock == this.clock){
+            return;
+        }
+        this.clock = clock;
+        this.lastGrowthTime = clock.now();
+    }
+
+    /**
+     * Adds one segment every growth interval of simulation time, up to the snake's length.
+     * The time is read from the shared clock, which is sampled once per simulation step.
+     */
     @Override
     public void grow() {
-        long currentTime = System.currentTimeMillis();
-        if(currentTime - lastGrowthTime >= GROWTH_INTERVAL){
-            lastGrowthTime = currentTime;
-            growthCounter++;
-            if(growthCounter >= GROWTH_STEP){
-                RoundRectangle2D lastSegment = segments.getLast();
-                double newX = lastSegment.getX();
-                double newY = lastSegment.getY();
-                double width = lastSegment.getWidth();
-                double height = lastSegment.getHeight();
-                segments.addLast(new RoundRectangle2D.Double(newX, newY, width, height, SNAKE_BODY_CURVE, SNAKE_BODY_CURVE));
-                growthCounter = 0;
+        long currentTime = clock.now();
+        synchronized (lock){
+            if(currentTime - lastGrowthTime >= GROWTH_INTERVAL){
+                lastGrowthTime = currentTime;
+                growthCounter++;
+                if(growthCounter >= GROWTH_STEP){
+                    int tail = segments.size() - 1;
+                    segments.addLast(segments.getX(tail), segments.getY(tail));
+                    growthCounter = 0;
+                }
+            }
+            trimExcesslength();
+            //Growth only appends a copy of the tail, so the body changed exactly when its size did
+            if(segments.size() != snapshots.getPublishedSize()){
+                snapshots.publish(segments);
+                growthCount++;
+            }
+        }
+    }
+
+    /**
+     * Returns the simulation time elapsed since the snake last grew, or since its growth interval restarted.
+     *
+     * @return The elapsed time in nanoseconds.
+     */
+    long getGrowthElapsedNanos() {
+        return clock.now() - lastGrowthTime;
+    }
+
+    int getGrowthCounter() {
+        return growthCounter;
+    }
+
+    /**
+     * Returns the number of times the body grew by a segment since the snake was created.
+     * Growth intervals that end while the snake is already at full length do not count.
+     *
+     * @return The number of growths.
+     */
+    long getGrowthCount() {
+        return growthCount;
+    }
+
+    /**
+     * Copies the body, head first, to the given arrays starting at the given offset, if it fits.
+     *
+     * @param xs Receives the X coordinates in segment steps.
+     * @param ys Receives the Y coordinates in segment steps, as long as the X coordinates.
+     * @param offset The index of the first slot written.
+     * @return The number of segments copied, or -1 if the arrays are too short to hold the body from the offset;
+     *         nothing is copied then.
+     */
+    int copySegments(int[] xs, int[] ys, int offset) {
+        synchronized (lock){
+            if(segments.size() > xs.length - offset){
+                return -1;
+            }
+            segments.copyTo(xs, ys, offset);
+            return segments.size();
+        }
+    }
+
+    /**
+     * Copies the whole saved state of the snake at once, so that a snake moving on the scheduler's threads is
+     * captured between two changes: its head matches the first segment of its body.
+     *
+     * @param state Receives, from {@code state[0]}, the head X and Y steps, the X and Y directions, the move
+     *              count, the growth counter and the simulation time elapsed since the snake last grew;
+     *              {@value #STATE_FIELDS} values.
+     * @param xs Receives the X coordinates of the body, head first, in segment steps.
+     * @param ys Receives the Y coordinates of the body, head first, in segment steps, as long as the X coordinates.
+     * @param offset The index of the first slot of the body written.
+     * @return The number of segments copied, or -1 if the arrays are too short to hold the body from the offset;
+     *         nothing is copied then.
+     */
+    int copyState(long[] state, int[] xs, int[] ys, int offset) {
+        synchronized (lock){
+            if(segments.size() > xs.length - offset){
+                return -1;
             }
+            state[0] = headX;
+            state[1] = headY;
+            state[2] = directionX;
+            state[3] = directionY;
+            state[4] = moveCount;
+            state[5] = growthCounter;
+            state[6] = clock.now() - lastGrowthTime;
+            segments.copyTo(xs, ys, offset);
+            return segments.size();
+        }
+    }
+
+    /**
+     * Returns the X coordinate of a segment of the body.
+     *
+     * @param index The index of the segment, 0 for the head.
+     * @return The X coordinate in segment steps.
+     */
+    int getSegmentX(int index) {
+        synchronized (lock){
+            return segments.getX(index);
+        }
+    }
+
+    /**
+     * Returns the Y coordinate of a segment of the body.
+     *
+     * @param index The index of the segment, 0 for the head.
+     * @return The Y coordinate in segment steps.
+     */
+    int getSegmentY(int index) {
+        synchronized (lock){
+            return segments.getY(index);
         }
-        trimExcesslength();
     }
 
+    /**
+     * Restores the state of a saved snake: head, direction, move count, growth progress and body.
+     * The snake must already follow the clock it will run on, see {@link #setClock(SimulationClock)}.
+     *
+     * @param headX The X step of the head.
+     * @param headY The Y step of the head.
+     * @param directionX The X direction of the next move.
+     * @param directionY The Y direction of the next move.
+     * @param moveCount The number of moves made since the snake started.
+     * @param growthCounter The growth counter.
+     * @param growthElapsedNanos The simulation time elapsed since the snake last grew.
+     * @param xs The X coordinates of the body, head first.
+     * @param ys The Y coordinates of the body, head first.
+     * @param offset The index of the head in the arrays.
+     * @param count The number of segments, at least 1.
+     */
+    void restore(int headX, int headY, int directionX, int directionY, long moveCount, int growthCounter,
+                 long growthElapsedNanos, int[] xs, int[] ys, int offset, int count) {
+        synchronized (lock){
+            this.headX = headX;
+            this.headY = headY;
+            setDirection(directionX, directionY);
+            this.moveCount = moveCount;
+            this.growthCounter = growthCounter;
+            this.lastGrowthTime = clock.now() - growthElapsedNanos;
+            segments.clear();
+            for(int i = offset; i < offset + count; i++){
+                segments.addLast(xs[i], ys[i]);
+            }
+            snapshots.publish(segments);
+        }
+    }
+
+    /**
+     * Returns the number of segments currently making up the snake's body.
+     *
+     * @return The number of segments.
+     */
+    public int getSegmentCount() {
+        synchronized (lock){
+            return segments.size();
+        }
+    }
+
+    /**
+     * Moves the snake one step. The trail segment is dropped before the new head is added
+     * so the ring buffer never needs more slots than the current body length.
+     *
+     * @param square The rectangle within which the snake moves.
+     */
     @Override
     public void move(Rectangle2D square) {
-        movementStrategy.updateDirection(this, square);
-        addSegment(newSnakeX, newSnakeY);
-        removeTrailSegment();
+        synchronized (lock){
+            movementStrategy.updateDirection(this, square);
+            removeTrailSegment();
+            addSegment(headX, headY);
+            snapshots.publish(segments);
+            moveCount++;
+        }
+    }
+
+    /**
+     * Returns the number of moves made since the snake started.
+     *
+     * @return The number of moves.
+     */
+    public long getMoveCount() {
+        return moveCount;
     }
 
+    /**
+     * Jumps directly to the state the snake has after the given number of moves from its start,
+     * without simulating the intermediate moves. The head and direction are computed in O(1) by the
+     * movement strategy; the body keeps its current number of segments, which are placed on the
+     * positions the head occupied over the previous moves.
+     *
+     * @param square The rectangle within which the snake moves.
+     * @param moves The number of moves since the snake started.
+     * @throws IllegalArgumentException If the number of moves is negative.
+     * @throws UnsupportedOperationException If the movement strategy has no closed form.
+     */
+    public void seek(Rectangle2D square, long moves) {
+        if(moves < 0){
+            throw new IllegalArgumentException("Number of moves must not be negative");
+        }
+        int last = getLastStep(square);
+        synchronized (lock){
+            movementStrategy.seek(this, square, moves);
+            int count = segments.size();
+            segments.clear();
+            for(int i = 0; i < count; i++){
+                long previous = Math.max(0, moves - i);
+                segments.addLast(movementStrategy.getStepX(last, previous), movementStrategy.getStepY(last, previous));
+            }
+            moveCount = moves;
+            snapshots.publish(segments);
+        }
+    }
+
+    /**
+     * Renders the latest published body. The simulation keeps moving the snake meanwhile;
+     * the body drawn is the one published by the last completed move or growth.
+     *
+     * @param g The graphics context to draw on.
+     */
     @Override
     public void render(Graphics2D g) {
-        synchronized (lock) {
-            for(RoundRectangle2D segment : segments){
-                g.fill(segment);
+        synchronized (renderLock) {
+            SegmentSnapshots.Snapshot body = snapshots.latest();
+            for(int i = 0, n = body.size(); i < n; i++){
+                double x = snakeStartX + body.getX(i) * SEGMENT_SIZE;
+                double y = snakeStartY + body.getY(i) * SEGMENT_SIZE;
+                segmentShape.setRoundRect(x, y, SEGMENT_SIZE, SEGMENT_SIZE, SNAKE_BODY_CURVE, SNAKE_BODY_CURVE);
+                g.fill(segmentShape);
             }
         }
 
     }
+
+    /**
+     * Adds the latest published body to a batch of segments drawn together, see {@link SegmentBatch}.
+     *
+     * @param batch The batch to add the segments to.
+     */
+    public void render(SegmentBatch batch) {
+        synchronized (renderLock) {
+            SegmentSnapshots.Snapshot body = snapshots.latest();
+            for(int i = 0, n = body.size(); i < n; i++){
+                batch.add(snakeStartX + body.getX(i) * SEGMENT_SIZE, snakeStartY + body.getY(i) * SEGMENT_SIZE,
+                        SEGMENT_SIZE, SNAKE_BODY_CURVE);
+            }
+        }
+    }
 }
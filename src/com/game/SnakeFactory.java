@@ -1,7 +1,15 @@
 package com.game;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 public interface SnakeFactory {
 
+    //Batches at least this large are built on the common fork/join pool
+    int PARALLEL_BATCH_THRESHOLD = 10_000;
+
     /**
      * Creates a new {@link Snake} instance with the specified parameters.
      *
@@ -14,4 +22,37 @@ public interface SnakeFactory {
      * @throws IllegalArgumentException if the direction is invalid.
      */
     Snake createSnake(int length, String direction, int x, int y, long speed);
+
+    /**
+     * Creates one {@link Snake} per spec, at the position of the spec.
+     * Large batches are built in parallel; the result is always in the order of the specs.
+     * Implementations of {@link #createSnake(int, String, int, int, long)} must be thread-safe.
+     *
+     * @param specs The snakes to create.
+     * @return The new snakes, index-aligned with the specs.
+     * @throws IllegalArgumentException if the direction of any spec is invalid.
+     */
+    default List<Snake> createSnakes(List<SnakeSpec> specs) {
+        if(specs.size() >= PARALLEL_BATCH_THRESHOLD){
+            return IntStream.range(0, specs.size()).parallel()
+                    .mapToObj(i -> createSnake(specs.get(i)))
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+        List<Snake> snakes = new ArrayList<>(specs.size());
+        for(SnakeSpec spec : specs){
+            snakes.add(createSnake(spec));
+        }
+        return snakes;
+    }
+
+    /**
+     * Creates a new {@link Snake} from a positioned spec.
+     *
+     * @param spec The snake to create.
+     * @return A new {@link Snake} instance configured with the spec.
+     * @throws IllegalArgumentException if the direction is invalid.
+     */
+    default Snake createSnake(SnakeSpec spec) {
+        return createSnake(spec.getLength(), spec.getDirection(), spec.getX(), spec.getY(), spec.getSpeed());
+    }
 }
@@ -0,0 +1,75 @@
+package com.game;
+
+/**
+ * Describes a snake to be created in bulk: its length, direction and speed, and optionally the
+ * position of its square. Specs passed to {@link World#addSnakes(java.util.List)} carry no position;
+ * the world reserves a square for each and passes positioned specs to
+ * {@link SnakeFactory#createSnakes(java.util.List)}.
+ */
+public final class SnakeSpec {
+
+    private final int length;
+    private final String direction;
+    private final long speed;
+    private final int x;
+    private final int y;
+
+    /**
+     * Constructs a SnakeSpec without a position.
+     *
+     * @param length The initial length of the snake.
+     * @param direction The movement direction of the snake ("Clockwise" or "Anticlockwise").
+     * @param speed The interval between two moves, in milliseconds.
+     */
+    public SnakeSpec(int length, String direction, long speed) {
+        this(length, direction, speed, 0, 0);
+    }
+
+    /**
+     * Constructs a SnakeSpec with the position of its square.
+     *
+     * @param length The initial length of the snake.
+     * @param direction The movement direction of the snake ("Clockwise" or "Anticlockwise").
+     * @param speed The interval between two moves, in milliseconds.
+     * @param x The X coordinate of the snake's square.
+     * @param y The Y coordinate of the snake's square.
+     */
+    public SnakeSpec(int length, String direction, long speed, int x, int y) {
+        this.length = length;
+        this.direction = direction;
+        this.speed = speed;
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Returns a copy of this spec placed at the given position.
+     *
+     * @param x The X coordinate of the snake's square.
+     * @param y The Y coordinate of the snake's square.
+     * @return A new spec with the same length, direction and speed.
+     */
+    public SnakeSpec at(int x, int y) {
+        return new SnakeSpec(length, direction, speed, x, y);
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public String getDirection() {
+        return direction;
+    }
+
+    public long getSpeed() {
+        return speed;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+}
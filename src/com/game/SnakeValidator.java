@@ -0,0 +1,98 @@
+package com.game;
+
+/**
+ * The rules a snake must follow before it is created, shared by the inputs of the {@link GamePanel}
+ * and the lines of a scenario file read by the {@link ScenarioLoader}.
+ * The methods are stateless, so they may be called from any thread.
+ */
+public final class SnakeValidator {
+
+    /**
+     * The speed used when none is given, in milliseconds.
+     */
+    public static final long DEFAULT_SPEED = 100;
+
+    private SnakeValidator() {
+    }
+
+    /**
+     * Validates the length, speed and direction of a snake, collecting the errors of all three.
+     *
+     * @param lengthText The length, as text.
+     * @param speedText The speed in milliseconds, as text; {@value #DEFAULT_SPEED} if empty.
+     * @param direction The direction.
+     * @return The result, valid if all three are, with one error per line otherwise.
+     */
+    public static ValidationResult validate(String lengthText, String speedText, String direction) {
+        StringBuilder errors = new StringBuilder();
+        int length = 0;
+        long speed = 0;
+        try{
+            length = validateLength(lengthText);
+        } catch(IllegalArgumentException ex){
+            errors.append(ex.getMessage()).append("\n");
+        }
+        try{
+            speed = validateSpeed(speedText);
+        } catch (IllegalArgumentException ex){
+            errors.append(ex.getMessage()).append("\n");
+        }
+        try{
+            validateDirection(direction);
+        } catch (IllegalArgumentException ex){
+            errors.append(ex.getMessage()).append("\n");
+        }
+        boolean isValid = errors.length() == 0;
+        return new ValidationResult(isValid, isValid ? null : errors.toString(), length, speed, direction);
+    }
+
+    /**
+     * Validates the length input.
+     *
+     * @param lengthText The length input text.
+     * @return The validated length as an integer.
+     * @throws IllegalArgumentException If the length is invalid.
+     */
+    public static int validateLength(String lengthText) {
+        try{
+            int length = Integer.parseInt(lengthText);
+            if(length <= 0){
+                throw new IllegalArgumentException("Length must be a positive integer");
+            }
+            return length;
+        } catch (NumberFormatException e){
+            throw new IllegalArgumentException("Invalid length. Please enter a positive integer");
+        }
+    }
+
+    /**
+     * Validates the speed input.
+     *
+     * @param speedText The speed input text; {@value #DEFAULT_SPEED} if empty.
+     * @return The validated speed as a long.
+     * @throws IllegalArgumentException If the speed is invalid.
+     */
+    public static long validateSpeed(String speedText) {
+        try{
+            long speed = speedText.isEmpty() ? DEFAULT_SPEED : Long.parseLong(speedText);
+            if(speed<= 0){
+                throw new IllegalArgumentException("Speed must be a positive integer");
+            }
+            return speed;
+        } catch (NumberFormatException e){
+            throw new IllegalArgumentException("Invalid speed. Please enter a positive integer");
+        }
+    }
+
+    /**
+     * Validates the direction input.
+     *
+     * @param direction The direction input.
+     * @throws IllegalArgumentException If the direction is invalid.
+     */
+    public static void validateDirection(String direction) {
+        if(!"Clockwise".equalsIgnoreCase(direction) && !"Anticlockwise".equalsIgnoreCase(direction)){
+            throw new IllegalArgumentException("Invalid direction. Please select 'Clockwise' or 'Anticlockwise'");
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.game;
+
+import java.util.Arrays;
+
+/**
+ * Uniform spatial hash of the segments in an {@link Arena}. Segments lie on a lattice of segment steps, so the grid
+ * cells are one segment wide and two segments collide exactly when they share a cell. Cells are hashed into a
+ * power-of-two table of buckets, so memory follows the number of segments rather than the size of the arena.
+ *
+ * <p>Every segment is one entry recording its cell and the snake owning it; a cell holds one entry per segment
+ * in it, so a body folded onto itself is counted as often as it covers the cell. Entries are kept in parallel
+ * arrays chained per bucket and recycled through a free list, so adding, removing and looking up a segment
+ * allocate nothing once the table has grown. This class is not thread-safe.</p>
+ */
+final class SpatialHash {
+
+    private static final int NONE = -1;
+
+    //First entry of each bucket
+    private int[] buckets;
+    private int mask;
+    //Entries: packed cell, owning snake and next entry of the same bucket, or of the free list
+    private long[] cells;
+    private int[] owners;
+    private int[] next;
+    private int freeList = NONE;
+    //Entries ever used; those below it not in a bucket are on the free list
+    private int used;
+    private int size;
+
+    /**
+     * Constructs a SpatialHash sized for the given number of segments. It grows past it as needed.
+     *
+     * @param expectedSegments The number of segments expected.
+     */
+    SpatialHash(int expectedSegments) {
+        int capacity = Math.max(16, expectedSegments);
+        buckets = new int[tableSize(capacity)];
+        Arrays.fill(buckets, NONE);
+        mask = buckets.length - 1;
+        cells = new long[capacity];
+        owners = new int[capacity];
+        next = new int[capacity];
+    }
+
+    /**
+     * Adds a segment of the given snake in the given cell.
+     *
+     * @param x The X step of the cell.
+     * @param y The Y step of the cell.
+     * @param owner The index of the snake.
+     */
+    void add(int x, int y, int owner) {
+        int entry = freeList;
+        if(entry != NONE){
+            freeList = next[entry];
+        } else {
+            if(used == cells.length){
+                grow();
+            }
+            entry = used++;
+        }
+        long cell = pack(x, y);
+        int bucket = bucket(cell);
+        cells[entry] = cell;
+        owners[entry] = owner;
+        next[entry] = buckets[bucket];
+        buckets[bucket] = entry;
+        size++;
+    }
+
+    /**
+     * Removes one segment of the given snake from the given cell.
+     *
+     * @param x The X step of the cell.
+     * @param y The Y step of the cell.
+     * @param owner The index of the snake.
+     * @return true if a segment was removed, false if the snake has none in this cell.
+     */
+    boolean remove(int x, int y, int owner) {
+        long cell = pack(x, y);
+        int bucket = bucket(cell);
+        int previous = NONE;
+        for(int entry = buckets[bucket]; entry != NONE; entry = next[entry]){
+            if(cells[entry] == cell && owners[entry] == owner){
+                if(previous == NONE){
+                    buckets[bucket] = next[entry];
+                } else {
+                    next[previous] = next[entry];
+                }
+                next[entry] = freeList;
+                freeList = entry;
+                size--;
+                return true;
+            }
+            previous = entry;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a snake other than the given one with a segment in the given cell.
+     *
+     * @param x The X step of the cell.
+     * @param y The Y step of the cell.
+     * @param owner The index of the snake to ignore.
+     * @return The index of another snake in the cell, or -1 if there is none.
+     */
+    int findOther(int x, int y, int owner) {
+        long cell = pack(x, y);
+        for(int entry = buckets[bucket(cell)]; entry != NONE; entry = next[entry]){
+            if(cells[entry] == cell && owners[entry] != owner){
+                return owners[entry];
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Returns the number of segments in the given cell, of any snake.
+     *
+     * @param x The X step of the cell.
+     * @param y The Y step of the cell.
+     * @return The number of segments.
+     */
+    int count(int x, int y) {
+        long cell = pack(x, y);
+        int count = 0;
+        for(int entry = buckets[bucket(cell)]; entry != NONE; entry = next[entry]){
+            if(cells[entry] == cell){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of segments in the hash.
+     *
+     * @return The number of segments.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Doubles the entry arrays, and the bucket table with them so chains stay short.
+     */
+    private void grow() {
+        int capacity = cells.length * 2;
+        cells = Arrays.copyOf(cells, capacity);
+        owners = Arrays.copyOf(owners, capacity);
+        next = Arrays.copyOf(next, capacity);
+        buckets = new int[tableSize(capacity)];
+        Arrays.fill(buckets, NONE);
+        mask = buckets.length - 1;
+        //Only called when the free list is empty, so every entry used is in a bucket
+        for(int entry = 0; entry < used; entry++){
+            int bucket = bucket(cells[entry]);
+            next[entry] = buckets[bucket];
+            buckets[bucket] = entry;
+        }
+    }
+
+    /**
+     * Returns the smallest power of two holding the given number of entries at a load factor of one half.
+     */
+    private static int tableSize(int capacity) {
+        return Integer.highestOneBit(Math.max(1, capacity * 2 - 1)) << 1;
+    }
+
+    private int bucket(long cell) {
+        long h = cell * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+}
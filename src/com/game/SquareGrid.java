@@ -0,0 +1,362 @@
+package com.game;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Dense occupancy index of the squares laid out on the board.
+ * Cells are numbered row by row ({@code row * columns + col}); a {@link BitSet} records which cells are
+ * occupied and a flat array holds the bounds of each occupied square, so looking up a square never allocates.
+ * The lowest free cell is tracked, so reserving squares one after another costs O(1) amortized.
+ * The grid doubles as the spatial index of the board: the occupied cells intersecting a region are found
+ * from the region's row and column range, so a query only costs as much as the region is large.
+ * Each occupied cell can carry an owner, such as the index of the snake living in it.
+ * A released cell is free again and, being below the lowest free cell if need be, is the next one reserved.
+ */
+public class SquareGrid {
+
+    private final int squareSize;
+    private final int spacing;
+    private int rows;
+    private int columns;
+    private BitSet occupied;
+    private Rectangle2D[] squares;
+    //Owner of each cell, -1 if none
+    private int[] owners;
+    private int occupiedCount;
+    //No free cell has an index lower than this one
+    private int firstFree;
+    //Result buffer of the single-cell reserve()
+    private final int[] singleCell = new int[1];
+
+    /**
+     * Constructs an empty SquareGrid.
+     *
+     * @param squareSize The width and height of a square in pixels.
+     * @param spacing The gap between two squares and around the board in pixels.
+     */
+    public SquareGrid(int squareSize, int spacing) {
+        this.squareSize = squareSize;
+        this.spacing = spacing;
+        this.occupied = new BitSet();
+        this.squares = new Rectangle2D[0];
+        this.owners = new int[0];
+    }
+
+    /**
+     * Reserves the first free cell, in row-major order, within the first {@code maxRows} rows
+     * and {@code maxColumns} columns of the board.
+     *
+     * @param maxRows The number of rows currently available.
+     * @param maxColumns The number of columns currently available.
+     * @return The index of the reserved cell, or -1 if every cell in range is occupied.
+     */
+    public int reserve(int maxRows, int maxColumns) {
+        return reserve(maxRows, maxColumns, singleCell) == 1 ? singleCell[0] : -1;
+    }
+
+    /**
+     * Reserves up to {@code cells.length} free cells, in row-major order, within the first {@code maxRows} rows
+     * and {@code maxColumns} columns of the board, in a single pass over the occupancy index.
+     *
+     * @param maxRows The number of rows currently available.
+     * @param maxColumns The number of columns currently available.
+     * @param cells Receives the indices of the reserved cells.
+     * @return The number of cells reserved, less than {@code cells.length} if the board is full.
+     */
+    public int reserve(int maxRows, int maxColumns, int[] cells) {
+        if(maxRows <= 0 || maxColumns <= 0){
+            return 0;
+        }
+        ensureDimensions(maxRows, maxColumns);
+        int count = 0;
+        int cell = occupied.nextClearBit(firstFree);
+        boolean lowestFree = true;
+        while(count < cells.length && cell / columns < maxRows){
+            if(cell % columns < maxColumns){
+                occupy(cell);
+                cells[count++] = cell;
+                if(lowestFree){
+                    firstFree = cell + 1;
+                }
+                cell = occupied.nextClearBit(cell + 1);
+            } else {
+                //Rest of the row is out of range: continue at the start of the next row
+                lowestFree = false;
+                cell = occupied.nextClearBit((cell / columns + 1) * columns);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reserves the given cell, after growing the index to at least the given number of rows and columns.
+     * Used to restore a saved board: the cell must be numbered for the number of columns of the index.
+     *
+     * @param minRows The number of rows the index must cover.
+     * @param minColumns The number of columns the index must cover.
+     * @param cell The cell index.
+     * @return true if the cell was reserved, false if it was already occupied.
+     * @throws IllegalArgumentException If the cell is outside the index.
+     */
+    public boolean reserveCell(int minRows, int minColumns, int cell) {
+        ensureDimensions(minRows, minColumns);
+        if(cell < 0 || cell >= rows * columns){
+            throw new IllegalArgumentException("Cell " + cell + " is outside the board");
+        }
+        if(occupied.get(cell)){
+            return false;
+        }
+        occupy(cell);
+        if(cell == firstFree){
+            firstFree = occupied.nextClearBit(cell + 1);
+        }
+        return true;
+    }
+
+    /**
+     * Reserves the cell whose square has its top-left corner at the given pixel position, after growing the
+     * index to at least the given number of rows and columns and far enough to hold that cell.
+     *
+     * @param minRows The number of rows the index must cover.
+     * @param minColumns The number of columns the index must cover.
+     * @param x The X coordinate of the square.
+     * @param y The Y coordinate of the square.
+     * @return The index of the reserved cell, or -1 if no square starts at this position or it is already occupied.
+     */
+    public int reserveAt(int minRows, int minColumns, double x, double y) {
+        int pitch = squareSize + spacing;
+        int col = (int) ((x - spacing) / pitch);
+        int row = (int) ((y - spacing) / pitch);
+        if(x < spacing || y < spacing || col * pitch + spacing != x || row * pitch + spacing != y){
+            return -1;
+        }
+        ensureDimensions(Math.max(minRows, row + 1), Math.max(minColumns, col + 1));
+        int cell = row * columns + col;
+        return reserveCell(rows, columns, cell) ? cell : -1;
+    }
+
+    /**
+     * Frees an occupied cell, dropping its square and its owner, so that it can be reserved again.
+     *
+     * @param cell The cell index.
+     * @return true if the cell was released, false if it was not occupied.
+     */
+    public boolean release(int cell) {
+        if(cell < 0 || !occupied.get(cell)){
+            return false;
+        }
+        occupied.clear(cell);
+        squares[cell] = null;
+        owners[cell] = -1;
+        occupiedCount--;
+        firstFree = Math.min(firstFree, cell);
+        return true;
+    }
+
+    /**
+     * Returns the square of an occupied cell.
+     *
+     * @param cell The cell index returned by {@link #reserve(int, int)}.
+     * @return The square, or null if the cell is not occupied.
+     */
+    public Rectangle2D getSquare(int cell) {
+        return cell >= 0 && cell < squares.length ? squares[cell] : null;
+    }
+
+    /**
+     * Returns the occupied square whose top-left corner is at the given pixel position.
+     *
+     * @param x The X coordinate of the square.
+     * @param y The Y coordinate of the square.
+     * @return The square, or null if no occupied square starts at this position.
+     */
+    public Rectangle2D getSquareAt(double x, double y) {
+        int cell = getCellAt(x, y);
+        return cell >= 0 ? squares[cell] : null;
+    }
+
+    /**
+     * Returns the occupied cell whose square has its top-left corner at the given pixel position.
+     *
+     * @param x The X coordinate of the square.
+     * @param y The Y coordinate of the square.
+     * @return The cell index, or -1 if no occupied square starts at this position.
+     */
+    public int getCellAt(double x, double y) {
+        int pitch = squareSize + spacing;
+        int col = (int) (x - spacing) / pitch;
+        int row = (int) (y - spacing) / pitch;
+        if(x < spacing || y < spacing || col >= columns || row >= rows){
+            return -1;
+        }
+        int cell = row * columns + col;
+        Rectangle2D square = squares[cell];
+        return square != null && square.getX() == x && square.getY() == y ? cell : -1;
+    }
+
+    /**
+     * Sets the owner of an occupied cell.
+     *
+     * @param cell The cell index.
+     * @param owner The owner, a non-negative number such as an index, or -1 to clear it.
+     */
+    public void setOwner(int cell, int owner) {
+        owners[cell] = owner;
+    }
+
+    /**
+     * Returns the owner of a cell.
+     *
+     * @param cell The cell index.
+     * @return The owner, or -1 if the cell has none.
+     */
+    public int getOwner(int cell) {
+        return cell >= 0 && cell < owners.length ? owners[cell] : -1;
+    }
+
+    /**
+     * Passes every occupied cell whose square intersects the given region to the given action,
+     * in cell order. Only the rows and columns covering the region are visited.
+     *
+     * @param x The X coordinate of the region in pixels.
+     * @param y The Y coordinate of the region in pixels.
+     * @param width The width of the region in pixels.
+     * @param height The height of the region in pixels.
+     * @param action The action to perform on each cell index.
+     */
+    public void forEachCellIn(double x, double y, double width, double height, IntConsumer action) {
+        if(columns == 0 || width <= 0 || height <= 0){
+            return;
+        }
+        int pitch = squareSize + spacing;
+        int firstCol = Math.max(0, (int) Math.floor((x - spacing - squareSize) / pitch) + 1);
+        int firstRow = Math.max(0, (int) Math.floor((y - spacing - squareSize) / pitch) + 1);
+        int lastCol = Math.min(columns - 1, (int) Math.ceil((x + width - spacing) / pitch) - 1);
+        int lastRow = Math.min(rows - 1, (int) Math.ceil((y + height - spacing) / pitch) - 1);
+        for(int row = firstRow; row <= lastRow; row++){
+            int end = row * columns + lastCol;
+            for(int cell = occupied.nextSetBit(row * columns + firstCol); cell >= 0 && cell <= end;
+                cell = occupied.nextSetBit(cell + 1)){
+                action.accept(cell);
+            }
+        }
+    }
+
+    public int getSquareSize() {
+        return squareSize;
+    }
+
+    public int getSpacing() {
+        return spacing;
+    }
+
+    /**
+     * Returns the number of rows covered by the index.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns covered by the index.
+     *
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the X coordinate of the top-left corner of a cell.
+     *
+     * @param cell The cell index.
+     * @return The X coordinate in pixels.
+     */
+    public int getCellX(int cell) {
+        return (cell % columns) * (squareSize + spacing) + spacing;
+    }
+
+    /**
+     * Returns the Y coordinate of the top-left corner of a cell.
+     *
+     * @param cell The cell index.
+     * @return The Y coordinate in pixels.
+     */
+    public int getCellY(int cell) {
+        return (cell / columns) * (squareSize + spacing) + spacing;
+    }
+
+    /**
+     * Returns the number of occupied squares.
+     *
+     * @return The number of occupied squares.
+     */
+    public int getOccupiedCount() {
+        return occupiedCount;
+    }
+
+    /**
+     * Passes every occupied cell to the given action, in cell order.
+     *
+     * @param action The action to perform on each cell index.
+     */
+    public void forEachCell(IntConsumer action) {
+        for(int cell = occupied.nextSetBit(0); cell >= 0; cell = occupied.nextSetBit(cell + 1)){
+            action.accept(cell);
+        }
+    }
+
+    /**
+     * Passes every occupied square to the given action, in cell order.
+     *
+     * @param action The action to perform on each square.
+     */
+    public void forEachSquare(Consumer<Rectangle2D> action) {
+        for(int cell = occupied.nextSetBit(0); cell >= 0; cell = occupied.nextSetBit(cell + 1)){
+            action.accept(squares[cell]);
+        }
+    }
+
+    /**
+     * Marks a cell as occupied and creates its square.
+     */
+    private void occupy(int cell) {
+        occupied.set(cell);
+        squares[cell] = new Rectangle2D.Double(getCellX(cell), getCellY(cell), squareSize, squareSize);
+        occupiedCount++;
+    }
+
+    /**
+     * Grows the index so that it covers at least the given number of rows and columns.
+     * When the number of columns changes, occupied cells are renumbered for the new row width.
+     */
+    private void ensureDimensions(int minRows, int minColumns) {
+        if(minRows <= rows && minColumns <= columns){
+            return;
+        }
+        int newRows = Math.max(rows, minRows);
+        int newColumns = Math.max(columns, minColumns);
+        Rectangle2D[] newSquares = new Rectangle2D[newRows * newColumns];
+        int[] newOwners = new int[newSquares.length];
+        Arrays.fill(newOwners, -1);
+        BitSet newOccupied = new BitSet(newSquares.length);
+        for(int cell = occupied.nextSetBit(0); cell >= 0; cell = occupied.nextSetBit(cell + 1)){
+            int newCell = (cell / columns) * newColumns + cell % columns;
+            newOccupied.set(newCell);
+            newSquares[newCell] = squares[cell];
+            newOwners[newCell] = owners[cell];
+        }
+        firstFree = newColumns == columns ? firstFree : newOccupied.nextClearBit(0);
+        rows = newRows;
+        columns = newColumns;
+        squares = newSquares;
+        owners = newOwners;
+        occupied = newOccupied;
+    }
+}
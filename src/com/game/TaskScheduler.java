@@ -0,0 +1,103 @@
+package com.game;
+
+import java.util.List;
+
+/**
+ * Runs periodic snake tasks, each at its own period.
+ * Implementations differ in how they map tasks to threads; see {@link ExecutionMode}.
+ */
+public interface TaskScheduler {
+
+    /**
+     * A registered task, through which it can be unregistered.
+     */
+    interface Handle {
+
+        /**
+         * Unregisters the task in O(1): it does not start another run, and the scheduler drops it by its next
+         * step at the latest. A run already in progress completes. This method may be called from any thread,
+         * and calling it again has no effect.
+         */
+        void cancel();
+
+        /**
+         * Changes the period of the task while keeping its phase: its next run is due one new period after its
+         * last due time, or right away if that time is already past, instead of restarting the task. The change
+         * applies by the scheduler's next step at the latest and has no effect on a cancelled task. This method
+         * may be called from any thread.
+         *
+         * @param periodMillis The new period of the task in milliseconds.
+         * @throws IllegalArgumentException If the period is not positive.
+         */
+        void setPeriod(long periodMillis);
+    }
+
+    /**
+     * Registers a task that runs every {@code periodMillis} milliseconds.
+     * If the scheduler is running the task starts right away, otherwise when it is started.
+     * This method may be called from any thread.
+     *
+     * @param task The task to run, typically a {@link SnakeTask}.
+     * @param periodMillis The period of the task in milliseconds.
+     * @return The handle unregistering the task.
+     * @throws IllegalArgumentException If the period is not positive.
+     */
+    Handle register(Runnable task, long periodMillis);
+
+    /**
+     * Registers a batch of tasks at once. Either every task is registered or, if an argument is
+     * invalid, none is; tasks of one batch start together.
+     * This method may be called from any thread.
+     *
+     * @param tasks The tasks to run.
+     * @param periodsMillis The period of each task in milliseconds, index-aligned with the tasks.
+     * @return The handles unregistering the tasks, index-aligned with the tasks.
+     * @throws IllegalArgumentException If the arrays differ in length or a period is not positive.
+     */
+    List<Handle> registerAll(List<? extends Runnable> tasks, long[] periodsMillis);
+
+    /**
+     * Sets a listener notified after tasks ran, at most once per batch of tasks run together.
+     *
+     * @param stepListener The listener, or null to remove it.
+     */
+    void setStepListener(Runnable stepListener);
+
+    /**
+     * Sets the metrics recording how late tasks run compared to their due time.
+     *
+     * @param metrics The metrics, or null to stop recording.
+     */
+    void setMetrics(SimulationMetrics metrics);
+
+    /**
+     * Returns the clock the scheduler advances before running tasks, shared by the snakes it drives.
+     *
+     * @return The simulation clock.
+     */
+    SimulationClock getClock();
+
+    /**
+     * Returns the number of registered tasks, not counting cancelled ones.
+     *
+     * @return The number of tasks.
+     */
+    int getTaskCount();
+
+    /**
+     * Starts running the registered tasks if the scheduler is not already running.
+     */
+    void start();
+
+    /**
+     * Stops running tasks. Registered tasks are kept and resume if the scheduler is started again.
+     */
+    void stop();
+
+    /**
+     * Returns whether the scheduler is running.
+     *
+     * @return true if the scheduler is running, false otherwise.
+     */
+    boolean isRunning();
+}
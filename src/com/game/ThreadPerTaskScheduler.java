@@ -0,0 +1,242 @@
+package com.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs every task on its own thread, which sleeps out the task's period between two runs.
+ * With a virtual thread factory this gives each snake a cheap thread of its own, so snakes with
+ * different periods never delay each other in a shared delay queue.
+ */
+public class ThreadPerTaskScheduler implements TaskScheduler {
+
+    private static final Logger LOGGER = Logger.getLogger(ThreadPerTaskScheduler.class.getName());
+
+    private final ThreadFactory threadFactory;
+    private final SimulationClock clock;
+    private final List<Entry> entries;
+    private volatile Runnable stepListener;
+    private volatile SimulationMetrics metrics;
+    private volatile boolean running;
+
+    /**
+     * A registered task with its period, its index in the entries and the thread currently running it.
+     */
+    private final class Entry implements Handle {
+        private final Runnable task;
+        private volatile long periodNanos;
+        private Thread thread;
+        //-1 once the entry is cancelled
+        private int index;
+        private volatile boolean cancelled;
+
+        private Entry(Runnable task, long periodNanos) {
+            this.task = task;
+            this.periodNanos = periodNanos;
+        }
+
+        /**
+         * Stops the thread of the task and removes the entry by moving the last entry into its place.
+         */
+        @Override
+        public void cancel() {
+            synchronized (ThreadPerTaskScheduler.this) {
+                if(index < 0){
+                    return;
+                }
+                cancelled = true;
+                if(thread != null){
+                    thread.interrupt();
+                    thread = null;
+                }
+                Entry last = entries.remove(entries.size() - 1);
+                if(last != this){
+                    last.index = index;
+                    entries.set(index, last);
+                }
+                index = -1;
+            }
+        }
+
+        /**
+         * Sets the period and wakes the thread of the task, which moves its next run to one new period after
+         * its last one.
+         */
+        @Override
+        public void setPeriod(long periodMillis) {
+            if(periodMillis <= 0){
+                throw new IllegalArgumentException("Period must be a positive number of milliseconds");
+            }
+            synchronized (ThreadPerTaskScheduler.this) {
+                if(index < 0){
+                    return;
+                }
+                periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+                if(thread != null){
+                    LockSupport.unpark(thread);
+                }
+            }
+        }
+    }
+
+    /**
+     * Constructs a real-time ThreadPerTaskScheduler.
+     *
+     * @param threadFactory The factory creating one thread per task, for example a virtual thread factory.
+     */
+    public ThreadPerTaskScheduler(ThreadFactory threadFactory) {
+        this(threadFactory, SimulationClock.realTime());
+    }
+
+    /**
+     * Constructs a ThreadPerTaskScheduler that advances the given clock before every task run.
+     * Tasks are paced by wall time, so an accelerated clock speeds up growth but not movement.
+     *
+     * @param threadFactory The factory creating one thread per task, for example a virtual thread factory.
+     * @param clock The clock shared by the tasks; it must be paced by wall time.
+     * @throws IllegalArgumentException If the clock is null or virtual.
+     */
+    public ThreadPerTaskScheduler(ThreadFactory threadFactory, SimulationClock clock) {
+        if(clock == null || !clock.isPaced()){
+            throw new IllegalArgumentException("ThreadPerTaskScheduler needs a clock paced by wall time");
+        }
+        this.threadFactory = threadFactory;
+        this.clock = clock;
+        this.entries = new ArrayList<>();
+    }
+
+    @Override
+    public synchronized Handle register(Runnable task, long periodMillis) {
+        if(periodMillis <= 0){
+            throw new IllegalArgumentException("Period must be a positive number of milliseconds");
+        }
+        return add(task, periodMillis);
+    }
+
+    @Override
+    public synchronized List<Handle> registerAll(List<? extends Runnable> tasks, long[] periodsMillis) {
+        if(tasks.size() != periodsMillis.length){
+            throw new IllegalArgumentException("Every task needs exactly one period");
+        }
+        for(long periodMillis : periodsMillis){
+            if(periodMillis <= 0){
+                throw new IllegalArgumentException("Period must be a positive number of milliseconds");
+            }
+        }
+        List<Handle> handles = new ArrayList<>(tasks.size());
+        for(int i = 0; i < periodsMillis.length; i++){
+            handles.add(add(tasks.get(i), periodsMillis[i]));
+        }
+        return handles;
+    }
+
+    private Entry add(Runnable task, long periodMillis) {
+        Entry entry = new Entry(task, TimeUnit.MILLISECONDS.toNanos(periodMillis));
+        entry.index = entries.size();
+        entries.add(entry);
+        if(running){
+            startThread(entry);
+        }
+        return entry;
+    }
+
+    @Override
+    public void setStepListener(Runnable stepListener) {
+        this.stepListener = stepListener;
+    }
+
+    @Override
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public SimulationClock getClock() {
+        return clock;
+    }
+
+    @Override
+    public synchronized int getTaskCount() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized void start() {
+        if(running){
+            return;
+        }
+        running = true;
+        for(Entry entry : entries){
+            startThread(entry);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        for(Entry entry : entries){
+            if(entry.thread != null){
+                entry.thread.interrupt();
+                entry.thread = null;
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void startThread(Entry entry) {
+        entry.thread = threadFactory.newThread(() -> runTask(entry));
+        entry.thread.start();
+    }
+
+    /**
+     * Runs the task at a fixed rate until the scheduler is stopped, parking until each due time.
+     */
+    private void runTask(Entry entry) {
+        Thread current = Thread.currentThread();
+        long nextDue = System.nanoTime();
+        long period = entry.periodNanos;
+        boolean ran = false;
+        while(running && !entry.cancelled && !current.isInterrupted()){
+            long delay;
+            while((delay = nextDue - System.nanoTime()) > 0 && !current.isInterrupted()){
+                LockSupport.parkNanos(this, delay);
+                if(ran && entry.periodNanos != period){
+                    //Keep the phase: one new period after the last run, or right away if that is past
+                    long lastDue = nextDue - period;
+                    period = entry.periodNanos;
+                    nextDue = Math.max(lastDue + period, System.nanoTime());
+                }
+            }
+            period = entry.periodNanos;
+            if(!running || entry.cancelled || current.isInterrupted()){
+                return;
+            }
+            long now = System.nanoTime();
+            clock.advanceTo(clock.toSimulationNanos(now));
+            SimulationMetrics recorder = metrics;
+            if(recorder != null){
+                recorder.recordDrift(period, now - nextDue);
+            }
+            try{
+                entry.task.run();
+            } catch (Exception ex){
+                LOGGER.log(Level.SEVERE, "Error running simulation task", ex);
+            }
+            Runnable listener = stepListener;
+            if(listener != null){
+                listener.run();
+            }
+            nextDue += period;
+            ran = true;
+        }
+    }
+}
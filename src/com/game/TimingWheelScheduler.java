@@ -0,0 +1,458 @@
+package com.game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Advances snake tasks from a single loop that only visits the tasks due at each tick.
+ * Tasks are kept in a hierarchical timing wheel: {@value #LEVELS} levels of {@value #SLOTS} slots, where a slot
+ * of level {@code L} spans {@code SLOTS^L} ticks. A task sits in the slot of its next due tick at the lowest level
+ * that reaches it; when the lowest level wraps around, the next slot of the level above is spread over the
+ * levels below. Slots are intrusive doubly linked lists, so scheduling and cancelling a task cost O(1)
+ * whatever the number of tasks, where a delay queue costs O(log n) per reschedule and the fixed-step loop of
+ * {@link SimulationEngine} looks at every task on every step.
+ *
+ * <p>All the tasks due at a tick are taken from their slot at once and run as one batch. Periods are rounded
+ * to whole ticks of {@code stepMillis}. Like the fixed-step loop, a late step runs each due task as many times
+ * as needed to catch up with its fixed rate.</p>
+ *
+ * <p>Tasks may be registered and cancelled from any thread; the wheel itself is only touched by the thread
+ * running {@link #step(long)}, which applies registrations and cancellations at the start of every step.</p>
+ */
+public class TimingWheelScheduler implements TaskScheduler {
+
+    private static final Logger LOGGER = Logger.getLogger(TimingWheelScheduler.class.getName());
+
+    private static final int SLOT_BITS = 8;
+    static final int SLOTS = 1 << SLOT_BITS;
+    static final int LEVELS = 4;
+    private static final int SLOT_MASK = SLOTS - 1;
+    //Farthest tick a task can be placed at; later ticks are placed there and moved down when it is reached
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickNanos;
+    private final SimulationClock clock;
+    //Head of the list of each slot, level by level
+    private final Registration[] slots;
+    //Registered batches not yet in the wheel; a batch is queued as one element, so a step starts all of it or none
+    private final Queue<List<Registration>> pending;
+    private final Queue<Registration> cancelled;
+    //Registrations whose period changed since the last step
+    private final Queue<Registration> rescheduled;
+    private final AtomicInteger taskCount;
+    //Last tick processed, Long.MIN_VALUE before the first step
+    private long currentTick = Long.MIN_VALUE;
+    //Number of tasks in the wheel, only touched by the stepping thread
+    private int scheduled;
+    private volatile Runnable stepListener;
+    private volatile SimulationMetrics metrics;
+    private volatile boolean running;
+    private Thread loopThread;
+
+    /**
+     * A task registered with the scheduler, linked in the slot of its next due tick.
+     */
+    public final class Registration implements Handle {
+        private final Runnable task;
+        private long periodTicks;
+        private long periodNanos;
+        //Period set by setPeriod, applied by the next step
+        private volatile long requestedPeriodNanos;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        //Next due tick, and the list the registration is linked in: its slot index, or -1 if none
+        private long deadline;
+        private int slot = -1;
+        private Registration previous;
+        private Registration next;
+
+        private Registration(Runnable task, long periodTicks, long periodNanos) {
+            this.task = task;
+            this.periodTicks = periodTicks;
+            this.periodNanos = periodNanos;
+        }
+
+        /**
+         * Cancels the task: it does not run after the current step, and the next step unlinks it from its slot.
+         */
+        @Override
+        public void cancel() {
+            if(cancelled.compareAndSet(false, true)){
+                taskCount.decrementAndGet();
+                TimingWheelScheduler.this.cancelled.add(this);
+            }
+        }
+
+        /**
+         * Records the new period; the next step moves the registration to its new due tick.
+         */
+        @Override
+        public void setPeriod(long periodMillis) {
+            if(periodMillis <= 0){
+                throw new IllegalArgumentException("Period must be a positive number of milliseconds");
+            }
+            requestedPeriodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+            rescheduled.add(this);
+        }
+
+        /**
+         * Returns whether the task was cancelled.
+         *
+         * @return true if {@link #cancel()} was called.
+         */
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+    }
+
+    /**
+     * Constructs a real-time TimingWheelScheduler with ticks of {@link SimulationEngine#DEFAULT_STEP_MILLIS}.
+     */
+    public TimingWheelScheduler() {
+        this(SimulationEngine.DEFAULT_STEP_MILLIS, SimulationClock.realTime());
+    }
+
+    /**
+     * Constructs a TimingWheelScheduler with ticks of {@link SimulationEngine#DEFAULT_STEP_MILLIS},
+     * driven by the given clock.
+     *
+     * @param clock The clock mapping wall time to simulation time.
+     */
+    public TimingWheelScheduler(SimulationClock clock) {
+        this(SimulationEngine.DEFAULT_STEP_MILLIS, clock);
+    }
+
+    /**
+     * Constructs a TimingWheelScheduler with the given tick, driven by the given clock.
+     *
+     * @param stepMillis The duration of a tick and the wall time between two steps of the loop, in milliseconds.
+     * @param clock The clock mapping wall time to simulation time.
+     * @throws IllegalArgumentException If the tick is not positive or the clock is null.
+     */
+    public TimingWheelScheduler(long stepMillis, SimulationClock clock) {
+        if(stepMillis <= 0){
+            throw new IllegalArgumentException("Step must be a positive number of milliseconds");
+        }
+        if(clock == null){
+            throw new IllegalArgumentException("SimulationClock is not initialized");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(stepMillis);
+        this.clock = clock;
+        this.slots = new Registration[LEVELS * SLOTS];
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.cancelled = new ConcurrentLinkedQueue<>();
+        this.rescheduled = new ConcurrentLinkedQueue<>();
+        this.taskCount = new AtomicInteger();
+    }
+
+    /**
+     * Registers a task that runs every {@code periodMillis} milliseconds, starting with the next step.
+     * This method may be called from any thread.
+     *
+     * @param task The task to run, typically a {@link SnakeTask}.
+     * @param periodMillis The period of the task in milliseconds.
+     * @return The registration of the task, which cancels it.
+     * @throws IllegalArgumentException If the period is not positive.
+     */
+    @Override
+    public Registration register(Runnable task, long periodMillis) {
+        if(periodMillis <= 0){
+            throw new IllegalArgumentException("Period must be a positive number of milliseconds");
+        }
+        Registration registration = newRegistration(task, periodMillis);
+        taskCount.incrementAndGet();
+        pending.add(List.of(registration));
+        return registration;
+    }
+
+    /**
+     * Registers a batch of tasks that all start with the same step.
+     *
+     * @param tasks The tasks to run.
+     * @param periodsMillis The period of each task in milliseconds, index-aligned with the tasks.
+     * @return The registrations of the tasks, index-aligned with the tasks.
+     * @throws IllegalArgumentException If the arrays differ in length or a period is not positive.
+     */
+    @Override
+    public List<Handle> registerAll(List<? extends Runnable> tasks, long[] periodsMillis) {
+        if(tasks.size() != periodsMillis.length){
+            throw new IllegalArgumentException("Every task needs exactly one period");
+        }
+        for(long periodMillis : periodsMillis){
+            if(periodMillis <= 0){
+                throw new IllegalArgumentException("Period must be a positive number of milliseconds");
+            }
+        }
+        List<Registration> batch = new ArrayList<>(tasks.size());
+        for(int i = 0; i < periodsMillis.length; i++){
+            batch.add(newRegistration(tasks.get(i), periodsMillis[i]));
+        }
+        taskCount.addAndGet(batch.size());
+        pending.add(batch);
+        return Collections.unmodifiableList(batch);
+    }
+
+    private Registration newRegistration(Runnable task, long periodMillis) {
+        long periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        return new Registration(task, toTicks(periodNanos), periodNanos);
+    }
+
+    private long toTicks(long periodNanos) {
+        return Math.max(1, Math.round((double) periodNanos / tickNanos));
+    }
+
+    @Override
+    public void setStepListener(Runnable stepListener) {
+        this.stepListener = stepListener;
+    }
+
+    /**
+     * Sets the metrics recording step durations and how late tasks run compared to their due tick.
+     *
+     * @param metrics The metrics, or null to stop recording.
+     */
+    @Override
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public SimulationClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns the number of registered tasks that are not cancelled, including those waiting for the next step.
+     *
+     * @return The number of tasks.
+     */
+    @Override
+    public int getTaskCount() {
+        return taskCount.get();
+    }
+
+    /**
+     * Runs one step of the loop: the clock is advanced to {@code nowNanos}, cancellations, period changes and
+     * registrations are applied, then every tick up to {@code nowNanos} is processed in order, running the tasks due at it.
+     * This method is not thread-safe and is normally only called from the loop thread;
+     * it is public so callers can drive the scheduler with a simulated time.
+     *
+     * @param nowNanos The simulation time of this step in nanoseconds.
+     * @return The number of task executions performed during this step.
+     */
+    public int step(long nowNanos) {
+        SimulationMetrics recorder = metrics;
+        long start = recorder != null ? System.nanoTime() : 0;
+        clock.advanceTo(nowNanos);
+        long targetTick = Math.floorDiv(nowNanos, tickNanos);
+        if(currentTick == Long.MIN_VALUE){
+            currentTick = targetTick - 1;
+        }
+        Registration removed;
+        while((removed = cancelled.poll()) != null){
+            if(removed.slot >= 0){
+                unlink(removed);
+                scheduled--;
+            }
+        }
+        //A registration in the wheel ran at least once: it is next due one new period after its last due tick
+        while((removed = rescheduled.poll()) != null){
+            long periodTicks = toTicks(removed.requestedPeriodNanos);
+            if(removed.slot >= 0){
+                unlink(removed);
+                removed.deadline = Math.max(removed.deadline - removed.periodTicks + periodTicks,
+                        Math.max(targetTick, currentTick + 1));
+                place(removed);
+            }
+            removed.periodTicks = periodTicks;
+            removed.periodNanos = removed.requestedPeriodNanos;
+        }
+        List<Registration> batch;
+        while((batch = pending.poll()) != null){
+            for(Registration added : batch){
+                if(!added.isCancelled()){
+                    added.deadline = Math.max(targetTick, currentTick + 1);
+                    place(added);
+                    scheduled++;
+                }
+            }
+        }
+        int executed = 0;
+        while(currentTick < targetTick){
+            if(scheduled == 0){
+                currentTick = targetTick;
+                break;
+            }
+            long tick = ++currentTick;
+            cascade(tick);
+            executed += runSlot(tick, nowNanos, recorder);
+        }
+        if(recorder != null){
+            recorder.recordTick(System.nanoTime() - start);
+        }
+        Runnable listener = stepListener;
+        if(executed > 0 && listener != null){
+            listener.run();
+        }
+        return executed;
+    }
+
+    /**
+     * Moves the tasks of the upper-level slots that start at the given tick down to the levels below,
+     * from the lowest level up, as each level wraps around.
+     */
+    private void cascade(long tick) {
+        for(int level = 1; level < LEVELS; level++){
+            int shift = SLOT_BITS * level;
+            if((tick & ((1L << shift) - 1)) != 0){
+                return;
+            }
+            int index = level * SLOTS + (int) ((tick >>> shift) & SLOT_MASK);
+            Registration node = slots[index];
+            slots[index] = null;
+            while(node != null){
+                Registration next = node.next;
+                node.slot = -1;
+                place(node);
+                node = next;
+            }
+        }
+    }
+
+    /**
+     * Runs the tasks due at the given tick as one batch and places them at their next due tick.
+     *
+     * @return The number of task executions performed.
+     */
+    private int runSlot(long tick, long nowNanos, SimulationMetrics recorder) {
+        int index = (int) (tick & SLOT_MASK);
+        Registration node = slots[index];
+        slots[index] = null;
+        int executed = 0;
+        while(node != null){
+            Registration next = node.next;
+            node.slot = -1;
+            if(node.isCancelled()){
+                scheduled--;
+            } else {
+                if(recorder != null){
+                    recorder.recordDrift(node.periodNanos, nowNanos - node.deadline * tickNanos);
+                }
+                try{
+                    node.task.run();
+                } catch (Exception ex){
+                    LOGGER.log(Level.SEVERE, "Error running simulation task", ex);
+                }
+                executed++;
+                node.deadline += node.periodTicks;
+                place(node);
+            }
+            node = next;
+        }
+        return executed;
+    }
+
+    /**
+     * Links a registration into the slot of its deadline, at the lowest level whose span reaches it.
+     */
+    private void place(Registration node) {
+        long delta = Math.min(node.deadline - currentTick, MAX_DELTA);
+        long tick = currentTick + Math.max(0, delta);
+        int level = 0;
+        while(level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))){
+            level++;
+        }
+        int index = level * SLOTS + (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        Registration head = slots[index];
+        node.previous = null;
+        node.next = head;
+        if(head != null){
+            head.previous = node;
+        }
+        slots[index] = node;
+        node.slot = index;
+    }
+
+    /**
+     * Removes a registration from the slot it is linked in.
+     */
+    private void unlink(Registration node) {
+        if(node.previous != null){
+            node.previous.next = node.next;
+        } else {
+            slots[node.slot] = node.next;
+        }
+        if(node.next != null){
+            node.next.previous = node.previous;
+        }
+        node.previous = null;
+        node.next = null;
+        node.slot = -1;
+    }
+
+    /**
+     * Starts the loop thread if it is not already running.
+     */
+    @Override
+    public synchronized void start() {
+        if(running){
+            return;
+        }
+        running = true;
+        loopThread = new Thread(this::runLoop, "timing-wheel");
+        loopThread.setDaemon(true);
+        loopThread.start();
+    }
+
+    /**
+     * Stops the loop thread. Registered tasks are kept and resume if the scheduler is started again.
+     */
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if(loopThread != null){
+            loopThread.interrupt();
+            loopThread = null;
+        }
+    }
+
+    /**
+     * Returns whether the loop thread is running.
+     *
+     * @return true if the scheduler is running, false otherwise.
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Loop: runs a step at the clock's simulation time, then parks until the next tick boundary.
+     * If the loop falls more than one tick behind, it resynchronizes instead of bursting to catch up.
+     * With a virtual clock the loop does not wait between steps.
+     */
+    private void runLoop() {
+        long nextStep = System.nanoTime();
+        while(running && !Thread.currentThread().isInterrupted()){
+            step(clock.toSimulationNanos(System.nanoTime()));
+            if(!clock.isPaced()){
+                continue;
+            }
+            nextStep += tickNanos;
+            long remaining = nextStep - System.nanoTime();
+            if(remaining > 0){
+                LockSupport.parkNanos(this, remaining);
+            } else if(remaining < -tickNanos){
+                nextStep = System.nanoTime();
+            }
+        }
+    }
+}
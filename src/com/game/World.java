@@ -0,0 +1,668 @@
+package com.game;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * The simulation model of the game: the board of squares, the snakes living in them and the
+ * {@link TaskScheduler} advancing them. It has no Swing dependency, so it can run headless;
+ * {@link GamePanel} is a view on top of it.
+ *
+ * <p>Snakes are added and listed from a single controlling thread (the event dispatch thread for the UI),
+ * while the scheduler moves them on its own threads. Changes to the board and to the list of snakes hold a
+ * structure lock, so that region queries such as {@link #forEachSnakeIn} can also run on a render thread.</p>
+ *
+ * <p>Every snake gets an id, see {@link #getSnakeId(int)}, which stays the same for its lifetime while its index
+ * changes as other snakes are removed. Through its id a snake can be paused, resumed, given another speed or
+ * removed in O(1): its task is cancelled through its {@link TaskScheduler.Handle}, a removed snake is replaced in
+ * the list by the last one, and its square goes back to the {@link SquareGrid} to be reserved again.</p>
+ */
+public class World {
+
+    public static final int DEFAULT_SQUARE_SIZE = 50;
+    public static final int DEFAULT_SPACING = 10;
+
+    /**
+     * A snake of the world with its id, its current index in the snakes and the handle of its task.
+     */
+    private static final class SnakeRecord {
+        private final int id;
+        private final Snake snake;
+        private final Rectangle2D square;
+        //Read by the task on the scheduler's thread when the snake grows
+        private volatile int index;
+        //Null while the snake is paused
+        private TaskScheduler.Handle handle;
+        //Changed when the task is cancelled, so a run the scheduler still starts does nothing; changed under the
+        //record's monitor, which every run holds when the scheduler can overlap runs
+        private volatile int generation;
+
+        private SnakeRecord(int id, Snake snake, Rectangle2D square, int index) {
+            this.id = id;
+            this.snake = snake;
+            this.square = square;
+            this.index = index;
+        }
+    }
+
+    private final SnakeFactory snakeFactory;
+    private final SquareGrid squareGrid;
+    private final TaskScheduler scheduler;
+    //Whether a run of a cancelled task can overlap the runs of the task registered after it, so that the runs of a
+    //snake take its record's monitor; false for the loops, which run a task at most once at a time on each step
+    private final boolean serialisedRuns;
+    private final List<Snake> snakes;
+    //Square of each snake, index-aligned with snakes
+    private final List<Rectangle2D> snakeSquares;
+    //Record of each snake, index-aligned with snakes, and the same records by id
+    private final List<SnakeRecord> records;
+    private final Map<Integer, SnakeRecord> recordsById;
+    private int nextId;
+    private int rows;
+    private int columns;
+    private volatile Consumer<Rectangle2D> moveListener;
+    //Notified with the index of every snake whose body grew, null when nobody listens
+    private volatile IntConsumer growthListener;
+    private volatile EventJournal journal;
+    //Guards squareGrid, snakes, snakeSquares and records against region queries from a render thread
+    private final Object structureLock = new Object();
+
+    /**
+     * Constructs a World with the default square size and spacing and its own simulation engine.
+     *
+     * @param snakeFactory The factory for creating snakes.
+     */
+    public World(SnakeFactory snakeFactory) {
+        this(snakeFactory, DEFAULT_SQUARE_SIZE, DEFAULT_SPACING, new SimulationEngine());
+    }
+
+    /**
+     * Constructs a World with the specified layout and scheduler.
+     *
+     * @param snakeFactory The factory for creating snakes.
+     * @param squareSize The width and height of a square in pixels.
+     * @param spacing The gap between two squares and around the board in pixels.
+     * @param scheduler The scheduler that advances the snakes, see {@link ExecutionMode#createScheduler()}.
+     * @throws IllegalArgumentException If the factory or scheduler is null.
+     */
+    public World(SnakeFactory snakeFactory, int squareSize, int spacing, TaskScheduler scheduler) {
+        if(snakeFactory == null){
+            throw new IllegalArgumentException("SnakeFactory is not initialized");
+        }
+        if(scheduler == null){
+            throw new IllegalArgumentException("TaskScheduler is not initialized");
+        }
+        this.snakeFactory = snakeFactory;
+        this.squareGrid = new SquareGrid(squareSize, spacing);
+        this.scheduler = scheduler;
+        this.serialisedRuns = !(scheduler instanceof SimulationEngine || scheduler instanceof TimingWheelScheduler);
+        this.snakes = new ArrayList<>();
+        this.snakeSquares = new ArrayList<>();
+        this.records = new ArrayList<>();
+        this.recordsById = new HashMap<>();
+    }
+
+    /**
+     * Sets the number of rows and columns in which new squares may be reserved.
+     * Squares already reserved outside these bounds are kept.
+     *
+     * @param rows The number of rows.
+     * @param columns The number of columns.
+     */
+    public void setBoardSize(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Reserves the first free square on the board for a new snake.
+     *
+     * @return An array containing the x and y coordinates of the reserved square, or an empty array if none is free.
+     */
+    public int[] findAvailablePosition() {
+        synchronized (structureLock) {
+            int cell = squareGrid.reserve(rows, columns);
+            if(cell < 0){
+                return new int[] {};
+            }
+            return new int[]{squareGrid.getCellX(cell), squareGrid.getCellY(cell)};
+        }
+    }
+
+    /**
+     * Creates a snake in the reserved square at the given position and registers it with the scheduler.
+     *
+     * @param length The length of the snake.
+     * @param direction The direction in which the snake moves ("Clockwise" or "Anticlockwise").
+     * @param x The x-coordinate of the square, as returned by {@link #findAvailablePosition()}.
+     * @param y The y-coordinate of the square, as returned by {@link #findAvailablePosition()}.
+     * @param speed The interval between two moves, in milliseconds.
+     * @return The new snake.
+     * @throws IllegalArgumentException If no square is reserved at this position or the direction is invalid.
+     */
+    public Snake addSnake(int length, String direction, int x, int y, long speed) {
+        EventJournal events = journal;
+        if(events == null){
+            return placeSnake(length, direction, x, y, speed);
+        }
+        //Holding the journal keeps the record and the registration on the same side of a step, see SimulationEngine
+        synchronized (events) {
+            Snake snake = placeSnake(length, direction, x, y, speed);
+            events.recordSnakeCreated(length, speed, direction, x, y);
+            return snake;
+        }
+    }
+
+    /**
+     * Creates a snake in the reserved square at the given position and registers it with the scheduler.
+     */
+    private Snake placeSnake(int length, String direction, int x, int y, long speed) {
+        Snake snake;
+        SnakeRecord record;
+        synchronized (structureLock) {
+            int cell = squareGrid.getCellAt(x, y);
+            if(cell < 0){
+                throw new IllegalArgumentException("No square reserved at " + x + "," + y);
+            }
+            snake = snakeFactory.createSnake(length, direction, x, y, speed);
+            record = place(snake, cell);
+        }
+        record.handle = scheduler.register(newTask(record), (long) snake.getSpeed());
+        return snake;
+    }
+
+    /**
+     * Creates a batch of snakes in free squares of the board. The squares are reserved in one pass over
+     * the occupancy index, the snakes are built by {@link SnakeFactory#createSnakes(List)} and then
+     * registered with the scheduler together, so they all start moving at the same time.
+     * If the board has fewer free squares than specs, only the first specs get a snake.
+     *
+     * @param specs The snakes to create; their positions are ignored.
+     * @return The new snakes, in the order of the specs.
+     * @throws IllegalArgumentException If a direction is invalid. No snake is created and no square is reserved then.
+     */
+    public List<Snake> addSnakes(List<SnakeSpec> specs) {
+        int[] cells = new int[specs.size()];
+        int count;
+        List<SnakeSpec> placed;
+        synchronized (structureLock) {
+            count = squareGrid.reserve(rows, columns, cells);
+            placed = new ArrayList<>(count);
+            for(int i = 0; i < count; i++){
+                placed.add(specs.get(i).at(squareGrid.getCellX(cells[i]), squareGrid.getCellY(cells[i])));
+            }
+        }
+        List<Snake> created;
+        try{
+            created = snakeFactory.createSnakes(placed);
+        } catch (RuntimeException ex){
+            synchronized (structureLock) {
+                for(int i = 0; i < count; i++){
+                    squareGrid.release(cells[i]);
+                }
+            }
+            throw ex;
+        }
+        EventJournal events = journal;
+        if(events == null){
+            attachSnakes(cells, created);
+            return created;
+        }
+        synchronized (events) {
+            attachSnakes(cells, created);
+            for(SnakeSpec spec : placed){
+                events.recordSnakeCreated(spec.getLength(), spec.getSpeed(), spec.getDirection(), spec.getX(), spec.getY());
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Places already created snakes in reserved cells and registers them with the scheduler together.
+     *
+     * @param cells The reserved cell of each snake, index-aligned with the snakes.
+     * @param created The snakes.
+     */
+    void attachSnakes(int[] cells, List<Snake> created) {
+        int count = created.size();
+        List<SnakeRecord> placed = new ArrayList<>(count);
+        List<Runnable> tasks = new ArrayList<>(count);
+        long[] periods = new long[count];
+        synchronized (structureLock) {
+            for(int i = 0; i < count; i++){
+                SnakeRecord record = place(created.get(i), cells[i]);
+                placed.add(record);
+                tasks.add(newTask(record));
+                periods[i] = (long) record.snake.getSpeed();
+            }
+        }
+        List<TaskScheduler.Handle> handles = scheduler.registerAll(tasks, periods);
+        for(int i = 0; i < count; i++){
+            placed.get(i).handle = handles.get(i);
+        }
+    }
+
+    /**
+     * Adds a snake living in the given reserved cell and gives it the next id. Must hold the structure lock.
+     */
+    private SnakeRecord place(Snake snake, int cell) {
+        snake.setClock(scheduler.getClock());
+        SnakeRecord record = new SnakeRecord(nextId++, snake, squareGrid.getSquare(cell), snakes.size());
+        snakes.add(snake);
+        snakeSquares.add(record.square);
+        records.add(record);
+        recordsById.put(record.id, record);
+        squareGrid.setOwner(cell, record.index);
+        return record;
+    }
+
+    /**
+     * Returns the id of the snake at the given index of {@link #getSnakes()}. Ids are given in creation order,
+     * starting at 0, and are never reused.
+     *
+     * @param index The index of the snake.
+     * @return The id of the snake.
+     */
+    public int getSnakeId(int index) {
+        return records.get(index).id;
+    }
+
+    /**
+     * Stops moving the snake with the given id until it is resumed. Its square stays reserved.
+     *
+     * @param id The id of the snake.
+     * @return true if the snake was paused, false if it already was.
+     * @throws IllegalArgumentException If no snake has this id.
+     * @throws IllegalStateException If the world is journaled.
+     */
+    public boolean pauseSnake(int id) {
+        SnakeRecord record = getRecord(id);
+        if(record.handle == null){
+            return false;
+        }
+        cancel(record);
+        return true;
+    }
+
+    /**
+     * Moves a paused snake again, from where it stopped.
+     *
+     * @param id The id of the snake.
+     * @return true if the snake was resumed, false if it was not paused.
+     * @throws IllegalArgumentException If no snake has this id.
+     * @throws IllegalStateException If the world is journaled.
+     */
+    public boolean resumeSnake(int id) {
+        SnakeRecord record = getRecord(id);
+        if(record.handle != null){
+            return false;
+        }
+        record.handle = scheduler.register(newTask(record), (long) record.snake.getSpeed());
+        return true;
+    }
+
+    /**
+     * Changes the interval between two moves of the snake with the given id. A running snake keeps its phase: its
+     * next move comes one new period after its last one, or at the next step if that is already past. A paused
+     * one keeps the new period until resumed.
+     *
+     * @param id The id of the snake.
+     * @param speed The interval between two moves, in milliseconds.
+     * @throws IllegalArgumentException If no snake has this id or the speed is not positive.
+     * @throws IllegalStateException If the world is journaled.
+     */
+    public void setSnakeSpeed(int id, long speed) {
+        SnakeRecord record = getRecord(id);
+        if(speed <= 0){
+            throw new IllegalArgumentException("Speed must be a positive number of milliseconds");
+        }
+        record.snake.setSpeed(speed);
+        if(record.handle != null){
+            record.handle.setPeriod(speed);
+        }
+    }
+
+    /**
+     * Removes the snake with the given id: its task is cancelled, the last snake takes its index in
+     * {@link #getSnakes()} and its square is released so that it can be reserved again.
+     *
+     * @param id The id of the snake.
+     * @return The removed snake.
+     * @throws IllegalArgumentException If no snake has this id.
+     * @throws IllegalStateException If the world is journaled.
+     */
+    public Snake removeSnake(int id) {
+        SnakeRecord record = getRecord(id);
+        if(record.handle != null){
+            cancel(record);
+        }
+        synchronized (structureLock) {
+            int index = record.index;
+            int last = snakes.size() - 1;
+            if(index != last){
+                SnakeRecord moved = records.get(last);
+                moved.index = index;
+                snakes.set(index, moved.snake);
+                snakeSquares.set(index, moved.square);
+                records.set(index, moved);
+                squareGrid.setOwner(squareGrid.getCellAt(moved.square.getX(), moved.square.getY()), index);
+            }
+            snakes.remove(last);
+            snakeSquares.remove(last);
+            records.remove(last);
+            recordsById.remove(id);
+            squareGrid.release(squareGrid.getCellAt(record.square.getX(), record.square.getY()));
+        }
+        return record.snake;
+    }
+
+    /**
+     * Returns the record of the snake with the given id, to change its lifecycle. The journal only records
+     * snakes created, so a replay could not reproduce the change of a journaled world.
+     */
+    private SnakeRecord getRecord(int id) {
+        if(journal != null){
+            throw new IllegalStateException("The snakes of a journaled world cannot be paused, changed or removed");
+        }
+        SnakeRecord record = recordsById.get(id);
+        if(record == null){
+            throw new IllegalArgumentException("No snake with id " + id);
+        }
+        return record;
+    }
+
+    /**
+     * Reserves the given cells of a board whose index covers the given number of rows and columns,
+     * when restoring a saved world. The world must not have any square yet.
+     *
+     * @param gridRows The number of rows of the saved index.
+     * @param gridColumns The number of columns of the saved index, which numbers the cells.
+     * @param cells The cells to reserve.
+     * @throws IllegalStateException If the world already has squares.
+     * @throws IllegalArgumentException If a cell is outside the index or listed twice.
+     */
+    void reserveCells(int gridRows, int gridColumns, int[] cells) {
+        synchronized (structureLock) {
+            checkRestorable();
+            for(int cell : cells){
+                if(!squareGrid.reserveCell(gridRows, gridColumns, cell)){
+                    throw new IllegalArgumentException("Cell " + cell + " is listed twice");
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that a saved world can be restored into this world, before anything of it is changed.
+     *
+     * @throws IllegalStateException If the world already has squares or is journaled.
+     */
+    void checkRestorable() {
+        if(squareGrid.getOccupiedCount() > 0){
+            throw new IllegalStateException("Only an empty world can be restored");
+        }
+        if(journal != null){
+            throw new IllegalStateException("A journaled world cannot be restored from a snapshot");
+        }
+    }
+
+    /**
+     * Reserves the square with its top-left corner at the given position, when replaying a journal.
+     *
+     * @param x The X coordinate of the square.
+     * @param y The Y coordinate of the square.
+     * @return true if the square was reserved, false if there is no square at this position or it is occupied.
+     */
+    boolean reserveSquareAt(int x, int y) {
+        synchronized (structureLock) {
+            return squareGrid.reserveAt(rows, columns, x, y) >= 0;
+        }
+    }
+
+    SnakeFactory getSnakeFactory() {
+        return snakeFactory;
+    }
+
+    /**
+     * Checks that a journal can start recording this world, see {@link EventJournal}.
+     *
+     * @throws IllegalStateException If the world is running or already has snakes.
+     * @throws UnsupportedOperationException If the world is not driven by a {@link SimulationEngine}.
+     */
+    void checkJournalable() {
+        if(!(scheduler instanceof SimulationEngine)){
+            throw new UnsupportedOperationException("Only the fixed-step loop can be journaled");
+        }
+        if(scheduler.isRunning() || !snakes.isEmpty()){
+            throw new IllegalStateException("A journal must be opened before the world starts");
+        }
+    }
+
+    /**
+     * Records the snakes created, the steps and the growths of this world to the given journal.
+     *
+     * @param journal The journal, or null to stop recording.
+     */
+    void setJournal(EventJournal journal) {
+        if(journal != null){
+            checkJournalable();
+        }
+        this.journal = journal;
+        this.growthListener = journal != null ? journal::recordGrowth : null;
+        if(scheduler instanceof SimulationEngine){
+            ((SimulationEngine) scheduler).setJournal(journal);
+        }
+    }
+
+    /**
+     * Sets a listener notified, on the scheduler's thread, with the index in {@link #getSnakes()} of every snake
+     * whose body grew by a segment.
+     *
+     * @param growthListener The listener, or null to remove it.
+     */
+    void setGrowthListener(IntConsumer growthListener) {
+        this.growthListener = growthListener;
+    }
+
+    /**
+     * Cancels the task of a snake, so a new task of the same snake never moves it concurrently. On a scheduler
+     * whose runs can overlap, the task is not running once this returns and never runs again; on the loops, a run
+     * in progress ends within the current step, before any task registered after it starts.
+     */
+    private static void cancel(SnakeRecord record) {
+        synchronized (record) {
+            record.generation++;
+        }
+        record.handle.cancel();
+        record.handle = null;
+    }
+
+    /**
+     * Creates the scheduled task of a snake, notifying the growth listener when the snake grew
+     * and the move listener after every move. The task only runs while the snake's task is not cancelled,
+     * and under the record's monitor if the scheduler can overlap runs.
+     */
+    private Runnable newTask(SnakeRecord record) {
+        Snake snake = record.snake;
+        Rectangle2D square = record.square;
+        SnakeTask task = new SnakeTask(snake, snake, square);
+        int generation = record.generation;
+        Runnable move = () -> {
+            if(record.generation != generation){
+                return;
+            }
+            IntConsumer growth = growthListener;
+            long grown = growth != null ? snake.getGrowthCount() : 0;
+            task.run();
+            if(growth != null && snake.getGrowthCount() != grown){
+                growth.accept(record.index);
+            }
+            Consumer<Rectangle2D> listener = moveListener;
+            if(listener != null){
+                listener.accept(square);
+            }
+        };
+        if(!serialisedRuns){
+            return move;
+        }
+        return () -> {
+            synchronized (record) {
+                move.run();
+            }
+        };
+    }
+
+    /**
+     * Returns a read-only view of the snakes, in creation order until a snake is removed,
+     * see {@link #removeSnake(int)}.
+     *
+     * @return The snakes of the world.
+     */
+    public List<Snake> getSnakes() {
+        return Collections.unmodifiableList(snakes);
+    }
+
+    /**
+     * Returns the square of the snake at the given index of {@link #getSnakes()}.
+     *
+     * @param index The index of the snake.
+     * @return The square the snake moves in.
+     */
+    public Rectangle2D getSnakeSquare(int index) {
+        return snakeSquares.get(index);
+    }
+
+    /**
+     * Passes the index, in {@link #getSnakes()}, of every snake whose square intersects the given region
+     * to the given action. The squares are looked up in the {@link SquareGrid}, so the cost depends on the
+     * size of the region and not on the size of the board. The action runs while the structure lock is held,
+     * so it may safely read {@link #getSnakes()} even from a render thread, but must not add snakes.
+     *
+     * @param x The X coordinate of the region in pixels.
+     * @param y The Y coordinate of the region in pixels.
+     * @param width The width of the region in pixels.
+     * @param height The height of the region in pixels.
+     * @param action The action to perform on each snake index.
+     */
+    public void forEachSnakeIn(double x, double y, double width, double height, IntConsumer action) {
+        synchronized (structureLock) {
+            squareGrid.forEachCellIn(x, y, width, height, cell -> {
+                int owner = squareGrid.getOwner(cell);
+                if(owner >= 0){
+                    action.accept(owner);
+                }
+            });
+        }
+    }
+
+    /**
+     * Passes every reserved square intersecting the given region to the given action.
+     * Like {@link #forEachSnakeIn}, it may be called from a render thread.
+     *
+     * @param x The X coordinate of the region in pixels.
+     * @param y The Y coordinate of the region in pixels.
+     * @param width The width of the region in pixels.
+     * @param height The height of the region in pixels.
+     * @param action The action to perform on each square.
+     */
+    public void forEachSquareIn(double x, double y, double width, double height, Consumer<Rectangle2D> action) {
+        synchronized (structureLock) {
+            squareGrid.forEachCellIn(x, y, width, height, cell -> action.accept(squareGrid.getSquare(cell)));
+        }
+    }
+
+    /**
+     * Returns the number of snakes in the world. It may be called from any thread, such as a metrics gauge.
+     *
+     * @return The number of snakes.
+     */
+    public int getSnakeCount() {
+        synchronized (structureLock) {
+            return snakes.size();
+        }
+    }
+
+    /**
+     * Returns the total number of body segments of all snakes. Like {@link #getSnakeCount()}, it may be called
+     * from any thread while snakes are added or removed.
+     *
+     * @return The number of segments.
+     */
+    public long getSegmentCount() {
+        synchronized (structureLock) {
+            long total = 0;
+            for(int i = 0, n = snakes.size(); i < n; i++){
+                total += snakes.get(i).getSegmentCount();
+            }
+            return total;
+        }
+    }
+
+    public SquareGrid getSquareGrid() {
+        return squareGrid;
+    }
+
+    public TaskScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Sets a listener notified, on the scheduler's thread, with the square of every snake that moved.
+     *
+     * @param moveListener The listener, or null to remove it.
+     */
+    public void setMoveListener(Consumer<Rectangle2D> moveListener) {
+        this.moveListener = moveListener;
+    }
+
+    /**
+     * Sets a listener notified after every scheduler step in which at least one snake moved.
+     *
+     * @param stepListener The listener, or null to remove it.
+     */
+    public void setStepListener(Runnable stepListener) {
+        scheduler.setStepListener(stepListener);
+    }
+
+    /**
+     * Advances the world to the given time without waiting, see {@link SimulationEngine#step(long)}.
+     *
+     * @param nowNanos The current time in nanoseconds.
+     * @return The number of snake moves performed.
+     * @throws UnsupportedOperationException If the world is not driven by a {@link SimulationEngine}.
+     */
+    public int step(long nowNanos) {
+        if(!(scheduler instanceof SimulationEngine)){
+            throw new UnsupportedOperationException("Only the fixed-step loop can be stepped manually");
+        }
+        return ((SimulationEngine) scheduler).step(nowNanos);
+    }
+
+    /**
+     * Starts advancing the snakes in real time on the scheduler's threads.
+     */
+    public void start() {
+        scheduler.start();
+    }
+
+    /**
+     * Stops the scheduler's threads.
+     */
+    public void stop() {
+        scheduler.stop();
+    }
+}
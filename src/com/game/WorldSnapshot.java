@@ -0,0 +1,350 @@
+package com.game;
+
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Saves a {@link World} to a compact, versioned binary file and restores it, through memory-mapped files.
+ * The file holds the board, every reserved square and, for each snake, its square, strategy, length, speed,
+ * head, direction, move count, growth progress and body.
+ *
+ * <p>Layout, big-endian:</p>
+ * <pre>
+ * header   int magic "SNKW", int version,
+ *          int squareSize, int spacing, int boardRows, int boardColumns, int gridRows, int gridColumns,
+ *          int squareCount, int snakeCount, long segmentCount
+ * squares  int cell * squareCount
+ * snakes   per snake: int cell, byte strategy, int length, long speed, int headX, int headY,
+ *          byte directionX, byte directionY, long moveCount, int growthCounter, long growthElapsedNanos,
+ *          int segments, int x * segments, int y * segments
+ * </pre>
+ *
+ * <p>The state of all snakes is captured first, then the file is sized and written in one pass, so a world of a
+ * million segments saves in a few tens of milliseconds. Saving a running world captures each snake in a
+ * consistent state, but not all snakes at the same step; stop the world first for an exact snapshot.
+ * Like the other mutators of {@link World}, these methods must be called from the controlling thread.</p>
+ */
+public final class WorldSnapshot {
+
+    //"SNKW"
+    static final int MAGIC = 0x534E4B57;
+    static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 10 * Integer.BYTES + Long.BYTES;
+    private static final int SNAKE_HEADER_BYTES = 6 * Integer.BYTES + 3 * Long.BYTES + 3;
+    private static final byte CLOCKWISE = 0;
+    private static final byte ANTICLOCKWISE = 1;
+
+    private WorldSnapshot() {
+    }
+
+    /**
+     * Saves the world to the given file, replacing its content.
+     *
+     * @param world The world to save.
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
+     * @throws IllegalArgumentException If a snake uses a movement strategy that cannot be saved.
+     */
+    public static void save(World world, Path file) throws IOException {
+        SquareGrid grid = world.getSquareGrid();
+        int[] cells = new int[grid.getOccupiedCount()];
+        int[] next = new int[1];
+        grid.forEachCell(cell -> cells[next[0]++] = cell);
+
+        List<Snake> snakes = world.getSnakes();
+        int snakeCount = snakes.size();
+        int[] offsets = new int[snakeCount + 1];
+        int[] xs = new int[0];
+        int[] ys = new int[0];
+        //State of each snake captured with its body, Snake.STATE_FIELDS values per snake
+        long[] states = new long[snakeCount * Snake.STATE_FIELDS];
+        long[] state = new long[Snake.STATE_FIELDS];
+        for(int i = 0; i < snakeCount; i++){
+            Snake snake = snakes.get(i);
+            int count;
+            //The body of a running snake may grow between sizing the buffers and copying it
+            while((count = snake.copyState(state, xs, ys, offsets[i])) < 0){
+                int needed = offsets[i] + snake.getSegmentCount() + 1;
+                xs = Arrays.copyOf(xs, Math.max(needed, xs.length * 2));
+                ys = Arrays.copyOf(ys, xs.length);
+            }
+            offsets[i + 1] = offsets[i] + count;
+            System.arraycopy(state, 0, states, i * Snake.STATE_FIELDS, Snake.STATE_FIELDS);
+        }
+
+        long segmentCount = offsets[snakeCount];
+        long size = HEADER_BYTES + (long) cells.length * Integer.BYTES
+                + (long) snakeCount * SNAKE_HEADER_BYTES + segmentCount * 2 * Integer.BYTES;
+        if(size > Integer.MAX_VALUE){
+            throw new IOException("World is too large for a snapshot: " + size + " bytes");
+        }
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(VERSION)
+                    .putInt(grid.getSquareSize()).putInt(grid.getSpacing())
+                    .putInt(world.getRows()).putInt(world.getColumns())
+                    .putInt(grid.getRows()).putInt(grid.getColumns())
+                    .putInt(cells.length).putInt(snakeCount).putLong(segmentCount);
+            putInts(buffer, cells, 0, cells.length);
+            for(int i = 0; i < snakeCount; i++){
+                Snake snake = snakes.get(i);
+                Rectangle2D square = world.getSnakeSquare(i);
+                int count = offsets[i + 1] - offsets[i];
+                int at = i * Snake.STATE_FIELDS;
+                buffer.putInt(grid.getCellAt(square.getX(), square.getY()))
+                        .put(strategyCode(snake.getMovementStrategy()))
+                        .putInt(snake.getLength())
+                        .putLong((long) snake.getSpeed())
+                        .putInt((int) states[at]).putInt((int) states[at + 1])
+                        .put((byte) states[at + 2]).put((byte) states[at + 3])
+                        .putLong(states[at + 4])
+                        .putInt((int) states[at + 5])
+                        .putLong(states[at + 6])
+                        .putInt(count);
+                putInts(buffer, xs, offsets[i], count);
+                putInts(buffer, ys, offsets[i], count);
+            }
+            buffer.force();
+        }
+    }
+
+    /**
+     * Restores a saved world into the given world, which must be empty and use the same square size and spacing.
+     * The snakes are created by the world's {@link SnakeFactory}, restored to their saved state and registered
+     * with its scheduler; they start moving when the world is started.
+     *
+     * @param file The file to read.
+     * @param world The empty world to restore into.
+     * @return The restored snakes.
+     * @throws IOException If the file cannot be read, is not a snapshot, has an unsupported version,
+     *                     is corrupted, or uses another square layout. The world is then left unchanged.
+     * @throws IllegalStateException If the world is not empty or is journaled.
+     */
+    public static List<Snake> load(Path file, World world) throws IOException {
+        world.checkRestorable();
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            if(channel.size() > Integer.MAX_VALUE){
+                throw new IOException("File is too large to be a snapshot: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try{
+                return read(buffer, world);
+            } catch (BufferUnderflowException | IllegalArgumentException ex){
+                //Reading or skipping past the end of the buffer, or a layout the grid cannot hold
+                throw new IOException("Snapshot is truncated or corrupted: " + file, ex);
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot from the buffer into the world.
+     */
+    private static List<Snake> read(MappedByteBuffer buffer, World world) throws IOException {
+        if(buffer.remaining() < Integer.BYTES || buffer.getInt() != MAGIC){
+            throw new IOException("Not a world snapshot");
+        }
+        int version = buffer.getInt();
+        if(version != VERSION){
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        SquareGrid grid = world.getSquareGrid();
+        int squareSize = buffer.getInt();
+        int spacing = buffer.getInt();
+        if(squareSize != grid.getSquareSize() || spacing != grid.getSpacing()){
+            throw new IOException("Snapshot uses squares of " + squareSize + " pixels spaced " + spacing
+                    + " apart, the world uses " + grid.getSquareSize() + " and " + grid.getSpacing());
+        }
+        int boardRows = buffer.getInt();
+        int boardColumns = buffer.getInt();
+        int gridRows = buffer.getInt();
+        int gridColumns = buffer.getInt();
+        if(boardRows < 0 || boardColumns < 0 || gridRows < 0 || gridColumns < 0 || (long) gridRows * gridColumns > Integer.MAX_VALUE){
+            throw new IOException("Invalid board of " + gridRows + "x" + gridColumns + " squares in snapshot");
+        }
+        int squareCount = checkCount(buffer.getInt(), buffer.remaining() / Integer.BYTES);
+        int snakeCount = checkCount(buffer.getInt(), squareCount);
+        //Total number of segments, only used by tools inspecting the file
+        buffer.getLong();
+
+        int[] cells = new int[squareCount];
+        buffer.asIntBuffer().get(cells);
+        buffer.position(buffer.position() + squareCount * Integer.BYTES);
+
+        //First pass: read and check every snake, so that they can be created in one batch
+        int lastStep = squareSize / Snake.SEGMENT_SIZE - 1;
+        int[] snakeCells = new int[snakeCount];
+        int[] positions = new int[snakeCount];
+        List<SnakeSpec> specs = new ArrayList<>(snakeCount);
+        for(int i = 0; i < snakeCount; i++){
+            positions[i] = buffer.position();
+            snakeCells[i] = buffer.getInt();
+            String direction = strategyName(buffer.get());
+            int length = buffer.getInt();
+            long speed = buffer.getLong();
+            if(length <= 0 || speed <= 0){
+                throw new IOException("Invalid snake length " + length + " or speed " + speed);
+            }
+            checkState(i, lastStep, buffer.getInt(), buffer.getInt(), buffer.get(), buffer.get(), buffer.getLong(),
+                    buffer.getInt());
+            //Elapsed growth time, any value is usable
+            buffer.getLong();
+            int count = buffer.getInt();
+            if(count <= 0 || count > length + 1L || count > buffer.remaining() / (2 * Integer.BYTES)){
+                throw new IOException("Invalid number of segments " + count + " for a snake of length " + length);
+            }
+            checkSteps(i, lastStep, buffer, count);
+            checkSteps(i, lastStep, buffer, count);
+            specs.add(new SnakeSpec(length, direction, speed));
+        }
+
+        //Validate the squares before touching the world, so that a corrupted file leaves it empty
+        long cellCount = (long) gridRows * gridColumns;
+        BitSet squares = new BitSet();
+        for(int cell : cells){
+            if(cell < 0 || cell >= cellCount || squares.get(cell)){
+                throw new IOException("Invalid square " + cell + " in snapshot");
+            }
+            squares.set(cell);
+        }
+        BitSet inhabited = new BitSet();
+        for(int i = 0; i < snakeCount; i++){
+            int cell = snakeCells[i];
+            if(cell < 0 || !squares.get(cell) || inhabited.get(cell)){
+                throw new IOException("Snake " + i + " is not alone in a saved square");
+            }
+            inhabited.set(cell);
+        }
+
+        world.setBoardSize(boardRows, boardColumns);
+        world.reserveCells(gridRows, gridColumns, cells);
+        for(int i = 0; i < snakeCount; i++){
+            specs.set(i, specs.get(i).at(grid.getCellX(snakeCells[i]), grid.getCellY(snakeCells[i])));
+        }
+        List<Snake> snakes = world.getSnakeFactory().createSnakes(specs);
+
+        //Second pass: restore the moving state and body of every snake
+        SimulationClock clock = world.getScheduler().getClock();
+        int[] xs = new int[0];
+        int[] ys = new int[0];
+        for(int i = 0; i < snakeCount; i++){
+            buffer.position(positions[i] + Integer.BYTES + 1 + Integer.BYTES + Long.BYTES);
+            int headX = buffer.getInt();
+            int headY = buffer.getInt();
+            byte directionX = buffer.get();
+            byte directionY = buffer.get();
+            long moveCount = buffer.getLong();
+            int growthCounter = buffer.getInt();
+            long growthElapsed = buffer.getLong();
+            int count = buffer.getInt();
+            if(count > xs.length){
+                xs = new int[count];
+                ys = new int[count];
+            }
+            getInts(buffer, xs, count);
+            getInts(buffer, ys, count);
+            Snake snake = snakes.get(i);
+            snake.setClock(clock);
+            snake.restore(headX, headY, directionX, directionY, moveCount, growthCounter, growthElapsed, xs, ys, 0, count);
+        }
+        world.attachSnakes(snakeCells, snakes);
+        return snakes;
+    }
+
+    /**
+     * Checks that the head of a saved snake is on the perimeter of its square and that its next move keeps it
+     * there, so the movement strategy keeps it on its loop; a snake that never moved has no direction yet.
+     */
+    private static void checkState(int snake, int lastStep, int headX, int headY, byte directionX, byte directionY,
+                                   long moveCount, int growthCounter) throws IOException {
+        if(moveCount < 0 || growthCounter < 0 || growthCounter >= Snake.GROWTH_STEP){
+            throw new IOException("Invalid move count " + moveCount + " or growth counter " + growthCounter
+                    + " of snake " + snake);
+        }
+        boolean unmoved = directionX == 0 && directionY == 0 && headX == 0 && headY == 0 && moveCount == 0;
+        if(!unmoved && (Math.abs(directionX) + Math.abs(directionY) != 1 || !onPerimeter(lastStep, headX, headY)
+                || !onPerimeter(lastStep, headX + directionX, headY + directionY))){
+            throw new IOException("Snake " + snake + " at " + headX + "," + headY + " moving " + directionX + ","
+                    + directionY + " is not on its loop");
+        }
+    }
+
+    private static boolean onPerimeter(int lastStep, int x, int y) {
+        return x >= 0 && y >= 0 && x <= lastStep && y <= lastStep && (x == 0 || y == 0 || x == lastStep || y == lastStep);
+    }
+
+    /**
+     * Checks that the next coordinates of a saved body are inside the square, and advances the buffer past them.
+     */
+    private static void checkSteps(int snake, int lastStep, MappedByteBuffer buffer, int count) throws IOException {
+        for(int i = 0; i < count; i++){
+            int step = buffer.getInt();
+            if(step < 0 || step > lastStep){
+                throw new IOException("Segment of snake " + snake + " outside its square");
+            }
+        }
+    }
+
+    /**
+     * Writes a range of ints in bulk and advances the buffer past them.
+     */
+    private static void putInts(MappedByteBuffer buffer, int[] values, int offset, int count) {
+        buffer.asIntBuffer().put(values, offset, count);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+    }
+
+    /**
+     * Reads ints in bulk and advances the buffer past them.
+     */
+    private static void getInts(MappedByteBuffer buffer, int[] values, int count) {
+        buffer.asIntBuffer().get(values, 0, count);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+    }
+
+    /**
+     * Checks that a count read from the file is neither negative nor larger than the given bound.
+     */
+    private static int checkCount(int count, int max) throws IOException {
+        if(count < 0 || count > max){
+            throw new IOException("Invalid count " + count + " in snapshot");
+        }
+        return count;
+    }
+
+    /**
+     * Returns the code saved for a movement strategy.
+     */
+    private static byte strategyCode(MovementStrategy strategy) {
+        if(strategy instanceof ClockwiseMovementStrategy){
+            return CLOCKWISE;
+        }
+        if(strategy instanceof AnticlockwiseMovementStrategy){
+            return ANTICLOCKWISE;
+        }
+        throw new IllegalArgumentException("Movement strategy " + strategy.getClass().getName() + " cannot be saved");
+    }
+
+    /**
+     * Returns the direction, as understood by {@link SnakeFactory}, of a saved strategy code.
+     */
+    private static String strategyName(byte code) throws IOException {
+        switch(code){
+            case CLOCKWISE:
+                return "Clockwise";
+            case ANTICLOCKWISE:
+                return "Anticlockwise";
+            default:
+                throw new IOException("Unknown movement strategy " + code);
+        }
+    }
+}
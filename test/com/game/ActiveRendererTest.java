@@ -0,0 +1,147 @@
+package com.game;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ActiveRenderer} class.
+ * Verifies that frames are rendered on request only, copied to the view when they match it,
+ * and that the frame rate stays capped however fast the simulation runs.
+ */
+public class ActiveRendererTest {
+
+    private World world;
+    private SimulationMetrics metrics;
+    private BoardView boardView;
+    private ActiveRenderer renderer;
+
+    /**
+     * Sets up a view of a world with a few snakes, drawn by an active renderer, in a 300x300 viewport.
+     */
+    @BeforeEach
+    public void setUp() {
+        world = new World(new ConcreteSnakeFactory());
+        world.setBoardSize(10, 10);
+        List<SnakeSpec> specs = new ArrayList<>();
+        for(int i = 0; i < 20; i++){
+            specs.add(new SnakeSpec(3, "Clockwise", 1));
+        }
+        world.addSnakes(specs);
+        metrics = new SimulationMetrics();
+        boardView = new BoardView(world, metrics);
+        boardView.setActiveRendering(50);
+        renderer = boardView.getActiveRenderer();
+        JViewport viewport = new JViewport();
+        viewport.setView(boardView);
+        viewport.setSize(300, 300);
+        boardView.setSize(boardView.getPreferredSize());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        renderer.stop();
+    }
+
+    /**
+     * Tests that nothing is rendered before the view has been painted once, since the visible region is unknown.
+     */
+    @Test
+    public void testNoFrameBeforeFirstPaint() {
+        assertFalse(renderer.renderFrame());
+        assertNull(boardView.getViewport());
+    }
+
+    /**
+     * Tests that a rendered frame is copied to the view instead of painting the board again.
+     */
+    @Test
+    public void testPaintCopiesRenderedFrame() {
+        paint();
+        assertTrue(renderer.renderFrame());
+        long paints = metrics.getPaintCount();
+
+        BufferedImage image = paint();
+
+        assertEquals(paints, metrics.getPaintCount(), "The view should copy the frame instead of rendering the board");
+        assertEquals(Color.RED.getRGB(), image.getRGB(12, 12), "Head of the first snake");
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(40, 40), "Square of the first snake");
+    }
+
+    /**
+     * Tests that frame slots without a change are skipped, and that a simulation step requests a new frame.
+     */
+    @Test
+    public void testFramesRenderedOnRequestOnly() {
+        paint();
+        assertTrue(renderer.renderFrame());
+        assertFalse(renderer.renderFrame());
+
+        world.step(0);
+
+        assertTrue(renderer.renderFrame());
+        assertEquals(2, metrics.getFrameCount());
+        assertEquals(1, metrics.getFrameSkippedCount());
+    }
+
+    /**
+     * Tests that the view paints itself when the last frame shows another region or zoom.
+     */
+    @Test
+    public void testStaleFrameIsNotCopied() {
+        paint();
+        renderer.renderFrame();
+        boardView.setZoom(0.5, new Point());
+        Rectangle visible = boardView.getVisibleRect();
+
+        assertFalse(renderer.drawFrame(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).getGraphics(), visible, 0.5));
+        assertTrue(renderer.renderFrame(), "A stale frame requests a new one");
+    }
+
+    /**
+     * Tests that the render thread stays under its frame rate while the simulation steps far faster.
+     */
+    @Test
+    public void testFrameRateIsCapped() throws InterruptedException {
+        paint();
+        renderer.start();
+        long end = System.nanoTime() + 500_000_000L;
+        long steps = 0;
+        while(System.nanoTime() < end){
+            world.step(steps++ * 1_000_000L);
+        }
+        renderer.stop();
+
+        assertTrue(steps > 100, "The simulation should not be slowed down by rendering");
+        assertTrue(metrics.getFrameCount() <= 30, "At most 50 fps over half a second, got " + metrics.getFrameCount());
+        assertTrue(metrics.getFrameCount() > 0);
+    }
+
+    /**
+     * Tests that the frame rate must be positive.
+     */
+    @Test
+    public void testInvalidFrameRate() {
+        assertThrows(IllegalArgumentException.class, () -> new ActiveRenderer(boardView, 0));
+        assertThrows(IllegalArgumentException.class, () -> boardView.setActiveRendering(-1));
+    }
+
+    /**
+     * Paints the view into an image the size of the viewport, as Swing does.
+     */
+    private BufferedImage paint() {
+        BufferedImage image = new BufferedImage(300, 300, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        boardView.paintComponent(g);
+        g.dispose();
+        return image;
+    }
+}
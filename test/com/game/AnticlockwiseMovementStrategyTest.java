@@ -24,7 +24,7 @@ public class AnticlockwiseMovementStrategyTest {
      */
     @BeforeEach
     public void setUp() {
-        strategy = new AnticlockwiseMovementStrategy();
+        strategy = AnticlockwiseMovementStrategy.INSTANCE;
         snake = new Snake(5, strategy, 10, 10, 1.0);
         square = new Rectangle2D.Double(10, 10, 50, 50);
     }
@@ -97,4 +97,25 @@ public class AnticlockwiseMovementStrategyTest {
         assertEquals(50, snake.getNewSnakeX(), 0.01);
         assertEquals(10, snake.getNewSnakeY(), 0.01);
     }
+
+    /**
+     * Tests that the snake follows the perimeter in whole segment steps and
+     * is back at its start after one full lap.
+     * The first call only sets the initial direction; a 50 pixel square has 9 steps per side.
+     */
+    @Test
+    public void testFullLapInSegmentSteps() {
+        strategy.updateDirection(snake, square);
+        for(int i = 0; i < 9; i++){
+            strategy.updateDirection(snake, square);
+        }
+        assertEquals(0, snake.getHeadX());
+        assertEquals(9, snake.getHeadY());
+
+        for(int i = 9; i < 36; i++){
+            strategy.updateDirection(snake, square);
+        }
+        assertEquals(0, snake.getHeadX());
+        assertEquals(0, snake.getHeadY());
+    }
 }
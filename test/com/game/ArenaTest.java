@@ -0,0 +1,155 @@
+package com.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link Arena} class.
+ * The arena is stepped with a simulated time line and its collisions are compared with a check of all pairs.
+ */
+public class ArenaTest {
+
+    private static final int SEGMENT = Snake.SEGMENT_SIZE;
+
+    /**
+     * Creates an arena of the given size in pixels driven by a single-threaded engine on a virtual clock.
+     */
+    private static Arena newArena(int width, int height) {
+        return new Arena(new ConcreteSnakeFactory(), width, height,
+                new SimulationEngine(SimulationClock.virtual(SimulationEngine.DEFAULT_STEP_MILLIS)));
+    }
+
+    /**
+     * Tests that two snakes running opposite ways around the same loop collide, and that the listener is told
+     * which snakes collided.
+     */
+    @Test
+    public void testSnakesOnTheSameLoopCollide() {
+        Arena arena = newArena(200, 200);
+        List<int[]> collisions = new ArrayList<>();
+        arena.setCollisionListener((snake, other) -> collisions.add(new int[]{snake, other}));
+        arena.addSnake(3, "Clockwise", 0, 0, 1);
+        arena.addSnake(3, "Anticlockwise", 0, 0, 1);
+
+        arena.step(0);
+
+        assertEquals(2, arena.getCheckCount());
+        assertEquals(2, arena.getCollisionCount(), "Both heads start in the same cell");
+        assertArrayEquals(new int[]{0, 1}, collisions.get(0));
+        assertArrayEquals(new int[]{1, 0}, collisions.get(1));
+    }
+
+    /**
+     * Tests that snakes on loops that do not overlap never collide, while every move is checked.
+     */
+    @Test
+    public void testSeparateLoopsNeverCollide() {
+        Arena arena = newArena(400, 400);
+        arena.addSnake(8, "Clockwise", 0, 0, 1);
+        arena.addSnake(8, "Anticlockwise", 100, 100, 1);
+
+        for(long ms = 0; ms < 500; ms++){
+            arena.step(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        assertEquals(1000, arena.getCheckCount());
+        assertEquals(0, arena.getCollisionCount());
+    }
+
+    /**
+     * Tests that the collisions found through the spatial hash are exactly those of a check of all pairs,
+     * step after step, while the snakes move and grow, on both single-threaded schedulers.
+     */
+    @Test
+    public void testMatchesAllPairsCheck() {
+        checkAgainstAllPairs(new SimulationEngine(SimulationClock.virtual(SimulationEngine.DEFAULT_STEP_MILLIS)));
+        checkAgainstAllPairs(new TimingWheelScheduler(SimulationClock.virtual(SimulationEngine.DEFAULT_STEP_MILLIS)));
+    }
+
+    private static void checkAgainstAllPairs(TaskScheduler scheduler) {
+        Arena arena = new Arena(new ConcreteSnakeFactory(), 150, 150, 40, scheduler);
+        Random random = new Random(7);
+        List<SnakeSpec> specs = new ArrayList<>();
+        for(int i = 0; i < 60; i++){
+            int x = random.nextInt((150 - 40) / SEGMENT + 1) * SEGMENT;
+            int y = random.nextInt((150 - 40) / SEGMENT + 1) * SEGMENT;
+            specs.add(new SnakeSpec(1 + random.nextInt(6), i % 2 == 0 ? "Clockwise" : "Anticlockwise", 1, x, y));
+        }
+        arena.addSnakes(specs);
+        List<Snake> snakes = arena.getSnakes();
+        Set<Integer> found = new HashSet<>();
+        arena.setCollisionListener((snake, other) -> found.add(snake));
+
+        //Long enough for the snakes to grow a few segments
+        for(long ms = 0; ms < 6000; ms++){
+            found.clear();
+            arena.step(TimeUnit.MILLISECONDS.toNanos(ms));
+            assertEquals(expectedCollisions(snakes, specs), found, "Different collisions at " + ms + " ms");
+            long segments = 0;
+            for(Snake snake : snakes){
+                segments += snake.getSegmentCount();
+            }
+            assertEquals(segments, arena.getTrackedSegmentCount(), "Different segments at " + ms + " ms");
+        }
+        assertTrue(arena.getCollisionCount() > 0);
+    }
+
+    /**
+     * Returns the snakes whose head is in a cell holding a segment of another snake, comparing every pair.
+     */
+    private static Set<Integer> expectedCollisions(List<Snake> snakes, List<SnakeSpec> specs) {
+        Set<Integer> expected = new HashSet<>();
+        for(int i = 0; i < snakes.size(); i++){
+            int headX = specs.get(i).getX() / SEGMENT + snakes.get(i).getSegmentX(0);
+            int headY = specs.get(i).getY() / SEGMENT + snakes.get(i).getSegmentY(0);
+            for(int j = 0; j < snakes.size() && !expected.contains(i); j++){
+                Snake other = snakes.get(j);
+                for(int k = 0; j != i && k < other.getSegmentCount(); k++){
+                    if(specs.get(j).getX() / SEGMENT + other.getSegmentX(k) == headX
+                            && specs.get(j).getY() / SEGMENT + other.getSegmentY(k) == headY){
+                        expected.add(i);
+                        break;
+                    }
+                }
+            }
+        }
+        return expected;
+    }
+
+    /**
+     * Tests that loops outside the region or off the segment lattice are rejected without creating any snake.
+     */
+    @Test
+    public void testInvalidLoopsRejected() {
+        Arena arena = newArena(200, 200);
+
+        assertThrows(IllegalArgumentException.class, () -> arena.addSnake(3, "Clockwise", 160, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> arena.addSnake(3, "Clockwise", -5, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> arena.addSnake(3, "Clockwise", 3, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> arena.addSnakes(List.of(
+                new SnakeSpec(3, "Clockwise", 1, 0, 0), new SnakeSpec(3, "Clockwise", 1, 0, 300))));
+        assertEquals(0, arena.getSnakes().size());
+    }
+
+    /**
+     * Tests that schedulers running tasks on several threads are rejected.
+     */
+    @Test
+    public void testMultiThreadedSchedulerRejected() {
+        ConcreteSnakeFactory factory = new ConcreteSnakeFactory();
+        assertThrows(IllegalArgumentException.class,
+                () -> new Arena(factory, 200, 200, ExecutionMode.SCHEDULED_THREAD_POOL.createScheduler()));
+        assertThrows(IllegalArgumentException.class, () -> new Arena(factory, 200, 200,
+                new SimulationEngine(SimulationEngine.DEFAULT_STEP_MILLIS, SimulationClock.realTime(), 2)));
+        assertThrows(IllegalArgumentException.class, () -> new Arena(factory, 200, 200, 42, new SimulationEngine()));
+        assertThrows(IllegalArgumentException.class, () -> new Arena(factory, 40, 200, new SimulationEngine()));
+    }
+}
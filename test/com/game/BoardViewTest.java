@@ -0,0 +1,156 @@
+package com.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link BoardView} class.
+ * These tests verify that painting is culled to the visible part of the board and follows the zoom.
+ */
+public class BoardViewTest {
+
+    private AtomicInteger rendered;
+    private World world;
+    private BoardView boardView;
+
+    /**
+     * Sets up a view of a 1000x1000 board whose snakes count how often they are rendered.
+     */
+    @BeforeEach
+    public void setUp() {
+        rendered = new AtomicInteger();
+        SnakeFactory countingFactory = (length, direction, x, y, speed) ->
+                new Snake(length, ClockwiseMovementStrategy.INSTANCE, x, y, speed) {
+                    @Override
+                    public void render(SegmentBatch batch) {
+                        rendered.incrementAndGet();
+                        super.render(batch);
+                    }
+                };
+        world = new World(countingFactory);
+        world.setBoardSize(1000, 1000);
+        boardView = new BoardView(world, new SimulationMetrics());
+    }
+
+    /**
+     * Tests that paint work depends on the visible area only: the same viewport renders the same number
+     * of snakes whether the board holds a few rows of snakes or a hundred times more.
+     */
+    @Test
+    public void testPaintOnlyVisitsVisibleSnakes() {
+        addSnakes(5_000);
+        showBoard(boardView);
+        Graphics2D g = viewport(300, 300);
+
+        boardView.paintComponent(g);
+        int fewRows = rendered.getAndSet(0);
+        addSnakes(195_000);
+        boardView.paintComponent(g);
+
+        assertEquals(25, fewRows, "A 300x300 viewport at zoom 1 shows 5x5 squares");
+        assertEquals(fewRows, rendered.get(), "Snakes outside the viewport should not be visited");
+    }
+
+    /**
+     * Tests that zooming out shows more of the board in the same viewport and scales the preferred size.
+     */
+    @Test
+    public void testZoom() {
+        addSnakes(10_000);
+        Dimension full = boardView.getPreferredSize();
+        boardView.setZoom(0.5, new Point());
+        showBoard(boardView);
+
+        boardView.paintComponent(viewport(300, 300));
+
+        assertEquals(0.5, boardView.getZoom());
+        assertEquals(full.width / 2, boardView.getPreferredSize().width, 1);
+        assertEquals(100, rendered.get(), "A 300x300 viewport at zoom 0.5 shows 10x10 squares");
+    }
+
+    /**
+     * Tests that the visible snakes are drawn, in red, at every level of detail.
+     */
+    @Test
+    public void testSnakesDrawnAtEveryZoom() {
+        addSnakes(5_000);
+        for(double zoom : new double[]{1, 0.5, 0.1}){
+            boardView.setZoom(zoom, new Point());
+            showBoard(boardView);
+            BufferedImage image = new BufferedImage(300, 300, BufferedImage.TYPE_INT_ARGB);
+
+            boardView.paintComponent(image.createGraphics());
+
+            //The first snake has not moved yet: its head is the top-left segment of the first square
+            int head = (int) Math.floor(12.5 * zoom);
+            assertEquals(Color.RED.getRGB(), image.getRGB(head, head), "Head at zoom " + zoom);
+        }
+    }
+
+    /**
+     * Tests that the zoom is clamped to its bounds.
+     */
+    @Test
+    public void testZoomIsClamped() {
+        boardView.setZoom(1000, new Point());
+        assertEquals(BoardView.MAX_ZOOM, boardView.getZoom());
+        boardView.setZoom(0, new Point());
+        assertEquals(BoardView.MIN_ZOOM, boardView.getZoom());
+    }
+
+    /**
+     * Tests that moves outside the visible part of the board do not mark anything dirty.
+     */
+    @Test
+    public void testOffscreenMovesAreNotRepainted() {
+        SimulationMetrics metrics = new SimulationMetrics();
+        BoardView view = new BoardView(world, metrics);
+        addSnakes(5_000);
+        showBoard(view);
+        view.paintComponent(viewport(300, 300));
+
+        world.step(0);
+
+        assertEquals(25, metrics.getDirtyRegionCount(), "Only the 25 visible snakes should mark regions dirty");
+    }
+
+    /**
+     * Shows the top-left corner of the board in a 300x300 viewport.
+     */
+    private void showBoard(BoardView view) {
+        JViewport viewport = new JViewport();
+        viewport.setView(view);
+        viewport.setSize(300, 300);
+        view.setSize(view.getPreferredSize());
+    }
+
+    /**
+     * Adds snakes in the next free squares of the board, row by row.
+     */
+    private void addSnakes(int count) {
+        List<SnakeSpec> specs = new ArrayList<>(count);
+        for(int i = 0; i < count; i++){
+            specs.add(new SnakeSpec(3, "Clockwise", 10));
+        }
+        world.addSnakes(specs);
+    }
+
+    /**
+     * Returns a graphics context clipped to a viewport at the top-left corner of the board.
+     */
+    private Graphics2D viewport(int width, int height) {
+        Graphics2D g = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        g.setClip(new Rectangle2D.Double(0, 0, width, height));
+        return g;
+    }
+}
@@ -24,7 +24,7 @@ public class ClockWiseMovementStrategyTest {
      */
     @BeforeEach
     public void setUp() {
-        strategy = new ClockwiseMovementStrategy();
+        strategy = ClockwiseMovementStrategy.INSTANCE;
         snake = new Snake(5, strategy, 10, 10, 1.0);
         square = new Rectangle2D.Double(10, 10, 50, 50);
     }
@@ -97,4 +97,49 @@ public class ClockWiseMovementStrategyTest {
         assertEquals(10, snake.getNewSnakeX(), 0.01);
         assertEquals(50, snake.getNewSnakeY(), 0.01);
     }
+
+    /**
+     * Tests that the snake follows the perimeter in whole segment steps and
+     * is back at its start after one full lap.
+     * The first call only sets the initial direction; a 50 pixel square has 9 steps per side.
+     */
+    @Test
+    public void testFullLapInSegmentSteps() {
+        strategy.updateDirection(snake, square);
+        for(int i = 0; i < 9; i++){
+            strategy.updateDirection(snake, square);
+        }
+        assertEquals(9, snake.getHeadX());
+        assertEquals(0, snake.getHeadY());
+
+        for(int i = 9; i < 36; i++){
+            strategy.updateDirection(snake, square);
+        }
+        assertEquals(0, snake.getHeadX());
+        assertEquals(0, snake.getHeadY());
+    }
+
+    /**
+     * Tests that the shared strategy keeps no state between snakes: two snakes moved in lockstep
+     * through the same instance, one of them started half a lap later, end where a lone snake would.
+     */
+    @Test
+    public void testSharedInstanceKeepsSnakesIndependent() {
+        Snake other = new Snake(5, strategy, 10, 10, 1.0);
+        for(int i = 0; i < 20; i++){
+            snake.move(square);
+        }
+        for(int i = 0; i < 40; i++){
+            snake.move(square);
+            other.move(square);
+        }
+
+        Snake reference = new Snake(5, strategy, 10, 10, 1.0);
+        reference.seek(square, 60);
+        assertEquals(reference.getNewSnakeX(), snake.getNewSnakeX());
+        assertEquals(reference.getNewSnakeY(), snake.getNewSnakeY());
+        reference.seek(square, 40);
+        assertEquals(reference.getNewSnakeX(), other.getNewSnakeX());
+        assertEquals(reference.getNewSnakeY(), other.getNewSnakeY());
+    }
 }
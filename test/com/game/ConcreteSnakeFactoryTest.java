@@ -3,6 +3,8 @@ package com.game;
 import org.junit.jupiter.api.Test;
 
 import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -69,4 +71,23 @@ public class ConcreteSnakeFactoryTest {
         assertEquals(expectedX, snake.getNewSnakeX(), 0.01);
         assertEquals(expectedY, snake.getNewSnakeY(), 0.01);
     }
+
+    /**
+     * Tests that a batch large enough to be built in parallel keeps the order of the specs.
+     */
+    @Test
+    public void testCreateSnakesKeepsOrder() {
+        List<SnakeSpec> specs = new ArrayList<>();
+        for(int i = 0; i < SnakeFactory.PARALLEL_BATCH_THRESHOLD; i++){
+            specs.add(new SnakeSpec(5, i % 2 == 0 ? "Clockwise" : "Anticlockwise", 1L, i, 2 * i));
+        }
+
+        List<Snake> snakes = factory.createSnakes(specs);
+
+        assertEquals(specs.size(), snakes.size());
+        for(int i = 0; i < snakes.size(); i++){
+            assertEquals(i, snakes.get(i).getSnakeStartX());
+            assertEquals(2 * i, snakes.get(i).getSnakeStartY());
+        }
+    }
 }
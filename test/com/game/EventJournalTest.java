@@ -0,0 +1,190 @@
+package com.game;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link EventJournal} class.
+ * Verifies what is recorded, how compact the records are, and when a world can be journaled.
+ */
+public class EventJournalTest {
+
+    private Path file;
+    private World world;
+
+    /**
+     * Creates the journal file and an empty 10x10 world driven step by step on a virtual clock.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempFile("journal", ".snkj");
+        world = new World(new ConcreteSnakeFactory(), World.DEFAULT_SQUARE_SIZE, World.DEFAULT_SPACING,
+                new SimulationEngine(SimulationClock.virtual(1)));
+        world.setBoardSize(10, 10);
+    }
+
+    /**
+     * Deletes the journal file.
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Tests that steps in which no snake moved are only recorded when a snake is created after them.
+     */
+    @Test
+    public void testIdleStepsAreNotRecorded() throws IOException {
+        try(EventJournal journal = EventJournal.open(file, world)){
+            run(0, 10);
+            assertEquals(0, journal.getTickCount(), "Nothing moved yet");
+
+            int[] position = world.findAvailablePosition();
+            world.addSnake(3, "Clockwise", position[0], position[1], 5);
+            assertEquals(1, journal.getTickCount(), "The step before the creation is recorded");
+
+            run(10, 30);
+            assertEquals(5, journal.getTickCount(), "A 5 ms snake moves at 10, 15, 20 and 25 ms");
+        }
+    }
+
+    /**
+     * Tests that a step costs a few bytes and that nothing is recorded once the journal is closed.
+     */
+    @Test
+    public void testRecordsAreCompact() throws IOException {
+        EventJournal journal = EventJournal.open(file, world);
+        world.addSnakes(List.of(new SnakeSpec(3, "Clockwise", 1), new SnakeSpec(3, "Anticlockwise", 1)));
+        run(0, 10_000);
+        journal.close();
+        long size = Files.size(file);
+
+        assertEquals(10_000, journal.getTickCount());
+        assertTrue(size < 10_000 * 5, "Journal of 10000 steps should take less than 5 bytes per step, was " + size);
+
+        run(10_000, 11_000);
+        world.addSnakes(List.of(new SnakeSpec(3, "Clockwise", 1)));
+        assertEquals(size, Files.size(file), "A closed journal must not grow");
+    }
+
+    /**
+     * Tests that growths are recorded by the index of the snake that grew.
+     */
+    @Test
+    public void testGrowthIsRecorded() throws IOException {
+        EventJournal journal = EventJournal.open(file, world);
+        try{
+            world.addSnakes(List.of(new SnakeSpec(5, "Clockwise", 10), new SnakeSpec(5, "Clockwise", 10)));
+            run(0, 2001);
+        } finally {
+            journal.close();
+        }
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file));
+        content.position(6 * Integer.BYTES + Long.BYTES);
+        List<Integer> grown = new ArrayList<>();
+        while(content.hasRemaining()){
+            byte type = content.get();
+            if(type == EventJournal.GROWTH){
+                grown.add((int) EventJournal.getVarLong(content));
+            } else if(type == EventJournal.TICK){
+                EventJournal.getVarLong(content);
+            } else {
+                assertEquals(EventJournal.SNAKE_CREATED, type);
+                assertEquals(5, EventJournal.getVarLong(content));
+                assertEquals(10, EventJournal.getVarLong(content));
+                int directionBytes = (int) EventJournal.getVarLong(content);
+                content.position(content.position() + directionBytes);
+                EventJournal.getVarLong(content);
+                EventJournal.getVarLong(content);
+            }
+        }
+        assertEquals(List.of(0, 1), grown, "Both snakes grow once after 2 s");
+    }
+
+    /**
+     * Tests that only a world that has not started and has no snakes can be journaled.
+     */
+    @Test
+    public void testOpenRequiresNewWorld() throws IOException {
+        world.addSnakes(List.of(new SnakeSpec(3, "Clockwise", 10)));
+        assertThrows(IllegalStateException.class, () -> EventJournal.open(file, world));
+
+        World threaded = new World(new ConcreteSnakeFactory(), World.DEFAULT_SQUARE_SIZE, World.DEFAULT_SPACING,
+                new ScheduledExecutorTaskScheduler(1));
+        assertThrows(UnsupportedOperationException.class, () -> EventJournal.open(file, threaded));
+        assertThrows(IllegalArgumentException.class, () -> EventJournal.open(file, newWorld(), -1));
+    }
+
+    /**
+     * Tests that a journaled world cannot be restored from a snapshot, which the journal cannot describe.
+     */
+    @Test
+    public void testSnapshotRestoreIsRejected() throws IOException {
+        World saved = newWorld();
+        saved.addSnakes(List.of(new SnakeSpec(3, "Clockwise", 10)));
+        Path snapshot = Files.createTempFile("world", ".snk");
+        try{
+            EventJournal journal = EventJournal.open(file, world);
+            try{
+                WorldSnapshot.save(saved, snapshot);
+                assertThrows(IllegalStateException.class, () -> WorldSnapshot.load(snapshot, world));
+            } finally {
+                journal.close();
+            }
+        } finally {
+            Files.delete(snapshot);
+        }
+    }
+
+    /**
+     * Tests variable-length numbers at their boundaries.
+     */
+    @Test
+    public void testVarLongRoundTrip() throws IOException {
+        long[] values = {0, 1, -1, 63, -64, 64, 127, 128, 1_000_000, Long.MAX_VALUE, Long.MIN_VALUE};
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 10);
+        for(long value : values){
+            EventJournal.putVarLong(buffer, EventJournal.zigZag(value));
+        }
+        buffer.flip();
+        for(long value : values){
+            assertEquals(value, EventJournal.unZigZag(EventJournal.getVarLong(buffer)));
+        }
+        assertFalse(buffer.hasRemaining());
+
+        buffer.clear();
+        EventJournal.putVarLong(buffer, EventJournal.zigZag(-1));
+        assertEquals(1, buffer.position(), "Small negative numbers take a single byte");
+    }
+
+    /**
+     * Creates an empty 10x10 world driven step by step on a virtual clock.
+     */
+    private World newWorld() {
+        World other = new World(new ConcreteSnakeFactory(), World.DEFAULT_SQUARE_SIZE, World.DEFAULT_SPACING,
+                new SimulationEngine(SimulationClock.virtual(1)));
+        other.setBoardSize(10, 10);
+        return other;
+    }
+
+    /**
+     * Steps the world once per millisecond of simulated time in [from, to).
+     */
+    private void run(long fromMillis, long toMillis) {
+        for(long t = fromMillis; t < toMillis; t++){
+            world.step(TimeUnit.MILLISECONDS.toNanos(t));
+        }
+    }
+}
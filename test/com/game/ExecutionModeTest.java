@@ -0,0 +1,48 @@
+package com.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ExecutionMode} enum.
+ */
+public class ExecutionModeTest {
+
+    /**
+     * Tests that each mode creates the scheduler implementing it.
+     */
+    @Test
+    public void testCreateScheduler() {
+        assertTrue(ExecutionMode.FIXED_STEP_LOOP.createScheduler() instanceof SimulationEngine);
+        SimulationEngine parallel = (SimulationEngine) ExecutionMode.PARALLEL_FIXED_STEP_LOOP.createScheduler();
+        assertEquals(Runtime.getRuntime().availableProcessors(), parallel.getParallelism());
+        assertTrue(ExecutionMode.SCHEDULED_THREAD_POOL.createScheduler() instanceof ScheduledExecutorTaskScheduler);
+        assertTrue(ExecutionMode.TIMING_WHEEL.createScheduler() instanceof TimingWheelScheduler);
+        if(ExecutionMode.VIRTUAL_THREAD_PER_SNAKE.isSupported()){
+            assertTrue(ExecutionMode.VIRTUAL_THREAD_PER_SNAKE.createScheduler() instanceof ThreadPerTaskScheduler);
+        } else {
+            assertThrows(UnsupportedOperationException.class, ExecutionMode.VIRTUAL_THREAD_PER_SNAKE::createScheduler);
+        }
+    }
+
+    /**
+     * Tests that virtual threads are reported as supported exactly on Java 21 and later.
+     */
+    @Test
+    public void testVirtualThreadSupportMatchesRuntime() {
+        assertTrue(ExecutionMode.FIXED_STEP_LOOP.isSupported());
+        assertTrue(ExecutionMode.SCHEDULED_THREAD_POOL.isSupported());
+        assertEquals(Runtime.version().feature() >= 21, ExecutionMode.VIRTUAL_THREAD_PER_SNAKE.isSupported());
+    }
+
+    /**
+     * Tests that a world driven by a scheduler other than the fixed-step loop rejects manual steps.
+     */
+    @Test
+    public void testWorldStepRequiresFixedStepLoop() {
+        World world = new World(new ConcreteSnakeFactory(), World.DEFAULT_SQUARE_SIZE, World.DEFAULT_SPACING,
+                ExecutionMode.SCHEDULED_THREAD_POOL.createScheduler());
+        assertThrows(UnsupportedOperationException.class, () -> world.step(0));
+    }
+}
@@ -5,12 +5,17 @@ import org.junit.jupiter.api.Test;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.HashMap;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -154,25 +159,127 @@ public class GamePanelTest {
     }
 
     /**
-     * Tests the painting of the GamePanel component.
+     * Tests the painting of the board view.
      * Sets up a test square and calls the paintComponent method.
      */
     @Test
-    public void testPaintComponent() {
-        // Set up the panel size
-        gamePanel.setSize(500, 500);
+    public void testPaintComponent() throws Exception {
+        BoardView boardView = (BoardView) getPrivateField("boardView");
+        showBoard(boardView, 500, 500);
 
-        // Add a square to the squareMap for testing
-        setFieldValue("squareMap", new HashMap<Point, Rectangle2D>() {{
-            put(new Point(10, 10), new Rectangle2D.Double(10, 10, 50, 50));
-        }});
+        // Add a square to the world for testing
+        invokePrivateMethod("findAvailablePosition", new Class<?>[]{});
 
         Graphics g = new BufferedImage(500, 500, BufferedImage.TYPE_INT_ARGB).getGraphics();
 
-        gamePanel.paintComponent(g);
+        boardView.paintComponent(g);
 
     }
 
+    /**
+     * Tests that the grid layer is rendered once, reused by later paints,
+     * and invalidated when a new square is reserved.
+     */
+    @Test
+    public void testGridLayerCachedUntilSquareAdded() throws Exception {
+        BoardView boardView = (BoardView) getPrivateField("boardView");
+        showBoard(boardView, 500, 500);
+        BufferedImage image = new BufferedImage(500, 500, BufferedImage.TYPE_INT_ARGB);
+
+        boardView.paintComponent(image.getGraphics());
+        Object firstLayer = getBoardViewField(boardView, "gridLayer");
+        boardView.paintComponent(image.getGraphics());
+        assertSame(firstLayer, getBoardViewField(boardView, "gridLayer"), "Grid layer should be reused between paints");
+
+        invokePrivateMethod("findAvailablePosition", new Class<?>[]{});
+        assertNull(getBoardViewField(boardView, "gridLayer"), "Grid layer should be invalidated when a square is added");
+
+        boardView.paintComponent(image.getGraphics());
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(35, 35), "New square should be drawn from the rebuilt layer");
+    }
+
+    /**
+     * Tests that the board keeps its logical size whatever the size of the panel.
+     */
+    @Test
+    public void testBoardSizeIndependentOfPanel() throws Exception {
+        GamePanel small = new GamePanel.Builder().withSnakeFactory(new ConcreteSnakeFactory()).withBoardSize(3, 4).build();
+        small.setSize(100, 100);
+        World world = getWorld(small);
+
+        assertEquals(3, world.getRows());
+        assertEquals(4, world.getColumns());
+        assertEquals(GamePanel.DEFAULT_BOARD_ROWS, getWorld(gamePanel).getRows());
+    }
+
+    /**
+     * Tests that a scenario loads off the event dispatch thread, with the board controls disabled and the progress
+     * shown meanwhile, and that the report comes back on the event dispatch thread once the snakes were created.
+     */
+    @Test
+    public void testScenarioLoadsInBackground() throws Exception {
+        Path file = Files.createTempFile("scenario", ".csv");
+        try{
+            Files.writeString(file, "3,Clockwise,10\nnot a snake\n2,Anticlockwise,10\n");
+            JButton scenarioButton = (JButton) getPrivateField("scenarioButton");
+            JProgressBar scenarioProgress = (JProgressBar) getPrivateField("scenarioProgress");
+            CountDownLatch done = new CountDownLatch(1);
+            AtomicReference<ScenarioLoader.Report> reported = new AtomicReference<>();
+            AtomicBoolean reportedOnEdt = new AtomicBoolean();
+            List<Long> invalidLines = new CopyOnWriteArrayList<>();
+            SwingUtilities.invokeAndWait(() -> {
+                gamePanel.loadScenarioInBackground(file, (lineNumber, message) -> invalidLines.add(lineNumber),
+                        (report, error) -> {
+                            reportedOnEdt.set(SwingUtilities.isEventDispatchThread());
+                            reported.set(report);
+                            done.countDown();
+                        });
+                assertFalse(scenarioButton.isEnabled());
+                assertTrue(scenarioProgress.isVisible());
+            });
+
+            assertTrue(done.await(10, TimeUnit.SECONDS), "The report should be delivered once the load ends");
+            assertTrue(reportedOnEdt.get());
+            assertEquals(2, reported.get().getCreated());
+            assertEquals(List.of(2L), invalidLines);
+            assertEquals(2, getWorld(gamePanel).getSnakeCount());
+            assertTrue(scenarioButton.isEnabled());
+            assertFalse(scenarioProgress.isVisible());
+        } finally{
+            getWorld(gamePanel).stop();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Returns the world of a panel.
+     */
+    private World getWorld(GamePanel panel) throws NoSuchFieldException, IllegalAccessException {
+        Field field = GamePanel.class.getDeclaredField("world");
+        field.setAccessible(true);
+        return (World) field.get(panel);
+    }
+
+    /**
+     * Lays out the panel so that the viewport of the board view is at least the given size.
+     */
+    private void showBoard(BoardView boardView, int width, int height) {
+        gamePanel.setSize(width + 100, height + 100);
+        gamePanel.doLayout();
+        JScrollPane scrollPane = (JScrollPane) SwingUtilities.getAncestorOfClass(JScrollPane.class, boardView);
+        scrollPane.doLayout();
+        scrollPane.getViewport().doLayout();
+    }
+
+    /**
+     * Helper method to access private fields of a board view.
+     */
+    private Object getBoardViewField(BoardView boardView, String fieldName) throws NoSuchFieldException, IllegalAccessException {
+        Field field = BoardView.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return field.get(boardView);
+    }
+
     /**
      * Helper method to set private fields using reflection.
      *
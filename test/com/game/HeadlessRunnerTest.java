@@ -0,0 +1,48 @@
+package com.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link HeadlessRunner} class.
+ */
+public class HeadlessRunnerTest {
+
+    /**
+     * Tests that the runner populates a board with the requested number of snakes.
+     */
+    @Test
+    public void testCreateWorld() {
+        World world = new HeadlessRunner(10, 1).createWorld();
+
+        assertEquals(10, world.getSnakes().size());
+        assertEquals(10, world.getSquareGrid().getOccupiedCount());
+    }
+
+    /**
+     * Tests that a run prints throughput and latency statistics.
+     */
+    @Test
+    public void testRunPrintsReport() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        new HeadlessRunner(4, 100).run(new PrintStream(output, true));
+
+        String report = output.toString();
+        assertTrue(report.contains("Snakes: 4, ticks: 100, threads: 1"), report);
+        assertTrue(report.contains("snake moves/s"), report);
+        assertTrue(report.contains("p99="), report);
+    }
+
+    /**
+     * Tests that non-positive arguments are rejected.
+     */
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new HeadlessRunner(0, 10));
+    }
+}
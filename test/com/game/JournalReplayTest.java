@@ -0,0 +1,256 @@
+package com.game;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link JournalReplay} class.
+ * Verifies that a replayed journal rebuilds exactly the recorded board, at the end or at any step,
+ * and that damaged journals are detected.
+ */
+public class JournalReplayTest {
+
+    private Path file;
+
+    /**
+     * Creates the journal file.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempFile("journal", ".snkj");
+    }
+
+    /**
+     * Deletes the journal file.
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Tests that snakes created between irregular steps are replayed into the same board.
+     */
+    @Test
+    public void testReplayRebuildsRecordedBoard() throws IOException {
+        World recorded = newWorld();
+        long[] speeds = {1, 7, 30, 100};
+        EventJournal journal = EventJournal.open(file, recorded);
+        try{
+            long nanos = 0;
+            for(int i = 0; i < 40; i++){
+                int[] position = recorded.findAvailablePosition();
+                recorded.addSnake(2 + i % 9, i % 3 == 0 ? "Anticlockwise" : "Clockwise", position[0], position[1],
+                        speeds[i % speeds.length]);
+                if(i % 10 == 0){
+                    recorded.addSnakes(List.of(new SnakeSpec(4, "Clockwise", 3)));
+                }
+                for(int step = 0; step < 200; step++){
+                    nanos += TimeUnit.MICROSECONDS.toNanos(300 + (step * 7919 + i) % 1700);
+                    recorded.step(nanos);
+                }
+            }
+        } finally {
+            journal.close();
+        }
+
+        try(JournalReplay replay = JournalReplay.open(file, new ConcreteSnakeFactory())){
+            replay.replayAll();
+
+            assertTrue(replay.isFinished());
+            assertSameBoard(recorded, replay.getWorld());
+        }
+    }
+
+    /**
+     * Tests that snakes created on another thread than the one stepping the world start at the same step
+     * in the replay.
+     */
+    @Test
+    public void testReplayOfConcurrentCreations() throws Exception {
+        World recorded = newWorld();
+        EventJournal journal = EventJournal.open(file, recorded);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread loop = new Thread(() -> {
+            for(long t = 0; running.get(); t++){
+                recorded.step(TimeUnit.MILLISECONDS.toNanos(t));
+            }
+        });
+        loop.start();
+        for(int i = 0; i < 60; i++){
+            if(i % 2 == 0){
+                int[] position = recorded.findAvailablePosition();
+                recorded.addSnake(3 + i % 5, "Clockwise", position[0], position[1], 1 + i % 4);
+            } else {
+                recorded.addSnakes(List.of(new SnakeSpec(6, "Anticlockwise", 2), new SnakeSpec(2, "Clockwise", 5)));
+            }
+            Thread.sleep(1);
+        }
+        running.set(false);
+        loop.join();
+        journal.close();
+
+        try(JournalReplay replay = JournalReplay.open(file, new ConcreteSnakeFactory())){
+            replay.replayAll();
+
+            assertSameBoard(recorded, replay.getWorld());
+        }
+    }
+
+    /**
+     * Tests that a replay can stop after any step and go on from there.
+     */
+    @Test
+    public void testReplayStopsAtStep() throws IOException {
+        World recorded = newWorld();
+        long[] moveCounts = new long[3];
+        EventJournal journal = EventJournal.open(file, recorded);
+        try{
+            recorded.addSnakes(List.of(new SnakeSpec(5, "Clockwise", 1), new SnakeSpec(5, "Clockwise", 2)));
+            for(long t = 0; t < 3000; t++){
+                recorded.step(TimeUnit.MILLISECONDS.toNanos(t));
+                if(t == 2499){
+                    moveCounts[0] = recorded.getSnakes().get(0).getMoveCount();
+                    moveCounts[1] = recorded.getSnakes().get(1).getMoveCount();
+                    moveCounts[2] = recorded.getSnakes().get(0).getSegmentCount();
+                }
+            }
+        } finally {
+            journal.close();
+        }
+
+        try(JournalReplay replay = JournalReplay.open(file, new ConcreteSnakeFactory())){
+            assertEquals(2500, replay.replayTo(2500));
+            World world = replay.getWorld();
+            assertEquals(2500, replay.getTick());
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(2499), replay.getTickNanos());
+            assertFalse(replay.isFinished());
+            assertEquals(moveCounts[0], world.getSnakes().get(0).getMoveCount());
+            assertEquals(moveCounts[1], world.getSnakes().get(1).getMoveCount());
+            assertEquals(moveCounts[2], world.getSnakes().get(0).getSegmentCount());
+
+            assertEquals(2500, replay.replayTo(2500), "Replaying to the current step changes nothing");
+            assertEquals(3000, replay.replayAll());
+            assertSameBoard(recorded, world);
+        }
+    }
+
+    /**
+     * Tests that a journal cut short, as after a crash, is replayed up to its last complete record.
+     */
+    @Test
+    public void testReplayOfTruncatedJournal() throws IOException {
+        World recorded = newWorld();
+        EventJournal journal = EventJournal.open(file, recorded);
+        try{
+            recorded.addSnakes(List.of(new SnakeSpec(5, "Clockwise", 1), new SnakeSpec(5, "Anticlockwise", 1)));
+            for(long t = 0; t < 5000; t++){
+                recorded.step(TimeUnit.MILLISECONDS.toNanos(t));
+            }
+        } finally {
+            journal.close();
+        }
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)){
+            channel.truncate(channel.size() / 2 + 1);
+        }
+
+        try(JournalReplay replay = JournalReplay.open(file, new ConcreteSnakeFactory())){
+            long steps = replay.replayAll();
+
+            assertTrue(replay.isFinished());
+            assertTrue(steps > 1000 && steps < 5000, "Replayed " + steps + " steps");
+            assertEquals(2, replay.getWorld().getSnakeCount());
+            assertEquals(steps, replay.getWorld().getSnakes().get(0).getMoveCount());
+        }
+    }
+
+    /**
+     * Tests that files that are not journals and unknown records are reported as I/O errors.
+     */
+    @Test
+    public void testCorruptedJournalIsRejected() throws IOException {
+        Files.write(file, "not a journal".getBytes());
+        IOException error = assertThrows(IOException.class, () -> JournalReplay.open(file, new ConcreteSnakeFactory()));
+        assertEquals("Not an event journal", error.getMessage());
+
+        World recorded = newWorld();
+        EventJournal journal = EventJournal.open(file, recorded);
+        try{
+            recorded.addSnakes(List.of(new SnakeSpec(5, "Clockwise", 1)));
+            recorded.step(0);
+        } finally {
+            journal.close();
+        }
+        Files.write(file, new byte[]{42}, StandardOpenOption.APPEND);
+        try(JournalReplay replay = JournalReplay.open(file, new ConcreteSnakeFactory())){
+            assertThrows(IOException.class, replay::replayAll);
+        }
+    }
+
+    /**
+     * Tests that a growth the replay does not reproduce is reported.
+     */
+    @Test
+    public void testDivergenceIsDetected() throws IOException {
+        World recorded = newWorld();
+        try(EventJournal journal = EventJournal.open(file, recorded)){
+            recorded.addSnakes(List.of(new SnakeSpec(5, "Clockwise", 1)));
+            recorded.step(0);
+            journal.recordGrowth(0);
+            recorded.step(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        try(JournalReplay replay = JournalReplay.open(file, new ConcreteSnakeFactory())){
+            IllegalStateException error = assertThrows(IllegalStateException.class, replay::replayAll);
+            assertTrue(error.getMessage().contains("step 1"), error.getMessage());
+        }
+    }
+
+    /**
+     * Creates an empty 20x20 world driven step by step on a virtual clock.
+     */
+    private World newWorld() {
+        World world = new World(new ConcreteSnakeFactory(), World.DEFAULT_SQUARE_SIZE, World.DEFAULT_SPACING,
+                new SimulationEngine(SimulationClock.virtual(1)));
+        world.setBoardSize(20, 20);
+        return world;
+    }
+
+    /**
+     * Asserts that two worlds have snakes in the same squares with the same state and bodies.
+     */
+    private void assertSameBoard(World expected, World actual) {
+        assertEquals(expected.getSquareGrid().getOccupiedCount(), actual.getSquareGrid().getOccupiedCount());
+        assertEquals(expected.getSnakeCount(), actual.getSnakeCount());
+        for(int i = 0; i < expected.getSnakeCount(); i++){
+            Snake e = expected.getSnakes().get(i);
+            Snake a = actual.getSnakes().get(i);
+            String label = "Snake " + i;
+            assertEquals(expected.getSnakeSquare(i), actual.getSnakeSquare(i), label);
+            assertEquals(e.getSpeed(), a.getSpeed(), label);
+            assertEquals(e.getLength(), a.getLength(), label);
+            assertEquals(e.getMoveCount(), a.getMoveCount(), label);
+            assertEquals(e.getGrowthCount(), a.getGrowthCount(), label);
+            assertEquals(e.getGrowthElapsedNanos(), a.getGrowthElapsedNanos(), label);
+            int[] expectedXs = new int[e.getLength() + 1];
+            int[] expectedYs = new int[e.getLength() + 1];
+            int[] actualXs = new int[a.getLength() + 1];
+            int[] actualYs = new int[a.getLength() + 1];
+            assertEquals(e.copySegments(expectedXs, expectedYs, 0), a.copySegments(actualXs, actualYs, 0), label);
+            assertArrayEquals(expectedXs, actualXs, label);
+            assertArrayEquals(expectedYs, actualYs, label);
+        }
+    }
+}
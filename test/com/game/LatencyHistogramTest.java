@@ -0,0 +1,71 @@
+package com.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link LatencyHistogram} class.
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Tests that percentiles are reported within the bucket precision of the recorded values.
+     */
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for(long value = 1; value <= 1000; value++){
+            histogram.record(value * 1000);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        long p50 = histogram.getPercentile(0.50);
+        long p99 = histogram.getPercentile(0.99);
+        assertTrue(p50 >= 500_000 && p50 <= 625_000, "p50 was " + p50);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000, "p99 was " + p99);
+    }
+
+    /**
+     * Tests that small values are counted exactly and that reset clears the histogram.
+     */
+    @Test
+    public void testSmallValuesAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(-5);
+
+        assertEquals(0, histogram.getPercentile(0.5));
+        assertEquals(3, histogram.getPercentile(1.0));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(0.99));
+    }
+
+    /**
+     * Tests that values recorded by several threads into the same buckets at once are all counted.
+     */
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for(int t = 0; t < threads.length; t++){
+            long offset = t;
+            threads[t] = new Thread(() -> {
+                for(int i = 0; i < 100_000; i++){
+                    histogram.record(1000 + offset);
+                }
+            });
+            threads[t].start();
+        }
+        for(Thread thread : threads){
+            thread.join();
+        }
+
+        assertEquals(400_000, histogram.getCount());
+        assertEquals(1003, histogram.getMax());
+    }
+}
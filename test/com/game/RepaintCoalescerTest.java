@@ -0,0 +1,104 @@
+package com.game;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link RepaintCoalescer} class.
+ * Verifies that dirty regions marked during a frame result in one clipped repaint.
+ */
+public class RepaintCoalescerTest {
+
+    /**
+     * A component recording the regions it is asked to repaint.
+     */
+    private static class RecordingComponent extends Component {
+        private final List<Rectangle> repaints = new ArrayList<>();
+
+        @Override
+        public void repaint(long tm, int x, int y, int width, int height) {
+            repaints.add(new Rectangle(x, y, width, height));
+        }
+    }
+
+    /**
+     * Tests that many dirty regions and repaint requests within a frame produce
+     * a single repaint of their bounding box.
+     */
+    @Test
+    public void testRegionsCoalescedIntoOneRepaint() throws Exception {
+        RecordingComponent component = new RecordingComponent();
+        RepaintCoalescer coalescer = new RepaintCoalescer(component);
+
+        SwingUtilities.invokeAndWait(() -> {
+            coalescer.markDirty(new Rectangle2D.Double(10, 10, 50, 50));
+            coalescer.requestRepaint();
+            coalescer.markDirty(new Rectangle2D.Double(70, 70, 50, 50));
+            coalescer.requestRepaint();
+            coalescer.requestRepaint();
+        });
+        SwingUtilities.invokeAndWait(() -> { });
+
+        assertEquals(1, component.repaints.size(), "Only one repaint should be issued per frame");
+        assertEquals(new Rectangle(10, 10, 110, 110), component.repaints.get(0));
+    }
+
+    /**
+     * Tests that a repaint request without dirty regions does not repaint anything.
+     */
+    @Test
+    public void testNoRepaintWithoutDirtyRegions() throws Exception {
+        RecordingComponent component = new RecordingComponent();
+        RepaintCoalescer coalescer = new RepaintCoalescer(component);
+
+        coalescer.requestRepaint();
+        SwingUtilities.invokeAndWait(() -> { });
+
+        assertEquals(0, component.repaints.size());
+    }
+
+    /**
+     * Tests that regions marked by several threads while flushes run on the event dispatch thread are all
+     * repainted by some flush.
+     */
+    @Test
+    public void testConcurrentRegionsAreNotLost() throws Exception {
+        RecordingComponent component = new RecordingComponent();
+        RepaintCoalescer coalescer = new RepaintCoalescer(component);
+        int regions = 2000;
+        Thread[] threads = new Thread[4];
+        for(int t = 0; t < threads.length; t++){
+            int row = t * 10;
+            threads[t] = new Thread(() -> {
+                for(int i = 0; i < regions; i++){
+                    coalescer.markDirty(i, row, 1, 1);
+                    coalescer.requestRepaint();
+                }
+            });
+            threads[t].start();
+        }
+        for(Thread thread : threads){
+            thread.join();
+        }
+        coalescer.requestRepaint();
+        SwingUtilities.invokeAndWait(() -> { });
+
+        SwingUtilities.invokeAndWait(() -> {
+            for(int t = 0; t < threads.length; t++){
+                for(int i = 0; i < regions; i++){
+                    Rectangle region = new Rectangle(i, t * 10, 1, 1);
+                    assertTrue(component.repaints.stream().anyMatch(repaint -> repaint.contains(region)),
+                            "Region " + region + " was never repainted");
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package com.game;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ScenarioLoader} class.
+ * Scenarios are loaded into a headless world with small batches, so that several batches are read.
+ */
+public class ScenarioLoaderTest {
+
+    private World world;
+    private ForkJoinPool pool;
+
+    /**
+     * Sets up an empty 10x10 world and a pool of two validating threads.
+     */
+    @BeforeEach
+    public void setUp() {
+        world = new World(new ConcreteSnakeFactory());
+        world.setBoardSize(10, 10);
+        pool = new ForkJoinPool(2);
+    }
+
+    /**
+     * Shuts the pool down after each test.
+     */
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Tests that valid lines become snakes in the order of the file, and that comments and blank lines are skipped.
+     */
+    @Test
+    public void testLoadsSnakesInOrder() throws IOException {
+        Path file = Files.createTempFile("scenario", ".csv");
+        try{
+            Files.writeString(file, "# length,direction,speed\n3,Clockwise,10\n\n 7 , Anticlockwise , \n",
+                    StandardCharsets.UTF_8);
+
+            ScenarioLoader.Report report = new ScenarioLoader(world).load(file);
+
+            assertEquals(4, report.getLines());
+            assertEquals(2, report.getCreated());
+            assertEquals(0, report.getInvalid());
+            List<Snake> snakes = world.getSnakes();
+            assertEquals(3, snakes.get(0).getLength());
+            assertEquals(10, snakes.get(0).getSpeed(), 0.01);
+            assertEquals(7, snakes.get(1).getLength());
+            assertEquals(SnakeValidator.DEFAULT_SPEED, snakes.get(1).getSpeed(), 0.01);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that every invalid line is reported with its line number across batches validated in parallel,
+     * while the valid lines around them are created.
+     */
+    @Test
+    public void testReportsInvalidLinesWithNumbers() throws IOException {
+        StringBuilder scenario = new StringBuilder();
+        for(int i = 1; i <= 1000; i++){
+            if(i % 100 == 0){
+                scenario.append("0,Clockwise,10\n");
+            } else if(i == 555){
+                scenario.append("5,Clockwise\n");
+            } else {
+                scenario.append("2,").append(i % 2 == 0 ? "Clockwise" : "Anticlockwise").append(",10\n");
+            }
+        }
+        world.setBoardSize(40, 40);
+        ScenarioLoader loader = new ScenarioLoader(world, 300, pool);
+        List<Long> invalidLines = new ArrayList<>();
+        List<String> messages = new ArrayList<>();
+        loader.setErrorListener((lineNumber, message) -> {
+            invalidLines.add(lineNumber);
+            messages.add(message);
+        });
+        List<long[]> progress = new ArrayList<>();
+        loader.setProgressListener((lines, created) -> progress.add(new long[]{lines, created}));
+
+        ScenarioLoader.Report report = loader.load(new BufferedReader(new StringReader(scenario.toString())));
+
+        assertEquals(11, report.getInvalid());
+        assertEquals(989, report.getCreated());
+        assertEquals(List.of(100L, 200L, 300L, 400L, 500L, 555L, 600L, 700L, 800L, 900L, 1000L), invalidLines);
+        assertEquals("Length must be a positive integer", messages.get(0));
+        assertEquals("Expected length,direction,speed", messages.get(5));
+        assertEquals(4, progress.size(), "Progress should be reported after every batch");
+        assertArrayEquals(new long[]{300, 297}, progress.get(0));
+        assertArrayEquals(new long[]{1000, 989}, progress.get(3));
+        assertEquals(989, world.getSnakeCount());
+    }
+
+    /**
+     * Tests that valid snakes beyond the free squares of the board are counted but not created.
+     */
+    @Test
+    public void testFullBoard() throws IOException {
+        world.setBoardSize(2, 2);
+        ScenarioLoader loader = new ScenarioLoader(world, 3, null);
+
+        ScenarioLoader.Report report = loader.load(new BufferedReader(new StringReader("1,Clockwise,5\n".repeat(7))));
+
+        assertEquals(4, report.getCreated());
+        assertEquals(3, report.getUnplaced());
+        assertEquals(4, world.getSnakeCount());
+    }
+}
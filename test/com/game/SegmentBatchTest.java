@@ -0,0 +1,118 @@
+package com.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SegmentBatch} class.
+ * Verifies the choice of the level of detail, where segments are drawn and how plain segments are merged.
+ */
+public class SegmentBatchTest {
+
+    private SegmentBatch batch;
+    private BufferedImage image;
+    private Graphics2D g;
+
+    /**
+     * Sets up an empty batch and a transparent image to fill it into.
+     */
+    @BeforeEach
+    public void setUp() {
+        batch = new SegmentBatch();
+        image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        g = image.createGraphics();
+        g.setColor(Color.RED);
+    }
+
+    /**
+     * Tests the level of detail of a 5 pixel segment as the view zooms out.
+     */
+    @Test
+    public void testDetailFor() {
+        assertEquals(SegmentBatch.Detail.ROUNDED, SegmentBatch.detailFor(5, 1));
+        assertEquals(SegmentBatch.Detail.ROUNDED, SegmentBatch.detailFor(5, 0.8));
+        assertEquals(SegmentBatch.Detail.SQUARE, SegmentBatch.detailFor(5, 0.5));
+        assertEquals(SegmentBatch.Detail.PIXEL, SegmentBatch.detailFor(5, 0.1));
+    }
+
+    /**
+     * Tests that segments added at zoom 1 are filled at their position, rounded corners excluded.
+     */
+    @Test
+    public void testFillRounded() {
+        batch.begin(g, 1);
+        batch.add(10, 10, 5, 2);
+        batch.add(15, 10, 5, 2);
+        batch.end();
+
+        assertEquals(2, batch.getSegmentCount());
+        assertEquals(2, batch.getDrawCount());
+        assertEquals(SegmentBatch.Detail.ROUNDED, batch.getDetail());
+        assertEquals(Color.RED.getRGB(), image.getRGB(12, 12));
+        assertEquals(Color.RED.getRGB(), image.getRGB(17, 12));
+        assertEquals(0, image.getRGB(20, 12), "Nothing is drawn past the last segment");
+        assertEquals(0, image.getRGB(10, 10), "Corners are rounded");
+    }
+
+    /**
+     * Tests that zoomed-out segments still cover one device pixel each.
+     */
+    @Test
+    public void testFillPixels() {
+        batch.begin(g, 0.1);
+        batch.add(100, 100, 5, 2);
+        batch.add(300, 100, 5, 2);
+        batch.end();
+
+        assertEquals(SegmentBatch.Detail.PIXEL, batch.getDetail());
+        assertEquals(Color.RED.getRGB(), image.getRGB(10, 10));
+        assertEquals(Color.RED.getRGB(), image.getRGB(30, 10));
+        assertEquals(0, image.getRGB(20, 10));
+    }
+
+    /**
+     * Tests that consecutive plain segments on a row or a column are drawn with one call per run.
+     */
+    @Test
+    public void testMergeRuns() {
+        batch.begin(g, 0.5);
+        for(int i = 0; i < 10; i++){
+            batch.add(10 + 5 * i, 10, 5, 2);
+        }
+        for(int i = 1; i < 10; i++){
+            batch.add(55, 10 + 5 * i, 5, 2);
+        }
+        batch.end();
+
+        assertEquals(SegmentBatch.Detail.SQUARE, batch.getDetail());
+        assertEquals(19, batch.getSegmentCount());
+        assertEquals(2, batch.getDrawCount(), "One fill for the row and one for the column");
+        for(int x = 5; x < 30; x++){
+            assertEquals(Color.RED.getRGB(), image.getRGB(x, 5), "Row has no gaps at " + x);
+        }
+        for(int y = 5; y < 30; y++){
+            assertEquals(Color.RED.getRGB(), image.getRGB(27, y), "Column has no gaps at " + y);
+        }
+    }
+
+    /**
+     * Tests that beginning a frame discards the segments of the previous one.
+     */
+    @Test
+    public void testBeginClearsBatch() {
+        batch.begin(g, 0.5);
+        batch.add(10, 10, 5, 2);
+
+        batch.begin(g, 0.5);
+        batch.end();
+
+        assertEquals(0, batch.getSegmentCount());
+        assertNull(batch.getDetail());
+        assertEquals(0, image.getRGB(12, 12));
+    }
+}
@@ -0,0 +1,67 @@
+package com.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the {@link SegmentRingBuffer} class.
+ * Verifies ordering of head and tail segments, wrap-around and growth.
+ */
+public class SegmentRingBufferTest {
+
+    /**
+     * Tests that segments added in front become the head and segments added behind become the tail.
+     */
+    @Test
+    public void testAddFirstAndAddLast() {
+        SegmentRingBuffer buffer = new SegmentRingBuffer(4);
+        buffer.addLast(1, 1);
+        buffer.addFirst(2, 2);
+        buffer.addLast(3, 3);
+
+        assertEquals(3, buffer.size());
+        assertEquals(2, buffer.getX(0), 0.0);
+        assertEquals(1, buffer.getX(1), 0.0);
+        assertEquals(3, buffer.getY(2), 0.0);
+    }
+
+    /**
+     * Tests that repeatedly dropping the tail and adding a head wraps around without growing.
+     */
+    @Test
+    public void testShiftWrapsWithoutGrowing() {
+        SegmentRingBuffer buffer = new SegmentRingBuffer(3);
+        buffer.addLast(0, 0);
+        buffer.addLast(-1, 0);
+        buffer.addLast(-2, 0);
+
+        for(int x = 1; x <= 10; x++){
+            buffer.removeLast();
+            buffer.addFirst(x, 0);
+        }
+
+        assertEquals(3, buffer.capacity());
+        assertEquals(3, buffer.size());
+        assertEquals(10, buffer.getX(0), 0.0);
+        assertEquals(9, buffer.getX(1), 0.0);
+        assertEquals(8, buffer.getX(2), 0.0);
+    }
+
+    /**
+     * Tests that the buffer grows when full and keeps the segment order.
+     */
+    @Test
+    public void testGrowKeepsOrder() {
+        SegmentRingBuffer buffer = new SegmentRingBuffer(2);
+        buffer.addLast(1, 0);
+        buffer.addFirst(0, 0);
+        buffer.addFirst(-1, 0);
+        buffer.addLast(2, 0);
+
+        assertEquals(4, buffer.size());
+        for(int i = 0; i < 4; i++){
+            assertEquals(i - 1, buffer.getX(i), 0.0);
+        }
+    }
+}
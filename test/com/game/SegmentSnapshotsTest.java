@@ -0,0 +1,76 @@
+package com.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SegmentSnapshots} class.
+ * Verifies that the reader always gets the latest complete body and that the writer never
+ * touches the snapshot the reader holds.
+ */
+public class SegmentSnapshotsTest {
+
+    /**
+     * Tests that the reader gets the latest published body, unrolled head first.
+     */
+    @Test
+    public void testLatestReturnsLastPublishedBody() {
+        SegmentRingBuffer segments = new SegmentRingBuffer(3);
+        SegmentSnapshots snapshots = new SegmentSnapshots(3);
+        segments.addLast(0, 0);
+        segments.addLast(-1, 0);
+        segments.addLast(-2, 0);
+        snapshots.publish(segments);
+        //Wrap the ring around so the body is split across the end of the arrays
+        segments.removeLast();
+        segments.addFirst(1, 0);
+        snapshots.publish(segments);
+
+        SegmentSnapshots.Snapshot body = snapshots.latest();
+
+        assertEquals(3, body.size());
+        assertEquals(1, body.getX(0));
+        assertEquals(0, body.getX(1));
+        assertEquals(-1, body.getX(2));
+    }
+
+    /**
+     * Tests that a snapshot held by the reader stays unchanged while the writer keeps publishing.
+     */
+    @Test
+    public void testHeldSnapshotIsNotOverwritten() {
+        SegmentRingBuffer segments = new SegmentRingBuffer(1);
+        SegmentSnapshots snapshots = new SegmentSnapshots(1);
+        segments.addLast(0, 0);
+        snapshots.publish(segments);
+        SegmentSnapshots.Snapshot held = snapshots.latest();
+
+        for(int x = 1; x <= 10; x++){
+            segments.removeLast();
+            segments.addFirst(x, 0);
+            snapshots.publish(segments);
+            assertEquals(0, held.getX(0), "The writer must not overwrite the reader's snapshot");
+        }
+
+        assertEquals(10, snapshots.latest().getX(0));
+        assertSame(snapshots.latest(), snapshots.latest(), "Without a new publication the reader keeps its snapshot");
+    }
+
+    /**
+     * Tests that snapshots grow with the body.
+     */
+    @Test
+    public void testSnapshotGrowsWithBody() {
+        SegmentRingBuffer segments = new SegmentRingBuffer(1);
+        SegmentSnapshots snapshots = new SegmentSnapshots(1);
+        for(int i = 0; i < 5; i++){
+            segments.addLast(0, i);
+        }
+
+        snapshots.publish(segments);
+
+        assertEquals(5, snapshots.getPublishedSize());
+        assertEquals(4, snapshots.latest().getY(4));
+    }
+}
@@ -0,0 +1,76 @@
+package com.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SimulationClock} class.
+ */
+public class SimulationClockTest {
+
+    /**
+     * Tests that the clock never goes backwards.
+     */
+    @Test
+    public void testAdvanceToIsMonotonic() {
+        SimulationClock clock = SimulationClock.realTime();
+
+        clock.advanceTo(500);
+        clock.advanceTo(200);
+
+        assertEquals(500, clock.now(), "An earlier time should be ignored");
+    }
+
+    /**
+     * Tests that an accelerated clock maps wall time at its rate.
+     */
+    @Test
+    public void testAcceleratedRate() {
+        SimulationClock clock = SimulationClock.accelerated(10);
+        long origin = clock.toSimulationNanos(0);
+
+        assertEquals(10_000, clock.toSimulationNanos(1_000) - origin);
+        assertTrue(clock.isPaced());
+        assertThrows(IllegalArgumentException.class, () -> SimulationClock.accelerated(0));
+    }
+
+    /**
+     * Tests that a virtual clock advances by its step regardless of wall time and is not paced.
+     */
+    @Test
+    public void testVirtualClockIgnoresWallTime() {
+        SimulationClock clock = SimulationClock.virtual(5);
+
+        clock.advanceTo(clock.toSimulationNanos(Long.MAX_VALUE));
+        clock.advanceTo(clock.toSimulationNanos(0));
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), clock.now());
+        assertFalse(clock.isPaced());
+    }
+
+    /**
+     * Tests that an engine on a virtual clock runs faster than real time and shares its clock with its snakes.
+     */
+    @Test
+    public void testEngineOnVirtualClock() throws InterruptedException {
+        SimulationClock clock = SimulationClock.virtual(1);
+        World world = new World(new ConcreteSnakeFactory(), World.DEFAULT_SQUARE_SIZE, World.DEFAULT_SPACING,
+                new SimulationEngine(clock));
+        world.setBoardSize(1, 1);
+        int[] position = world.findAvailablePosition();
+        Snake snake = world.addSnake(3, "Clockwise", position[0], position[1], 100);
+
+        world.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while(snake.getSegmentCount() < 3 && System.nanoTime() < deadline){
+            Thread.sleep(1);
+        }
+        world.stop();
+
+        assertEquals(3, snake.getSegmentCount(), "Four simulated seconds should pass well within the timeout");
+        assertTrue(clock.now() >= TimeUnit.SECONDS.toNanos(4));
+    }
+}
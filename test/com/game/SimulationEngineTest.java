@@ -0,0 +1,246 @@
+package com.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SimulationEngine} class.
+ * These tests drive the engine with a simulated time line to verify that every task
+ * runs at its own period from the single fixed-step loop.
+ */
+public class SimulationEngineTest {
+
+    private SimulationEngine engine;
+
+    /**
+     * Sets up a fresh engine before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        engine = new SimulationEngine();
+    }
+
+    /**
+     * Tests that tasks with different periods run at their own rate.
+     * Over 100 ms of simulated time, a 10 ms task runs 10 times and a 25 ms task runs 4 times.
+     */
+    @Test
+    public void testTasksRunAtTheirOwnPeriod() {
+        AtomicInteger fast = new AtomicInteger();
+        AtomicInteger slow = new AtomicInteger();
+        engine.register(fast::incrementAndGet, 10);
+        engine.register(slow::incrementAndGet, 25);
+
+        for(long ms = 0; ms < 100; ms++){
+            engine.step(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        assertEquals(10, fast.get(), "10 ms task should run 10 times in 100 ms");
+        assertEquals(4, slow.get(), "25 ms task should run 4 times in 100 ms");
+    }
+
+    /**
+     * Tests that a late step catches up with the fixed rate of a task.
+     */
+    @Test
+    public void testLateStepCatchesUp() {
+        AtomicInteger runs = new AtomicInteger();
+        engine.register(runs::incrementAndGet, 10);
+
+        engine.step(0);
+        int executed = engine.step(TimeUnit.MILLISECONDS.toNanos(30));
+
+        assertEquals(3, executed, "A step 30 ms late should run the task three times");
+        assertEquals(4, runs.get());
+    }
+
+    /**
+     * Tests that the step listener is only notified when a task ran during the step.
+     */
+    @Test
+    public void testStepListenerNotifiedOnlyWhenTasksRan() {
+        AtomicInteger notifications = new AtomicInteger();
+        engine.setStepListener(notifications::incrementAndGet);
+        engine.register(() -> { }, 10);
+
+        engine.step(0);
+        engine.step(TimeUnit.MILLISECONDS.toNanos(5));
+        engine.step(TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertEquals(2, notifications.get());
+        assertEquals(1, engine.getTaskCount());
+    }
+
+    /**
+     * Tests that a non-positive period is rejected.
+     */
+    @Test
+    public void testRegisterInvalidPeriod() {
+        assertThrows(IllegalArgumentException.class, () -> engine.register(() -> { }, 0));
+    }
+
+    /**
+     * Tests that a batch is rejected as a whole if one of its periods is invalid,
+     * and that a valid batch starts with the next step.
+     */
+    @Test
+    public void testRegisterAll() {
+        AtomicInteger runs = new AtomicInteger();
+        List<Runnable> tasks = List.of(runs::incrementAndGet, runs::incrementAndGet);
+
+        assertThrows(IllegalArgumentException.class, () -> engine.registerAll(tasks, new long[]{10, 0}));
+        assertThrows(IllegalArgumentException.class, () -> engine.registerAll(tasks, new long[]{10}));
+        assertEquals(0, engine.getTaskCount(), "A rejected batch should register nothing");
+
+        engine.registerAll(tasks, new long[]{10, 20});
+
+        assertEquals(2, engine.getTaskCount());
+        assertEquals(2, engine.step(0));
+    }
+
+    /**
+     * Tests that a parallel step gives the same result as a sequential one, for a population large enough
+     * to be split into several chunks and with uneven lengths and speeds.
+     */
+    @Test
+    public void testParallelStepIsDeterministic() {
+        World sequential = populatedWorld(1);
+        World parallel = populatedWorld(4);
+
+        for(long ms = 0; ms < 300; ms++){
+            long now = TimeUnit.MILLISECONDS.toNanos(ms);
+            assertEquals(sequential.step(now), parallel.step(now), "Moves at " + ms + " ms");
+        }
+
+        for(int i = 0; i < sequential.getSnakeCount(); i++){
+            Snake expected = sequential.getSnakes().get(i);
+            Snake actual = parallel.getSnakes().get(i);
+            assertEquals(expected.getHeadX(), actual.getHeadX(), "Snake " + i);
+            assertEquals(expected.getHeadY(), actual.getHeadY(), "Snake " + i);
+            assertEquals(expected.getMoveCount(), actual.getMoveCount(), "Snake " + i);
+        }
+        assertEquals(sequential.getSegmentCount(), parallel.getSegmentCount());
+        parallel.stop();
+    }
+
+    /**
+     * Tests that stopping an engine stepped by hand shuts down the threads of its parallel step,
+     * and that the next step creates them again.
+     */
+    @Test
+    public void testStopShutsDownParallelStep() {
+        World world = populatedWorld(2);
+        world.step(0);
+        Thread[] threads = new Thread[Thread.activeCount() * 2];
+        assertTrue(countWorkers(threads) > 0, "A parallel step should run on worker threads");
+
+        world.stop();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while(countWorkers(threads) > 0 && System.nanoTime() < deadline){
+            Thread.onSpinWait();
+        }
+        assertEquals(0, countWorkers(threads), "Stopping the engine should shut down its workers");
+
+        assertTrue(world.step(TimeUnit.MILLISECONDS.toNanos(1)) > 0, "A stopped engine should still step");
+        assertTrue(countWorkers(threads) > 0, "The next parallel step should create its workers again");
+        world.stop();
+    }
+
+    /**
+     * Counts the live fork/join workers, which do not belong to the common pool.
+     */
+    private static int countWorkers(Thread[] threads) {
+        int count = 0;
+        int n = Thread.enumerate(threads);
+        for(int i = 0; i < n; i++){
+            if(threads[i] instanceof ForkJoinWorkerThread
+                    && ((ForkJoinWorkerThread) threads[i]).getPool() != ForkJoinPool.commonPool()){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Tests that the parallelism must be positive.
+     */
+    @Test
+    public void testRejectsNonPositiveParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new SimulationEngine(1, SimulationClock.realTime(), 0));
+    }
+
+    /**
+     * Creates a world of 3000 snakes with varied lengths and speeds, driven by an engine with the given parallelism.
+     */
+    private World populatedWorld(int parallelism) {
+        SimulationEngine parallelEngine = new SimulationEngine(1, SimulationClock.virtual(1), parallelism);
+        World world = new World(new ConcreteSnakeFactory(), World.DEFAULT_SQUARE_SIZE, World.DEFAULT_SPACING, parallelEngine);
+        world.setBoardSize(60, 50);
+        List<SnakeSpec> specs = new ArrayList<>();
+        for(int i = 0; i < 3000; i++){
+            specs.add(new SnakeSpec(1 + i % 40, i % 3 == 0 ? "Anticlockwise" : "Clockwise", 1 + i % 7));
+        }
+        world.addSnakes(specs);
+        return world;
+    }
+
+    /**
+     * Tests that a cancelled task stops running from the next step and no longer counts,
+     * while the other tasks keep their period.
+     */
+    @Test
+    public void testCancelledTaskStopsRunning() {
+        AtomicInteger kept = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        engine.register(kept::incrementAndGet, 10);
+        TaskScheduler.Handle handle = engine.register(cancelled::incrementAndGet, 10);
+        engine.step(0);
+
+        handle.cancel();
+        handle.cancel();
+
+        assertEquals(1, engine.getTaskCount());
+        for(long ms = 1; ms <= 50; ms++){
+            engine.step(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+        assertEquals(1, cancelled.get(), "A cancelled task should not run again");
+        assertEquals(6, kept.get());
+        assertEquals(1, engine.getTaskCount());
+    }
+
+    /**
+     * Tests that changing the period of a task keeps its phase: the next run comes one new period after the last
+     * one, or at the next step if that is already past, and the task then runs at its new period.
+     */
+    @Test
+    public void testSetPeriodKeepsPhase() {
+        List<Long> slower = new ArrayList<>();
+        List<Long> faster = new ArrayList<>();
+        TaskScheduler.Handle slowed = engine.register(
+                () -> slower.add(TimeUnit.NANOSECONDS.toMillis(engine.getClock().now())), 10);
+        TaskScheduler.Handle hurried = engine.register(
+                () -> faster.add(TimeUnit.NANOSECONDS.toMillis(engine.getClock().now())), 20);
+        engine.step(0);
+
+        engine.step(TimeUnit.MILLISECONDS.toNanos(3));
+        slowed.setPeriod(15);
+        engine.step(TimeUnit.MILLISECONDS.toNanos(8));
+        hurried.setPeriod(5);
+        for(long ms = 9; ms <= 40; ms++){
+            engine.step(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        assertEquals(List.of(0L, 15L, 30L), slower);
+        assertEquals(List.of(0L, 9L, 14L, 19L, 24L, 29L, 34L, 39L), faster);
+        assertThrows(IllegalArgumentException.class, () -> slowed.setPeriod(0));
+    }
+}
@@ -0,0 +1,73 @@
+package com.game;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SimulationMetrics} class.
+ */
+public class SimulationMetricsTest {
+
+    /**
+     * Tests that the metrics are readable through the platform MBean server once registered.
+     */
+    @Test
+    public void testRegisteredAttributes() throws Exception {
+        SimulationMetrics metrics = new SimulationMetrics();
+        metrics.setGauges(() -> 3, () -> 12L);
+        metrics.recordTick(TimeUnit.MICROSECONDS.toNanos(40));
+        metrics.register();
+        try{
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertNotNull(metrics.getObjectName());
+            assertEquals(3, server.getAttribute(metrics.getObjectName(), "LiveSnakeCount"));
+            assertEquals(12L, server.getAttribute(metrics.getObjectName(), "SegmentCount"));
+            assertEquals(1L, server.getAttribute(metrics.getObjectName(), "TickCount"));
+        } finally {
+            metrics.unregister();
+        }
+        assertNull(metrics.getObjectName());
+    }
+
+    /**
+     * Tests that drift is bucketed by snake speed and that coalesced repaints are counted.
+     */
+    @Test
+    public void testDriftBucketsAndRepaintCounters() {
+        SimulationMetrics metrics = new SimulationMetrics();
+        metrics.recordDrift(TimeUnit.MILLISECONDS.toNanos(5), 1000);
+        metrics.recordDrift(TimeUnit.MILLISECONDS.toNanos(5000), 2000);
+        metrics.recordRepaintRequest(true);
+        metrics.recordRepaintRequest(false);
+        metrics.recordRepaintRequest(false);
+
+        String[] drift = metrics.getSchedulingDriftBySpeed();
+        assertTrue(drift[1].startsWith("<=10ms count=1"), drift[1]);
+        assertTrue(drift[4].startsWith(">1000ms count=1"), drift[4]);
+        assertEquals(3, metrics.getRepaintRequestCount());
+        assertEquals(1, metrics.getRepaintIssuedCount());
+        assertEquals(2, metrics.getRepaintCoalescedCount());
+    }
+
+    /**
+     * Tests that an engine with metrics records one tick per step and the drift of late tasks.
+     */
+    @Test
+    public void testEngineRecordsTicksAndDrift() {
+        SimulationMetrics metrics = new SimulationMetrics();
+        SimulationEngine engine = new SimulationEngine();
+        engine.setMetrics(metrics);
+        engine.register(() -> { }, 10);
+
+        engine.step(0);
+        engine.step(TimeUnit.MILLISECONDS.toNanos(13));
+
+        assertEquals(2, metrics.getTickCount());
+        assertTrue(metrics.getSchedulingDriftBySpeed()[1].startsWith("<=10ms count=2"));
+    }
+}
@@ -4,9 +4,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 
+import java.awt.Color;
+import java.awt.Graphics2D;
 import java.awt.geom.Rectangle2D;
-import java.awt.geom.RoundRectangle2D;
-import java.util.Deque;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -55,13 +58,56 @@ public class SnakeTest {
     @Test
     public void testGrow() {
         snake.grow();
-        Deque<RoundRectangle2D> segments = (Deque<RoundRectangle2D>) getPrivateField(snake, "segments");
+        SegmentRingBuffer segments = (SegmentRingBuffer) getPrivateField(snake, "segments");
 
         assertEquals(1, segments.size()); // Only one segment initially
         snake.grow();
         assertTrue(segments.size() == 1); // Ensure growth
     }
 
+    /**
+     * Tests that growth follows the snake's simulation clock: one segment per two seconds of simulated time,
+     * up to the snake's length.
+     */
+    @Test
+    public void testGrowFollowsClock() {
+        SimulationClock clock = SimulationClock.virtual(1000);
+        snake.setClock(clock);
+
+        for(int second = 1; second <= 10; second++){
+            clock.advanceTo(clock.toSimulationNanos(0));
+            snake.grow();
+            assertEquals(Math.min(3, 1 + second / 2), snake.getSegmentCount(), "Segments after " + second + " s");
+        }
+    }
+
+    /**
+     * Tests that the simulation does not wait for rendering: the snake keeps moving while a renderer
+     * holds the render lock, and the next render shows the latest move.
+     */
+    @Test
+    public void testMoveDoesNotWaitForRender() throws InterruptedException {
+        Rectangle2D square = new Rectangle2D.Double(10, 10, 50, 50);
+        Thread mover = new Thread(() -> {
+            for(int i = 0; i < 100; i++){
+                snake.move(square);
+            }
+        });
+        synchronized (getPrivateField(snake, "renderLock")){
+            mover.start();
+            mover.join(5000);
+            assertFalse(mover.isAlive(), "move() should not block while the snake is being rendered");
+        }
+
+        BufferedImage image = new BufferedImage(600, 100, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.RED);
+        snake.render(g);
+        g.dispose();
+        int headX = (int) snake.getNewSnakeX();
+        assertNotEquals(0, image.getRGB(headX + 2, 12), "The latest head position should be rendered");
+    }
+
     /**
      * Tests the movement functionality of the Snake.
      * Verifies that the Snake moves correctly when the move method is called.
@@ -70,13 +116,139 @@ public class SnakeTest {
     public void testMove() {
         Rectangle2D square = new Rectangle2D.Double(10, 10, 50, 50);
         snake.move(square);
-        Deque<RoundRectangle2D> segments = (Deque<RoundRectangle2D>) getPrivateField(snake, "segments");
+        SegmentRingBuffer segments = (SegmentRingBuffer) getPrivateField(snake, "segments");
         snake.move(square);
         assertEquals(1, segments.size()); // Ensure that the size is 1 after move (old segment should be removed)
         assertEquals(20, snake.getNewSnakeX()); // Expect new X to be incremented
         assertEquals(10, snake.getNewSnakeY()); // Y should remain the same
     }
 
+    /**
+     * Tests that moving the snake in steady state does not allocate, once its body grew past the initial
+     * capacity of its buffers. Uses the per-thread allocation counter of the HotSpot ThreadMXBean.
+     */
+    @Test
+    public void testMoveDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        Rectangle2D square = new Rectangle2D.Double(10, 10, 50, 50);
+        Snake longSnake = new Snake(20, ClockwiseMovementStrategy.INSTANCE, 10, 10, 100);
+        growTo(longSnake, 20);
+        assertEquals(20, longSnake.getSegmentCount());
+        for(int i = 0; i < 20_000; i++){
+            longSnake.move(square);
+        }
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for(int i = 0; i < 10_000; i++){
+            longSnake.move(square);
+        }
+        long after = threadBean.getThreadAllocatedBytes(threadId);
+        long overhead = threadBean.getThreadAllocatedBytes(threadId) - after;
+
+        assertEquals(0, after - before - overhead, "move() should not allocate in steady state");
+    }
+
+    /**
+     * Tests that the body buffers start small and grow with the body rather than with the maximum length,
+     * so a snake allowed to grow very long costs no more than its current body.
+     */
+    @Test
+    public void testBuffersGrowWithBody() {
+        Snake huge = new Snake(Integer.MAX_VALUE, ClockwiseMovementStrategy.INSTANCE, 10, 10, 100);
+        SegmentRingBuffer segments = (SegmentRingBuffer) getPrivateField(huge, "segments");
+        assertEquals(8, segments.capacity(), "The buffer should start at its initial capacity, not the maximum length");
+
+        growTo(huge, 40);
+
+        assertEquals(40, huge.getSegmentCount());
+        assertTrue(segments.capacity() >= 40 && segments.capacity() < 128);
+        SegmentSnapshots.Snapshot published = ((SegmentSnapshots) getPrivateField(huge, "snapshots")).latest();
+        assertEquals(40, published.size());
+    }
+
+    /**
+     * Property test for {@link Snake#seek(Rectangle2D, long)}: for random directions, square sizes,
+     * body lengths and move counts, seeking must produce the same head, body and move count as
+     * simulating every move, and both snakes must keep moving identically afterwards.
+     */
+    @Test
+    public void testSeekMatchesStepByStepSimulation() {
+        Random random = new Random(42);
+        ConcreteSnakeFactory factory = new ConcreteSnakeFactory();
+        for(int run = 0; run < 300; run++){
+            String direction = random.nextBoolean() ? "Clockwise" : "Anticlockwise";
+            int side = 5 * (2 + random.nextInt(20));
+            int segments = 1 + random.nextInt(10);
+            long moves = random.nextInt(5000);
+            Rectangle2D square = new Rectangle2D.Double(10, 10, side, side);
+            String label = direction + " side=" + side + " segments=" + segments + " moves=" + moves;
+
+            Snake simulated = factory.createSnake(20, direction, 10, 10, 1L);
+            Snake seeked = factory.createSnake(20, direction, 10, 10, 1L);
+            growTo(simulated, segments);
+            growTo(seeked, segments);
+
+            for(long i = 0; i < moves; i++){
+                simulated.move(square);
+            }
+            seeked.seek(square, moves);
+
+            assertEquals(simulated.getMoveCount(), seeked.getMoveCount(), label);
+            assertSameBody(simulated, seeked, label);
+            for(int i = 0; i < 100; i++){
+                simulated.move(square);
+                seeked.move(square);
+                assertEquals(simulated.getHeadX(), seeked.getHeadX(), label + " +" + i);
+                assertEquals(simulated.getHeadY(), seeked.getHeadY(), label + " +" + i);
+            }
+            assertSameBody(simulated, seeked, label);
+        }
+    }
+
+    /**
+     * Tests that seeking back to an earlier move restores the earlier state.
+     */
+    @Test
+    public void testSeekBackwards() {
+        Snake clockwise = new ConcreteSnakeFactory().createSnake(5, "Clockwise", 10, 10, 1L);
+        Rectangle2D square = new Rectangle2D.Double(10, 10, 50, 50);
+
+        clockwise.seek(square, 1_000_000_000_000L);
+        clockwise.seek(square, 0);
+
+        assertEquals(0, clockwise.getHeadX());
+        assertEquals(0, clockwise.getHeadY());
+        clockwise.move(square);
+        clockwise.move(square);
+        assertEquals(15, clockwise.getNewSnakeX(), 0.01);
+        assertThrows(IllegalArgumentException.class, () -> clockwise.seek(square, -1));
+    }
+
+    /**
+     * Grows a snake, without moving it, until its body has the given number of segments.
+     */
+    private void growTo(Snake target, int count) {
+        SimulationClock clock = SimulationClock.virtual(2000);
+        target.setClock(clock);
+        while(target.getSegmentCount() < count){
+            clock.advanceTo(clock.toSimulationNanos(0));
+            target.grow();
+        }
+    }
+
+    /**
+     * Asserts that two snakes have identical bodies.
+     */
+    private void assertSameBody(Snake expected, Snake actual, String label) {
+        SegmentRingBuffer expectedSegments = (SegmentRingBuffer) getPrivateField(expected, "segments");
+        SegmentRingBuffer actualSegments = (SegmentRingBuffer) getPrivateField(actual, "segments");
+        assertEquals(expectedSegments.size(), actualSegments.size(), label);
+        for(int i = 0; i < expectedSegments.size(); i++){
+            assertEquals(expectedSegments.getX(i), actualSegments.getX(i), label + " segment " + i);
+            assertEquals(expectedSegments.getY(i), actualSegments.getY(i), label + " segment " + i);
+        }
+    }
 
     /**
      * Helper method to access private fields via reflection.
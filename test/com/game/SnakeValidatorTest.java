@@ -0,0 +1,51 @@
+package com.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SnakeValidator} class.
+ * Verifies each rule on its own and that all errors of a snake are collected together.
+ */
+public class SnakeValidatorTest {
+
+    /**
+     * Tests that valid inputs are accepted, with the default speed for an empty one.
+     */
+    @Test
+    public void testValidInputs() {
+        ValidationResult result = SnakeValidator.validate("5", "", "anticlockwise");
+
+        assertTrue(result.isValid());
+        assertEquals(5, result.getLength());
+        assertEquals(SnakeValidator.DEFAULT_SPEED, result.getSpeed());
+        assertEquals("anticlockwise", result.getDirection());
+    }
+
+    /**
+     * Tests that every invalid input is reported, one error per line.
+     */
+    @Test
+    public void testCollectsAllErrors() {
+        ValidationResult result = SnakeValidator.validate("0", "fast", "Sideways");
+
+        assertFalse(result.isValid());
+        assertEquals("Length must be a positive integer\n"
+                + "Invalid speed. Please enter a positive integer\n"
+                + "Invalid direction. Please select 'Clockwise' or 'Anticlockwise'\n", result.getErrorMessage());
+    }
+
+    /**
+     * Tests the rules of each input on its own.
+     */
+    @Test
+    public void testSingleRules() {
+        assertEquals(12, SnakeValidator.validateLength("12"));
+        assertThrows(IllegalArgumentException.class, () -> SnakeValidator.validateLength("five"));
+        assertEquals(20, SnakeValidator.validateSpeed("20"));
+        assertThrows(IllegalArgumentException.class, () -> SnakeValidator.validateSpeed("-1"));
+        assertDoesNotThrow(() -> SnakeValidator.validateDirection("Clockwise"));
+        assertThrows(IllegalArgumentException.class, () -> SnakeValidator.validateDirection(null));
+    }
+}
@@ -0,0 +1,71 @@
+package com.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SpatialHash} class.
+ */
+public class SpatialHashTest {
+
+    /**
+     * Tests that a cell reports the other snakes in it, and counts every segment of a body folded onto itself.
+     */
+    @Test
+    public void testFindOtherAndCount() {
+        SpatialHash hash = new SpatialHash(4);
+        hash.add(3, -2, 0);
+        hash.add(3, -2, 0);
+        hash.add(3, -2, 1);
+
+        assertEquals(1, hash.findOther(3, -2, 0));
+        assertEquals(0, hash.findOther(3, -2, 1));
+        assertEquals(-1, hash.findOther(-2, 3, 0));
+        assertEquals(3, hash.count(3, -2));
+        assertEquals(3, hash.size());
+    }
+
+    /**
+     * Tests that removing a segment only removes one segment of that snake in that cell.
+     */
+    @Test
+    public void testRemove() {
+        SpatialHash hash = new SpatialHash(4);
+        hash.add(1, 1, 0);
+        hash.add(1, 1, 0);
+        hash.add(1, 1, 1);
+
+        assertTrue(hash.remove(1, 1, 1));
+        assertFalse(hash.remove(1, 1, 1));
+        assertFalse(hash.remove(1, 2, 0));
+        assertEquals(-1, hash.findOther(1, 1, 0));
+        assertTrue(hash.remove(1, 1, 0));
+        assertEquals(1, hash.count(1, 1));
+        assertEquals(1, hash.size());
+    }
+
+    /**
+     * Tests that segments survive the hash growing past its initial size, and that removed entries are reused.
+     */
+    @Test
+    public void testGrowAndReuse() {
+        SpatialHash hash = new SpatialHash(16);
+        for(int i = 0; i < 1000; i++){
+            hash.add(i, i * 7, i);
+        }
+        for(int i = 0; i < 1000; i += 2){
+            assertTrue(hash.remove(i, i * 7, i));
+        }
+        for(int i = 0; i < 500; i++){
+            hash.add(-i, i, i);
+        }
+
+        assertEquals(1000, hash.size());
+        for(int i = 1; i < 1000; i += 2){
+            assertEquals(i, hash.findOther(i, i * 7, -1));
+        }
+        assertEquals(499, hash.findOther(-499, 499, -1));
+        assertEquals(1, hash.count(0, 0), "Only the segment added back at 0,0 is left");
+    }
+}
@@ -0,0 +1,155 @@
+package com.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SquareGrid} class.
+ * Verifies row-major reservation, square lookup and behavior when the board dimensions change.
+ */
+public class SquareGridTest {
+
+    private SquareGrid grid;
+
+    /**
+     * Sets up a grid with 50 pixel squares spaced 10 pixels apart.
+     */
+    @BeforeEach
+    public void setUp() {
+        grid = new SquareGrid(50, 10);
+    }
+
+    /**
+     * Tests that cells are reserved row by row and that the grid reports when it is full.
+     */
+    @Test
+    public void testReserveRowMajorUntilFull() {
+        assertEquals(0, grid.reserve(2, 2));
+        assertEquals(1, grid.reserve(2, 2));
+        assertEquals(2, grid.reserve(2, 2));
+        assertEquals(3, grid.reserve(2, 2));
+        assertEquals(-1, grid.reserve(2, 2), "A full grid should have no free cell");
+        assertEquals(4, grid.getOccupiedCount());
+        assertEquals(70, grid.getCellX(3));
+        assertEquals(70, grid.getCellY(3));
+    }
+
+    /**
+     * Tests that squares can be looked up by their top-left corner.
+     */
+    @Test
+    public void testGetSquareAt() {
+        int cell = grid.reserve(3, 3);
+        Rectangle2D square = grid.getSquare(cell);
+
+        assertEquals(new Rectangle2D.Double(10, 10, 50, 50), square);
+        assertSame(square, grid.getSquareAt(10, 10));
+        assertNull(grid.getSquareAt(70, 10), "Free cell should have no square");
+        assertNull(grid.getSquareAt(15, 10), "Only the top-left corner identifies a square");
+    }
+
+    /**
+     * Tests that widening the board keeps existing squares and fills the new columns first.
+     */
+    @Test
+    public void testWideningBoardKeepsSquares() {
+        grid.reserve(2, 1);
+        grid.reserve(2, 1);
+
+        int cell = grid.reserve(2, 2);
+
+        assertEquals(70, grid.getCellX(cell));
+        assertEquals(10, grid.getCellY(cell));
+        assertNotNull(grid.getSquareAt(10, 10));
+        assertNotNull(grid.getSquareAt(10, 70));
+        assertEquals(3, grid.getOccupiedCount());
+    }
+
+    /**
+     * Tests that cells outside the currently available columns are skipped.
+     */
+    @Test
+    public void testReserveRespectsNarrowerBoard() {
+        grid.reserve(1, 3);
+        int cell = grid.reserve(2, 1);
+
+        assertEquals(10, grid.getCellX(cell));
+        assertEquals(70, grid.getCellY(cell));
+    }
+
+    /**
+     * Tests that a batch reservation fills free cells in row-major order, skipping occupied ones,
+     * and stops when the board is full.
+     */
+    @Test
+    public void testReserveBatch() {
+        grid.reserve(2, 3);
+        int[] cells = new int[10];
+
+        int count = grid.reserve(2, 3, cells);
+
+        assertEquals(5, count, "Only the five free cells of a 2x3 board can be reserved");
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5}, Arrays.copyOf(cells, count));
+        assertEquals(6, grid.getOccupiedCount());
+        assertEquals(-1, grid.reserve(2, 3));
+    }
+
+    /**
+     * Tests that a region query visits only the occupied cells whose square intersects the region,
+     * including squares only partly inside it.
+     */
+    @Test
+    public void testForEachCellIn() {
+        int[] cells = new int[9];
+        grid.reserve(3, 3, cells);
+        List<Integer> visited = new ArrayList<>();
+
+        grid.forEachCellIn(65, 65, 70, 10, visited::add);
+
+        assertEquals(List.of(4, 5), visited, "Region covers the middle square and the left edge of the next one");
+        visited.clear();
+        grid.forEachCellIn(0, 0, 10, 10, visited::add);
+        assertTrue(visited.isEmpty(), "The spacing around the board holds no square");
+    }
+
+    /**
+     * Tests that owners are kept per cell and survive a board resize.
+     */
+    @Test
+    public void testOwners() {
+        int cell = grid.reserve(1, 2);
+        assertEquals(-1, grid.getOwner(cell));
+
+        grid.setOwner(cell, 7);
+        grid.reserve(3, 3);
+
+        assertEquals(7, grid.getOwner(grid.getCellAt(10, 10)));
+        assertEquals(-1, grid.getOwner(grid.getCellAt(70, 10)));
+    }
+
+    /**
+     * Tests that a released cell is free again and is the next one reserved, ahead of higher free cells.
+     */
+    @Test
+    public void testReleaseFreesCellForReuse() {
+        int[] cells = new int[4];
+        grid.reserve(2, 2, cells);
+        grid.setOwner(cells[1], 3);
+
+        assertTrue(grid.release(cells[1]));
+
+        assertFalse(grid.release(cells[1]), "A free cell cannot be released twice");
+        assertEquals(3, grid.getOccupiedCount());
+        assertNull(grid.getSquareAt(70, 10));
+        assertEquals(-1, grid.getOwner(cells[1]));
+        assertEquals(cells[1], grid.reserve(3, 3), "The released cell should be reserved before the new rows");
+        assertEquals(2, grid.reserve(3, 3), "Then the new column of the first row");
+    }
+}
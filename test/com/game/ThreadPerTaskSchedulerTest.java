@@ -0,0 +1,105 @@
+package com.game;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link ThreadPerTaskScheduler} class.
+ * They use platform threads so they also run on runtimes without virtual threads.
+ */
+public class ThreadPerTaskSchedulerTest {
+
+    private ThreadPerTaskScheduler scheduler;
+
+    /**
+     * Sets up a scheduler backed by platform threads before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        scheduler = new ThreadPerTaskScheduler(Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Stops the scheduler after each test.
+     */
+    @AfterEach
+    public void tearDown() {
+        scheduler.stop();
+    }
+
+    /**
+     * Tests that every task runs repeatedly on its own thread and notifies the step listener.
+     */
+    @Test
+    public void testTasksRunRepeatedly() throws InterruptedException {
+        CountDownLatch first = new CountDownLatch(5);
+        CountDownLatch second = new CountDownLatch(5);
+        CountDownLatch steps = new CountDownLatch(10);
+        scheduler.register(first::countDown, 2);
+        scheduler.setStepListener(steps::countDown);
+        scheduler.start();
+        //Tasks registered while running start immediately
+        scheduler.register(second::countDown, 3);
+
+        assertTrue(first.await(5, TimeUnit.SECONDS), "First task should run repeatedly");
+        assertTrue(second.await(5, TimeUnit.SECONDS), "Task registered while running should run repeatedly");
+        assertTrue(steps.await(5, TimeUnit.SECONDS), "Step listener should be notified after every run");
+        assertEquals(2, scheduler.getTaskCount());
+    }
+
+    /**
+     * Tests that stopping the scheduler stops its tasks.
+     */
+    @Test
+    public void testStop() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        scheduler.register(started::countDown, 1);
+        scheduler.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(scheduler.isRunning());
+
+        scheduler.stop();
+
+        assertFalse(scheduler.isRunning());
+    }
+
+    /**
+     * Tests that a non-positive period is rejected.
+     */
+    @Test
+    public void testRejectsNonPositivePeriod() {
+        assertThrows(IllegalArgumentException.class, () -> scheduler.register(() -> { }, 0));
+    }
+
+    /**
+     * Tests that cancelling a task stops its thread while the scheduler keeps running the others.
+     */
+    @Test
+    public void testCancelStopsTask() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch kept = new CountDownLatch(20);
+        AtomicInteger runs = new AtomicInteger();
+        TaskScheduler.Handle handle = scheduler.register(() -> {
+            runs.incrementAndGet();
+            started.countDown();
+        }, 1);
+        scheduler.register(kept::countDown, 1);
+        scheduler.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        handle.cancel();
+        int cancelledRuns = runs.get();
+
+        assertEquals(1, scheduler.getTaskCount());
+        assertTrue(kept.await(5, TimeUnit.SECONDS), "The other task should keep running");
+        assertTrue(runs.get() <= cancelledRuns + 1, "At most the run in progress completes after the cancel");
+    }
+}
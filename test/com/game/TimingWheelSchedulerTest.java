@@ -0,0 +1,235 @@
+package com.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link TimingWheelScheduler} class.
+ * These tests drive the wheel with a simulated time line and compare it with the fixed-step loop
+ * of {@link SimulationEngine}, which it must run tasks exactly like.
+ */
+public class TimingWheelSchedulerTest {
+
+    private TimingWheelScheduler wheel;
+
+    /**
+     * Sets up a fresh wheel with 1 ms ticks on a virtual clock before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        wheel = new TimingWheelScheduler(SimulationClock.virtual(SimulationEngine.DEFAULT_STEP_MILLIS));
+    }
+
+    /**
+     * Tests that tasks with different periods run at their own rate.
+     * Over 100 ms of simulated time, a 10 ms task runs 10 times and a 25 ms task runs 4 times.
+     */
+    @Test
+    public void testTasksRunAtTheirOwnPeriod() {
+        AtomicInteger fast = new AtomicInteger();
+        AtomicInteger slow = new AtomicInteger();
+        wheel.register(fast::incrementAndGet, 10);
+        wheel.register(slow::incrementAndGet, 25);
+
+        for(long ms = 0; ms < 100; ms++){
+            wheel.step(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        assertEquals(10, fast.get(), "10 ms task should run 10 times in 100 ms");
+        assertEquals(4, slow.get(), "25 ms task should run 4 times in 100 ms");
+    }
+
+    /**
+     * Tests that a late step runs each tick it skipped, catching up with the fixed rate of a task.
+     */
+    @Test
+    public void testLateStepCatchesUp() {
+        AtomicInteger runs = new AtomicInteger();
+        wheel.register(runs::incrementAndGet, 10);
+
+        wheel.step(0);
+        int executed = wheel.step(TimeUnit.MILLISECONDS.toNanos(30));
+
+        assertEquals(3, executed, "A step 30 ms late should run the task three times");
+        assertEquals(4, runs.get());
+    }
+
+    /**
+     * Tests that periods longer than the span of the lowest levels are moved down level by level
+     * and still run on their exact tick.
+     */
+    @Test
+    public void testLongPeriodsCascadeToTheirTick() {
+        long period = TimingWheelScheduler.SLOTS * TimingWheelScheduler.SLOTS + 300;
+        List<Long> runs = new ArrayList<>();
+        wheel.register(() -> runs.add(wheel.getClock().now()), period);
+
+        for(long ms = 0; ms <= 3 * period; ms++){
+            wheel.step(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        List<Long> expected = new ArrayList<>();
+        for(long i = 0; i <= 3; i++){
+            expected.add(TimeUnit.MILLISECONDS.toNanos(i * period));
+        }
+        assertEquals(expected, runs);
+    }
+
+    /**
+     * Tests that the wheel runs as many tasks at each step as the fixed-step loop
+     * for a mix of periods, stepped at irregular intervals.
+     */
+    @Test
+    public void testMatchesFixedStepLoop() {
+        SimulationEngine engine = new SimulationEngine(SimulationClock.virtual(SimulationEngine.DEFAULT_STEP_MILLIS));
+        Random random = new Random(42);
+        for(int i = 0; i < 500; i++){
+            long period = 1 + random.nextInt(2000);
+            wheel.register(() -> { }, period);
+            engine.register(() -> { }, period);
+        }
+
+        long ms = 0;
+        for(int i = 0; i < 2000; i++){
+            long now = TimeUnit.MILLISECONDS.toNanos(ms);
+            assertEquals(engine.step(now), wheel.step(now), "Different executions at " + ms + " ms");
+            ms += 1 + random.nextInt(5);
+        }
+    }
+
+    /**
+     * Tests that the tasks due at the same tick run as one batch, notifying the step listener once,
+     * and that steps running no task do not notify it.
+     */
+    @Test
+    public void testTasksDueTogetherRunAsOneBatch() {
+        AtomicInteger notifications = new AtomicInteger();
+        AtomicInteger runs = new AtomicInteger();
+        wheel.setStepListener(notifications::incrementAndGet);
+        for(int i = 0; i < 100; i++){
+            wheel.register(runs::incrementAndGet, 10);
+        }
+
+        wheel.step(0);
+        wheel.step(TimeUnit.MILLISECONDS.toNanos(5));
+        int executed = wheel.step(TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertEquals(100, executed);
+        assertEquals(200, runs.get());
+        assertEquals(2, notifications.get());
+    }
+
+    /**
+     * Tests that a cancelled task stops running, whether it was already in the wheel or still pending,
+     * and that cancelling twice has no effect.
+     */
+    @Test
+    public void testCancel() {
+        AtomicInteger kept = new AtomicInteger();
+        AtomicInteger dropped = new AtomicInteger();
+        wheel.register(kept::incrementAndGet, 10);
+        TimingWheelScheduler.Registration running = wheel.register(dropped::incrementAndGet, 10);
+        wheel.step(0);
+        TimingWheelScheduler.Registration pending = wheel.register(dropped::incrementAndGet, 10);
+
+        running.cancel();
+        pending.cancel();
+        running.cancel();
+        for(long ms = 1; ms <= 50; ms++){
+            wheel.step(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        assertTrue(running.isCancelled());
+        assertEquals(6, kept.get());
+        assertEquals(1, dropped.get(), "Only the run before cancelling should have happened");
+        assertEquals(1, wheel.getTaskCount());
+    }
+
+    /**
+     * Tests that changing the period of a task keeps its phase: the next run comes one new period after the last
+     * one, or at the next step if that is already past, and the task then runs at its new period.
+     */
+    @Test
+    public void testSetPeriodKeepsPhase() {
+        List<Long> slower = new ArrayList<>();
+        List<Long> faster = new ArrayList<>();
+        TimingWheelScheduler.Registration slowed = wheel.register(
+                () -> slower.add(TimeUnit.NANOSECONDS.toMillis(wheel.getClock().now())), 10);
+        TimingWheelScheduler.Registration hurried = wheel.register(
+                () -> faster.add(TimeUnit.NANOSECONDS.toMillis(wheel.getClock().now())), 20);
+        wheel.step(0);
+
+        wheel.step(TimeUnit.MILLISECONDS.toNanos(3));
+        slowed.setPeriod(15);
+        wheel.step(TimeUnit.MILLISECONDS.toNanos(8));
+        hurried.setPeriod(5);
+        for(long ms = 9; ms <= 40; ms++){
+            wheel.step(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        assertEquals(List.of(0L, 15L, 30L), slower);
+        assertEquals(List.of(0L, 9L, 14L, 19L, 24L, 29L, 34L, 39L), faster);
+        assertThrows(IllegalArgumentException.class, () -> slowed.setPeriod(0));
+    }
+
+    /**
+     * Tests that a task can cancel itself, and other tasks due at the same tick, while it runs.
+     */
+    @Test
+    public void testCancelFromRunningTask() {
+        AtomicInteger runs = new AtomicInteger();
+        TimingWheelScheduler.Registration[] registrations = new TimingWheelScheduler.Registration[2];
+        registrations[0] = wheel.register(() -> {
+            runs.incrementAndGet();
+            registrations[0].cancel();
+            registrations[1].cancel();
+        }, 10);
+        registrations[1] = wheel.register(runs::incrementAndGet, 10);
+
+        for(long ms = 0; ms <= 30; ms++){
+            wheel.step(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        assertTrue(runs.get() <= 2, "Tasks should not run after being cancelled");
+        assertEquals(0, wheel.getTaskCount());
+    }
+
+    /**
+     * Tests that invalid periods are rejected and that a rejected batch registers none of its tasks.
+     */
+    @Test
+    public void testInvalidPeriodsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> wheel.register(() -> { }, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> wheel.registerAll(List.of(() -> { }, () -> { }), new long[]{10, -1}));
+        assertThrows(IllegalArgumentException.class,
+                () -> wheel.registerAll(List.of(() -> { }), new long[]{10, 10}));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheelScheduler(0, SimulationClock.realTime()));
+        assertEquals(0, wheel.getTaskCount());
+    }
+
+    /**
+     * Tests that the drift of every execution and the duration of every step are recorded.
+     */
+    @Test
+    public void testMetricsRecorded() {
+        SimulationMetrics metrics = new SimulationMetrics();
+        wheel.setMetrics(metrics);
+        wheel.register(() -> { }, 10);
+
+        wheel.step(0);
+        wheel.step(TimeUnit.MILLISECONDS.toNanos(25));
+
+        String[] drift = metrics.getSchedulingDriftBySpeed();
+        assertTrue(drift[1].startsWith("<=10ms count=3"), drift[1]);
+        assertEquals(2, metrics.getTickCount());
+    }
+}
@@ -0,0 +1,342 @@
+package com.game;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link WorldSnapshot} class.
+ * Verifies that a saved world is restored with the same squares and snakes, keeps evolving exactly like the
+ * original, and that invalid files are rejected without touching the target world.
+ */
+public class WorldSnapshotTest {
+
+    private Path file;
+
+    /**
+     * Creates the file the snapshots are written to.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempFile("world", ".snk");
+    }
+
+    /**
+     * Deletes the snapshot file.
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Tests that a restored world has the same board and snakes as the saved one, and that both worlds stay
+     * identical when they keep running for the same simulated time.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        World original = newWorld();
+        original.findAvailablePosition();
+        List<SnakeSpec> specs = new ArrayList<>();
+        long[] speeds = {1, 10, 50, 100};
+        for(int i = 0; i < 30; i++){
+            specs.add(new SnakeSpec(1 + i % 12, i % 3 == 0 ? "Anticlockwise" : "Clockwise", speeds[i % speeds.length]));
+        }
+        original.addSnakes(specs);
+        run(original, 0, 5000);
+
+        WorldSnapshot.save(original, file);
+        World restored = newWorld();
+        List<Snake> snakes = WorldSnapshot.load(file, restored);
+
+        assertEquals(30, snakes.size());
+        assertEquals(original.getRows(), restored.getRows());
+        assertEquals(original.getColumns(), restored.getColumns());
+        assertEquals(original.getSquareGrid().getOccupiedCount(), restored.getSquareGrid().getOccupiedCount());
+        assertSameSnakes(original, restored);
+
+        run(original, 5000, 8000);
+        run(restored, 0, 3000);
+        assertSameSnakes(original, restored);
+    }
+
+    /**
+     * Tests that a world saved while the scheduler moves its snakes is restored with every snake in a consistent
+     * state: its head is the first segment of its body and the position its move count leads to.
+     */
+    @Test
+    public void testSaveWhileRunning() throws IOException {
+        World original = newWorld();
+        List<SnakeSpec> specs = new ArrayList<>();
+        for(int i = 0; i < 100; i++){
+            specs.add(new SnakeSpec(1 + i % 12, i % 3 == 0 ? "Anticlockwise" : "Clockwise", 1 + i % 3));
+        }
+        original.addSnakes(specs);
+        original.start();
+        long moves = 0;
+        try{
+            for(int save = 0; save < 20; save++){
+                WorldSnapshot.save(original, file);
+                World restored = newWorld();
+                List<Snake> snakes = WorldSnapshot.load(file, restored);
+                for(int i = 0; i < snakes.size(); i++){
+                    Snake snake = snakes.get(i);
+                    Rectangle2D square = restored.getSnakeSquare(i);
+                    String label = "Snake " + i + " of save " + save;
+                    Snake reference = new Snake(snake.getLength(), snake.getMovementStrategy(), (int) square.getX(),
+                            (int) square.getY(), snake.getSpeed());
+                    reference.seek(square, snake.getMoveCount());
+                    assertEquals(reference.getHeadX(), snake.getHeadX(), label);
+                    assertEquals(reference.getHeadY(), snake.getHeadY(), label);
+                    assertEquals(reference.getDirectionX(), snake.getDirectionX(), label);
+                    assertEquals(reference.getDirectionY(), snake.getDirectionY(), label);
+                    assertEquals(snake.getHeadX(), snake.getSegmentX(0), label);
+                    assertEquals(snake.getHeadY(), snake.getSegmentY(0), label);
+                    moves += snake.getMoveCount();
+                }
+            }
+        } finally {
+            original.stop();
+        }
+        assertTrue(moves > 0, "The snakes should have moved while being saved");
+    }
+
+    /**
+     * Tests that a million segments are written and read back intact.
+     */
+    @Test
+    public void testRoundTripLargeWorld() throws IOException {
+        World original = newWorld();
+        original.setBoardSize(100, 100);
+        List<SnakeSpec> specs = new ArrayList<>();
+        for(int i = 0; i < 10_000; i++){
+            specs.add(new SnakeSpec(100, "Clockwise", 1));
+        }
+        original.addSnakes(specs);
+        for(Snake snake : original.getSnakes()){
+            snake.restore(0, 0, 1, 0, 0, 0, 0, steps(100), steps(100), 0, 100);
+        }
+
+        WorldSnapshot.save(original, file);
+        World restored = newWorld();
+        WorldSnapshot.load(file, restored);
+
+        assertEquals(1_000_000, restored.getSegmentCount());
+        assertSameSnakes(original, restored);
+    }
+
+    /**
+     * Tests that a file that is not a snapshot is rejected and leaves the world empty.
+     */
+    @Test
+    public void testLoadRejectsOtherFiles() throws IOException {
+        Files.write(file, "not a snapshot".getBytes());
+        World world = newWorld();
+
+        IOException error = assertThrows(IOException.class, () -> WorldSnapshot.load(file, world));
+
+        assertEquals("Not a world snapshot", error.getMessage());
+        assertEquals(0, world.getSnakeCount());
+    }
+
+    /**
+     * Tests that a snapshot written by a newer version is rejected.
+     */
+    @Test
+    public void testLoadRejectsUnsupportedVersion() throws IOException {
+        WorldSnapshot.save(smallWorld(), file);
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)){
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, WorldSnapshot.VERSION + 1), Integer.BYTES);
+        }
+
+        IOException error = assertThrows(IOException.class, () -> WorldSnapshot.load(file, newWorld()));
+
+        assertEquals("Unsupported snapshot version " + (WorldSnapshot.VERSION + 1), error.getMessage());
+    }
+
+    /**
+     * Tests that a truncated snapshot is rejected and leaves the world empty.
+     */
+    @Test
+    public void testLoadRejectsTruncatedFile() throws IOException {
+        WorldSnapshot.save(smallWorld(), file);
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)){
+            channel.truncate(channel.size() - 6);
+        }
+        World world = newWorld();
+
+        assertThrows(IOException.class, () -> WorldSnapshot.load(file, world));
+        assertEquals(0, world.getSnakeCount());
+        assertEquals(0, world.getSquareGrid().getOccupiedCount());
+    }
+
+    /**
+     * Tests that a world can only be restored into an empty world.
+     */
+    @Test
+    public void testLoadRequiresEmptyWorld() throws IOException {
+        WorldSnapshot.save(smallWorld(), file);
+
+        assertThrows(IllegalStateException.class, () -> WorldSnapshot.load(file, smallWorld()));
+    }
+
+    /**
+     * Tests that a snake allowed to grow to any length is saved and restored from its real body,
+     * without sizing anything by its maximum length.
+     */
+    @Test
+    public void testRoundTripUnboundedLength() throws IOException {
+        World original = newWorld();
+        original.addSnakes(List.of(new SnakeSpec(Integer.MAX_VALUE, "Clockwise", 1)));
+        run(original, 0, 4500);
+
+        WorldSnapshot.save(original, file);
+        World restored = newWorld();
+        WorldSnapshot.load(file, restored);
+
+        assertEquals(3, original.getSnakes().get(0).getSegmentCount());
+        assertEquals(3, restored.getSnakes().get(0).getSegmentCount());
+        assertEquals(Integer.MAX_VALUE, restored.getSnakes().get(0).getLength());
+    }
+
+    /**
+     * Tests that a snake whose saved direction or head would take it off its loop is rejected
+     * and leaves the world empty.
+     */
+    @Test
+    public void testLoadRejectsSnakeOffItsLoop() throws IOException {
+        World saved = smallWorld();
+        run(saved, 0, 5);
+        //Header, the two squares, then the cell, strategy, length and speed of the first snake
+        int head = 10 * Integer.BYTES + Long.BYTES + 2 * Integer.BYTES + Integer.BYTES + 1 + Integer.BYTES + Long.BYTES;
+
+        WorldSnapshot.save(saved, file);
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)){
+            channel.write(ByteBuffer.wrap(new byte[]{3, 7}), head + 2 * Integer.BYTES);
+        }
+        World world = newWorld();
+        assertThrows(IOException.class, () -> WorldSnapshot.load(file, world));
+        assertEquals(0, world.getSquareGrid().getOccupiedCount());
+
+        WorldSnapshot.save(saved, file);
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)){
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, 100), head);
+        }
+        assertThrows(IOException.class, () -> WorldSnapshot.load(file, world));
+        assertEquals(0, world.getSquareGrid().getOccupiedCount());
+    }
+
+    /**
+     * Tests that a journaled world is rejected before its board is changed.
+     */
+    @Test
+    public void testLoadRejectsJournaledWorld() throws IOException {
+        WorldSnapshot.save(smallWorld(), file);
+        World world = newWorld();
+        world.setBoardSize(3, 3);
+        Path journalFile = Files.createTempFile("journal", ".snkj");
+        EventJournal journal = EventJournal.open(journalFile, world);
+        try{
+            assertThrows(IllegalStateException.class, () -> WorldSnapshot.load(file, world));
+            assertEquals(3, world.getRows());
+        } finally {
+            journal.close();
+            Files.delete(journalFile);
+        }
+    }
+
+    /**
+     * Tests that snakes with a movement strategy unknown to the format cannot be saved.
+     */
+    @Test
+    public void testSaveRejectsUnknownStrategy() {
+        MovementStrategy custom = (snake, square) -> { };
+        World world = new World((length, direction, x, y, speed) -> new Snake(length, custom, x, y, speed));
+        world.setBoardSize(1, 1);
+        world.addSnakes(List.of(new SnakeSpec(3, "Clockwise", 10)));
+
+        assertThrows(IllegalArgumentException.class, () -> WorldSnapshot.save(world, file));
+    }
+
+    /**
+     * Creates an empty 10x10 world driven step by step on a virtual clock.
+     */
+    private World newWorld() {
+        World world = new World(new ConcreteSnakeFactory(), World.DEFAULT_SQUARE_SIZE, World.DEFAULT_SPACING,
+                new SimulationEngine(SimulationClock.virtual(1)));
+        world.setBoardSize(10, 10);
+        return world;
+    }
+
+    /**
+     * Creates a world with two snakes.
+     */
+    private World smallWorld() {
+        World world = newWorld();
+        world.addSnakes(List.of(new SnakeSpec(3, "Clockwise", 10), new SnakeSpec(5, "Anticlockwise", 20)));
+        return world;
+    }
+
+    /**
+     * Steps a world once per millisecond of simulated time in [from, to).
+     */
+    private void run(World world, long fromMillis, long toMillis) {
+        for(long t = fromMillis; t < toMillis; t++){
+            world.step(TimeUnit.MILLISECONDS.toNanos(t));
+        }
+    }
+
+    /**
+     * Returns count segment steps cycling through the 10 steps along the side of a square.
+     */
+    private int[] steps(int count) {
+        int[] values = new int[count];
+        for(int i = 0; i < count; i++){
+            values[i] = i % 10;
+        }
+        return values;
+    }
+
+    /**
+     * Asserts that two worlds have snakes in the same squares with the same state and bodies.
+     */
+    private void assertSameSnakes(World expected, World actual) {
+        assertEquals(expected.getSnakeCount(), actual.getSnakeCount());
+        for(int i = 0; i < expected.getSnakeCount(); i++){
+            Snake e = expected.getSnakes().get(i);
+            Snake a = actual.getSnakes().get(i);
+            String label = "Snake " + i;
+            assertEquals(expected.getSnakeSquare(i), actual.getSnakeSquare(i), label);
+            assertSame(e.getMovementStrategy(), a.getMovementStrategy(), label);
+            assertEquals(e.getLength(), a.getLength(), label);
+            assertEquals(e.getSpeed(), a.getSpeed(), label);
+            assertEquals(e.getHeadX(), a.getHeadX(), label);
+            assertEquals(e.getHeadY(), a.getHeadY(), label);
+            assertEquals(e.getDirectionX(), a.getDirectionX(), label);
+            assertEquals(e.getDirectionY(), a.getDirectionY(), label);
+            assertEquals(e.getMoveCount(), a.getMoveCount(), label);
+            assertEquals(e.getGrowthCounter(), a.getGrowthCounter(), label);
+            int[] expectedXs = new int[e.getLength() + 1];
+            int[] expectedYs = new int[e.getLength() + 1];
+            int[] actualXs = new int[a.getLength() + 1];
+            int[] actualYs = new int[a.getLength() + 1];
+            int count = e.copySegments(expectedXs, expectedYs, 0);
+            assertEquals(count, a.copySegments(actualXs, actualYs, 0), label);
+            assertArrayEquals(expectedXs, actualXs, label);
+            assertArrayEquals(expectedYs, actualYs, label);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link World} class.
+ * These tests run the simulation headless by stepping the engine with a simulated time.
+ */
+public class WorldTest {
+
+    private World world;
+
+    /**
+     * Sets up a 2x2 board before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        world = new World(new ConcreteSnakeFactory());
+        world.setBoardSize(2, 2);
+    }
+
+    /**
+     * Tests that snakes added to the world are advanced by stepping it.
+     */
+    @Test
+    public void testStepMovesSnakes() {
+        int[] position = world.findAvailablePosition();
+        Snake snake = world.addSnake(5, "Clockwise", position[0], position[1], 10);
+
+        for(long ms = 0; ms <= 20; ms++){
+            world.step(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        assertEquals(3, snake.getMoveCount(), "A 10 ms snake should move at 0, 10 and 20 ms");
+        assertEquals(20, snake.getNewSnakeX(), 0.01);
+        assertEquals(1, world.getSnakes().size());
+        assertSame(world.getSquareGrid().getSquareAt(10, 10), world.getSnakeSquare(0));
+    }
+
+    /**
+     * Tests that the move listener receives the square of every snake that moved.
+     */
+    @Test
+    public void testMoveListenerReceivesSquares() {
+        List<Rectangle2D> moved = new ArrayList<>();
+        world.setMoveListener(moved::add);
+        int[] first = world.findAvailablePosition();
+        int[] second = world.findAvailablePosition();
+        world.addSnake(5, "Clockwise", first[0], first[1], 10);
+        world.addSnake(5, "Anticlockwise", second[0], second[1], 10);
+
+        world.step(0);
+
+        assertEquals(2, moved.size());
+        assertEquals(new Rectangle2D.Double(70, 10, 50, 50), moved.get(1));
+    }
+
+    /**
+     * Tests that the board reports when it is full and that snakes need a reserved square.
+     */
+    @Test
+    public void testNoAvailableSpace() {
+        for(int i = 0; i < 4; i++){
+            assertEquals(2, world.findAvailablePosition().length);
+        }
+        assertEquals(0, world.findAvailablePosition().length, "A full board should have no position");
+        assertThrows(IllegalArgumentException.class, () -> world.addSnake(5, "Clockwise", 500, 500, 10));
+    }
+
+    /**
+     * Tests that a batch of snakes is placed in the free squares left on the board
+     * and starts moving with the same step.
+     */
+    @Test
+    public void testAddSnakes() {
+        world.findAvailablePosition();
+        List<SnakeSpec> specs = new ArrayList<>();
+        for(int i = 0; i < 5; i++){
+            specs.add(new SnakeSpec(5, i % 2 == 0 ? "Clockwise" : "Anticlockwise", 10));
+        }
+
+        List<Snake> created = world.addSnakes(specs);
+
+        assertEquals(3, created.size(), "Only the three free squares of the board should get a snake");
+        assertEquals(3, world.getSnakeCount());
+        assertEquals(70, created.get(0).getSnakeStartX());
+        assertEquals(10, created.get(0).getSnakeStartY());
+        assertSame(world.getSnakeSquare(0), world.getSquareGrid().getSquareAt(70, 10));
+        assertEquals(3, world.step(0), "Every snake of the batch should move in the first step");
+    }
+
+    /**
+     * Tests that a batch with an invalid direction is rejected without keeping any of the squares it reserved.
+     */
+    @Test
+    public void testAddSnakesWithInvalidDirectionReservesNothing() {
+        List<SnakeSpec> specs = List.of(new SnakeSpec(5, "Clockwise", 10), new SnakeSpec(5, "Sideways", 10));
+
+        assertThrows(IllegalArgumentException.class, () -> world.addSnakes(specs));
+
+        assertEquals(0, world.getSnakeCount());
+        assertEquals(0, world.getSquareGrid().getOccupiedCount());
+        assertEquals(4, world.addSnakes(List.of(new SnakeSpec(5, "Clockwise", 10), new SnakeSpec(5, "Clockwise", 10),
+                new SnakeSpec(5, "Clockwise", 10), new SnakeSpec(5, "Clockwise", 10))).size());
+    }
+
+    /**
+     * Tests that a paused snake keeps its square but stops moving until it is resumed.
+     */
+    @Test
+    public void testPauseAndResumeSnake() {
+        int[] position = world.findAvailablePosition();
+        Snake snake = world.addSnake(5, "Clockwise", position[0], position[1], 10);
+        int id = world.getSnakeId(0);
+        world.step(0);
+
+        assertTrue(world.pauseSnake(id));
+        assertFalse(world.pauseSnake(id), "A paused snake cannot be paused again");
+        for(long ms = 1; ms <= 30; ms++){
+            world.step(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+        assertEquals(1, snake.getMoveCount(), "A paused snake should not move");
+        assertEquals(0, world.getScheduler().getTaskCount());
+
+        assertTrue(world.resumeSnake(id));
+        assertFalse(world.resumeSnake(id), "A running snake cannot be resumed");
+        world.step(TimeUnit.MILLISECONDS.toNanos(31));
+        assertEquals(2, snake.getMoveCount(), "A resumed snake should move from where it stopped");
+        assertEquals(1, world.getSnakeCount());
+    }
+
+    /**
+     * Tests that changing the speed of a snake changes the period at which it moves.
+     */
+    @Test
+    public void testSetSnakeSpeed() {
+        int[] position = world.findAvailablePosition();
+        Snake snake = world.addSnake(5, "Clockwise", position[0], position[1], 10);
+        world.step(0);
+
+        world.setSnakeSpeed(world.getSnakeId(0), 5);
+        for(long ms = 1; ms <= 4; ms++){
+            world.step(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+        assertEquals(1, snake.getMoveCount(), "The snake should keep its phase instead of moving at once");
+        for(long ms = 5; ms <= 20; ms++){
+            world.step(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        assertEquals(5, snake.getSpeed(), 0.01);
+        assertEquals(5, snake.getMoveCount(), "A 5 ms snake should move at 5, 10, 15 and 20 ms after the first move");
+        assertEquals(1, world.getScheduler().getTaskCount());
+        assertThrows(IllegalArgumentException.class, () -> world.setSnakeSpeed(world.getSnakeId(0), 0));
+    }
+
+    /**
+     * Tests that removing a snake stops it, moves the last snake to its index and frees its square for a new snake.
+     */
+    @Test
+    public void testRemoveSnakeReleasesSquare() {
+        List<SnakeSpec> specs = new ArrayList<>();
+        for(int i = 0; i < 3; i++){
+            specs.add(new SnakeSpec(5, "Clockwise", 10));
+        }
+        List<Snake> created = world.addSnakes(specs);
+        int firstId = world.getSnakeId(0);
+        int lastId = world.getSnakeId(2);
+
+        assertSame(created.get(0), world.removeSnake(firstId));
+
+        assertEquals(2, world.getSnakeCount());
+        assertSame(created.get(2), world.getSnakes().get(0), "The last snake should take the index of the removed one");
+        assertEquals(lastId, world.getSnakeId(0));
+        assertSame(world.getSquareGrid().getSquareAt(10, 70), world.getSnakeSquare(0));
+        assertEquals(0, world.getSquareGrid().getOwner(world.getSquareGrid().getCellAt(10, 70)));
+        assertNull(world.getSquareGrid().getSquareAt(10, 10));
+        assertEquals(2, world.step(0));
+        assertEquals(0, created.get(0).getMoveCount(), "A removed snake should not move");
+        assertThrows(IllegalArgumentException.class, () -> world.removeSnake(firstId));
+
+        assertArrayEquals(new int[]{10, 10}, world.findAvailablePosition(), "The freed square should be reused first");
+        world.addSnake(5, "Clockwise", 10, 10, 10);
+        assertEquals(3, world.getSnakeId(2), "Ids should never be reused");
+    }
+
+    /**
+     * Tests that the counts read by another thread, as the metrics gauges do, stay consistent while snakes are
+     * added and removed.
+     */
+    @Test
+    public void testCountsWhileSnakesAreRemoved() throws InterruptedException {
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try{
+                while(!done.get()){
+                    int count = world.getSnakeCount();
+                    long segments = world.getSegmentCount();
+                    if(count < 0 || count > 4 || segments < 0 || segments > 4){
+                        throw new AssertionError(count + " snakes with " + segments + " segments");
+                    }
+                }
+            } catch (Throwable ex){
+                failure.set(ex);
+            }
+        });
+        reader.start();
+        try{
+            for(int round = 0; round < 2000 && failure.get() == null; round++){
+                world.addSnakes(List.of(new SnakeSpec(1, "Clockwise", 10), new SnakeSpec(1, "Clockwise", 10),
+                        new SnakeSpec(1, "Clockwise", 10), new SnakeSpec(1, "Clockwise", 10)));
+                while(world.getSnakeCount() > 0){
+                    world.removeSnake(world.getSnakeId(0));
+                }
+            }
+        } finally {
+            done.set(true);
+            reader.join();
+        }
+        assertNull(failure.get(), "Reading the counts failed: " + failure.get());
+    }
+}